@@ -29,9 +29,11 @@ import de.ibapl.fhz4j.cul.CulFhtDeviceOutBufferContentRequest;
 import de.ibapl.fhz4j.cul.CulGetFirmwareVersionRequest;
 import de.ibapl.fhz4j.cul.CulGetHardwareVersionRequest;
 import de.ibapl.fhz4j.cul.CulGetSlowRfSettingsRequest;
+import de.ibapl.fhz4j.cul.CulLogReplay;
 import de.ibapl.fhz4j.cul.CulMessage;
 import de.ibapl.fhz4j.cul.CulMessageListener;
 import de.ibapl.fhz4j.cul.CulRemainingFhtDeviceOutBufferSizeRequest;
+import de.ibapl.fhz4j.cul.JsonLinesSink;
 import de.ibapl.fhz4j.cul.SlowRfFlag;
 import de.ibapl.fhz4j.protocol.em.EmMessage;
 import de.ibapl.fhz4j.protocol.evohome.DeviceId;
@@ -246,8 +248,21 @@ public class Main {
         opt.setType(String.class);
         optg.addOption(opt);
 
+        opt = new Option(null, "replay", true, "replay a cul_*.txt capture file");
+        opt.setArgName("file");
+        opt.setType(String.class);
+        optg.addOption(opt);
+
         options.addOptionGroup(optg);
 
+        opt = new Option(null, "replay-speed", true, "replay speed factor, 1 is the recorded pace (default: as fast as possible)");
+        opt.setArgName("factor");
+        opt.setType(double.class);
+        options.addOption(opt);
+
+        opt = new Option(null, "json", false, "print the messages as JSON lines");
+        options.addOption(opt);
+
         opt = new Option(null, "enable-fht", false, "enable receive of fht messages");
         options.addOption(opt);
 
@@ -277,6 +292,12 @@ public class Main {
 
             return;
         }
+        if (cmd.hasOption("replay")) {
+            final double replaySpeed = cmd.hasOption("replay-speed") ? Double.parseDouble(cmd.getOptionValue("replay-speed")) : CulLogReplay.MAX_SPEED;
+            new Main(cmd.hasOption("json")).runReplay(cmd.getOptionValue("replay"), replaySpeed);
+            return;
+        }
+
         ServiceLoader<SerialPortSocketFactory> sl = ServiceLoader.load(SerialPortSocketFactory.class);
         Iterator<SerialPortSocketFactory> i = sl.iterator();
         if (!i.hasNext()) {
@@ -318,16 +339,41 @@ public class Main {
         }
 
         if (cmd.hasOption("ser2net")) {
-            new Main().runSer2Net(cmd.getOptionValue("ser2net"), protocols, speed, logFile);
+            new Main(cmd.hasOption("json")).runSer2Net(cmd.getOptionValue("ser2net"), protocols, speed, logFile);
         }
 
         if (cmd.hasOption("port")) {
-            new Main().runLocalPort(cmd.getOptionValue("port"), protocols, speed, logFile);
+            new Main(cmd.hasOption("json")).runLocalPort(cmd.getOptionValue("port"), protocols, speed, logFile);
         }
 
     }
 
     private final Set<Short> DEVICES_HOME_CODE = new HashSet<>();
+    private final boolean jsonLines;
+
+    /**
+     * @param jsonLines print the messages as JSON lines instead of the
+     * readable form.
+     */
+    public Main(boolean jsonLines) {
+        this.jsonLines = jsonLines;
+    }
+
+    public void runReplay(String file, double speed) {
+        final JsonLinesSink jsonLinesSink = jsonLines ? new JsonLinesSink(System.out, false) : null;
+        final CulLogReplay replay = new CulLogReplay(jsonLines ? jsonLinesSink : new FhzListener(), speed);
+        final long start = System.nanoTime();
+        try {
+            replay.replay(Paths.get(file));
+        } catch (IOException | InterruptedException ex) {
+            throw new RuntimeException(ex);
+        }
+        if (jsonLinesSink != null) {
+            jsonLinesSink.flush();
+        }
+        final long duration = System.nanoTime() - start;
+        System.err.printf("Replayed %d reads, %d bytes in %d ms (%.0f bytes/s)%n", replay.getReadCount(), replay.getBytesReplayed(), TimeUnit.NANOSECONDS.toMillis(duration), replay.getBytesReplayed() * 1e9 / Math.max(1, duration));
+    }
 
     public void runSer2Net(String ser2net, Set<Protocol> protocols, Speed speed, File logFile) {
         try {
@@ -360,7 +406,7 @@ public class Main {
 
     public void run(SerialPortSocket serialPortSocket, Set<Protocol> protocols, Speed speed) throws Exception {
         final FhzListener listener = new FhzListener();
-        try (CulAdapter culAddapter = new CulAdapter(serialPortSocket, listener, speed)) {
+        try (CulAdapter culAddapter = new CulAdapter(serialPortSocket, jsonLines ? new JsonLinesSink(System.out) : listener, speed)) {
             listener.fhzAdapter = culAddapter;
             try {
                 try {
@@ -30,6 +30,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -38,9 +39,17 @@ import java.util.function.Consumer;
 
 public interface FhzHandler extends Adapter {
 
+    /**
+     * A future which is completed by the parser thread. The waiting is done
+     * with a {@link CountDownLatch} so no monitor is held while blocking and
+     * virtual threads will not be pinned.
+     *
+     * @param <T>
+     */
     class ResponseFuture<T extends Response> implements Future<T>, Consumer<T> {
 
-        private T result;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile T result;
 
         @Override
         public boolean cancel(boolean mayInterruptIfRunning) {
@@ -54,43 +63,35 @@ public interface FhzHandler extends Adapter {
 
         @Override
         public boolean isDone() {
-            return result != null;
+            return done.getCount() == 0;
         }
 
         @Override
-        public synchronized T get() throws InterruptedException, ExecutionException {
-            if (isDone()) {
-                return result;
-            } else {
-                wait();
-                return result;
-            }
+        public T get() throws InterruptedException, ExecutionException {
+            done.await();
+            return result;
         }
 
+        /**
+         * Wait at most timeout for the response.
+         *
+         * @param timeout
+         * @param unit
+         * @return the response or null if the response did not arrive in time.
+         * @throws InterruptedException
+         * @throws ExecutionException
+         * @throws TimeoutException
+         */
         @Override
-        public synchronized T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            if (isDone()) {
-                return result;
-            } else {
-                switch (unit) {
-                    case MILLISECONDS -> {
-                        wait(timeout);
-                        return result;
-                    }
-                    case SECONDS -> {
-                        wait(timeout * 1000);
-                        return result;
-                    }
-                    default ->
-                        throw new IllegalArgumentException("Only ms and s are allowed");
-                }
-            }
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            done.await(timeout, unit);
+            return result;
         }
 
         @Override
-        public synchronized void accept(T t) {
+        public void accept(T t) {
             result = t;
-            notifyAll();
+            done.countDown();
         }
 
     }
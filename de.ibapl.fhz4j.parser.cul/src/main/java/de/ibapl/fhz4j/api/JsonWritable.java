@@ -1,6 +1,6 @@
 /*
  * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
- * Copyright (C) 2023-2024, Arne Plöse and individual contributors as indicated
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
  * by the @authors tag. See the copyright.txt in the distribution for a
  * full listing of individual contributors.
  *
@@ -19,31 +19,20 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-package de.ibapl.fhz4j.parser.evohome;
+package de.ibapl.fhz4j.api;
 
 /**
+ * Something that can write itself with a {@link JsonWriter}.
  *
- * @author aploese
+ * @author Arne Plöse
  */
-public class ByteArrayBuilder {
+public interface JsonWritable {
 
-    private int currentPos;
-    private byte[] theArray;
+    /**
+     * Write this as one JSON value.
+     *
+     * @param w the writer.
+     */
+    void writeJson(JsonWriter w);
 
-    public void init(int capacity) {
-        theArray = new byte[capacity];
-        currentPos = 0;
-    }
-
-    public boolean push(byte b) {
-        theArray[currentPos++] = b;
-        return currentPos == theArray.length;
-    }
-
-    public byte[] getData() {
-        if (currentPos != theArray.length) {
-            throw new IllegalStateException("parsing not finished");
-        }
-        return theArray;
-    }
 }
@@ -0,0 +1,628 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+
+/**
+ * Writes JSON as UTF-8 straight into a byte buffer, without building
+ * intermediate Strings. The separators between the members and elements are
+ * inserted automatically.
+ *
+ * If created with an {@link OutputStream} the buffer is written to it when it
+ * is full or on {@link #flush()}, otherwise the buffer grows and can be taken
+ * with {@link #writeTo(java.nio.ByteBuffer)} or
+ * {@link #writeTo(java.io.OutputStream)}. Not thread safe.
+ *
+ * @author Arne Plöse
+ */
+public class JsonWriter {
+
+    private final static byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private final static byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private final static byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private final static byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private final static int MAX_DEPTH = 63;
+
+    private final OutputStream out;
+    private byte[] buf;
+    private int pos;
+    /**
+     * Bit n is set if the container at depth n already has a member.
+     */
+    private long hasMember;
+    private int depth;
+    private boolean afterName;
+    private final StringBuilder floatBuilder = new StringBuilder(32);
+
+    /**
+     * Collect the JSON in a growing buffer.
+     */
+    public JsonWriter() {
+        this(null, 1024);
+    }
+
+    /**
+     * Write the JSON to out.
+     *
+     * @param out the stream to write to.
+     */
+    public JsonWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public JsonWriter(OutputStream out, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("bufferSize must be at least 64");
+        }
+        this.out = out;
+        this.buf = new byte[bufferSize];
+    }
+
+    public JsonWriter beginObject() {
+        separator();
+        put((byte) '{');
+        push();
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        pop();
+        put((byte) '}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        put((byte) '[');
+        push();
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        pop();
+        put((byte) ']');
+        return this;
+    }
+
+    /**
+     * Write the name of the next member of the current object.
+     *
+     * @param name the name.
+     * @return this
+     */
+    public JsonWriter name(String name) {
+        separator();
+        string(name);
+        put((byte) ':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        separator();
+        put(NULL);
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        put(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * NaN and infinite values are written as null.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(float value) {
+        if (!Float.isFinite(value)) {
+            return nullValue();
+        }
+        separator();
+        floatBuilder.setLength(0);
+        floatBuilder.append(value);
+        putAscii(floatBuilder);
+        return this;
+    }
+
+    /**
+     * NaN and infinite values are written as null.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(double value) {
+        if (!Double.isFinite(value)) {
+            return nullValue();
+        }
+        separator();
+        floatBuilder.setLength(0);
+        floatBuilder.append(value);
+        putAscii(floatBuilder);
+        return this;
+    }
+
+    /**
+     * Write a decimal number without going through floating point, i.e.
+     * 2150 with a scale of 2 is written as 21.50.
+     *
+     * @param unscaledValue the value * 10^scale.
+     * @param scale the number of fraction digits, 0 ... 18.
+     * @return this
+     */
+    public JsonWriter value(long unscaledValue, int scale) {
+        if (scale < 0 || scale > 18) {
+            throw new IllegalArgumentException("scale must be in 0 ... 18");
+        }
+        if (scale == 0) {
+            return value(unscaledValue);
+        }
+        separator();
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        if (unscaledValue < 0) {
+            put((byte) '-');
+        }
+        final long integral = Math.abs(unscaledValue / divisor);
+        long fraction = Math.abs(unscaledValue % divisor);
+        writeLong(integral);
+        put((byte) '.');
+        ensure(scale);
+        for (int i = scale - 1; i >= 0; i--) {
+            buf[pos + i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        pos += scale;
+        return this;
+    }
+
+    public JsonWriter value(BigDecimal value) {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value.scale() >= 0 && value.scale() <= 18 && value.precision() <= 18) {
+            return value(value.unscaledValue().longValue(), value.scale());
+        }
+        separator();
+        putAscii(value.toString());
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        string(value);
+        return this;
+    }
+
+    /**
+     * @param value
+     * @return this
+     * @see Enum#name()
+     */
+    public JsonWriter value(Enum<?> value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        string(value.name());
+        return this;
+    }
+
+    /**
+     * Write the bytes as string of hex digits.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(byte[] value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        ensure(value.length * 2 + 2);
+        buf[pos++] = '"';
+        for (byte b : value) {
+            buf[pos++] = HEX_DIGITS[(b >> 4) & 0x0f];
+            buf[pos++] = HEX_DIGITS[b & 0x0f];
+        }
+        buf[pos++] = '"';
+        return this;
+    }
+
+    /**
+     * @param value
+     * @return this
+     * @see java.time.format.DateTimeFormatter#ISO_LOCAL_DATE
+     */
+    public JsonWriter value(LocalDate value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        put((byte) '"');
+        writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * The time as HH:mm:ss, fractions of a second are not written.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(LocalTime value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        put((byte) '"');
+        writeTime(value.getHour(), value.getMinute(), value.getSecond());
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * The timestamp as yyyy-MM-ddTHH:mm:ss, fractions of a second are not
+     * written.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(LocalDateTime value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        put((byte) '"');
+        writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        put((byte) 'T');
+        writeTime(value.getHour(), value.getMinute(), value.getSecond());
+        put((byte) '"');
+        return this;
+    }
+
+    /**
+     * The duration in seconds.
+     *
+     * @param value
+     * @return this
+     */
+    public JsonWriter value(Duration value) {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.getSeconds());
+    }
+
+    public JsonWriter value(JsonWritable value) {
+        if (value == null) {
+            return nullValue();
+        }
+        value.writeJson(this);
+        return this;
+    }
+
+    /**
+     * Write the elements as array.
+     *
+     * @param values
+     * @return this
+     */
+    public JsonWriter array(Iterable<? extends JsonWritable> values) {
+        if (values == null) {
+            return nullValue();
+        }
+        beginArray();
+        for (JsonWritable value : values) {
+            value(value);
+        }
+        return endArray();
+    }
+
+    /**
+     * Write the names of the enums as array.
+     *
+     * @param values
+     * @return this
+     */
+    public JsonWriter enums(Collection<? extends Enum<?>> values) {
+        if (values == null) {
+            return nullValue();
+        }
+        beginArray();
+        for (Enum<?> value : values) {
+            value(value);
+        }
+        return endArray();
+    }
+
+    /**
+     * End a line of JSON lines.
+     *
+     * @return this
+     */
+    public JsonWriter newLine() {
+        if (depth != 0) {
+            throw new IllegalStateException("Unclosed object or array");
+        }
+        put((byte) '\n');
+        hasMember = 0;
+        return this;
+    }
+
+    /**
+     * @return the number of bytes in the buffer.
+     */
+    public int size() {
+        return pos;
+    }
+
+    /**
+     * Discard the buffer content and any unclosed object or array.
+     */
+    public void reset() {
+        pos = 0;
+        depth = 0;
+        hasMember = 0;
+        afterName = false;
+    }
+
+    /**
+     * Move the buffer content to dst.
+     *
+     * @param dst
+     * @throws java.nio.BufferOverflowException if there is insufficient space
+     * in dst.
+     */
+    public void writeTo(ByteBuffer dst) {
+        dst.put(buf, 0, pos);
+        pos = 0;
+    }
+
+    /**
+     * Move the buffer content to dst.
+     *
+     * @param dst
+     * @throws IOException
+     */
+    public void writeTo(OutputStream dst) throws IOException {
+        dst.write(buf, 0, pos);
+        pos = 0;
+    }
+
+    /**
+     * Write the buffer content to the stream of this writer and flush it.
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        if (out != null) {
+            writeTo(out);
+            out.flush();
+        }
+    }
+
+    /**
+     * @return the buffer content, for debugging.
+     */
+    @Override
+    public String toString() {
+        return new String(buf, 0, pos, StandardCharsets.UTF_8);
+    }
+
+    private void separator() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        final long bit = 1L << depth;
+        if ((hasMember & bit) != 0) {
+            put((byte) ',');
+        } else {
+            hasMember |= bit;
+        }
+    }
+
+    private void push() {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Nesting too deep");
+        }
+        depth++;
+        hasMember &= ~(1L << depth);
+    }
+
+    private void pop() {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Nothing to close");
+        }
+        depth--;
+    }
+
+    private void ensure(int length) {
+        if (pos + length <= buf.length) {
+            return;
+        }
+        if (out != null) {
+            try {
+                writeTo(out);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+            if (length <= buf.length) {
+                return;
+            }
+        }
+        byte[] newBuf = new byte[Math.max(buf.length * 2, pos + length)];
+        System.arraycopy(buf, 0, newBuf, 0, pos);
+        buf = newBuf;
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[pos++] = b;
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void putAscii(CharSequence cs) {
+        final int length = cs.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            buf[pos++] = (byte) cs.charAt(i);
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            putAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        pos += digits;
+    }
+
+    private void writeDigits(int value, int digits) {
+        ensure(digits);
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        pos += digits;
+    }
+
+    private void writeDate(int year, int month, int day) {
+        if (year < 0 || year > 9999) {
+            writeLong(year);
+        } else {
+            writeDigits(year, 4);
+        }
+        put((byte) '-');
+        writeDigits(month, 2);
+        put((byte) '-');
+        writeDigits(day, 2);
+    }
+
+    private void writeTime(int hour, int minute, int second) {
+        writeDigits(hour, 2);
+        put((byte) ':');
+        writeDigits(minute, 2);
+        put((byte) ':');
+        writeDigits(second, 2);
+    }
+
+    private void string(String s) {
+        final int length = s.length();
+        // worst case 6 bytes per char for \\u escapes
+        ensure(length * 6 + 2);
+        buf[pos++] = '"';
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buf[pos++] = '\\';
+                }
+                buf[pos++] = (byte) c;
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> {
+                        buf[pos++] = '\\';
+                        buf[pos++] = 'n';
+                    }
+                    case '\r' -> {
+                        buf[pos++] = '\\';
+                        buf[pos++] = 'r';
+                    }
+                    case '\t' -> {
+                        buf[pos++] = '\\';
+                        buf[pos++] = 't';
+                    }
+                    default -> {
+                        buf[pos++] = '\\';
+                        buf[pos++] = 'u';
+                        buf[pos++] = '0';
+                        buf[pos++] = '0';
+                        buf[pos++] = HEX_DIGITS[c >> 4];
+                        buf[pos++] = HEX_DIGITS[c & 0x0f];
+                    }
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xc0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xf0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xe0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        buf[pos++] = '"';
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the latency between reading the first byte of a frame and
+ * dispatching the message per protocol. The buckets are powers of two in µs,
+ * bucket i holds the latencies in [2^(i-1), 2^i) µs, bucket 0 all below 1 µs.
+ * The last bucket holds everything above.
+ *
+ * @author Arne Plöse
+ */
+public class LatencyHistogram {
+
+    public final static int BUCKET_COUNT = 32;
+
+    private final EnumMap<Protocol, AtomicLongArray> buckets = new EnumMap<>(Protocol.class);
+
+    public LatencyHistogram() {
+        for (Protocol protocol : Protocol.values()) {
+            buckets.put(protocol, new AtomicLongArray(BUCKET_COUNT));
+        }
+    }
+
+    public void record(Message<?> message) {
+        record(message.protocol, message.getLatencyNanos());
+    }
+
+    public void record(Protocol protocol, long latencyNanos) {
+        final long micros = Math.max(0, latencyNanos / 1000);
+        final int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.get(protocol).incrementAndGet(bucket);
+    }
+
+    /**
+     * @param protocol
+     * @return a snapshot of the bucket counts.
+     */
+    public long[] getBucketCounts(Protocol protocol) {
+        final AtomicLongArray protocolBuckets = buckets.get(protocol);
+        final long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            result[i] = protocolBuckets.get(i);
+        }
+        return result;
+    }
+
+    public long getCount(Protocol protocol) {
+        long result = 0;
+        for (long count : getBucketCounts(protocol)) {
+            result += count;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the upper bound of the bucket which contains the percentile.
+     *
+     * @param protocol
+     * @param percentile 0.0 ... 100.0
+     * @return the upper bound in µs, or 0 if nothing was recorded.
+     */
+    public long getPercentileMicros(Protocol protocol, double percentile) {
+        final long[] counts = getBucketCounts(protocol);
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            sum += counts[i];
+            if (sum >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKET_COUNT - 1);
+    }
+
+    public void reset() {
+        for (AtomicLongArray protocolBuckets : buckets.values()) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                protocolBuckets.set(i, 0);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        boolean first = true;
+        for (Protocol protocol : Protocol.values()) {
+            final long count = getCount(protocol);
+            if (count == 0) {
+                continue;
+            }
+            if (first) {
+                first = false;
+            } else {
+                sb.append(", ");
+            }
+            sb.append(protocol).append(" : {count : ").append(count);
+            sb.append(", p50 : ").append(getPercentileMicros(protocol, 50)).append("µs");
+            sb.append(", p99 : ").append(getPercentileMicros(protocol, 99)).append("µs");
+            sb.append(", max : ").append(getPercentileMicros(protocol, 100)).append("µs}");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+}
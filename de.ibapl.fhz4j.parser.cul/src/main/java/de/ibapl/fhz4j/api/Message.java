@@ -29,7 +29,7 @@ import java.util.Objects;
  * @param <T>
  *
  */
-public abstract class Message<T extends Message<T>> {
+public abstract class Message<T extends Message<T>> implements Cloneable, JsonWritable {
 
     protected final static int HASH_MULTIPLIER = 53;
     protected final static int INITIAL_HASH = 7;
@@ -63,15 +63,106 @@ public abstract class Message<T extends Message<T>> {
 
     public Protocol protocol;
 
+    /**
+     * {@link System#nanoTime()} when the first byte of the frame was read, 0
+     * if unknown. The timestamps are not part of equals, hashCode or toString.
+     */
+    public long receivedNanos;
+    /**
+     * {@link System#currentTimeMillis()} when the first byte of the frame was
+     * read, 0 if unknown.
+     */
+    public long receivedMillis;
+    /**
+     * {@link System#nanoTime()} when the message was passed to the listener,
+     * 0 if unknown.
+     */
+    public long dispatchedNanos;
+    /**
+     * {@link System#currentTimeMillis()} when the message was passed to the
+     * listener, 0 if unknown.
+     */
+    public long dispatchedMillis;
+
     protected Message(Protocol protocol) {
         this.protocol = protocol;
     }
 
+    /**
+     * Set the receive timestamps.
+     *
+     * @param nanos {@link System#nanoTime()} when the first byte was read.
+     * @param millis {@link System#currentTimeMillis()} when the first byte
+     * was read.
+     */
+    public void setReceived(long nanos, long millis) {
+        this.receivedNanos = nanos;
+        this.receivedMillis = millis;
+    }
+
+    /**
+     * Set the dispatch timestamps to now.
+     */
+    public void setDispatchedNow() {
+        this.dispatchedNanos = System.nanoTime();
+        this.dispatchedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the time in ns between reading the first byte and dispatching
+     * this message.
+     */
+    public long getLatencyNanos() {
+        return dispatchedNanos - receivedNanos;
+    }
+
+    /**
+     * If the parser reuses its messages, a message is only valid during the
+     * listener callback. Keep a copy if you need it later.
+     *
+     * @return a copy of this message.
+     */
+    @SuppressWarnings("unchecked")
+    public T copy() {
+        try {
+            final T result = (T) clone();
+            result.copyMutableFields();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Called on the copy, replace all mutable objects which may be reused by
+     * the parser with copies of them.
+     */
+    protected void copyMutableFields() {
+    }
+
     protected void addToJsonString(StringBuilder sb) {
         sb.append("protocol : ");
         sb.append(protocol);
     }
 
+    /**
+     * Write the members of this message, subclasses add their members after
+     * calling super. Unlike {@link #toString()} no intermediate Strings are
+     * built.
+     *
+     * @param w the writer.
+     */
+    protected void writeJsonFields(JsonWriter w) {
+        w.name("protocol").value(protocol);
+    }
+
+    @Override
+    final public void writeJson(JsonWriter w) {
+        w.beginObject();
+        writeJsonFields(w);
+        w.endObject();
+    }
+
     @Override
     final public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,135 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+/**
+ * A rejected frame. Carries the reason, the parser state and the offending
+ * byte instead of a formatted message and does not capture a stack trace, so
+ * corrupt frames are cheap to reject. The message is only built when
+ * {@link #getMessage()} is called.
+ *
+ * Parsers throw the shared signal instances of {@link #of(ParseFailureReason)}
+ * internally and report a {@link ParseFailure} with state and offending byte
+ * filled in to the failed callback of the listener.
+ *
+ * @author Arne Plöse
+ */
+public class ParseFailure extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int NO_BYTE = -1;
+
+    private static final ParseFailure[] SIGNALS;
+
+    static {
+        final ParseFailureReason[] reasons = ParseFailureReason.values();
+        SIGNALS = new ParseFailure[reasons.length];
+        for (ParseFailureReason reason : reasons) {
+            SIGNALS[reason.ordinal()] = new ParseFailure(reason, null, NO_BYTE, null);
+        }
+    }
+
+    /**
+     * The shared immutable instance for reason. Use it to leave the parsing
+     * code, the parser will report a failure with its state attached.
+     *
+     * @param reason
+     * @return
+     */
+    public static ParseFailure of(ParseFailureReason reason) {
+        return SIGNALS[reason.ordinal()];
+    }
+
+    private ParseFailureReason reason;
+    private Enum<?> state;
+    private int offendingByte;
+
+    public ParseFailure(ParseFailureReason reason, Enum<?> state, int offendingByte, Throwable cause) {
+        super(null, cause);
+        this.reason = reason;
+        this.state = state;
+        this.offendingByte = offendingByte;
+    }
+
+    /**
+     * Refill a reusable instance. The shared instances of
+     * {@link #of(ParseFailureReason)} can't be changed.
+     *
+     * @param reason
+     * @param state
+     * @param offendingByte
+     * @return this
+     */
+    public ParseFailure set(ParseFailureReason reason, Enum<?> state, int offendingByte) {
+        if (SIGNALS[this.reason.ordinal()] == this) {
+            throw new IllegalStateException("Shared instance");
+        }
+        this.reason = reason;
+        this.state = state;
+        this.offendingByte = offendingByte;
+        return this;
+    }
+
+    /**
+     * Do not capture the stack trace, the reason, state and offending byte
+     * tell where the frame was rejected.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    public ParseFailureReason getReason() {
+        return reason;
+    }
+
+    /**
+     *
+     * @return the state of the parser when the failure was detected or null.
+     */
+    public Enum<?> getState() {
+        return state;
+    }
+
+    /**
+     *
+     * @return the offending byte as unsigned value or {@link #NO_BYTE}.
+     */
+    public int getOffendingByte() {
+        return offendingByte;
+    }
+
+    @Override
+    public String getMessage() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(reason);
+        if (state != null) {
+            sb.append(" State: ").append(state);
+        }
+        if (offendingByte != NO_BYTE) {
+            sb.append(String.format(" last byte 0x%02x", offendingByte));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the rejected frames per {@link ParseFailureReason}. Can be shared
+ * between parsers and read from any thread.
+ *
+ * @author Arne Plöse
+ */
+public class ParseFailureCounters {
+
+    private final AtomicLongArray counts = new AtomicLongArray(ParseFailureReason.values().length);
+
+    public void increment(ParseFailureReason reason) {
+        counts.incrementAndGet(reason.ordinal());
+    }
+
+    public long getCount(ParseFailureReason reason) {
+        return counts.get(reason.ordinal());
+    }
+
+    /**
+     *
+     * @return the sum over all reasons.
+     */
+    public long getCount() {
+        long result = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            result += counts.get(i);
+        }
+        return result;
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (ParseFailureReason reason : ParseFailureReason.values()) {
+            final long count = counts.get(reason.ordinal());
+            if (count != 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(reason).append(" : ").append(count);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+}
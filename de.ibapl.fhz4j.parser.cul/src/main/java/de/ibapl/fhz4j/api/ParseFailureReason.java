@@ -0,0 +1,51 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+/**
+ * Why a parser rejected a frame.
+ *
+ * @author Arne Plöse
+ */
+public enum ParseFailureReason {
+    UNKNOWN_COMMAND,
+    UNKNOWN_MESSAGE_TYPE,
+    UNKNOWN_DEVICE_TYPE,
+    UNKNOWN_VALUE,
+    INVALID_LENGTH,
+    CHECKSUM_MISMATCH,
+    /**
+     * The payload does not match the layout of its command, the cause of the
+     * {@link ParseFailure} tells what is wrong.
+     */
+    INVALID_PAYLOAD,
+    INVALID_HEX,
+    UNEXPECTED_END,
+    UNEXPECTED_BYTES,
+    UNEXPECTED_STATE,
+    /**
+     * Anything not covered above, the cause of the {@link ParseFailure}
+     * holds the original exception.
+     */
+    INTERNAL_ERROR;
+
+}
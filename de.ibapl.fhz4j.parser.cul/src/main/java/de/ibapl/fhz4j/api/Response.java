@@ -25,7 +25,7 @@ package de.ibapl.fhz4j.api;
  *
  * @author aploese
  */
-public class Response {
+public class Response implements JsonWritable {
 
     public Protocol protocol;
 
@@ -38,6 +38,17 @@ public class Response {
         sb.append(protocol);
     }
 
+    protected void writeJsonFields(JsonWriter w) {
+        w.name("protocol").value(protocol);
+    }
+
+    @Override
+    final public void writeJson(JsonWriter w) {
+        w.beginObject();
+        writeJsonFields(w);
+        w.endObject();
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,368 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.codec;
+
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.protocol.evohome.DeviceId;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The field encodings of the binary message format. Integers are written as
+ * varints, signed ones zigzag encoded. Nullable objects write 0 for null and
+ * their value + 1 otherwise. Enums are written by a code which does not depend
+ * on their declaration order, see {@link EnumCodes}.
+ *
+ * @author Arne Plöse
+ */
+final class BinaryFields {
+
+    private final static int FLOAT_RAW = 0;
+    /**
+     * The scales of the fixed point floats, the index is the marker in the
+     * lower two bits.
+     */
+    private final static float[] FLOAT_SCALES = {Float.NaN, 0.5f, 0.25f, 0.1f};
+
+    private BinaryFields() {
+    }
+
+    /**
+     * The codes of an enum without a code of its own. The code of a constant
+     * is its index in the table given to the constructor, so a table may only
+     * be extended at its end, never reorder or remove an entry. Sets can hold
+     * the first 64 codes.
+     *
+     * @param <E>
+     */
+    final static class EnumCodes<E extends Enum<E>> {
+
+        private final Class<E> enumClass;
+        private final E[] byCode;
+        private final int[] codeByOrdinal;
+
+        @SafeVarargs
+        EnumCodes(Class<E> enumClass, E... byCode) {
+            this.enumClass = enumClass;
+            final E[] constants = enumClass.getEnumConstants();
+            // copy element by element, the caller may still hold the varargs array
+            this.byCode = Arrays.copyOf(constants, byCode.length);
+            for (int code = 0; code < byCode.length; code++) {
+                this.byCode[code] = byCode[code];
+            }
+            codeByOrdinal = new int[constants.length];
+            Arrays.fill(codeByOrdinal, -1);
+            for (int code = 0; code < byCode.length; code++) {
+                if (codeByOrdinal[byCode[code].ordinal()] != -1) {
+                    throw new IllegalStateException("Duplicate code of " + byCode[code]);
+                }
+                codeByOrdinal[byCode[code].ordinal()] = code;
+            }
+        }
+
+        /**
+         * @throws IllegalArgumentException if the constant has no code.
+         */
+        int toCode(E value) {
+            final int result = codeByOrdinal[value.ordinal()];
+            if (result < 0) {
+                throw new IllegalArgumentException("No code for " + enumClass.getName() + "." + value);
+            }
+            return result;
+        }
+
+        E fromCode(int code) {
+            if (code < 0 || code >= byCode.length) {
+                throw new ParseFailure(ParseFailureReason.UNKNOWN_VALUE, null, ParseFailure.NO_BYTE, null);
+            }
+            return byCode[code];
+        }
+
+        void put(ByteBuffer dst, E value) {
+            putVarInt(dst, value == null ? 0 : toCode(value) + 1);
+        }
+
+        E get(ByteBuffer src) {
+            final int value = getVarInt(src);
+            return value == 0 ? null : fromCode(value - 1);
+        }
+
+        void putSet(ByteBuffer dst, Set<E> value) {
+            long mask = 0;
+            for (E e : value) {
+                final int code = toCode(e);
+                if (code >= Long.SIZE) {
+                    throw new IllegalArgumentException("No set code for " + enumClass.getName() + "." + e);
+                }
+                mask |= 1L << code;
+            }
+            putVarLong(dst, mask);
+        }
+
+        EnumSet<E> getSet(ByteBuffer src) {
+            long mask = getVarLong(src);
+            final EnumSet<E> result = EnumSet.noneOf(enumClass);
+            while (mask != 0) {
+                result.add(fromCode(Long.numberOfTrailingZeros(mask)));
+                mask &= mask - 1;
+            }
+            return result;
+        }
+    }
+
+    static void putVarInt(ByteBuffer dst, int value) {
+        while ((value & ~0x7f) != 0) {
+            dst.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        dst.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer src) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = src.get();
+            result |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ParseFailure(ParseFailureReason.INVALID_PAYLOAD, null, ParseFailure.NO_BYTE, null);
+    }
+
+    static void putVarLong(ByteBuffer dst, long value) {
+        while ((value & ~0x7fL) != 0) {
+            dst.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        dst.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer src) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = src.get();
+            result |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ParseFailure(ParseFailureReason.INVALID_PAYLOAD, null, ParseFailure.NO_BYTE, null);
+    }
+
+    static void putSignedVarInt(ByteBuffer dst, int value) {
+        putVarInt(dst, (value << 1) ^ (value >> 31));
+    }
+
+    static int getSignedVarInt(ByteBuffer src) {
+        final int value = getVarInt(src);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void putSignedVarLong(ByteBuffer dst, long value) {
+        putVarLong(dst, (value << 1) ^ (value >> 63));
+    }
+
+    static long getSignedVarLong(ByteBuffer src) {
+        final long value = getVarLong(src);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Write the float as fixed point number if one of the scales reproduces
+     * it exactly, as it does for temperatures like {@code 0.5f * b} or
+     * {@code 0.1f * bcd}. Otherwise the raw bits are written.
+     */
+    static void putFloat(ByteBuffer dst, float value) {
+        for (int marker = 1; marker < FLOAT_SCALES.length; marker++) {
+            final float scale = FLOAT_SCALES[marker];
+            final float units = Math.round(value / scale);
+            if (Math.abs(units) < (1 << 24) && Float.floatToIntBits(scale * units) == Float.floatToIntBits(value)) {
+                final int v = (int) units;
+                putVarInt(dst, ((v << 1) ^ (v >> 31)) << 2 | marker);
+                return;
+            }
+        }
+        putVarInt(dst, FLOAT_RAW);
+        dst.putFloat(value);
+    }
+
+    static float getFloat(ByteBuffer src) {
+        final int value = getVarInt(src);
+        final int marker = value & 0x03;
+        if (marker == FLOAT_RAW) {
+            return src.getFloat();
+        }
+        final int zigzag = value >>> 2;
+        return FLOAT_SCALES[marker] * ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    static void putBytes(ByteBuffer dst, byte[] value) {
+        if (value == null) {
+            putVarInt(dst, 0);
+        } else {
+            putVarInt(dst, value.length + 1);
+            dst.put(value);
+        }
+    }
+
+    static byte[] getBytes(ByteBuffer src) {
+        final int length = getVarInt(src);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] result = new byte[length - 1];
+        src.get(result);
+        return result;
+    }
+
+    /**
+     * Read into an existing array, the length must match.
+     */
+    static void getBytes(ByteBuffer src, byte[] dst) {
+        if (getVarInt(src) != dst.length + 1) {
+            throw new ParseFailure(ParseFailureReason.INVALID_LENGTH, null, ParseFailure.NO_BYTE, null);
+        }
+        src.get(dst);
+    }
+
+    static void putString(ByteBuffer dst, String value) {
+        putBytes(dst, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String getString(ByteBuffer src) {
+        final int length = getVarInt(src);
+        if (length == 0) {
+            return null;
+        }
+        final String result;
+        if (src.hasArray()) {
+            result = new String(src.array(), src.arrayOffset() + src.position(), length - 1, StandardCharsets.UTF_8);
+            src.position(src.position() + length - 1);
+        } else {
+            final byte[] data = new byte[length - 1];
+            src.get(data);
+            result = new String(data, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    static void putDate(ByteBuffer dst, LocalDate value) {
+        putVarLong(dst, value == null ? 0 : zigzag(value.toEpochDay()) + 1);
+    }
+
+    static LocalDate getDate(ByteBuffer src) {
+        final long value = getVarLong(src);
+        return value == 0 ? null : LocalDate.ofEpochDay(unzigzag(value - 1));
+    }
+
+    /**
+     * Times are stored with a resolution of one second.
+     */
+    static void putTime(ByteBuffer dst, LocalTime value) {
+        putVarInt(dst, value == null ? 0 : value.toSecondOfDay() + 1);
+    }
+
+    static LocalTime getTime(ByteBuffer src) {
+        final int value = getVarInt(src);
+        return value == 0 ? null : LocalTime.ofSecondOfDay(value - 1);
+    }
+
+    /**
+     * Date times are stored with a resolution of one second.
+     */
+    static void putDateTime(ByteBuffer dst, LocalDateTime value) {
+        putVarLong(dst, value == null ? 0 : zigzag(value.toEpochSecond(ZoneOffset.UTC)) + 1);
+    }
+
+    static LocalDateTime getDateTime(ByteBuffer src) {
+        final long value = getVarLong(src);
+        return value == 0 ? null : LocalDateTime.ofEpochSecond(unzigzag(value - 1), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Durations are stored with a resolution of one second.
+     */
+    static void putDuration(ByteBuffer dst, Duration value) {
+        putVarLong(dst, value == null ? 0 : zigzag(value.getSeconds()) + 1);
+    }
+
+    static Duration getDuration(ByteBuffer src) {
+        final long value = getVarLong(src);
+        return value == 0 ? null : Duration.ofSeconds(unzigzag(value - 1));
+    }
+
+    /**
+     * Write the scale and the unscaled value, this fits the temperatures of
+     * EvoHome.
+     *
+     * @throws ArithmeticException if the unscaled value does not fit in a
+     * long.
+     */
+    static void putDecimal(ByteBuffer dst, BigDecimal value) {
+        if (value == null) {
+            putVarInt(dst, 0);
+        } else {
+            putVarInt(dst, ((value.scale() << 1) ^ (value.scale() >> 31)) + 1);
+            putSignedVarLong(dst, value.unscaledValue().longValueExact());
+        }
+    }
+
+    static BigDecimal getDecimal(ByteBuffer src) {
+        final int value = getVarInt(src);
+        if (value == 0) {
+            return null;
+        }
+        final int zigzag = value - 1;
+        return BigDecimal.valueOf(getSignedVarLong(src), (zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    /**
+     * The id is written as varint, the presence is stored by the caller.
+     */
+    static void putDeviceId(ByteBuffer dst, DeviceId value) {
+        putVarInt(dst, value.id);
+    }
+
+    static DeviceId getDeviceId(ByteBuffer src) {
+        return new DeviceId(getVarInt(src));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
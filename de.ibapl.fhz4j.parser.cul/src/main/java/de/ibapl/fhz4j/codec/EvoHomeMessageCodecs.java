@@ -0,0 +1,599 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.codec;
+
+import static de.ibapl.fhz4j.codec.BinaryFields.getBytes;
+import static de.ibapl.fhz4j.codec.BinaryFields.getDate;
+import static de.ibapl.fhz4j.codec.BinaryFields.getDateTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.getDecimal;
+import static de.ibapl.fhz4j.codec.BinaryFields.getDeviceId;
+import static de.ibapl.fhz4j.codec.BinaryFields.getDuration;
+import static de.ibapl.fhz4j.codec.BinaryFields.getFloat;
+import static de.ibapl.fhz4j.codec.BinaryFields.getSignedVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.getString;
+import static de.ibapl.fhz4j.codec.BinaryFields.getVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.putBytes;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDate;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDateTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDecimal;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDeviceId;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDuration;
+import static de.ibapl.fhz4j.codec.BinaryFields.putFloat;
+import static de.ibapl.fhz4j.codec.BinaryFields.putSignedVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.putString;
+import static de.ibapl.fhz4j.codec.BinaryFields.putVarInt;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.codec.BinaryFields.EnumCodes;
+import de.ibapl.fhz4j.protocol.evohome.DeviceId;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import de.ibapl.fhz4j.protocol.evohome.EvoHome_AbstractZonesTemperature_Message;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModeMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModePayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractRfBindPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractWindowSensorPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractZoneSetpointOverrideMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ActuatorSyncInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.BoilerRelayInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.DeviceBatteryStatusInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.DeviceInformationInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.LocalizationRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.LocalizationResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RelayFailsaveInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RelayHeatDemandInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfBindInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfBindWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfCheckWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfSignalTestRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfSignalTestResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemSynchronizationPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemSynchronizationRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemTimestampRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemTimestampResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.T87RF_Startup_0x000E_InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.T87RF_Startup_0x042F_InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.Unknown_0x3120InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneActuatorsInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneActuatorsRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneConfigPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneConfigRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneHeatDemandInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneManagementInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneNamePayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneNameRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneTemperatureInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneTemperatureRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneTemperatureResponseMessage;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The binary format of the EvoHome messages. The tags 0x40 - 0x7f are
+ * reserved for these messages, never reuse a tag.
+ * <p>
+ * Each message starts with a header byte holding msgParam0, msgType and the
+ * presence of deviceId1 and deviceId2, followed by the present device ids.
+ * The command is given by the tag, where a message class has more than one
+ * command it is written by its 16 bit command code.
+ *
+ * @author Arne Plöse
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class EvoHomeMessageCodecs {
+
+    @FunctionalInterface
+    interface Factory<M> {
+
+        /**
+         * Create the message, src is positioned after the header. Only
+         * messages with final payload fields read them here.
+         */
+        M create(EvoHomeMsgType msgType, EvoHomeMsgParam0 msgParam0, ByteBuffer src);
+    }
+
+    @FunctionalInterface
+    interface FieldsDecoder<M> {
+
+        void decode(M message, ByteBuffer src);
+    }
+
+    // Only append to these tables, the index is the code in the stored data.
+    // The message types and params are in the order of their header nibble.
+    private final static EnumCodes<EvoHomeMsgType> MSG_TYPES = new EnumCodes<>(EvoHomeMsgType.class,
+            EvoHomeMsgType.REQUEST, EvoHomeMsgType.INFORMATION, EvoHomeMsgType.WRITE, EvoHomeMsgType.RESPONSE);
+    private final static EnumCodes<EvoHomeMsgParam0> MSG_PARAM0S = new EnumCodes<>(EvoHomeMsgParam0.class,
+            EvoHomeMsgParam0._8, EvoHomeMsgParam0._C);
+    private final static EnumCodes<AbstractControllerModeMessage.Mode> CONTROLLER_MODES = new EnumCodes<>(AbstractControllerModeMessage.Mode.class,
+            AbstractControllerModeMessage.Mode.NORMAL, AbstractControllerModeMessage.Mode.HEATING_OFF, AbstractControllerModeMessage.Mode.ECONOMY,
+            AbstractControllerModeMessage.Mode.AWAY, AbstractControllerModeMessage.Mode.EXCEPTION_DAY, AbstractControllerModeMessage.Mode.SPECIAL_PROGRAMME);
+    private final static EnumCodes<AbstractControllerModePayloadMessage.ProgrammType> PROGRAMM_TYPES = new EnumCodes<>(AbstractControllerModePayloadMessage.ProgrammType.class,
+            AbstractControllerModePayloadMessage.ProgrammType.PERMANENT, AbstractControllerModePayloadMessage.ProgrammType.TIMED);
+    private final static EnumCodes<AbstractZoneSetpointOverrideMessage.SetpointOverrideMode> SETPOINT_OVERRIDE_MODES = new EnumCodes<>(AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.class,
+            AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.FOLLOW_SCHEDULE, AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.ADVANCED_OVERRIDE,
+            AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.PERMANENT_OVERRIDE, AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.COUNTDOWN_OVERRIDE,
+            AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.TEMPORARY_OVERRIDE);
+    private final static EnumCodes<SystemTimestampResponseMessage.Direction> DIRECTIONS = new EnumCodes<>(SystemTimestampResponseMessage.Direction.class,
+            SystemTimestampResponseMessage.Direction.TO_CONTROLLER, SystemTimestampResponseMessage.Direction.TO_DEVICE);
+
+    private final static int MSG_PARAM0_MASK = 0x01;
+    private final static int MSG_TYPE_SHIFT = 1;
+    private final static int MSG_TYPE_MASK = 0x03;
+    private final static int DEVICE_ID_1 = 0x08;
+    private final static int DEVICE_ID_2 = 0x10;
+
+    private EvoHomeMessageCodecs() {
+    }
+
+    private static void putCommand(ByteBuffer dst, EvoHomeCommand value) {
+        putVarInt(dst, value == null ? 0 : value.getCode() + 1);
+    }
+
+    private static EvoHomeCommand getCommand(ByteBuffer src) {
+        final int value = getVarInt(src);
+        if (value == 0) {
+            return null;
+        }
+        final EvoHomeCommand result = EvoHomeCommand.fromCode((short) (value - 1));
+        if (result == null) {
+            throw new ParseFailure(ParseFailureReason.UNKNOWN_COMMAND, null, ParseFailure.NO_BYTE, null);
+        }
+        return result;
+    }
+
+    private static void putZoneTemperatures(ByteBuffer dst, List<ZoneTemperature> zoneTemperatures) {
+        putVarInt(dst, zoneTemperatures.size());
+        for (ZoneTemperature zoneTemperature : zoneTemperatures) {
+            dst.put(zoneTemperature.zone);
+            putSignedVarInt(dst, zoneTemperature.centiDegrees);
+        }
+    }
+
+    private static void getZoneTemperatures(ByteBuffer src, List<ZoneTemperature> zoneTemperatures) {
+        for (int i = getVarInt(src); i > 0; i--) {
+            final byte zone = src.get();
+            zoneTemperatures.add(new ZoneTemperature(zone, (short) getSignedVarInt(src)));
+        }
+    }
+
+    private static void putZoneSetpointOverride(AbstractZoneSetpointOverrideMessage m, ByteBuffer dst) {
+        dst.put(m.zone_id);
+        putSignedVarInt(dst, m.setpointCentiDegrees);
+        SETPOINT_OVERRIDE_MODES.put(dst, m.zone_mode);
+        putDuration(dst, m.countdown);
+        putDateTime(dst, m.time_until);
+    }
+
+    private static void getZoneSetpointOverride(AbstractZoneSetpointOverrideMessage m, ByteBuffer src) {
+        m.zone_id = src.get();
+        m.setpointCentiDegrees = (short) getSignedVarInt(src);
+        m.zone_mode = SETPOINT_OVERRIDE_MODES.get(src);
+        m.countdown = getDuration(src);
+        m.time_until = getDateTime(src);
+    }
+
+    private static void putControllerModePayload(AbstractControllerModePayloadMessage m, ByteBuffer dst) {
+        CONTROLLER_MODES.put(dst, m.mode);
+        putDateTime(dst, m.dateTime);
+        PROGRAMM_TYPES.put(dst, m.programm_type);
+    }
+
+    private static void getControllerModePayload(AbstractControllerModePayloadMessage m, ByteBuffer src) {
+        m.mode = CONTROLLER_MODES.get(src);
+        m.dateTime = getDateTime(src);
+        m.programm_type = PROGRAMM_TYPES.get(src);
+    }
+
+    private static void putRfBindPayload(AbstractRfBindPayloadMessage m, ByteBuffer dst) {
+        dst.put(m.zoneId);
+        putVarInt(dst, m.elements.size());
+        for (Object o : m.elements) {
+            final AbstractRfBindPayloadMessage.Data data = (AbstractRfBindPayloadMessage.Data) o;
+            dst.put(data.zoneId);
+            dst.putShort(data.command);
+            putVarInt(dst, data.deviceId);
+        }
+    }
+
+    private static void getRfBindPayload(AbstractRfBindPayloadMessage m, ByteBuffer src) {
+        m.zoneId = src.get();
+        for (int i = getVarInt(src); i > 0; i--) {
+            final byte zoneId = src.get();
+            final short command = src.getShort();
+            m.elements.add(new AbstractRfBindPayloadMessage.Data(zoneId, command, getVarInt(src)));
+        }
+    }
+
+    private static void putWindowSensorPayload(AbstractWindowSensorPayloadMessage m, ByteBuffer dst) {
+        dst.put(m.zoneId);
+        putSignedVarInt(dst, m.unknown0);
+    }
+
+    private static void getWindowSensorPayload(AbstractWindowSensorPayloadMessage m, ByteBuffer src) {
+        m.zoneId = src.get();
+        m.unknown0 = (short) getSignedVarInt(src);
+    }
+
+    private static void putLocalization(ByteBuffer dst, byte unused0, String language, byte unused1) {
+        dst.put(unused0);
+        putString(dst, language);
+        dst.put(unused1);
+    }
+
+    private static <M extends EvoHomeDeviceMessage> void register(int tag, Class<M> messageClass, Factory<M> factory,
+            MessageCodec.Encoder<M> fieldsEncoder, FieldsDecoder<M> fieldsDecoder) {
+        MessageCodec.register(tag, messageClass,
+                (m, dst) -> {
+                    dst.put((byte) (MSG_PARAM0S.toCode(m.msgParam0)
+                            | MSG_TYPES.toCode(m.msgType) << MSG_TYPE_SHIFT
+                            | (m.deviceId1 != null ? DEVICE_ID_1 : 0)
+                            | (m.deviceId2 != null ? DEVICE_ID_2 : 0)));
+                    if (m.deviceId1 != null) {
+                        putDeviceId(dst, m.deviceId1);
+                    }
+                    if (m.deviceId2 != null) {
+                        putDeviceId(dst, m.deviceId2);
+                    }
+                    fieldsEncoder.encode(m, dst);
+                },
+                src -> {
+                    final byte header = src.get();
+                    final DeviceId deviceId1 = (header & DEVICE_ID_1) != 0 ? getDeviceId(src) : null;
+                    final DeviceId deviceId2 = (header & DEVICE_ID_2) != 0 ? getDeviceId(src) : null;
+                    final M result = factory.create(MSG_TYPES.fromCode((header >> MSG_TYPE_SHIFT) & MSG_TYPE_MASK), MSG_PARAM0S.fromCode(header & MSG_PARAM0_MASK), src);
+                    result.deviceId1 = deviceId1;
+                    result.deviceId2 = deviceId2;
+                    fieldsDecoder.decode(result, src);
+                    return result;
+                });
+    }
+
+    static void registerAll() {
+        register(0x40, ActuatorSyncInformationMessage.class, (t, p, src) -> new ActuatorSyncInformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.domainId);
+                    dst.put(m.state);
+                },
+                (m, src) -> {
+                    m.domainId = src.get();
+                    m.state = src.get();
+                });
+        register(0x41, BoilerRelayInformationMessage.class, (t, p, src) -> new BoilerRelayInformationMessage(t, p),
+                (m, dst) -> {
+                    dst.put(m.domain_id);
+                    putFloat(dst, m.cycle_rate);
+                    putDuration(dst, m.minimum_on_time);
+                    putDuration(dst, m.minimum_off_time);
+                    dst.put(m.unknown0);
+                    putSignedVarInt(dst, m.proportional_band_width);
+                    dst.put(m.unknown1);
+                },
+                (m, src) -> {
+                    m.domain_id = src.get();
+                    m.cycle_rate = getFloat(src);
+                    m.minimum_on_time = getDuration(src);
+                    m.minimum_off_time = getDuration(src);
+                    m.unknown0 = src.get();
+                    m.proportional_band_width = (short) getSignedVarInt(src);
+                    m.unknown1 = src.get();
+                });
+        register(0x42, ControllerModeInformationMessage.class, (t, p, src) -> new ControllerModeInformationMessage(p),
+                EvoHomeMessageCodecs::putControllerModePayload, EvoHomeMessageCodecs::getControllerModePayload);
+        register(0x43, ControllerModeRequestMessage.class, (t, p, src) -> new ControllerModeRequestMessage(p),
+                (m, dst) -> CONTROLLER_MODES.put(dst, m.mode),
+                (m, src) -> m.mode = CONTROLLER_MODES.get(src));
+        register(0x44, ControllerModeResponseMessage.class, (t, p, src) -> new ControllerModeResponseMessage(p),
+                EvoHomeMessageCodecs::putControllerModePayload, EvoHomeMessageCodecs::getControllerModePayload);
+        register(0x45, ControllerModeWriteMessage.class, (t, p, src) -> new ControllerModeWriteMessage(p),
+                EvoHomeMessageCodecs::putControllerModePayload, EvoHomeMessageCodecs::getControllerModePayload);
+        register(0x46, DeviceBatteryStatusInformationMessage.class, (t, p, src) -> new DeviceBatteryStatusInformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.zone_id);
+                    putFloat(dst, m.level);
+                    dst.put(m.unknown0);
+                },
+                (m, src) -> {
+                    m.zone_id = src.get();
+                    m.level = getFloat(src);
+                    m.unknown0 = src.get();
+                });
+        register(0x47, DeviceInformationInformationMessage.class, (t, p, src) -> new DeviceInformationInformationMessage(p),
+                (m, dst) -> {
+                    putBytes(dst, m.unknown0);
+                    putDate(dst, m.firmware);
+                    putDate(dst, m.manufactured);
+                    putString(dst, m.description);
+                },
+                (m, src) -> {
+                    m.unknown0 = getBytes(src);
+                    m.firmware = getDate(src);
+                    m.manufactured = getDate(src);
+                    m.description = getString(src);
+                });
+        register(0x48, LocalizationRequestMessage.class, (t, p, src) -> new LocalizationRequestMessage(p),
+                (m, dst) -> putLocalization(dst, m.unused0, m.language, m.unused1),
+                (m, src) -> {
+                    m.unused0 = src.get();
+                    m.language = getString(src);
+                    m.unused1 = src.get();
+                });
+        register(0x49, LocalizationResponseMessage.class, (t, p, src) -> new LocalizationResponseMessage(p),
+                (m, dst) -> putLocalization(dst, m.unused0, m.language, m.unused1),
+                (m, src) -> {
+                    m.unused0 = src.get();
+                    m.language = getString(src);
+                    m.unused1 = src.get();
+                });
+        register(0x4a, RelayFailsaveInformationMessage.class, (t, p, src) -> new RelayFailsaveInformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.domainId);
+                    putSignedVarInt(dst, m.value);
+                },
+                (m, src) -> {
+                    m.domainId = src.get();
+                    m.value = getSignedVarInt(src);
+                });
+        register(0x4b, RelayHeatDemandInformationMessage.class, (t, p, src) -> new RelayHeatDemandInformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.domainId);
+                    putFloat(dst, m.demand);
+                },
+                (m, src) -> {
+                    m.domainId = src.get();
+                    m.demand = getFloat(src);
+                });
+        register(0x4c, RfBindInformationMessage.class, (t, p, src) -> new RfBindInformationMessage(p),
+                EvoHomeMessageCodecs::putRfBindPayload, EvoHomeMessageCodecs::getRfBindPayload);
+        register(0x4d, RfBindWriteMessage.class, (t, p, src) -> new RfBindWriteMessage(p),
+                EvoHomeMessageCodecs::putRfBindPayload, EvoHomeMessageCodecs::getRfBindPayload);
+        register(0x4e, RfCheckWriteMessage.class, (t, p, src) -> new RfCheckWriteMessage(t, p),
+                (m, dst) -> putBytes(dst, m.value),
+                (m, src) -> getBytes(src, m.value));
+        register(0x4f, RfSignalTestRequestMessage.class, (t, p, src) -> new RfSignalTestRequestMessage(p),
+                (m, dst) -> putSignedVarInt(dst, m.value),
+                (m, src) -> m.value = (short) getSignedVarInt(src));
+        register(0x50, RfSignalTestResponseMessage.class, (t, p, src) -> new RfSignalTestResponseMessage(p),
+                (m, dst) -> putSignedVarInt(dst, m.value),
+                (m, src) -> m.value = (short) getSignedVarInt(src));
+        register(0x51, SystemSynchronizationPayloadMessage.class, (t, p, src) -> new SystemSynchronizationPayloadMessage(t, p),
+                (m, dst) -> {
+                    dst.put(m.deviceId);
+                    putSignedVarInt(dst, m.countdown);
+                },
+                (m, src) -> {
+                    m.deviceId = src.get();
+                    m.countdown = (short) getSignedVarInt(src);
+                });
+        register(0x52, SystemSynchronizationRequestMessage.class, (t, p, src) -> new SystemSynchronizationRequestMessage(p),
+                (m, dst) -> dst.put(m.domainId),
+                (m, src) -> m.domainId = src.get());
+        register(0x53, SystemTimestampRequestMessage.class, (t, p, src) -> new SystemTimestampRequestMessage(p),
+                (m, dst) -> dst.put(m.zoneId),
+                (m, src) -> m.zoneId = src.get());
+        register(0x54, SystemTimestampResponseMessage.class, (t, p, src) -> new SystemTimestampResponseMessage(p),
+                (m, dst) -> {
+                    dst.put(m.zoneId);
+                    DIRECTIONS.put(dst, m.direction);
+                    putDateTime(dst, m.timestamp);
+                },
+                (m, src) -> {
+                    m.zoneId = src.get();
+                    m.direction = DIRECTIONS.get(src);
+                    m.timestamp = getDateTime(src);
+                });
+        register(0x55, T87RF_Startup_0x000E_InformationMessage.class, (t, p, src) -> new T87RF_Startup_0x000E_InformationMessage(p),
+                (m, dst) -> putSignedVarInt(dst, m.value),
+                (m, src) -> m.value = getSignedVarInt(src));
+        register(0x56, T87RF_Startup_0x042F_InformationMessage.class, (t, p, src) -> {
+            final T87RF_Startup_0x042F_InformationMessage result = new T87RF_Startup_0x042F_InformationMessage(p, (short) getVarInt(src));
+            src.get(result.value);
+            return result;
+        },
+                (m, dst) -> {
+                    putVarInt(dst, m.value.length);
+                    dst.put(m.value);
+                },
+                (m, src) -> {
+                });
+        register(0x57, Unknown_0x3120InformationMessage.class, (t, p, src) -> new Unknown_0x3120InformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.unused0);
+                    dst.putShort(m.fixed1);
+                    putSignedVarInt(dst, m.unused2);
+                    dst.put(m.fixed3);
+                },
+                (m, src) -> {
+                    m.unused0 = src.get();
+                    m.fixed1 = src.getShort();
+                    m.unused2 = getSignedVarInt(src);
+                    m.fixed3 = src.get();
+                });
+        register(0x58, WindowSensorInformationMessage.class, (t, p, src) -> new WindowSensorInformationMessage(p),
+                EvoHomeMessageCodecs::putWindowSensorPayload, EvoHomeMessageCodecs::getWindowSensorPayload);
+        register(0x59, WindowSensorRequestMessage.class, (t, p, src) -> new WindowSensorRequestMessage(p),
+                (m, dst) -> dst.put(m.zoneId),
+                (m, src) -> m.zoneId = src.get());
+        register(0x5a, WindowSensorResponseMessage.class, (t, p, src) -> new WindowSensorResponseMessage(p),
+                EvoHomeMessageCodecs::putWindowSensorPayload, EvoHomeMessageCodecs::getWindowSensorPayload);
+        register(0x5b, ZoneActuatorsInformationMessage.class, (t, p, src) -> new ZoneActuatorsInformationMessage(p),
+                (m, dst) -> {
+                    putVarInt(dst, m.actuators.size());
+                    for (Object o : m.actuators) {
+                        final ZoneActuatorsInformationMessage.ZoneActuator actuator = (ZoneActuatorsInformationMessage.ZoneActuator) o;
+                        dst.put(actuator.zoneIdx);
+                        dst.put(actuator.unknown0);
+                        dst.put((byte) (actuator.deviceId != null ? 1 : 0));
+                        if (actuator.deviceId != null) {
+                            putDeviceId(dst, actuator.deviceId);
+                        }
+                    }
+                },
+                (m, src) -> {
+                    for (int i = getVarInt(src); i > 0; i--) {
+                        final byte zoneIdx = src.get();
+                        final byte unknown0 = src.get();
+                        final DeviceId deviceId = src.get() != 0 ? getDeviceId(src) : null;
+                        m.actuators.add(new ZoneActuatorsInformationMessage.ZoneActuator(zoneIdx, unknown0, deviceId));
+                    }
+                });
+        register(0x5c, ZoneActuatorsRequestMessage.class, (t, p, src) -> new ZoneActuatorsRequestMessage(p),
+                (m, dst) -> {
+                    dst.put(m.zoneIdx);
+                    dst.put(m.unknown0);
+                },
+                (m, src) -> {
+                    m.zoneIdx = src.get();
+                    m.unknown0 = src.get();
+                });
+        register(0x5d, ZoneConfigPayloadMessage.class, (t, p, src) -> new ZoneConfigPayloadMessage(t, p),
+                (m, dst) -> {
+                    if (m.zones == null) {
+                        putVarInt(dst, 0);
+                        return;
+                    }
+                    putVarInt(dst, m.zones.size() + 1);
+                    for (Object o : m.zones) {
+                        final ZoneConfigPayloadMessage.ZoneParams zoneParams = (ZoneConfigPayloadMessage.ZoneParams) o;
+                        dst.put(zoneParams.zoneId);
+                        dst.put((byte) ((zoneParams.windowFunction ? 1 : 0) | (zoneParams.operationLock ? 2 : 0)));
+                        putDecimal(dst, zoneParams.getMinTemperature());
+                        putDecimal(dst, zoneParams.getMaxTemperature());
+                    }
+                },
+                (m, src) -> {
+                    final int size = getVarInt(src);
+                    if (size == 0) {
+                        m.zones = null;
+                        return;
+                    }
+                    m.zones = new LinkedList<>();
+                    for (int i = size - 1; i > 0; i--) {
+                        final ZoneConfigPayloadMessage.ZoneParams zoneParams = new ZoneConfigPayloadMessage.ZoneParams();
+                        zoneParams.zoneId = src.get();
+                        final byte flags = src.get();
+                        zoneParams.windowFunction = (flags & 1) != 0;
+                        zoneParams.operationLock = (flags & 2) != 0;
+                        zoneParams.setMinTemperature(getDecimal(src));
+                        zoneParams.setMaxTemperature(getDecimal(src));
+                        m.zones.add(zoneParams);
+                    }
+                });
+        register(0x5e, ZoneConfigRequestMessage.class, (t, p, src) -> new ZoneConfigRequestMessage(p),
+                (m, dst) -> dst.put(m.value),
+                (m, src) -> m.value = src.get());
+        register(0x5f, ZoneHeatDemandInformationMessage.class, (t, p, src) -> new ZoneHeatDemandInformationMessage(p),
+                (m, dst) -> {
+                    dst.put(m.zoneId);
+                    putSignedVarInt(dst, m.heatDemand);
+                },
+                (m, src) -> {
+                    m.zoneId = src.get();
+                    m.heatDemand = (short) getSignedVarInt(src);
+                });
+        register(0x60, ZoneManagementInformationMessage.class, (t, p, src) -> {
+            final ZoneManagementInformationMessage result = new ZoneManagementInformationMessage(p, (short) getVarInt(src));
+            src.get(result.value);
+            return result;
+        },
+                (m, dst) -> {
+                    putVarInt(dst, m.value.length);
+                    dst.put(m.value);
+                },
+                (m, src) -> {
+                });
+        register(0x61, ZoneNamePayloadMessage.class, (t, p, src) -> new ZoneNamePayloadMessage(t, p),
+                (m, dst) -> {
+                    dst.put(m.zoneId);
+                    dst.put(m.unused);
+                    putString(dst, m.zoneName);
+                },
+                (m, src) -> {
+                    m.zoneId = src.get();
+                    m.unused = src.get();
+                    m.zoneName = getString(src);
+                });
+        register(0x62, ZoneNameRequestMessage.class, (t, p, src) -> new ZoneNameRequestMessage(p),
+                (m, dst) -> {
+                    dst.put(m.zoneId);
+                    dst.put(m.unused);
+                },
+                (m, src) -> {
+                    m.zoneId = src.get();
+                    m.unused = src.get();
+                });
+        register(0x63, ZoneSetpointInformationMessage.class, (t, p, src) -> new ZoneSetpointInformationMessage(p),
+                (m, dst) -> putZoneTemperatures(dst, m.zoneTemperatures),
+                (m, src) -> getZoneTemperatures(src, m.zoneTemperatures));
+        register(0x64, ZoneSetpointRequestMessage.class, (t, p, src) -> new ZoneSetpointRequestMessage(p),
+                (m, dst) -> dst.put(m.zoneId),
+                (m, src) -> m.zoneId = src.get());
+        register(0x65, ZoneSetpointResponseMessage.class, (t, p, src) -> new ZoneSetpointResponseMessage(p),
+                (m, dst) -> putZoneTemperatures(dst, m.zoneTemperatures),
+                (m, src) -> getZoneTemperatures(src, m.zoneTemperatures));
+        register(0x66, ZoneSetpointWriteMessage.class, (t, p, src) -> new ZoneSetpointWriteMessage(p),
+                (m, dst) -> putZoneTemperatures(dst, m.zoneTemperatures),
+                (m, src) -> getZoneTemperatures(src, m.zoneTemperatures));
+        register(0x67, ZoneSetpointOverrideInformationMessage.class, (t, p, src) -> new ZoneSetpointOverrideInformationMessage(p),
+                EvoHomeMessageCodecs::putZoneSetpointOverride, EvoHomeMessageCodecs::getZoneSetpointOverride);
+        register(0x68, ZoneSetpointOverrideRequestMessage.class, (t, p, src) -> new ZoneSetpointOverrideRequestMessage(p),
+                EvoHomeMessageCodecs::putZoneSetpointOverride, EvoHomeMessageCodecs::getZoneSetpointOverride);
+        register(0x69, ZoneSetpointOverrideResponseMessage.class, (t, p, src) -> new ZoneSetpointOverrideResponseMessage(p),
+                EvoHomeMessageCodecs::putZoneSetpointOverride, EvoHomeMessageCodecs::getZoneSetpointOverride);
+        register(0x6a, ZoneSetpointOverrideWriteMessage.class, (t, p, src) -> new ZoneSetpointOverrideWriteMessage(p),
+                EvoHomeMessageCodecs::putZoneSetpointOverride, EvoHomeMessageCodecs::getZoneSetpointOverride);
+        register(0x6b, ZoneTemperatureInformationMessage.class, (t, p, src) -> new ZoneTemperatureInformationMessage(p),
+                (m, dst) -> putZoneTemperatures(dst, m.zoneTemperatures),
+                (m, src) -> getZoneTemperatures(src, m.zoneTemperatures));
+        register(0x6c, ZoneTemperatureRequestMessage.class, (t, p, src) -> new ZoneTemperatureRequestMessage(p),
+                (m, dst) -> {
+                },
+                (m, src) -> {
+                });
+        register(0x6d, ZoneTemperatureResponseMessage.class, (t, p, src) -> new ZoneTemperatureResponseMessage(p),
+                (m, dst) -> putZoneTemperatures(dst, m.zoneTemperatures),
+                (m, src) -> getZoneTemperatures(src, m.zoneTemperatures));
+        register(0x6e, EvoHome_AbstractZonesTemperature_Message.class, (t, p, src) -> new EvoHome_AbstractZonesTemperature_Message(getCommand(src), t, p),
+                (m, dst) -> putCommand(dst, m.command),
+                (m, src) -> {
+                });
+    }
+
+}
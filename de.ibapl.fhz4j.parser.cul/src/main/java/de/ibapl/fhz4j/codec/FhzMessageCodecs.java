@@ -0,0 +1,425 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.codec;
+
+import static de.ibapl.fhz4j.codec.BinaryFields.getDateTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.getFloat;
+import static de.ibapl.fhz4j.codec.BinaryFields.getSignedVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.getTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.getVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.putDateTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.putFloat;
+import static de.ibapl.fhz4j.codec.BinaryFields.putSignedVarInt;
+import static de.ibapl.fhz4j.codec.BinaryFields.putTime;
+import static de.ibapl.fhz4j.codec.BinaryFields.putVarInt;
+import static de.ibapl.fhz4j.codec.MessageCodec.register;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.codec.BinaryFields.EnumCodes;
+import de.ibapl.fhz4j.protocol.em.EmDeviceType;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfValue;
+import de.ibapl.fhz4j.protocol.fht.Fht80bMode;
+import de.ibapl.fhz4j.protocol.fht.Fht80bRawMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80bWarning;
+import de.ibapl.fhz4j.protocol.fht.Fht8bMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtDateMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtDateTimeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtModeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fht.FhtProtocolMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtTempMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtTimeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtTimesMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtValveMode;
+import de.ibapl.fhz4j.protocol.fht.FhtValvePosMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtValveSyncMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtWarningMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20CommandValue;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.Hms100RmMessage;
+import de.ibapl.fhz4j.protocol.hms.Hms100TfMessage;
+import de.ibapl.fhz4j.protocol.hms.Hms100TfkMessage;
+import de.ibapl.fhz4j.protocol.hms.Hms100WdMessage;
+import de.ibapl.fhz4j.protocol.hms.HmsDeviceStatus;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Property;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * The binary format of the FHT, HMS, EM, FS20 and LaCrosse TX2 messages. The
+ * tags 0x01 - 0x3f are reserved for these messages, never reuse a tag.
+ * <p>
+ * A {@link FhtProperty} is written by its command code, the synthetic
+ * properties without a command code by their code in
+ * {@link #FHT_SYNTHETIC_PROPERTIES} after the command codes.
+ *
+ * @author Arne Plöse
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class FhzMessageCodecs {
+
+    // Only append to these tables, the index is the code in the stored data.
+    private final static EnumCodes<FhtProperty> FHT_SYNTHETIC_PROPERTIES = new EnumCodes<>(FhtProperty.class,
+            FhtProperty.UNKNOWN_0XFF, FhtProperty.UNKNOWN,
+            FhtProperty.MONDAY_TIMES, FhtProperty.TUESDAY_TIMES, FhtProperty.WEDNESDAY_TIMES, FhtProperty.THURSDAY_TIMES,
+            FhtProperty.FRIDAY_TIMES, FhtProperty.SATURDAYDAY_TIMES, FhtProperty.SUNDAYDAY_TIMES,
+            FhtProperty.MEASURED_TEMP, FhtProperty.HOLIDAY_END_DATE, FhtProperty.PARTY_END_TIME, FhtProperty.CURRENT_DATE_AND_TIME);
+    private final static EnumCodes<Fht80bMode> FHT80B_MODES = new EnumCodes<>(Fht80bMode.class,
+            Fht80bMode.AUTO, Fht80bMode.MANUAL, Fht80bMode.HOLIDAY, Fht80bMode.PARTY);
+    private final static EnumCodes<Fht80bWarning> FHT80B_WARNINGS = new EnumCodes<>(Fht80bWarning.class,
+            Fht80bWarning.BATT_LOW);
+    private final static EnumCodes<Fht80TfValue> FHT80TF_VALUES = new EnumCodes<>(Fht80TfValue.class,
+            Fht80TfValue.SYNC, Fht80TfValue.FINISH, Fht80TfValue.WINDOW_INTERNAL_OPEN, Fht80TfValue.WINDOW_INTERNAL_CLOSED,
+            Fht80TfValue.WINDOW_EXTERNAL_OPEN, Fht80TfValue.WINDOW_EXTERNAL_CLOSED);
+    private final static EnumCodes<FhtValveMode> FHT_VALVE_MODES = new EnumCodes<>(FhtValveMode.class,
+            FhtValveMode.OFF, FhtValveMode.POSITION, FhtValveMode.ON, FhtValveMode.LIME_CYCLE, FhtValveMode.END_OF_SYNC_SEQUENCE,
+            FhtValveMode.OFFSET_ADJUST, FhtValveMode.BEEP, FhtValveMode.PAIRING);
+    private final static EnumCodes<HmsDeviceStatus> HMS_DEVICE_STATUS = new EnumCodes<>(HmsDeviceStatus.class,
+            HmsDeviceStatus.BATT_LOW);
+    private final static EnumCodes<EmDeviceType> EM_DEVICE_TYPES = new EnumCodes<>(EmDeviceType.class,
+            EmDeviceType.EM_1000_S, EmDeviceType.EM_1000_EM, EmDeviceType.EM_1000_GZ);
+    private final static EnumCodes<FS20CommandValue> FS20_COMMAND_VALUES = new EnumCodes<>(FS20CommandValue.class,
+            FS20CommandValue.OFF, FS20CommandValue.DIM_6_PERCENT, FS20CommandValue.DIM_12_PERCENT, FS20CommandValue.DIM_18_PERCENT,
+            FS20CommandValue.DIM_25_PERCENT, FS20CommandValue.DIM_31_PERCENT, FS20CommandValue.DIM_37_PERCENT, FS20CommandValue.DIM_43_PERCENT,
+            FS20CommandValue.DIM_50_PERCENT, FS20CommandValue.DIM_56_PERCENT, FS20CommandValue.DIM_62_PERCENT, FS20CommandValue.DIM_68_PERCENT,
+            FS20CommandValue.DIM_75_PERCENT, FS20CommandValue.DIM_81_PERCENT, FS20CommandValue.DIM_87_PERCENT, FS20CommandValue.DIM_93_PERCENT,
+            FS20CommandValue.DIM_100_PERCENT, FS20CommandValue.ON, FS20CommandValue.TOGGLE, FS20CommandValue.DIM_UP,
+            FS20CommandValue.DIM_DOWN, FS20CommandValue.DIM_UP_DOWN, FS20CommandValue.TIMER, FS20CommandValue.SENDSATE,
+            FS20CommandValue.OFF_FOR_TIMER, FS20CommandValue.ON_FOR_TIMER, FS20CommandValue.ON_OLD_FOR_TIMER, FS20CommandValue.RESET,
+            FS20CommandValue.RAMP_ON_TIME, FS20CommandValue.RAMP_OFF_TIME, FS20CommandValue.ON_OLD_FOR_TIMER_PREV, FS20CommandValue.ON_100_FOR_TIMER_PREV);
+    private final static EnumCodes<LaCrosseTx2Property> LA_CROSSE_TX2_PROPERTIES = new EnumCodes<>(LaCrosseTx2Property.class,
+            LaCrosseTx2Property.TEMP, LaCrosseTx2Property.HUMIDITY);
+
+    /**
+     * The first code of the synthetic FHT properties, after 0 for null and the
+     * command codes + 1.
+     */
+    private final static int FHT_SYNTHETIC_PROPERTY = 0x101;
+
+    private final static int FROM_FHT_8B = 0x01;
+    private final static int DATA_REGISTER = 0x02;
+    private final static int REPEATED = 0x01;
+    private final static int ALLOW_LOW_BATTERY_BEEP = 0x02;
+
+    private FhzMessageCodecs() {
+    }
+
+    private static void putFhtProperty(ByteBuffer dst, FhtProperty value) {
+        if (value == null) {
+            putVarInt(dst, 0);
+        } else if (value.getCode() != FhtProperty.NO_CODE) {
+            putVarInt(dst, value.getCode() + 1);
+        } else {
+            putVarInt(dst, FHT_SYNTHETIC_PROPERTY + FHT_SYNTHETIC_PROPERTIES.toCode(value));
+        }
+    }
+
+    private static FhtProperty getFhtProperty(ByteBuffer src) {
+        final int value = getVarInt(src);
+        if (value == 0) {
+            return null;
+        } else if (value < FHT_SYNTHETIC_PROPERTY) {
+            final FhtProperty result = FhtProperty.fromCode((byte) (value - 1));
+            if (result == null) {
+                throw new ParseFailure(ParseFailureReason.UNKNOWN_COMMAND, null, value - 1, null);
+            }
+            return result;
+        } else {
+            return FHT_SYNTHETIC_PROPERTIES.fromCode(value - FHT_SYNTHETIC_PROPERTY);
+        }
+    }
+
+    /**
+     * housecode, command, description and the flags of Fht8bMessage.
+     */
+    private static class FhtHeader {
+
+        short housecode;
+        FhtProperty command;
+        byte description;
+        boolean fromFht_8B;
+        boolean dataRegister;
+
+        FhtHeader(ByteBuffer src, boolean fht8b) {
+            housecode = src.getShort();
+            command = getFhtProperty(src);
+            description = src.get();
+            if (fht8b) {
+                final byte flags = src.get();
+                fromFht_8B = (flags & FROM_FHT_8B) != 0;
+                dataRegister = (flags & DATA_REGISTER) != 0;
+            }
+        }
+    }
+
+    private static void putFhtHeader(FhtMessage m, ByteBuffer dst) {
+        dst.putShort(m.housecode);
+        putFhtProperty(dst, m.command);
+        dst.put(m.description);
+    }
+
+    private static void putFht8bHeader(Fht8bMessage m, ByteBuffer dst) {
+        putFhtHeader(m, dst);
+        dst.put((byte) ((m.fromFht_8B ? FROM_FHT_8B : 0) | (m.dataRegister ? DATA_REGISTER : 0)));
+    }
+
+    private static void putHmsHeader(HmsMessage m, ByteBuffer dst) {
+        dst.putShort(m.housecode);
+        HMS_DEVICE_STATUS.putSet(dst, m.deviceStatus);
+    }
+
+    private static Set<HmsDeviceStatus> getHmsDeviceStatus(ByteBuffer src) {
+        return HMS_DEVICE_STATUS.getSet(src);
+    }
+
+    static void registerAll() {
+        register(0x01, Fht8bMessage.class,
+                (m, dst) -> putFht8bHeader(m, dst),
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new Fht8bMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister);
+                });
+        register(0x02, Fht80bRawMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    dst.put(m.getSignedValue());
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new Fht80bRawMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, src.get());
+                });
+        register(0x03, FhtDateMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    dst.put(m.month);
+                    dst.put(m.day);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    final byte month = src.get();
+                    return new FhtDateMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, month, src.get());
+                });
+        register(0x04, FhtDateTimeMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    putDateTime(dst, m.ts);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new FhtDateTimeMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, getDateTime(src));
+                });
+        register(0x05, FhtModeMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    FHT80B_MODES.put(dst, m.mode);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new FhtModeMessage(h.housecode, h.description, h.fromFht_8B, h.dataRegister, FHT80B_MODES.get(src));
+                });
+        register(0x06, FhtProtocolMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    dst.put(m.data);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new FhtProtocolMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, src.get());
+                });
+        register(0x07, FhtTempMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    putFloat(dst, m.temp);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new FhtTempMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, getFloat(src));
+                });
+        register(0x08, FhtTimeMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    putTime(dst, m.time);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    // 24:00 is null
+                    final FhtTimeMessage result = new FhtTimeMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, (byte) 24, (byte) 0);
+                    result.time = getTime(src);
+                    return result;
+                });
+        register(0x09, FhtTimesMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    putTime(dst, m.timeFrom1);
+                    putTime(dst, m.timeTo1);
+                    putTime(dst, m.timeFrom2);
+                    putTime(dst, m.timeTo2);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    final FhtTimesMessage result = new FhtTimesMessage(h.housecode, h.command, h.description, h.fromFht_8B, h.dataRegister, null, null, null, null);
+                    result.timeFrom1 = getTime(src);
+                    result.timeTo1 = getTime(src);
+                    result.timeFrom2 = getTime(src);
+                    result.timeTo2 = getTime(src);
+                    return result;
+                });
+        register(0x0a, FhtValvePosMessage.class,
+                (m, dst) -> {
+                    putFhtHeader(m, dst);
+                    dst.put((byte) ((m.repeated ? REPEATED : 0) | (m.allowLowBatteryBeep ? ALLOW_LOW_BATTERY_BEEP : 0)));
+                    FHT_VALVE_MODES.put(dst, m.mode);
+                    putFloat(dst, m.position);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, false);
+                    final byte flags = src.get();
+                    final FhtValveMode mode = FHT_VALVE_MODES.get(src);
+                    return new FhtValvePosMessage(h.housecode, h.command, h.description, (flags & REPEATED) != 0, mode, getFloat(src),
+                            (flags & ALLOW_LOW_BATTERY_BEEP) != 0);
+                });
+        register(0x0b, FhtValveSyncMessage.class,
+                (m, dst) -> {
+                    putFhtHeader(m, dst);
+                    putFloat(dst, m.timeLeft);
+                    dst.put((byte) (m.bit5 ? 1 : 0));
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, false);
+                    final float timeLeft = getFloat(src);
+                    return new FhtValveSyncMessage(h.housecode, h.command, h.description, timeLeft, src.get() != 0);
+                });
+        register(0x0c, FhtWarningMessage.class,
+                (m, dst) -> {
+                    putFht8bHeader(m, dst);
+                    FHT80B_WARNINGS.putSet(dst, m.warnings);
+                },
+                src -> {
+                    final FhtHeader h = new FhtHeader(src, true);
+                    return new FhtWarningMessage(h.housecode, h.description, h.fromFht_8B, h.dataRegister, FHT80B_WARNINGS.getSet(src));
+                });
+        register(0x0d, Fht80TfMessage.class,
+                (m, dst) -> {
+                    putVarInt(dst, m.address);
+                    FHT80TF_VALUES.put(dst, m.value);
+                    dst.put((byte) (m.lowBattery ? 1 : 0));
+                },
+                src -> {
+                    final int address = getVarInt(src);
+                    final Fht80TfValue value = FHT80TF_VALUES.get(src);
+                    return new Fht80TfMessage(address, value, src.get() != 0);
+                });
+
+        register(0x10, Hms100TfMessage.class,
+                (m, dst) -> {
+                    putHmsHeader(m, dst);
+                    putFloat(dst, m.temp);
+                    putFloat(dst, m.humidy);
+                },
+                src -> {
+                    final Hms100TfMessage result = new Hms100TfMessage(src.getShort(), getHmsDeviceStatus(src));
+                    result.temp = getFloat(src);
+                    result.humidy = getFloat(src);
+                    return result;
+                });
+        register(0x11, Hms100WdMessage.class,
+                (m, dst) -> {
+                    putHmsHeader(m, dst);
+                    dst.put((byte) (m.water ? 1 : 0));
+                },
+                src -> {
+                    final Hms100WdMessage result = new Hms100WdMessage(src.getShort(), getHmsDeviceStatus(src));
+                    result.water = src.get() != 0;
+                    return result;
+                });
+        register(0x12, Hms100RmMessage.class,
+                (m, dst) -> {
+                    putHmsHeader(m, dst);
+                    dst.put((byte) (m.smoke ? 1 : 0));
+                },
+                src -> {
+                    final Hms100RmMessage result = new Hms100RmMessage(src.getShort(), getHmsDeviceStatus(src));
+                    result.smoke = src.get() != 0;
+                    return result;
+                });
+        register(0x13, Hms100TfkMessage.class,
+                (m, dst) -> {
+                    putHmsHeader(m, dst);
+                    dst.put((byte) (m.open ? 1 : 0));
+                },
+                src -> {
+                    final Hms100TfkMessage result = new Hms100TfkMessage(src.getShort(), getHmsDeviceStatus(src));
+                    result.open = src.get() != 0;
+                    return result;
+                });
+
+        register(0x18, EmMessage.class,
+                (m, dst) -> {
+                    EM_DEVICE_TYPES.put(dst, m.emDeviceType);
+                    putSignedVarInt(dst, m.address);
+                    putSignedVarInt(dst, m.counter);
+                    putSignedVarInt(dst, m.valueCummulated);
+                    putSignedVarInt(dst, m.value5Min);
+                    putSignedVarInt(dst, m.value5MinPeak);
+                },
+                src -> {
+                    final EmMessage result = new EmMessage(EM_DEVICE_TYPES.get(src));
+                    result.address = (short) getSignedVarInt(src);
+                    result.counter = (short) getSignedVarInt(src);
+                    result.valueCummulated = getSignedVarInt(src);
+                    result.value5Min = getSignedVarInt(src);
+                    result.value5MinPeak = getSignedVarInt(src);
+                    return result;
+                });
+
+        register(0x20, FS20Message.class,
+                (m, dst) -> {
+                    dst.putShort(m.housecode);
+                    FS20_COMMAND_VALUES.put(dst, m.command);
+                    dst.put(m.offset);
+                },
+                src -> {
+                    final short housecode = src.getShort();
+                    final FS20CommandValue command = FS20_COMMAND_VALUES.get(src);
+                    return new FS20Message(housecode, command, src.get());
+                });
+
+        register(0x28, LaCrosseTx2Message.class,
+                (m, dst) -> {
+                    LA_CROSSE_TX2_PROPERTIES.put(dst, m.laCrosseTx2Property);
+                    dst.put(m.address);
+                    putFloat(dst, m.value);
+                },
+                src -> {
+                    final LaCrosseTx2Message result = new LaCrosseTx2Message(LA_CROSSE_TX2_PROPERTIES.get(src));
+                    result.address = src.get();
+                    result.value = getFloat(src);
+                    return result;
+                });
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.codec;
+
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeLazyMessage;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compact binary format of the messages for storage and transport between
+ * processes. Each message starts with the {@link #FORMAT_VERSION} byte and a
+ * tag byte which identifies the message class, followed by
+ * {@link Message#receivedMillis} and the fields of the message. Integers are
+ * written as varints, temperatures as fixed point numbers and enums by their
+ * command code or a fixed code table, never by their ordinal. A message takes
+ * a few bytes, usually less than the raw frame.
+ * <p>
+ * New enum constants and message classes extend the format, a change of the
+ * existing encoding needs a new format version. The protocol and the
+ * nanosecond timestamps are not stored. An {@link EvoHomeLazyMessage} is
+ * stored as its decoded payload message.
+ *
+ * @author Arne Plöse
+ */
+public final class MessageCodec {
+
+    /**
+     * The version of the format, the first byte of each message.
+     */
+    public final static byte FORMAT_VERSION = 1;
+
+    @FunctionalInterface
+    interface Encoder<M> {
+
+        void encode(M message, ByteBuffer dst);
+    }
+
+    @FunctionalInterface
+    interface Decoder<M> {
+
+        M decode(ByteBuffer src);
+    }
+
+    private final static class Entry<M extends Message<?>> {
+
+        final byte tag;
+        final Class<M> messageClass;
+        final Encoder<M> encoder;
+        final Decoder<M> decoder;
+
+        Entry(byte tag, Class<M> messageClass, Encoder<M> encoder, Decoder<M> decoder) {
+            this.tag = tag;
+            this.messageClass = messageClass;
+            this.encoder = encoder;
+            this.decoder = decoder;
+        }
+
+        void encode(Message<?> message, ByteBuffer dst) {
+            encoder.encode(messageClass.cast(message), dst);
+        }
+    }
+
+    private final static Entry<?>[] BY_TAG = new Entry<?>[256];
+    private final static Map<Class<?>, Entry<?>> BY_CLASS = new HashMap<>();
+
+    static {
+        FhzMessageCodecs.registerAll();
+        EvoHomeMessageCodecs.registerAll();
+    }
+
+    private MessageCodec() {
+    }
+
+    static <M extends Message<?>> void register(int tag, Class<M> messageClass, Encoder<M> encoder, Decoder<M> decoder) {
+        if (BY_TAG[tag] != null || BY_CLASS.containsKey(messageClass)) {
+            throw new IllegalStateException("Duplicate tag 0x" + Integer.toHexString(tag) + " or class " + messageClass.getName());
+        }
+        final Entry<M> entry = new Entry<>((byte) tag, messageClass, encoder, decoder);
+        BY_TAG[tag] = entry;
+        BY_CLASS.put(messageClass, entry);
+    }
+
+    /**
+     * @param message
+     * @return true if the class of the message has a binary format.
+     */
+    public static boolean canEncode(Message<?> message) {
+        return message instanceof EvoHomeLazyMessage || BY_CLASS.containsKey(message.getClass());
+    }
+
+    /**
+     * Write the message at the position of dst.
+     *
+     * @param message
+     * @param dst
+     * @throws IllegalArgumentException if the message class has no binary
+     * format or the payload of an {@link EvoHomeLazyMessage} can't be decoded.
+     * @throws java.nio.BufferOverflowException if dst is too small, the
+     * position of dst is undefined then.
+     */
+    public static void encode(Message<?> message, ByteBuffer dst) {
+        if (message instanceof EvoHomeLazyMessage lazyMessage) {
+            message = lazyMessage.getPayloadMessage();
+        }
+        final Entry<?> entry = BY_CLASS.get(message.getClass());
+        if (entry == null) {
+            throw new IllegalArgumentException("No binary format for " + message.getClass().getName());
+        }
+        dst.put(FORMAT_VERSION);
+        dst.put(entry.tag);
+        BinaryFields.putVarLong(dst, message.receivedMillis);
+        entry.encode(message, dst);
+    }
+
+    /**
+     * Read one message from the position of src. Only the message and the
+     * objects it holds are allocated.
+     *
+     * @param src
+     * @return the message.
+     * @throws ParseFailure if the format version or the tag is unknown or the
+     * data is invalid.
+     * @throws java.nio.BufferUnderflowException if the message is truncated.
+     */
+    public static Message<?> decode(ByteBuffer src) {
+        final int version = src.get() & 0xff;
+        if (version != FORMAT_VERSION) {
+            throw new ParseFailure(ParseFailureReason.UNKNOWN_VALUE, null, version, null);
+        }
+        final int tag = src.get() & 0xff;
+        final Entry<?> entry = BY_TAG[tag];
+        if (entry == null) {
+            throw new ParseFailure(ParseFailureReason.UNKNOWN_MESSAGE_TYPE, null, tag, null);
+        }
+        final long receivedMillis = BinaryFields.getVarLong(src);
+        final Message<?> result = entry.decoder.decode(src);
+        result.receivedMillis = receivedMillis;
+        return result;
+    }
+
+}
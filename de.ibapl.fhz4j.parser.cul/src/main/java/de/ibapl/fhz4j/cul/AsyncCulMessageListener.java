@@ -0,0 +1,440 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.LatencyHistogram;
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decouples the thread which reads and parses the data from the application
+ * listener. All callbacks are put into a preallocated single producer single
+ * consumer ring buffer, a separate dispatcher thread takes them out and calls
+ * the wrapped listener. So a slow listener will not stall the reading of the
+ * serial port.
+ *
+ * Only one thread must call the callbacks of this listener, which is the case
+ * if this listener is passed to one {@link CulAdapter}.
+ *
+ * @author Arne Plöse
+ */
+public class AsyncCulMessageListener implements CulMessageListener, AutoCloseable {
+
+    /**
+     * What to do if the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until the dispatcher has made room.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest not yet dispatched event.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the event which does not fit into the buffer.
+         */
+        DROP_NEWEST;
+    }
+
+    private enum EventType {
+        CUL_MESSAGE,
+        SIGNAL_STRENGTH,
+        FAILED,
+        RECEIVE_ENABLED,
+        HELP,
+        IO_EXCEPTION,
+        EM,
+        EVO_HOME,
+        FHT,
+        /**
+         * An FHT message assembled from the partial message of the same frame.
+         */
+        FHT_ASSEMBLED,
+        FHT_PARTIAL,
+        FHT_80_TF,
+        FS20,
+        HMS,
+        LA_CROSSE_TX2;
+    }
+
+    private final static class Slot {
+
+        EventType type;
+        Object value;
+        float signalStrength;
+    }
+
+    private class Dispatcher implements Runnable {
+
+        @Override
+        public void run() {
+            while (true) {
+                final long h = head.get();
+                if (h == tail.get()) {
+                    if (!open) {
+                        break;
+                    }
+                    dispatcherWaiting = true;
+                    if (h == tail.get() && open) {
+                        LockSupport.parkNanos(AsyncCulMessageListener.this, MAX_PARK_NANOS);
+                    }
+                    dispatcherWaiting = false;
+                    continue;
+                }
+                final Slot slot = slots[(int) (h & mask)];
+                final EventType type = slot.type;
+                final Object value = slot.value;
+                final float signalStrength = slot.signalStrength;
+                // with DROP_OLDEST the producer may have discarded and reused this slot in the meantime
+                if (!head.compareAndSet(h, h + 1)) {
+                    continue;
+                }
+                try {
+                    dispatch(type, value, signalStrength);
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "caught unexcpected exception during dispatching of " + type, t);
+                }
+            }
+            LOG.fine("closing down - dispatching finished");
+        }
+
+    }
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * The default number of events the ring buffer can hold.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final CulMessageListener listener;
+    private final OverflowPolicy overflowPolicy;
+    private final Slot[] slots;
+    private final int mask;
+    /**
+     * The index of the next event to dispatch. Written by the dispatcher and
+     * with DROP_OLDEST by the producer.
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * The index of the next free slot. Written only by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final Thread dispatcherThread;
+    private volatile boolean dispatcherWaiting;
+    private volatile boolean open;
+    private volatile LatencyHistogram latencyHistogram;
+    /**
+     * The partial FHT message offered last, or null if another event followed
+     * it. Accessed only by the producer.
+     */
+    private FhtMessage<?> lastPartialFhtMessage;
+
+    public AsyncCulMessageListener(CulMessageListener listener) {
+        this(listener, DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     *
+     * @param listener the listener to dispatch to.
+     * @param bufferSize the number of events to hold, will be rounded up to
+     * the next power of two.
+     * @param overflowPolicy what to do if the buffer is full.
+     */
+    public AsyncCulMessageListener(CulMessageListener listener, int bufferSize, OverflowPolicy overflowPolicy) {
+        this(listener, bufferSize, overflowPolicy, null);
+    }
+
+    /**
+     *
+     * @param listener the listener to dispatch to.
+     * @param bufferSize the number of events to hold, will be rounded up to
+     * the next power of two.
+     * @param overflowPolicy what to do if the buffer is full.
+     * @param threadFactory creates the dispatcher thread, if null a platform
+     * daemon thread is created.
+     */
+    public AsyncCulMessageListener(CulMessageListener listener, int bufferSize, OverflowPolicy overflowPolicy, ThreadFactory threadFactory) {
+        if (bufferSize < 1 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("bufferSize must be in 1 ... 2^30");
+        }
+        this.listener = listener;
+        this.overflowPolicy = overflowPolicy;
+        final int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        mask = capacity - 1;
+        open = true;
+        if (threadFactory == null) {
+            dispatcherThread = new Thread(new Dispatcher(), "CUL dispatcher");
+            dispatcherThread.setDaemon(true);
+        } else {
+            dispatcherThread = threadFactory.newThread(new Dispatcher());
+        }
+        dispatcherThread.start();
+    }
+
+    /**
+     * @return the number of events which could not be dispatched, because the
+     * buffer was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of events waiting for dispatch.
+     */
+    public int getPendingCount() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Stop accepting new events, dispatch the pending events and wait for the
+     * dispatcher to finish.
+     *
+     * @throws InterruptedException
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (open) {
+            open = false;
+            LockSupport.unpark(dispatcherThread);
+            if (Thread.currentThread() != dispatcherThread) {
+                dispatcherThread.join();
+            }
+        }
+    }
+
+    private void offer(EventType type, Object value, float signalStrength) {
+        lastPartialFhtMessage = null;
+        if (!open) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        final long t = tail.get();
+        while (t - head.get() > mask) {
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    if (!open) {
+                        droppedCount.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.unpark(dispatcherThread);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                }
+                case DROP_OLDEST -> {
+                    final long h = head.get();
+                    if (t - h > mask && head.compareAndSet(h, h + 1)) {
+                        droppedCount.incrementAndGet();
+                    }
+                }
+                case DROP_NEWEST -> {
+                    droppedCount.incrementAndGet();
+                    return;
+                }
+                default ->
+                    throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+            }
+        }
+        final Slot slot = slots[(int) (t & mask)];
+        slot.type = type;
+        slot.value = value;
+        slot.signalStrength = signalStrength;
+        tail.set(t + 1);
+        if (dispatcherWaiting) {
+            LockSupport.unpark(dispatcherThread);
+        }
+    }
+
+    /**
+     * Restamp the dispatch time of each message when the dispatcher passes it
+     * to the wrapped listener and record the latency between reading the
+     * first byte of its frame and that call, so the time spent in the ring
+     * buffer is included. Records once per frame: an FHT message assembled
+     * from the partial message of the same frame is not recorded, the partial
+     * one is.
+     *
+     * @param latencyHistogram the histogram to record to, or null.
+     */
+    public void setLatencyHistogram(LatencyHistogram latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    private void dispatch(EventType type, Object value, float signalStrength) {
+        final LatencyHistogram histogram = latencyHistogram;
+        if (histogram != null && value instanceof Message<?> message && message.protocol != Protocol.CUL) {
+            message.setDispatchedNow();
+            if (type != EventType.FHT_ASSEMBLED) {
+                histogram.record(message);
+            }
+        }
+        switch (type) {
+            case CUL_MESSAGE ->
+                listener.culMessageParsed((CulMessage) value);
+            case SIGNAL_STRENGTH ->
+                listener.signalStrength(signalStrength);
+            case FAILED ->
+                listener.failed((Throwable) value);
+            case RECEIVE_ENABLED ->
+                listener.receiveEnabled((Protocol) value);
+            case HELP ->
+                listener.helpParsed((String) value);
+            case IO_EXCEPTION ->
+                listener.onIOException((IOException) value);
+            case EM ->
+                listener.emDataParsed((EmMessage) value);
+            case EVO_HOME ->
+                listener.evoHomeParsed((EvoHomeMessage) value);
+            case FHT, FHT_ASSEMBLED ->
+                listener.fhtDataParsed((FhtMessage) value);
+            case FHT_PARTIAL ->
+                listener.fhtPartialDataParsed((FhtMessage) value);
+            case FHT_80_TF ->
+                listener.fht80TfDataParsed((Fht80TfMessage) value);
+            case FS20 ->
+                listener.fs20DataParsed((FS20Message) value);
+            case HMS ->
+                listener.hmsDataParsed((HmsMessage) value);
+            case LA_CROSSE_TX2 ->
+                listener.laCrosseTxParsed((LaCrosseTx2Message) value);
+            default ->
+                throw new IllegalStateException("Unknown event type: " + type);
+        }
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        offer(EventType.CUL_MESSAGE, culMessage, 0);
+    }
+
+    @Override
+    public void signalStrength(float signalStrength) {
+        offer(EventType.SIGNAL_STRENGTH, null, signalStrength);
+    }
+
+    @Override
+    public void failed(Throwable t) {
+        offer(EventType.FAILED, t, 0);
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+        offer(EventType.RECEIVE_ENABLED, protocol, 0);
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+        offer(EventType.HELP, helpMessages, 0);
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+        offer(EventType.IO_EXCEPTION, ioe, 0);
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        offer(EventType.EM, emMsg, 0);
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        offer(EventType.EVO_HOME, evoHomeMsg, 0);
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        offer(isAssembledInSameFrame(fhtMessage) ? EventType.FHT_ASSEMBLED : EventType.FHT, fhtMessage, 0);
+    }
+
+    @Override
+    public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+        offer(EventType.FHT_PARTIAL, fhtMessage, 0);
+        lastPartialFhtMessage = fhtMessage;
+    }
+
+    /**
+     * The parser passes an assembled message right after the partial message
+     * of the same frame, both carry the receive time of that frame.
+     */
+    private boolean isAssembledInSameFrame(FhtMessage<?> fhtMessage) {
+        final FhtMessage<?> partial = lastPartialFhtMessage;
+        return partial != null
+                && fhtMessage.command.getCode() == FhtProperty.NO_CODE
+                && fhtMessage.housecode == partial.housecode
+                && fhtMessage.receivedNanos == partial.receivedNanos;
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        offer(EventType.FHT_80_TF, fht80TfMessage, 0);
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        offer(EventType.FS20, fs20Msg, 0);
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        offer(EventType.HMS, hmsMsg, 0);
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        offer(EventType.LA_CROSSE_TX2, laCrosseTx2Msg, 0);
+    }
+
+}
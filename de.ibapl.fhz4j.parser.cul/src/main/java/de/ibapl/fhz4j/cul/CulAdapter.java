@@ -25,8 +25,15 @@ import de.ibapl.fhz4j.LogUtils;
 import de.ibapl.fhz4j.api.Adapter;
 import de.ibapl.fhz4j.api.EvoHomeHandler;
 import de.ibapl.fhz4j.api.FhzHandler;
+import de.ibapl.fhz4j.api.LatencyHistogram;
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailureCounters;
+import de.ibapl.fhz4j.api.Protocol;
 import de.ibapl.fhz4j.api.Request;
 import de.ibapl.fhz4j.api.Response;
+import de.ibapl.fhz4j.cul.CulTransmitScheduler.DeferredTransmission;
+import de.ibapl.fhz4j.cul.CulTransmitScheduler.Priority;
+import de.ibapl.fhz4j.cul.CulTransmitScheduler.Transmission;
 import de.ibapl.fhz4j.parser.cul.CulParser;
 import de.ibapl.fhz4j.protocol.evohome.DeviceId;
 import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
@@ -48,10 +55,15 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Flow;
 import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -60,18 +72,24 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
 
     private class StreamListener implements Runnable {
 
-        private final ByteBuffer inBuffer = ByteBuffer.allocateDirect(64);
+        private final ByteBuffer inBuffer;
+
+        private StreamListener(int readBufferSize) {
+            inBuffer = ByteBuffer.allocateDirect(readBufferSize);
+        }
 
         @Override
         public void run() {
             LOG.log(Level.FINE, "THREAD START {0}", open);
             while (open) {
+                deliverTransmitErrors();
                 try {
                     serialPortSocket.read(inBuffer);
+                    culParser.setReadTime(System.nanoTime(), System.currentTimeMillis());
                     inBuffer.flip();
                     while (inBuffer.hasRemaining()) {
                         try {
-                            culParser.parse((char) inBuffer.get());
+                            culParser.parse(inBuffer);
                         } catch (Exception e) {
                             LOG.log(Level.SEVERE, "caught unexcpected exception during waiting for packages", e);
                         }
@@ -98,17 +116,79 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
 
     }
 
+    /**
+     * The pending writes of one housecode, taken when the credit covers them.
+     */
+    private class FhtWritesTransmission implements DeferredTransmission {
+
+        private final FhtWriteBatcher batcher;
+        private final short housecode;
+        private LinkedHashMap<FhtProperty, Byte> properties;
+
+        private FhtWritesTransmission(FhtWriteBatcher batcher, short housecode) {
+            this.batcher = batcher;
+            this.housecode = housecode;
+        }
+
+        @Override
+        public int estimateAirtimeMillis() {
+            return batcher.estimateAirtimeMillis(housecode);
+        }
+
+        @Override
+        public int prepare(int maxAirtimeMillis) {
+            properties = batcher.take(housecode, maxAirtimeMillis);
+            return batcher.estimateAirtimeMillis(properties);
+        }
+
+        @Override
+        public DeferredTransmission remainder() {
+            return batcher.getPendingCount(housecode) == 0 ? null : new FhtWritesTransmission(batcher, housecode);
+        }
+
+        @Override
+        public void transmit() throws IOException {
+            writeLocked(() -> batcher.write(housecode, properties));
+        }
+
+    }
+
     private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
 
+    /**
+     * The default size of the buffer the received data is read into.
+     */
+    public static final int DEFAULT_READ_BUFFER_SIZE = 1024;
+
     private CulParser<?> culParser;
     private CulWriter culWriter;
     private FhtEncoder fhtEncoder;
     private EvoHomeEncoder evoHomeEncoder;
+    private FhtWriteBatcher fhtWriteBatcher;
+    private volatile CulTransmitScheduler transmitScheduler;
+    /**
+     * Guards the culWriter and keeps the order of the pending requests of the
+     * parser the same as the order of the written requests.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * The IOExceptions of the transmit scheduler, they are passed to the
+     * listener by the reading thread, the only thread which calls it.
+     */
+    private final ConcurrentLinkedQueue<IOException> transmitErrors = new ConcurrentLinkedQueue<>();
     private final CulMessageListener fhzDataListener;
-    private boolean open;
+    private final AsyncCulMessageListener asyncListener;
+    private final CulMessagePublisher messagePublisher;
+    /**
+     * Set once a publisher was handed out, the messages may then be read by
+     * other threads, so they must not be reused.
+     */
+    private boolean publisherInUse;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+    private volatile boolean open;
     private Thread parserThread;
     private SerialPortSocket serialPortSocket;
-    private final StreamListener streamListener = new StreamListener();
+    private final StreamListener streamListener;
 
     /**
      * Create a CUL adapter and initialize the serial port with 9600,8,n,1.
@@ -131,6 +211,76 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
      * @throws java.io.IOException
      */
     public CulAdapter(SerialPortSocket serialPortSocket, CulMessageListener fhzDataListener, Speed speed) throws IOException {
+        this(serialPortSocket, fhzDataListener, speed, DEFAULT_READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a CUL adapter and initialize the serial port with (speed),8,n,1.
+     *
+     * @param serialPortSocket
+     * @param fhzDataListener
+     * @param speed
+     * @param readBufferSize the size of the buffer the received data is read
+     * into and then parsed in one go.
+     * @throws java.io.IOException
+     */
+    public CulAdapter(SerialPortSocket serialPortSocket, CulMessageListener fhzDataListener, Speed speed, int readBufferSize) throws IOException {
+        this(serialPortSocket, fhzDataListener, speed, readBufferSize, 0, null);
+    }
+
+    /**
+     * Create a CUL adapter and initialize the serial port with (speed),8,n,1.
+     *
+     * If dispatchBufferSize is greater than 0, the parsed messages are put
+     * into a ring buffer and the fhzDataListener is called from a separate
+     * dispatcher thread, so the reading of the serial port is never blocked by
+     * the fhzDataListener.
+     *
+     * @param serialPortSocket
+     * @param fhzDataListener
+     * @param speed
+     * @param readBufferSize the size of the buffer the received data is read
+     * into and then parsed in one go.
+     * @param dispatchBufferSize the number of events the dispatcher can hold,
+     * 0 to call the fhzDataListener from the reading thread.
+     * @param overflowPolicy what to do if the dispatcher can't keep up.
+     * @throws java.io.IOException
+     * @see AsyncCulMessageListener
+     */
+    public CulAdapter(SerialPortSocket serialPortSocket, CulMessageListener fhzDataListener, Speed speed, int readBufferSize, int dispatchBufferSize, AsyncCulMessageListener.OverflowPolicy overflowPolicy) throws IOException {
+        this(serialPortSocket, fhzDataListener, speed, readBufferSize, dispatchBufferSize, overflowPolicy, null);
+    }
+
+    /**
+     * Create a CUL adapter and initialize the serial port with (speed),8,n,1.
+     *
+     * The reading thread and the dispatcher thread (if any) are created by the
+     * threadFactory. So with a virtual thread factory many adapters can run in
+     * one JVM without a platform thread for each of them.
+     *
+     * @param serialPortSocket
+     * @param fhzDataListener
+     * @param speed
+     * @param readBufferSize the size of the buffer the received data is read
+     * into and then parsed in one go.
+     * @param dispatchBufferSize the number of events the dispatcher can hold,
+     * 0 to call the fhzDataListener from the reading thread.
+     * @param overflowPolicy what to do if the dispatcher can't keep up.
+     * @param threadFactory creates the threads of this adapter, if null
+     * platform daemon threads are created.
+     * @throws java.io.IOException
+     * @see AsyncCulMessageListener
+     */
+    public CulAdapter(SerialPortSocket serialPortSocket, CulMessageListener fhzDataListener, Speed speed, int readBufferSize, int dispatchBufferSize, AsyncCulMessageListener.OverflowPolicy overflowPolicy, ThreadFactory threadFactory) throws IOException {
+        if (readBufferSize < 1) {
+            throw new IllegalArgumentException("readBufferSize must be greater than 0");
+        }
+        if (dispatchBufferSize < 0) {
+            throw new IllegalArgumentException("dispatchBufferSize must not be negative");
+        }
+        if (dispatchBufferSize > 0 && overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy must not be null");
+        }
         if (!serialPortSocket.isOpen()) {
             throw new IllegalStateException("serial port " + serialPortSocket.getPortName() + " is not open");
         }
@@ -142,13 +292,31 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
         serialPortSocket.setTimeouts(100, 60000, 1000);
 
         this.serialPortSocket = serialPortSocket;
-        this.fhzDataListener = fhzDataListener;
-        culParser = new CulParser<>(fhzDataListener);
+        if (dispatchBufferSize > 0) {
+            asyncListener = new AsyncCulMessageListener(fhzDataListener, dispatchBufferSize, overflowPolicy, threadFactory);
+            messagePublisher = new CulMessagePublisher(asyncListener);
+        } else {
+            asyncListener = null;
+            messagePublisher = new CulMessagePublisher(fhzDataListener);
+        }
+        this.fhzDataListener = messagePublisher;
+        culParser = new CulParser<>(this.fhzDataListener);
+        if (asyncListener != null) {
+            asyncListener.setLatencyHistogram(latencyHistogram);
+        } else {
+            culParser.setLatencyHistogram(latencyHistogram);
+        }
         culWriter = new CulWriter(serialPortSocket, CulWriter.DEFAULT_BUFFER_SIZE);
         fhtEncoder = new FhtEncoder(culWriter);
+        fhtWriteBatcher = new FhtWriteBatcher(fhtEncoder);
         evoHomeEncoder = new EvoHomeEncoder(culWriter);
-        parserThread = new Thread(streamListener);
-        parserThread.setDaemon(true);
+        streamListener = new StreamListener(readBufferSize);
+        if (threadFactory == null) {
+            parserThread = new Thread(streamListener);
+            parserThread.setDaemon(true);
+        } else {
+            parserThread = threadFactory.newThread(streamListener);
+        }
         //mark this as open, so the streamListener will not falsely close down imediately
         open = true;
         parserThread.start();
@@ -159,45 +327,290 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
         if (open) {
             open = false;
             try {
+                final CulTransmitScheduler scheduler = transmitScheduler;
+                if (scheduler != null) {
+                    transmitScheduler = null;
+                    scheduler.close();
+                }
                 parserThread.interrupt();
                 culWriter.close();
                 evoHomeEncoder = null;
+                fhtWriteBatcher = null;
                 fhtEncoder = null;
                 parserThread = null;
                 culWriter = null;
                 culParser = null;
             } finally {
-                serialPortSocket.close();
-                serialPortSocket = null;
+                try {
+                    serialPortSocket.close();
+                    serialPortSocket = null;
+                } finally {
+                    messagePublisher.close();
+                    if (asyncListener != null) {
+                        asyncListener.close();
+                    }
+                }
             }
         }
     }
 
+    /**
+     * The messages are published in addition to the calls of the
+     * fhzDataListener. Each subscriber has its own bounded buffer, if it is
+     * full the message is dropped for this subscriber.
+     *
+     * @return a publisher of all received messages.
+     */
+    public synchronized Flow.Publisher<Message<?>> getPublisher() {
+        if (culParser != null && culParser.isReuseMessages()) {
+            throw new IllegalStateException("messages are reused, they can't be published");
+        }
+        publisherInUse = true;
+        return messagePublisher.getPublisher();
+    }
+
+    /**
+     * @param protocol
+     * @return a publisher of the received messages of this protocol.
+     * @see #getPublisher()
+     */
+    public synchronized Flow.Publisher<Message<?>> getPublisher(Protocol protocol) {
+        if (culParser != null && culParser.isReuseMessages()) {
+            throw new IllegalStateException("messages are reused, they can't be published");
+        }
+        publisherInUse = true;
+        return messagePublisher.getPublisher(protocol);
+    }
+
+    /**
+     * With a dispatch buffer the latency is recorded when the dispatcher thread
+     * passes the message to the fhzDataListener, so it includes the time spent
+     * in the buffer. Without a dispatch buffer it is recorded when the parser
+     * passes the message on. Either way each frame is recorded once.
+     *
+     * @return the latency between reading the first byte of a frame and
+     * passing its message on, per protocol.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * If set, the FHT, HMS, EM, FS20 and LaCrosse TX2 messages are filled over
+     * and over again and are only valid during the listener callback, use
+     * {@link Message#copy()} to keep one. EvoHome messages are not covered and
+     * are allocated for each frame. This is refused if the messages are passed
+     * to other threads, that is with a dispatch buffer or once a publisher was
+     * requested.
+     *
+     * @param reuseMessages
+     * @throws IllegalStateException if the messages are passed to other
+     * threads.
+     */
+    public synchronized void setReuseMessages(boolean reuseMessages) {
+        if (reuseMessages) {
+            if (asyncListener != null) {
+                throw new IllegalStateException("messages are dispatched to another thread, they can't be reused");
+            }
+            if (publisherInUse) {
+                throw new IllegalStateException("messages are published, they can't be reused");
+            }
+        }
+        culParser.setReuseMessages(reuseMessages);
+    }
+
+    public boolean isReuseMessages() {
+        return culParser.isReuseMessages();
+    }
+
+    /**
+     * If set, EvoHome messages are passed as
+     * {@link de.ibapl.fhz4j.protocol.evohome.EvoHomeLazyMessage} and the
+     * payload is only decoded on request.
+     *
+     * @param lazyEvoHomePayloadDecoding
+     */
+    public void setLazyEvoHomePayloadDecoding(boolean lazyEvoHomePayloadDecoding) {
+        culParser.setLazyEvoHomePayloadDecoding(lazyEvoHomePayloadDecoding);
+    }
+
+    public boolean isLazyEvoHomePayloadDecoding() {
+        return culParser.isLazyEvoHomePayloadDecoding();
+    }
+
+    /**
+     * Drop received frames by address before their payload is decoded.
+     *
+     * @param frameFilter the filter or null to pass all frames.
+     */
+    public void setFrameFilter(CulFrameFilter frameFilter) {
+        culParser.setFrameFilter(frameFilter);
+    }
+
+    public CulFrameFilter getFrameFilter() {
+        return culParser.getFrameFilter();
+    }
+
+    /**
+     * Drop repeated frames before the listener is called.
+     *
+     * @param frameDeduplicator the deduplicator or null to pass all frames.
+     */
+    public void setFrameDeduplicator(CulFrameDeduplicator frameDeduplicator) {
+        culParser.setFrameDeduplicator(frameDeduplicator);
+    }
+
+    public CulFrameDeduplicator getFrameDeduplicator() {
+        return culParser.getFrameDeduplicator();
+    }
+
+    /**
+     * Send the FHT and EvoHome writes through the scheduler, so they respect
+     * the duty cycle and urgent writes go first. The writes return once they
+     * are queued, IOExceptions of the transmission go to
+     * {@link CulMessageListener#onIOException(IOException)} from the reading
+     * thread, at the latest after its read timeout. The scheduler
+     * polls the credit of the CUL through this adapter, it must be started
+     * and is closed together with this adapter.
+     *
+     * @param transmitScheduler the scheduler or null to write immediately.
+     */
+    public void setTransmitScheduler(CulTransmitScheduler transmitScheduler) {
+        if (transmitScheduler != null) {
+            transmitScheduler.setCreditPoll(this::pollTransmitCredit, CulTransmitScheduler.DEFAULT_CREDIT_POLL_INTERVAL);
+            transmitScheduler.setErrorHandler(transmitErrors::add);
+        }
+        this.transmitScheduler = transmitScheduler;
+    }
+
+    public CulTransmitScheduler getTransmitScheduler() {
+        return transmitScheduler;
+    }
+
+    private void deliverTransmitErrors() {
+        IOException ioe;
+        while ((ioe = transmitErrors.poll()) != null) {
+            if (open) {
+                fhzDataListener.onIOException(ioe);
+            }
+        }
+    }
+
+    private void pollTransmitCredit() throws IOException {
+        final CulGetSlowRfSettingsRequest request = new CulGetSlowRfSettingsRequest();
+        writeLocked(() -> {
+            culParser.addCulRequest(request, response -> {
+                final CulTransmitScheduler scheduler = transmitScheduler;
+                if (scheduler != null && response instanceof CulGetSlowRfSettingsResponse slowRfSettings) {
+                    scheduler.updateCredit(slowRfSettings);
+                }
+            });
+            culWriter.writeCulRequest(request);
+        });
+    }
+
+    private void writeLocked(Transmission transmission) throws IOException {
+        writeLock.lock();
+        try {
+            transmission.transmit();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void transmit(Priority priority, int airtimeMillis, Transmission transmission) throws IOException {
+        final CulTransmitScheduler scheduler = transmitScheduler;
+        if (scheduler == null) {
+            writeLocked(transmission);
+        } else {
+            scheduler.submit(priority, airtimeMillis, () -> writeLocked(transmission));
+        }
+    }
+
+    /**
+     * Collect FHT writes here and send them with {@link #flushFhtWrites}, the
+     * writes to one device are merged into as few frames as possible.
+     *
+     * @return the batcher of this adapter.
+     */
+    public FhtWriteBatcher getFhtWriteBatcher() {
+        return fhtWriteBatcher;
+    }
+
+    /**
+     * Send the writes collected by the {@link #getFhtWriteBatcher()}, one
+     * transmission per housecode. With a transmit scheduler the writes of a
+     * housecode are taken when its transmission is next in line and the credit
+     * covers them, so the writes added until then are merged as well and the
+     * air time is estimated from what is actually sent. Writes which need more
+     * than the max air time of the priority are sent as several transmissions.
+     *
+     * @param priority the priority if a transmit scheduler is set.
+     * @throws IOException
+     */
+    public void flushFhtWrites(Priority priority) throws IOException {
+        final FhtWriteBatcher batcher = fhtWriteBatcher;
+        for (short housecode : batcher.getPendingHousecodes()) {
+            final CulTransmitScheduler scheduler = transmitScheduler;
+            if (scheduler == null) {
+                writeLocked(() -> batcher.flush(housecode));
+            } else {
+                scheduler.submit(priority, new FhtWritesTransmission(batcher, housecode));
+            }
+        }
+    }
+
+    private static int fhtAirtime(int propertyCount) {
+        // housecode and the command value pairs
+        return CulTransmitScheduler.estimateFhtAirtimeMillis(2 + 2 * propertyCount);
+    }
+
+    /**
+     * @return the number of received frames rejected as malformed, per
+     * reason.
+     */
+    public ParseFailureCounters getParseFailureCounters() {
+        return culParser.getParseFailureCounters();
+    }
+
+    /**
+     * @return the number of events the dispatcher has dropped, because the
+     * fhzDataListener did not keep up. Always 0 if the fhzDataListener is
+     * called from the reading thread.
+     */
+    public long getDroppedDispatchCount() {
+        return asyncListener == null ? 0 : asyncListener.getDroppedCount();
+    }
+
     @Override
     public void initFhtReporting(Set<Short> housecode) throws IOException {
-        fhtEncoder.initFhtReporting(housecode);
+        for (short hc : housecode) {
+            initFhtReporting(hc);
+        }
     }
 
     @Override
     public void initFhtReporting(short housecode) throws IOException {
-        fhtEncoder.initFhtReporting(housecode);
+        transmit(Priority.PROGRAMMING, fhtAirtime(2), () -> fhtEncoder.initFhtReporting(housecode));
     }
 
     @Override
     public void initFhz(short fhzHousecode) throws IOException {
-        culWriter.initFhz(fhzHousecode);
+        writeLocked(() -> culWriter.initFhz(fhzHousecode));
     }
 
     @Override
     public void initFhz(short fhzHousecode, Set<SlowRfFlag> slowRfFlags) throws IOException {
-        culWriter.initFhz(fhzHousecode, slowRfFlags);
+        writeLocked(() -> culWriter.initFhz(fhzHousecode, slowRfFlags));
     }
 
     @Override
     public void writeCulTimeSlotRequest() throws IOException {
         final CulGetSlowRfSettingsRequest request = new CulGetSlowRfSettingsRequest();
-        culParser.addCulRequest(request, null);
-        culWriter.writeCulRequest(request);
+        writeLocked(() -> {
+            culParser.addCulRequest(request, null);
+            culWriter.writeCulRequest(request);
+        });
     }
 
     @Override
@@ -206,15 +619,19 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
         requests.add(new CulGetSlowRfSettingsRequest());
         requests.add(new CulFhtDeviceOutBufferContentRequest());
         requests.add(new CulRemainingFhtDeviceOutBufferSizeRequest());
-        culParser.addCulRequests(requests, null);
-        culWriter.writeCulRequests(requests);
+        writeLocked(() -> {
+            culParser.addCulRequests(requests, null);
+            culWriter.writeCulRequests(requests);
+        });
     }
 
     @Override
     public void sendRequest(Request request, Consumer<Response> c) throws IOException {
-        if (request instanceof CulRequest) {
-            culParser.addCulRequest((CulRequest) request, c);
-            culWriter.writeCulRequest((CulRequest) request);
+        if (request instanceof CulRequest culRequest) {
+            writeLocked(() -> {
+                culParser.addCulRequest(culRequest, c);
+                culWriter.writeCulRequest(culRequest);
+            });
         } else {
             throw new IllegalArgumentException("Cant handle request " + request);
         }
@@ -222,12 +639,14 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
 
     @Override
     public Future<Response> sendRequest(Request request) throws IOException {
-        if (request instanceof CulRequest) {
+        if (request instanceof CulRequest culRequest) {
 
             ResponseFuture f = new ResponseFuture();
 
-            culParser.addCulRequest((CulRequest) request, f);
-            culWriter.writeCulRequest((CulRequest) request);
+            writeLocked(() -> {
+                culParser.addCulRequest(culRequest, f);
+                culWriter.writeCulRequest(culRequest);
+            });
 
             return f;
         } else {
@@ -238,58 +657,61 @@ public class CulAdapter implements Adapter, FhzHandler, EvoHomeHandler {
 
     @Override
     public void writeFht(short housecode, FhtProperty fhtProperty, float value) throws IOException {
-        fhtEncoder.writeFht(housecode, fhtProperty, value);
+        transmit(Priority.SETPOINT, fhtAirtime(1), () -> fhtEncoder.writeFht(housecode, fhtProperty, value));
     }
 
     @Override
     public void writeFht80Tf(int address, Fht80TfValue fht80TfValue, boolean lowBattery) throws IOException {
-        fhtEncoder.writeFht80Tf(address, fht80TfValue, lowBattery);
+        // address and value
+        transmit(Priority.SETPOINT, CulTransmitScheduler.estimateFhtAirtimeMillis(4), () -> fhtEncoder.writeFht80Tf(address, fht80TfValue, lowBattery));
     }
 
     @Override
     public void writeFhtCycle(short housecode, DayOfWeek dayOfWeek, LocalTime from1, LocalTime to1, LocalTime from2,
             LocalTime to2) throws IOException {
-        fhtEncoder.writeFhtCycle(housecode, dayOfWeek, from1, to1, from2, to2);
+        transmit(Priority.PROGRAMMING, fhtAirtime(4), () -> fhtEncoder.writeFhtCycle(housecode, dayOfWeek, from1, to1, from2, to2));
     }
 
     @Override
     public void writeFhtModeHoliday(short housecode, float temp, LocalDate date) throws IOException {
-        fhtEncoder.writeFhtModeHoliday(housecode, temp, date);
+        transmit(Priority.SETPOINT, fhtAirtime(4), () -> fhtEncoder.writeFhtModeHoliday(housecode, temp, date));
     }
 
     @Override
     public void writeFhtModeParty(short housecode, float temp, LocalDateTime to) throws IOException {
-        fhtEncoder.writeFhtModeParty(housecode, temp, to);
+        transmit(Priority.SETPOINT, fhtAirtime(4), () -> fhtEncoder.writeFhtModeParty(housecode, temp, to));
     }
 
     @Override
     public void writeFhtModeAuto(short housecode) throws IOException {
-        fhtEncoder.writeFhtModeAuto(housecode);
+        transmit(Priority.SETPOINT, fhtAirtime(1), () -> fhtEncoder.writeFhtModeAuto(housecode));
     }
 
     @Override
     public void writeFhtModeManu(short housecode) throws IOException {
-        fhtEncoder.writeFhtModeManu(housecode);
+        transmit(Priority.SETPOINT, fhtAirtime(1), () -> fhtEncoder.writeFhtModeManu(housecode));
     }
 
     @Override
     public void writeFhtTimeAndDate(short housecode, LocalDateTime ts) throws IOException {
-        fhtEncoder.writeFhtTimeAndDate(housecode, ts);
+        transmit(Priority.TIME_SYNC, fhtAirtime(5), () -> fhtEncoder.writeFhtTimeAndDate(housecode, ts));
     }
 
     @Override
     public void initEvoHome() throws IOException {
-        culWriter.initEvoHome();
+        writeLocked(culWriter::initEvoHome);
         //TODO wait for "va" for success or handle error
     }
 
     public void writeEvoHomeZoneSetpointPermanent(DeviceId deviceId, ZoneTemperature temperature) throws IOException {
-        evoHomeEncoder.writeEvoHomeZoneSetpointPermanent(deviceId, temperature);
+        // header, two device ids, command, length and 7 bytes of data
+        transmit(Priority.SETPOINT, CulTransmitScheduler.estimateEvoHomeAirtimeMillis(17), () -> evoHomeEncoder.writeEvoHomeZoneSetpointPermanent(deviceId, temperature));
         //TODO wait for "va" for success or handle error
     }
 
     public void writeEvoHomeZoneSetpointUntil(DeviceId deviceId, ZoneTemperature temperature, LocalDateTime localDateTime) throws IOException {
-        evoHomeEncoder.writeEvoHomeZoneSetpointUntil(deviceId, temperature, localDateTime);
+        // header, two device ids, command, length and 13 bytes of data
+        transmit(Priority.SETPOINT, CulTransmitScheduler.estimateEvoHomeAirtimeMillis(23), () -> evoHomeEncoder.writeEvoHomeZoneSetpointUntil(deviceId, temperature, localDateTime));
         //TODO wait for "va" for success or handle error
     }
 
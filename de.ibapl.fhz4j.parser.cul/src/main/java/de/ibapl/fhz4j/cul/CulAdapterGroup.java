@@ -0,0 +1,401 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.Adapter;
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import de.ibapl.spsw.api.SerialPortSocket;
+import de.ibapl.spsw.api.Speed;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns several CUL sticks which receive the same RF traffic and merges their
+ * messages into one listener.
+ *
+ * A frame received by more than one stick within the dedup window is passed
+ * only once to the listener, the first copy is passed right away and the later
+ * ones are dropped. The frames are identified by the hash of their decoded
+ * bytes, which all sticks check against one shared
+ * {@link CulFrameDeduplicator} before the frame is passed to the listener. So
+ * repeated transmissions of the same frame within the window are suppressed
+ * as well. The listener is always called from the same thread, the signal
+ * strength of a frame is passed before each of its messages.
+ *
+ * @author Arne Plöse
+ */
+public class CulAdapterGroup implements Adapter {
+
+    /**
+     * Receive statistics of a single stick.
+     */
+    public static class StickStatistics {
+
+        private final String name;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+
+        private StickStatistics(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of frames this stick has received.
+         */
+        public long getReceived() {
+            return received.get();
+        }
+
+        /**
+         * @return the number of frames this stick has received which were
+         * already received within the dedup window.
+         */
+        public long getDuplicates() {
+            return duplicates.get();
+        }
+
+        /**
+         * @return the number of frames where the copy of this stick was passed
+         * to the listener.
+         */
+        public long getDelivered() {
+            return delivered.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{name : \"%s\", received : %d, duplicates : %d, delivered : %d}", name, received.get(), duplicates.get(), delivered.get());
+        }
+
+    }
+
+    private enum MessageType {
+        EM,
+        EVO_HOME,
+        FHT,
+        FHT_PARTIAL,
+        FHT_80_TF,
+        FS20,
+        HMS,
+        LA_CROSSE_TX2;
+    }
+
+    /**
+     * Receives the callbacks of a single stick.
+     */
+    class StickListener implements CulMessageListener {
+
+        private final StickStatistics statistics;
+        /**
+         * The signal strength of the current frame, reported after the frame
+         * was checked and before its messages. NaN if none was reported.
+         */
+        private float signalStrength = Float.NaN;
+        /**
+         * Set as the frame deduplicator of the parser of this stick, it checks
+         * the frames against the deduplicator of the group.
+         */
+        final CulFrameDeduplicator frameDeduplicator = new CulFrameDeduplicator(Duration.ofMillis(dedupWindowMillis), 1) {
+
+            @Override
+            public boolean accept(Protocol protocol, byte[] frame, int offset, int length, long nanos) {
+                //a new frame, its signal strength follows
+                signalStrength = Float.NaN;
+                statistics.received.incrementAndGet();
+                final boolean result;
+                synchronized (groupFrameDeduplicator) {
+                    result = groupFrameDeduplicator.accept(protocol, frame, offset, length, nanos);
+                }
+                if (result) {
+                    statistics.delivered.incrementAndGet();
+                } else {
+                    statistics.duplicates.incrementAndGet();
+                }
+                return result;
+            }
+
+        };
+
+        private StickListener(String name) {
+            statistics = new StickStatistics(name);
+        }
+
+        private void received(MessageType type, Message<?> message) {
+            //all messages of a frame get its signal strength
+            final float rssi = signalStrength;
+            dispatcher.execute(() -> deliver(type, message, rssi));
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+            this.signalStrength = signalStrength;
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            dispatcher.execute(() -> listener.culMessageParsed(culMessage));
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            dispatcher.execute(() -> listener.failed(t));
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+            dispatcher.execute(() -> listener.receiveEnabled(protocol));
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+            dispatcher.execute(() -> listener.helpParsed(helpMessages));
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+            dispatcher.execute(() -> listener.onIOException(ioe));
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+            received(MessageType.EM, emMsg);
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+            received(MessageType.EVO_HOME, evoHomeMsg);
+        }
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+            received(MessageType.FHT, fhtMessage);
+        }
+
+        @Override
+        public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+            received(MessageType.FHT_PARTIAL, fhtMessage);
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+            received(MessageType.FHT_80_TF, fht80TfMessage);
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+            received(MessageType.FS20, fs20Msg);
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+            received(MessageType.HMS, hmsMsg);
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+            received(MessageType.LA_CROSSE_TX2, laCrosseTx2Msg);
+        }
+
+    }
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * The default time in ms a frame suppresses its copies of other sticks.
+     */
+    public static final long DEFAULT_DEDUP_WINDOW_MILLIS = 250;
+
+    private final CulMessageListener listener;
+    private final long dedupWindowMillis;
+    private final ExecutorService dispatcher;
+    /**
+     * Shared by the parsers of all sticks, guarded by itself.
+     */
+    private final CulFrameDeduplicator groupFrameDeduplicator;
+    private final List<CulAdapter> adapters = new ArrayList<>();
+    private final List<StickStatistics> statistics = new ArrayList<>();
+
+    public CulAdapterGroup(CulMessageListener listener) {
+        this(listener, DEFAULT_DEDUP_WINDOW_MILLIS, null);
+    }
+
+    /**
+     *
+     * @param listener receives the merged messages of all sticks.
+     * @param dedupWindowMillis the time in ms a frame suppresses its copies of
+     * other sticks.
+     * @param threadFactory creates the thread which calls the listener, if
+     * null a platform daemon thread is created.
+     */
+    public CulAdapterGroup(CulMessageListener listener, long dedupWindowMillis, ThreadFactory threadFactory) {
+        if (dedupWindowMillis < 1) {
+            throw new IllegalArgumentException("dedupWindowMillis must be positive");
+        }
+        this.listener = listener;
+        this.dedupWindowMillis = dedupWindowMillis;
+        groupFrameDeduplicator = new CulFrameDeduplicator(Duration.ofMillis(dedupWindowMillis), CulFrameDeduplicator.DEFAULT_CAPACITY);
+        dispatcher = Executors.newSingleThreadExecutor(threadFactory != null ? threadFactory : r -> {
+            final Thread t = new Thread(r, "CUL group dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Create a CUL adapter for the serialPortSocket which is owned by this
+     * group. The frame deduplicator of the adapter belongs to the group, do not
+     * replace it. As the messages are passed to the thread of the group, do
+     * not enable the reuse of messages.
+     *
+     * @param serialPortSocket
+     * @param speed
+     * @return the adapter to send commands to this stick.
+     * @throws IOException
+     */
+    public synchronized CulAdapter addAdapter(SerialPortSocket serialPortSocket, Speed speed) throws IOException {
+        final StickListener stickListener = createStickListener(serialPortSocket.getPortName());
+        final CulAdapter adapter = new CulAdapter(serialPortSocket, stickListener, speed);
+        adapter.setFrameDeduplicator(stickListener.frameDeduplicator);
+        adapters.add(adapter);
+        return adapter;
+    }
+
+    synchronized StickListener createStickListener(String name) {
+        final StickListener result = new StickListener(name);
+        statistics.add(result.statistics);
+        return result;
+    }
+
+    /**
+     * @return the adapters in the order they were added.
+     */
+    public synchronized List<CulAdapter> getAdapters() {
+        return List.copyOf(adapters);
+    }
+
+    /**
+     * @return the receive statistics of all sticks in the order they were
+     * added.
+     */
+    public synchronized List<StickStatistics> getStatistics() {
+        return List.copyOf(statistics);
+    }
+
+    public long getDedupWindowMillis() {
+        return dedupWindowMillis;
+    }
+
+    /**
+     * @return the number of frames which were dropped, because they were
+     * received within the dedup window before.
+     */
+    public long getSuppressedCount() {
+        return groupFrameDeduplicator.getSuppressedCount();
+    }
+
+    private void deliver(MessageType type, Message<?> message, float signalStrength) {
+        try {
+            if (!Float.isNaN(signalStrength)) {
+                listener.signalStrength(signalStrength);
+            }
+            switch (type) {
+                case EM ->
+                    listener.emDataParsed((EmMessage) message);
+                case EVO_HOME ->
+                    listener.evoHomeParsed((EvoHomeMessage) message);
+                case FHT ->
+                    listener.fhtDataParsed((FhtMessage) message);
+                case FHT_PARTIAL ->
+                    listener.fhtPartialDataParsed((FhtMessage) message);
+                case FHT_80_TF ->
+                    listener.fht80TfDataParsed((Fht80TfMessage) message);
+                case FS20 ->
+                    listener.fs20DataParsed((FS20Message) message);
+                case HMS ->
+                    listener.hmsDataParsed((HmsMessage) message);
+                case LA_CROSSE_TX2 ->
+                    listener.laCrosseTxParsed((LaCrosseTx2Message) message);
+                default ->
+                    throw new IllegalStateException("Unknown message type: " + type);
+            }
+        } catch (Throwable t) {
+            LOG.log(Level.SEVERE, "caught unexcpected exception during dispatching of " + message, t);
+        }
+    }
+
+    /**
+     * Close all adapters, pass the received messages to the listener and stop
+     * the dispatching thread.
+     *
+     * @throws Exception
+     */
+    @Override
+    public void close() throws Exception {
+        final List<CulAdapter> toClose;
+        synchronized (this) {
+            toClose = List.copyOf(adapters);
+            adapters.clear();
+        }
+        Exception closeException = null;
+        for (CulAdapter adapter : toClose) {
+            try {
+                adapter.close();
+            } catch (Exception e) {
+                if (closeException == null) {
+                    closeException = e;
+                } else {
+                    closeException.addSuppressed(e);
+                }
+            }
+        }
+        // the submitted deliveries are still executed after shutdown
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(1000, TimeUnit.MILLISECONDS);
+        if (closeException != null) {
+            throw closeException;
+        }
+    }
+
+}
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.cul;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Objects;
 
 /**
@@ -44,6 +45,12 @@ public final class CulEobMessage extends CulMessage<CulEobMessage> {
         sb.append('"');
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("message").value(message);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.cul;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.fht.FhtMessage;
 import java.util.LinkedList;
 import java.util.List;
@@ -52,4 +53,10 @@ public class CulFhtDeviceOutBufferContentResponse extends CulResponse {
         sb.append(']');
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("pendingMessages").array(pendingMessages);
+    }
+
 }
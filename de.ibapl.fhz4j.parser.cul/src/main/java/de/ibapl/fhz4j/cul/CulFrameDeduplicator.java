@@ -0,0 +1,183 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops repeated frames. FHT devices repeat their transmissions, the CUL
+ * reports them with {@link SlowRfFlag#REPORT_REPEATED_PACKAGES} and EvoHome
+ * controllers rebroadcast their state. A frame is dropped if the same bytes
+ * of the same protocol were received within the window before, the trailing
+ * signal strength is not part of the frame.
+ *
+ * The frames are identified by a 64 bit hash, which is kept in a fixed size
+ * open addressing table together with the time it was first seen. So a frame
+ * which is repeated all the time passes once per window. If the table is
+ * full, the oldest entry of the probed slots is replaced, so a repeat may
+ * pass if there are more distinct frames within the window than slots.
+ *
+ * Checking a frame does not allocate. This is not thread safe, use one
+ * instance per {@link de.ibapl.fhz4j.parser.cul.CulParser}, the counters may
+ * be read from any thread. A {@link ShardedCulParser} takes a supplier and
+ * creates one instance per shard, the repeats of a device go to the same
+ * shard.
+ *
+ * @author Arne Plöse
+ */
+public class CulFrameDeduplicator {
+
+    public final static Duration DEFAULT_WINDOW = Duration.ofSeconds(2);
+    public final static int DEFAULT_CAPACITY = 256;
+
+    private final static int MAX_PROBES = 8;
+    private final static long EMPTY = 0;
+
+    private final long windowNanos;
+    private final int mask;
+    private final long[] hashes;
+    private final long[] firstSeenNanos;
+    private final AtomicLongArray suppressedCounts = new AtomicLongArray(Protocol.values().length);
+
+    public CulFrameDeduplicator() {
+        this(DEFAULT_WINDOW, DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param window the time a frame suppresses its repeats.
+     * @param capacity the number of distinct frames which are remembered,
+     * rounded up to a power of 2.
+     */
+    public CulFrameDeduplicator(Duration window, int capacity) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        this.windowNanos = window.toNanos();
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        mask = size - 1;
+        hashes = new long[size];
+        firstSeenNanos = new long[size];
+    }
+
+    /**
+     * FNV-1a over the protocol and the bytes, finished with the mixer of
+     * MurmurHash3 so the lower bits can be used as index.
+     */
+    static long hash(Protocol protocol, byte[] frame, int offset, int length) {
+        long h = 0xcbf29ce484222325L ^ protocol.ordinal();
+        for (int i = offset; i < offset + length; i++) {
+            h ^= frame[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     *
+     * @param protocol the protocol of the frame.
+     * @param frame the decoded bytes of the frame.
+     * @param offset
+     * @param length the length without the signal strength.
+     * @param nanos {@link System#nanoTime()} when the frame was received.
+     * @return false if the frame is a repeat and must be dropped.
+     */
+    public boolean accept(Protocol protocol, byte[] frame, int offset, int length, long nanos) {
+        final long h = hash(protocol, frame, offset, length);
+        int slot = (int) h & mask;
+        int victim = slot;
+        for (int probe = 0; probe < MAX_PROBES && probe <= mask; probe++) {
+            if (hashes[slot] == h) {
+                if (nanos - firstSeenNanos[slot] < windowNanos) {
+                    suppressedCounts.incrementAndGet(protocol.ordinal());
+                    return false;
+                }
+                victim = slot;
+                break;
+            }
+            if (hashes[slot] == EMPTY) {
+                victim = slot;
+                break;
+            }
+            if (firstSeenNanos[slot] - firstSeenNanos[victim] < 0) {
+                victim = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        hashes[victim] = h;
+        firstSeenNanos[victim] = nanos;
+        return true;
+    }
+
+    /**
+     * Forget all frames seen so far. The counters are not reset.
+     */
+    public void clear() {
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = EMPTY;
+        }
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    public int getCapacity() {
+        return hashes.length;
+    }
+
+    /**
+     * @param protocol
+     * @return the number of dropped repeats of this protocol.
+     */
+    public long getSuppressedCount(Protocol protocol) {
+        return suppressedCounts.get(protocol.ordinal());
+    }
+
+    /**
+     * @return the number of all dropped repeats.
+     */
+    public long getSuppressedCount() {
+        long result = 0;
+        for (int i = 0; i < suppressedCounts.length(); i++) {
+            result += suppressedCounts.get(i);
+        }
+        return result;
+    }
+
+    public void resetCounters() {
+        for (int i = 0; i < suppressedCounts.length(); i++) {
+            suppressedCounts.set(i, 0);
+        }
+    }
+
+}
@@ -0,0 +1,309 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.evohome.DeviceId;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drops received frames by their address before the payload is decoded. The
+ * addresses are checked as soon as the leading bytes of a frame are known, a
+ * dropped frame never builds a message and the listener is not called.
+ *
+ * For each kind of address there is an allow and a deny list. A frame is
+ * dropped if its address is denied, or if the allow list is not empty and does
+ * not contain the address. So without any entry all frames pass.
+ *
+ * The lists may be changed at any time from any thread, the checks do not
+ * lock or allocate.
+ *
+ * @author Arne Plöse
+ */
+public class CulFrameFilter {
+
+    /**
+     * A sorted set of ids, copied on write.
+     */
+    private static final class IdSet {
+
+        private volatile int[] ids = new int[0];
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        synchronized void add(int id) {
+            final int[] current = ids;
+            final int index = Arrays.binarySearch(current, id);
+            if (index >= 0) {
+                return;
+            }
+            final int insert = -index - 1;
+            final int[] result = new int[current.length + 1];
+            System.arraycopy(current, 0, result, 0, insert);
+            result[insert] = id;
+            System.arraycopy(current, insert, result, insert + 1, current.length - insert);
+            ids = result;
+        }
+
+        synchronized void remove(int id) {
+            final int[] current = ids;
+            final int index = Arrays.binarySearch(current, id);
+            if (index < 0) {
+                return;
+            }
+            final int[] result = new int[current.length - 1];
+            System.arraycopy(current, 0, result, 0, index);
+            System.arraycopy(current, index + 1, result, index, result.length - index);
+            ids = result;
+        }
+
+        synchronized void clear() {
+            ids = new int[0];
+        }
+
+        /**
+         * @param allowed
+         * @param id
+         * @return true if the id passes with this as deny list and allowed as
+         * allow list.
+         */
+        boolean accept(IdSet allowed, int id) {
+            if (contains(id)) {
+                return false;
+            }
+            return allowed.isEmpty() || allowed.contains(id);
+        }
+    }
+
+    private volatile Set<Protocol> deniedProtocols = EnumSet.noneOf(Protocol.class);
+    private final IdSet allowedFhtHousecodes = new IdSet();
+    private final IdSet deniedFhtHousecodes = new IdSet();
+    private final IdSet allowedFs20Housecodes = new IdSet();
+    private final IdSet deniedFs20Housecodes = new IdSet();
+    private final IdSet allowedHmsHousecodes = new IdSet();
+    private final IdSet deniedHmsHousecodes = new IdSet();
+    private final IdSet allowedEmAddresses = new IdSet();
+    private final IdSet deniedEmAddresses = new IdSet();
+    private final IdSet allowedEvoHomeDeviceIds = new IdSet();
+    private final IdSet deniedEvoHomeDeviceIds = new IdSet();
+    private final IdSet allowedEvoHomeCommands = new IdSet();
+    private final IdSet deniedEvoHomeCommands = new IdSet();
+    private final AtomicLongArray filteredCounts = new AtomicLongArray(Protocol.values().length);
+
+    public synchronized void denyProtocol(Protocol protocol) {
+        final Set<Protocol> result = EnumSet.copyOf(deniedProtocols);
+        result.add(protocol);
+        deniedProtocols = result;
+    }
+
+    public synchronized void allowProtocol(Protocol protocol) {
+        final Set<Protocol> result = EnumSet.noneOf(Protocol.class);
+        result.addAll(deniedProtocols);
+        result.remove(protocol);
+        deniedProtocols = result;
+    }
+
+    public void allowFhtHousecode(short housecode) {
+        deniedFhtHousecodes.remove(housecode);
+        allowedFhtHousecodes.add(housecode);
+    }
+
+    public void denyFhtHousecode(short housecode) {
+        allowedFhtHousecodes.remove(housecode);
+        deniedFhtHousecodes.add(housecode);
+    }
+
+    public void allowFs20Housecode(short housecode) {
+        deniedFs20Housecodes.remove(housecode);
+        allowedFs20Housecodes.add(housecode);
+    }
+
+    public void denyFs20Housecode(short housecode) {
+        allowedFs20Housecodes.remove(housecode);
+        deniedFs20Housecodes.add(housecode);
+    }
+
+    public void allowHmsHousecode(short housecode) {
+        deniedHmsHousecodes.remove(housecode);
+        allowedHmsHousecodes.add(housecode);
+    }
+
+    public void denyHmsHousecode(short housecode) {
+        allowedHmsHousecodes.remove(housecode);
+        deniedHmsHousecodes.add(housecode);
+    }
+
+    public void allowEmAddress(short address) {
+        deniedEmAddresses.remove(address);
+        allowedEmAddresses.add(address);
+    }
+
+    public void denyEmAddress(short address) {
+        allowedEmAddresses.remove(address);
+        deniedEmAddresses.add(address);
+    }
+
+    /**
+     * An EvoHome frame passes if one of its both device ids is allowed.
+     *
+     * @param deviceId
+     */
+    public void allowEvoHomeDeviceId(DeviceId deviceId) {
+        deniedEvoHomeDeviceIds.remove(deviceId.id);
+        allowedEvoHomeDeviceIds.add(deviceId.id);
+    }
+
+    /**
+     * An EvoHome frame is dropped if one of its both device ids is denied.
+     *
+     * @param deviceId
+     */
+    public void denyEvoHomeDeviceId(DeviceId deviceId) {
+        allowedEvoHomeDeviceIds.remove(deviceId.id);
+        deniedEvoHomeDeviceIds.add(deviceId.id);
+    }
+
+    public void allowEvoHomeCommand(EvoHomeCommand command) {
+        deniedEvoHomeCommands.remove(command.getCode());
+        allowedEvoHomeCommands.add(command.getCode());
+    }
+
+    public void denyEvoHomeCommand(EvoHomeCommand command) {
+        allowedEvoHomeCommands.remove(command.getCode());
+        deniedEvoHomeCommands.add(command.getCode());
+    }
+
+    /**
+     * Remove all entries, so all frames pass. The counters are not reset.
+     */
+    public synchronized void clear() {
+        deniedProtocols = EnumSet.noneOf(Protocol.class);
+        allowedFhtHousecodes.clear();
+        deniedFhtHousecodes.clear();
+        allowedFs20Housecodes.clear();
+        deniedFs20Housecodes.clear();
+        allowedHmsHousecodes.clear();
+        deniedHmsHousecodes.clear();
+        allowedEmAddresses.clear();
+        deniedEmAddresses.clear();
+        allowedEvoHomeDeviceIds.clear();
+        deniedEvoHomeDeviceIds.clear();
+        allowedEvoHomeCommands.clear();
+        deniedEvoHomeCommands.clear();
+    }
+
+    private boolean count(Protocol protocol, boolean accepted) {
+        if (!accepted) {
+            filteredCounts.incrementAndGet(protocol.ordinal());
+        }
+        return accepted;
+    }
+
+    public boolean acceptProtocol(Protocol protocol) {
+        return count(protocol, !deniedProtocols.contains(protocol));
+    }
+
+    public boolean acceptFht(short housecode) {
+        if (!acceptProtocol(Protocol.FHT)) {
+            return false;
+        }
+        return count(Protocol.FHT, deniedFhtHousecodes.accept(allowedFhtHousecodes, housecode));
+    }
+
+    public boolean acceptFs20(short housecode) {
+        if (!acceptProtocol(Protocol.FS20)) {
+            return false;
+        }
+        return count(Protocol.FS20, deniedFs20Housecodes.accept(allowedFs20Housecodes, housecode));
+    }
+
+    public boolean acceptHms(short housecode) {
+        if (!acceptProtocol(Protocol.HMS)) {
+            return false;
+        }
+        return count(Protocol.HMS, deniedHmsHousecodes.accept(allowedHmsHousecodes, housecode));
+    }
+
+    public boolean acceptEm(short address) {
+        if (!acceptProtocol(Protocol.EM)) {
+            return false;
+        }
+        return count(Protocol.EM, deniedEmAddresses.accept(allowedEmAddresses, address));
+    }
+
+    /**
+     *
+     * @param deviceId1
+     * @param deviceId2
+     * @param commandCode the raw code, unknown codes are only checked against
+     * the allow list.
+     * @return
+     */
+    public boolean acceptEvoHome(int deviceId1, int deviceId2, int commandCode) {
+        if (!acceptProtocol(Protocol.EVO_HOME)) {
+            return false;
+        }
+        if (deniedEvoHomeDeviceIds.contains(deviceId1) || deniedEvoHomeDeviceIds.contains(deviceId2)) {
+            return count(Protocol.EVO_HOME, false);
+        }
+        if (!allowedEvoHomeDeviceIds.isEmpty() && !allowedEvoHomeDeviceIds.contains(deviceId1) && !allowedEvoHomeDeviceIds.contains(deviceId2)) {
+            return count(Protocol.EVO_HOME, false);
+        }
+        return count(Protocol.EVO_HOME, deniedEvoHomeCommands.accept(allowedEvoHomeCommands, commandCode));
+    }
+
+    /**
+     * @param protocol
+     * @return the number of dropped frames of this protocol.
+     */
+    public long getFilteredCount(Protocol protocol) {
+        return filteredCounts.get(protocol.ordinal());
+    }
+
+    /**
+     * @return the number of all dropped frames.
+     */
+    public long getFilteredCount() {
+        long result = 0;
+        for (int i = 0; i < filteredCounts.length(); i++) {
+            result += filteredCounts.get(i);
+        }
+        return result;
+    }
+
+    public void resetCounters() {
+        for (int i = 0; i < filteredCounts.length(); i++) {
+            filteredCounts.set(i, 0);
+        }
+    }
+
+}
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.cul;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -54,4 +55,11 @@ public class CulGetSlowRfSettingsResponse extends CulResponse {
         sb.append(']');
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("milliTimeToSend").value(milliTimeToSend);
+        w.name("slowRfFlags").enums(slowRfFlags);
+    }
+
 }
@@ -0,0 +1,297 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.parser.cul.AbstractCulParser;
+import de.ibapl.fhz4j.parser.cul.CulParser;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays the capture files written by
+ * {@code LoggingSerialPortSocket.wrapWithAsciiOutputStream} (the
+ * {@code cul_*.txt} files of the console) through a {@link CulParser}.
+ *
+ * The file is memory mapped and scanned for lines like
+ * <pre>
+ * {@literal @}2020-03-24T00:05:00.378206Z	CH	return read:	"T0203447901FA\r\n"	duration: PT0.000512S
+ * </pre>
+ * The timestamp is optional, the escaped data between the quotes is passed to
+ * the parser. All other lines (writes, calls...) are skipped.
+ *
+ * The data is replayed either as fast as possible, at the recorded pace or N
+ * times faster than recorded. Pacing needs the timestamps, lines without one
+ * are replayed immediately.
+ *
+ * @author Arne Plöse
+ */
+public class CulLogReplay {
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * Replay without any delay.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+    /**
+     * Replay with the recorded timing.
+     */
+    public static final double RECORDED_SPEED = 1.0;
+
+    /**
+     * Size of the mapped window, a single line must fit in.
+     */
+    private static final int MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final byte[] READ_MARKER = "return read:".getBytes(StandardCharsets.US_ASCII);
+
+    private final Consumer<ByteBuffer> culParser;
+    private final double speed;
+    private ByteBuffer data = ByteBuffer.allocate(4096);
+    private long firstTimestampNanos;
+    private long replayStartNanos;
+    private boolean paceStarted;
+    private long readCount;
+    private long bytesReplayed;
+
+    /**
+     *
+     * @param listener receives the parsed messages.
+     * @param speed {@link #MAX_SPEED}, {@link #RECORDED_SPEED} or any factor
+     * greater than 0.
+     */
+    public CulLogReplay(CulMessageListener listener, double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be greater than 0");
+        }
+        this.culParser = new CulParser<>(listener)::parse;
+        this.speed = speed;
+    }
+
+    /**
+     * Replay through a sharded parser, which decodes on several threads. The
+     * parser is not closed by the replay.
+     *
+     * @param culParser decodes the replayed data.
+     * @param speed {@link #MAX_SPEED}, {@link #RECORDED_SPEED} or any factor
+     * greater than 0.
+     */
+    public CulLogReplay(ShardedCulParser culParser, double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be greater than 0");
+        }
+        this.culParser = culParser::parse;
+        this.speed = speed;
+    }
+
+    /**
+     * @return the number of replayed reads.
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * @return the number of bytes passed to the parser.
+     */
+    public long getBytesReplayed() {
+        return bytesReplayed;
+    }
+
+    /**
+     * Replay a capture file. Can be called several times to replay
+     * consecutive files with the same parser.
+     *
+     * @param logFile
+     * @throws IOException
+     * @throws InterruptedException if interrupted while pacing.
+     */
+    public void replay(Path logFile) throws IOException, InterruptedException {
+        try (FileChannel fc = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            final long size = fc.size();
+            long position = 0;
+            while (position < size) {
+                final int windowSize = (int) Math.min(MAP_WINDOW_SIZE, size - position);
+                final boolean lastWindow = position + windowSize == size;
+                final MappedByteBuffer window = fc.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                final int consumed = replayLines(window, lastWindow);
+                if (consumed == 0) {
+                    throw new IOException("line longer than " + MAP_WINDOW_SIZE + " bytes at position " + position);
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes of all complete lines in the window.
+     */
+    private int replayLines(ByteBuffer window, boolean lastWindow) throws InterruptedException {
+        final int limit = window.limit();
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                replayLine(window, lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        if (lastWindow && lineStart < limit) {
+            replayLine(window, lineStart, limit);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    private void replayLine(ByteBuffer window, int start, int end) throws InterruptedException {
+        final int marker = indexOf(window, start, end, READ_MARKER);
+        if (marker < 0) {
+            return;
+        }
+        int pos = marker + READ_MARKER.length;
+        while (pos < end && window.get(pos) != '"') {
+            pos++;
+        }
+        if (pos == end) {
+            return;
+        }
+        if (!unescape(window, pos + 1, end)) {
+            LOG.log(Level.WARNING, "Skip unterminated read: {0}", StandardCharsets.US_ASCII.decode(window.slice(start, end - start)));
+            return;
+        }
+        if (speed != MAX_SPEED && window.get(start) == '@') {
+            pace(window, start + 1, marker);
+        }
+        readCount++;
+        bytesReplayed += data.remaining();
+        while (data.hasRemaining()) {
+            try {
+                culParser.accept(data);
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "caught unexcpected exception during parsing", e);
+            }
+        }
+    }
+
+    /**
+     * Unescape the quoted data into {@link #data} and flip it.
+     *
+     * @return false if the closing quote is missing.
+     */
+    private boolean unescape(ByteBuffer window, int start, int end) {
+        data.clear();
+        int pos = start;
+        while (pos < end) {
+            byte b = window.get(pos++);
+            if (b == '"') {
+                data.flip();
+                return true;
+            }
+            if (b == '\\' && pos < end) {
+                b = window.get(pos++);
+                switch (b) {
+                    case 'r' ->
+                        b = '\r';
+                    case 'n' ->
+                        b = '\n';
+                    case 't' ->
+                        b = '\t';
+                    case '0' ->
+                        b = 0;
+                    case 'x' -> {
+                        final byte high = pos + 1 < end ? AbstractCulParser.hexDigit(window.get(pos)) : AbstractCulParser.INVALID_DIGIT;
+                        final byte low = pos + 1 < end ? AbstractCulParser.hexDigit(window.get(pos + 1)) : AbstractCulParser.INVALID_DIGIT;
+                        if (high == AbstractCulParser.INVALID_DIGIT || low == AbstractCulParser.INVALID_DIGIT) {
+                            // keep the escape as it is, like an unknown one
+                            LOG.log(Level.WARNING, "Invalid \\x escape in read: {0}", StandardCharsets.US_ASCII.decode(window.slice(start, end - start)));
+                        } else {
+                            b = (byte) (high << 4 | low);
+                            pos += 2;
+                        }
+                    }
+                    default -> {
+                        // '\\' and '"' and everything unknown stands for itself
+                    }
+                }
+            }
+            if (!data.hasRemaining()) {
+                final ByteBuffer newData = ByteBuffer.allocate(data.capacity() * 2);
+                data.flip();
+                newData.put(data);
+                data = newData;
+            }
+            data.put(b);
+        }
+        return false;
+    }
+
+    private void pace(ByteBuffer window, int start, int end) throws InterruptedException {
+        int tsEnd = start;
+        while (tsEnd < end && !Character.isWhitespace(window.get(tsEnd))) {
+            tsEnd++;
+        }
+        final long timestampNanos;
+        try {
+            final Instant ts = Instant.parse(StandardCharsets.US_ASCII.decode(window.slice(start, tsEnd - start)));
+            timestampNanos = TimeUnit.SECONDS.toNanos(ts.getEpochSecond()) + ts.getNano();
+        } catch (DateTimeParseException dtpe) {
+            return;
+        }
+        if (!paceStarted) {
+            paceStarted = true;
+            firstTimestampNanos = timestampNanos;
+            replayStartNanos = System.nanoTime();
+            return;
+        }
+        final long dueNanos = replayStartNanos + (long) ((timestampNanos - firstTimestampNanos) / speed);
+        final long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private static int indexOf(ByteBuffer window, int start, int end, byte[] pattern) {
+        final int last = end - pattern.length;
+        OUTER:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (window.get(i + j) != pattern[j]) {
+                    continue OUTER;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+}
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.cul;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Objects;
 
 /**
@@ -42,6 +43,12 @@ public class CulLovfMessage<T extends CulLovfMessage<T>> extends CulMessage<T> {
         sb.append('"');
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("message").value(message);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
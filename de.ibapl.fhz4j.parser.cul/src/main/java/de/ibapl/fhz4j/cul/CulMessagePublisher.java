@@ -0,0 +1,262 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes all parsed messages to {@link Flow.Subscriber}s and passes all
+ * callbacks on to the next listener.
+ *
+ * Each subscriber gets its own bounded buffer, which is drained according to
+ * its {@link Flow.Subscription#request(long)}. If the buffer of a subscriber
+ * is full, the message is dropped for this subscriber, so a slow subscriber
+ * never blocks the reading thread.
+ *
+ * @author Arne Plöse
+ */
+public class CulMessagePublisher implements CulMessageListener, AutoCloseable {
+
+    /**
+     * The default number of messages buffered for each subscriber.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+
+    private final CulMessageListener next;
+    private final Executor executor;
+    private final int bufferSize;
+    private final SubmissionPublisher<Message<?>> publisher;
+    private final EnumMap<Protocol, SubmissionPublisher<Message<?>>> protocolPublishers = new EnumMap<>(Protocol.class);
+    /**
+     * Protocol publishers are created on demand, the reading thread only sees
+     * this copy, which is replaced on each change.
+     */
+    private volatile SubmissionPublisher<Message<?>>[] protocolPublisherByOrdinal;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public CulMessagePublisher(CulMessageListener next) {
+        this(next, ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param next the listener to pass all callbacks on to, may be null.
+     * @param executor delivers the messages to the subscribers.
+     * @param bufferSize the number of messages buffered for each subscriber,
+     * will be rounded up to the next power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public CulMessagePublisher(CulMessageListener next, Executor executor, int bufferSize) {
+        this.next = next;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        publisher = new SubmissionPublisher<>(executor, bufferSize);
+        protocolPublisherByOrdinal = new SubmissionPublisher[Protocol.values().length];
+    }
+
+    /**
+     * @return the publisher of all messages.
+     */
+    public Flow.Publisher<Message<?>> getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * @param protocol
+     * @return the publisher of the messages of this protocol only.
+     */
+    public synchronized Flow.Publisher<Message<?>> getPublisher(Protocol protocol) {
+        SubmissionPublisher<Message<?>> result = protocolPublishers.get(protocol);
+        if (result == null) {
+            result = new SubmissionPublisher<>(executor, bufferSize);
+            if (publisher.isClosed()) {
+                result.close();
+            }
+            protocolPublishers.put(protocol, result);
+            final SubmissionPublisher<Message<?>>[] byOrdinal = protocolPublisherByOrdinal.clone();
+            byOrdinal[protocol.ordinal()] = result;
+            protocolPublisherByOrdinal = byOrdinal;
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of messages which were dropped, because the buffer of
+     * a subscriber was full. A message dropped for n subscribers counts n
+     * times.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private boolean onDrop(Flow.Subscriber<? super Message<?>> subscriber, Message<?> message) {
+        droppedCount.incrementAndGet();
+        //do not retry
+        return false;
+    }
+
+    private void publish(Message<?> message) {
+        try {
+            publisher.offer(message, this::onDrop);
+            final SubmissionPublisher<Message<?>> protocolPublisher = protocolPublisherByOrdinal[message.protocol.ordinal()];
+            if (protocolPublisher != null) {
+                protocolPublisher.offer(message, this::onDrop);
+            }
+        } catch (IllegalStateException ise) {
+            //closed, no more subscribers to serve
+        }
+    }
+
+    /**
+     * Complete all subscriptions.
+     */
+    @Override
+    public synchronized void close() {
+        publisher.close();
+        for (SubmissionPublisher<Message<?>> protocolPublisher : protocolPublishers.values()) {
+            protocolPublisher.close();
+        }
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        publish(culMessage);
+        if (next != null) {
+            next.culMessageParsed(culMessage);
+        }
+    }
+
+    @Override
+    public void signalStrength(float signalStrength) {
+        if (next != null) {
+            next.signalStrength(signalStrength);
+        }
+    }
+
+    @Override
+    public void failed(Throwable t) {
+        if (next != null) {
+            next.failed(t);
+        }
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+        if (next != null) {
+            next.receiveEnabled(protocol);
+        }
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+        if (next != null) {
+            next.helpParsed(helpMessages);
+        }
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+        if (next != null) {
+            next.onIOException(ioe);
+        }
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        publish(emMsg);
+        if (next != null) {
+            next.emDataParsed(emMsg);
+        }
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        publish(evoHomeMsg);
+        if (next != null) {
+            next.evoHomeParsed(evoHomeMsg);
+        }
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        publish(fhtMessage);
+        if (next != null) {
+            next.fhtDataParsed(fhtMessage);
+        }
+    }
+
+    @Override
+    public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+        publish(fhtMessage);
+        if (next != null) {
+            next.fhtPartialDataParsed(fhtMessage);
+        }
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        publish(fht80TfMessage);
+        if (next != null) {
+            next.fht80TfDataParsed(fht80TfMessage);
+        }
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        publish(fs20Msg);
+        if (next != null) {
+            next.fs20DataParsed(fs20Msg);
+        }
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        publish(hmsMsg);
+        if (next != null) {
+            next.hmsDataParsed(hmsMsg);
+        }
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        publish(laCrosseTx2Msg);
+        if (next != null) {
+            next.laCrosseTxParsed(laCrosseTx2Msg);
+        }
+    }
+
+}
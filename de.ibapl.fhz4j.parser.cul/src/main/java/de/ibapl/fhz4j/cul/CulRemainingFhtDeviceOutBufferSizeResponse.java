@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.cul;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author aploese
@@ -39,4 +41,10 @@ public class CulRemainingFhtDeviceOutBufferSizeResponse extends CulResponse {
         sb.append(buffSize);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("buffSize").value(buffSize);
+    }
+
 }
@@ -0,0 +1,536 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queues transmissions and sends them within the 1% duty cycle of the 868 MHz
+ * band. The CUL keeps a credit of air time which grows by 10 ms per second up
+ * to 9 s, if it is used up the CUL delays or drops the send. This scheduler
+ * estimates the same credit from the air time of each transmission and
+ * resynchronizes it with the credit the CUL reports on the X command.
+ *
+ * The transmissions are sent by priority and in order of submission within a
+ * priority. A transmission waits until the credit covers its air time, lower
+ * priorities do not overtake it. All but {@link Priority#SETPOINT} must also
+ * leave the reserve untouched, so bulk programming can not use up the credit
+ * an urgent setpoint change needs.
+ *
+ * Either call {@link #transmitPending()} or {@link #start(ThreadFactory)} a
+ * sender thread which does it. The sender thread waits on a
+ * {@link ReentrantLock}, so it may be a virtual thread.
+ *
+ * @author Arne Plöse
+ */
+public class CulTransmitScheduler implements AutoCloseable {
+
+    public enum Priority {
+        /**
+         * Setpoint and mode changes, somebody is waiting for them.
+         */
+        SETPOINT,
+        /**
+         * Setting the clock of FHT devices.
+         */
+        TIME_SYNC,
+        /**
+         * Bulk programming like the week schedule or the reporting of FHT
+         * devices.
+         */
+        PROGRAMMING;
+    }
+
+    @FunctionalInterface
+    public interface Transmission {
+
+        void transmit() throws IOException;
+
+    }
+
+    /**
+     * A transmission whose content, and so its air time, is fixed only when it
+     * is sent, like the writes collected by a {@link FhtWriteBatcher}. What
+     * does not fit into the max air time of its priority is split off and sent
+     * as further transmissions right after it.
+     */
+    public interface DeferredTransmission extends Transmission {
+
+        /**
+         * Called whenever the transmission is next in line, until the credit
+         * covers it. Nothing must be taken out here.
+         *
+         * @return the estimated air time of all there is to send now, 0 if
+         * nothing.
+         */
+        int estimateAirtimeMillis();
+
+        /**
+         * Called once before {@link #transmit()}, when the credit covers
+         * maxAirtimeMillis. Take out what transmit will send, as much as fits
+         * into maxAirtimeMillis but at least one frame.
+         *
+         * @param maxAirtimeMillis the air time the credit covers.
+         * @return the estimated air time of what transmit will send.
+         */
+        int prepare(int maxAirtimeMillis);
+
+        /**
+         * Called right after {@link #prepare(int)}.
+         *
+         * @return the transmission of what prepare left, or null if nothing is
+         * left.
+         */
+        DeferredTransmission remainder();
+
+    }
+
+    private final static class Entry {
+
+        /**
+         * The air time or -1 for a {@link DeferredTransmission}.
+         */
+        private final int airtimeMillis;
+        private final Transmission transmission;
+
+        private Entry(int airtimeMillis, Transmission transmission) {
+            this.airtimeMillis = airtimeMillis;
+            this.transmission = transmission;
+        }
+
+    }
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * The maximum credit of the culfw, 900 units of 10 ms.
+     */
+    public final static int MAX_CREDIT_MILLIS = 9000;
+    public final static int DEFAULT_RESERVE_MILLIS = 1000;
+    public final static Duration DEFAULT_CREDIT_POLL_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * 1% duty cycle: one microsecond of credit every 100 microseconds.
+     */
+    private final static long NANOS_PER_CREDIT_MICRO = 100_000;
+    private final static long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final LongSupplier nanoClock;
+    private final int maxCreditMillis;
+    private final int reserveMillis;
+    private final ArrayDeque<Entry>[] queues;
+    private final long[] sentCounts = new long[Priority.values().length];
+    private long creditMicros;
+    private long creditNanos;
+    private Transmission creditPoll;
+    private long creditPollIntervalNanos = DEFAULT_CREDIT_POLL_INTERVAL.toNanos();
+    private long lastCreditPollNanos;
+    private volatile Consumer<IOException> errorHandler;
+    private Thread senderThread;
+    private volatile boolean open = true;
+
+    public CulTransmitScheduler() {
+        this(System::nanoTime, MAX_CREDIT_MILLIS, DEFAULT_RESERVE_MILLIS);
+    }
+
+    /**
+     *
+     * @param nanoClock the time source, {@link System#nanoTime()} by default.
+     * @param maxCreditMillis the credit to start with and the upper limit.
+     * @param reserveMillis the credit only {@link Priority#SETPOINT} may use.
+     */
+    @SuppressWarnings("unchecked")
+    public CulTransmitScheduler(LongSupplier nanoClock, int maxCreditMillis, int reserveMillis) {
+        if (maxCreditMillis <= 0) {
+            throw new IllegalArgumentException("maxCreditMillis must be positive: " + maxCreditMillis);
+        }
+        if (reserveMillis < 0 || reserveMillis > maxCreditMillis) {
+            throw new IllegalArgumentException("reserveMillis outside 0 ... " + maxCreditMillis + ": " + reserveMillis);
+        }
+        this.nanoClock = nanoClock;
+        this.maxCreditMillis = maxCreditMillis;
+        this.reserveMillis = reserveMillis;
+        queues = new ArrayDeque[Priority.values().length];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        creditNanos = nanoClock.getAsLong();
+        lastCreditPollNanos = creditNanos;
+        creditMicros = maxCreditMillis * 1000L;
+    }
+
+    /**
+     * The air time of a FHT or FS20 frame with the given number of bytes
+     * without the checksum. A bit takes 0.8 or 1.2 ms, the worst case is
+     * taken, and the frame is sent twice.
+     *
+     * @param bytes
+     * @return
+     */
+    public static int estimateFhtAirtimeMillis(int bytes) {
+        // 12 sync bits, a start bit, 9 bits per byte and checksum with parity and the end bit
+        final int bits = 12 + 1 + 9 * (bytes + 1) + 1;
+        return (2 * bits * 12 + 9) / 10;
+    }
+
+    /**
+     * The air time of an EvoHome frame with the given number of bytes without
+     * the checksum. 38400 baud, each byte is manchester encoded with start and
+     * stop bit and the frame has about 8 bytes of preamble and sync.
+     *
+     * @param bytes
+     * @return
+     */
+    public static int estimateEvoHomeAirtimeMillis(int bytes) {
+        final int bits = 20 * (8 + bytes + 1);
+        return (bits * 10 + 383) / 384;
+    }
+
+    /**
+     * Queue a transmission.
+     *
+     * @param priority
+     * @param airtimeMillis the estimated air time of the transmission.
+     * @param transmission
+     */
+    public void submit(Priority priority, int airtimeMillis, Transmission transmission) {
+        final int maxAirtimeMillis = getMaxAirtimeMillis(priority);
+        if (airtimeMillis < 0 || airtimeMillis > maxAirtimeMillis) {
+            throw new IllegalArgumentException("airtimeMillis outside 0 ... " + maxAirtimeMillis + " for " + priority + ": " + airtimeMillis);
+        }
+        enqueue(priority, new Entry(airtimeMillis, transmission));
+    }
+
+    /**
+     * Queue a transmission which is prepared when it is next in line and the
+     * credit covers it. If it needs more than
+     * {@link #getMaxAirtimeMillis(Priority)} the rest is queued again in front
+     * of its priority.
+     *
+     * @param priority
+     * @param transmission
+     */
+    public void submit(Priority priority, DeferredTransmission transmission) {
+        enqueue(priority, new Entry(-1, transmission));
+    }
+
+    private void enqueue(Priority priority, Entry entry) {
+        if (!open) {
+            throw new IllegalStateException("Closed!");
+        }
+        lock.lock();
+        try {
+            queues[priority.ordinal()].add(entry);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param priority
+     * @return the largest air time a transmission of the priority may take,
+     * all but {@link Priority#SETPOINT} must leave the reserve.
+     */
+    public int getMaxAirtimeMillis(Priority priority) {
+        return priority == Priority.SETPOINT ? maxCreditMillis : maxCreditMillis - reserveMillis;
+    }
+
+    public int getMaxCreditMillis() {
+        return maxCreditMillis;
+    }
+
+    /**
+     * Take the credit the CUL reports. The CUL reports it in units of 10 ms.
+     *
+     * @param response the response to {@link CulGetSlowRfSettingsRequest}.
+     */
+    public void updateCredit(CulGetSlowRfSettingsResponse response) {
+        updateCredit(response.milliTimeToSend * 10);
+    }
+
+    public void updateCredit(int creditMillis) {
+        lock.lock();
+        try {
+            creditNanos = nanoClock.getAsLong();
+            creditMicros = Math.min(Math.max(creditMillis, 0), maxCreditMillis) * 1000L;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The poll is called by the sender thread when the last poll is older than
+     * interval. It should request the credit from the CUL and pass the answer
+     * to {@link #updateCredit(CulGetSlowRfSettingsResponse)}.
+     *
+     * @param creditPoll
+     * @param interval
+     */
+    public void setCreditPoll(Transmission creditPoll, Duration interval) {
+        lock.lock();
+        try {
+            this.creditPoll = creditPoll;
+            this.creditPollIntervalNanos = interval.toNanos();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Where the IOExceptions of the sender thread go, by default they are
+     * logged.
+     *
+     * @param errorHandler
+     */
+    public void setErrorHandler(Consumer<IOException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    private void refill(long now) {
+        final long elapsedNanos = now - creditNanos;
+        if (elapsedNanos > 0) {
+            final long micros = elapsedNanos / NANOS_PER_CREDIT_MICRO;
+            creditMicros = Math.min(creditMicros + micros, maxCreditMillis * 1000L);
+            creditNanos += micros * NANOS_PER_CREDIT_MICRO;
+        }
+    }
+
+    public int getEstimatedCreditMillis() {
+        lock.lock();
+        try {
+            refill(nanoClock.getAsLong());
+            return (int) (creditMicros / 1000);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount(Priority priority) {
+        lock.lock();
+        try {
+            return queues[priority.ordinal()].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSentCount(Priority priority) {
+        lock.lock();
+        try {
+            return sentCounts[priority.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getReserveMillis() {
+        return reserveMillis;
+    }
+
+    /**
+     * Send all queued transmissions the credit allows.
+     *
+     * @return the nanos until the next queued transmission may be sent or -1
+     * if nothing is queued.
+     * @throws IOException the transmission which failed is not sent again.
+     */
+    public long transmitPending() throws IOException {
+        while (true) {
+            final Entry entry;
+            lock.lock();
+            try {
+                final long now = nanoClock.getAsLong();
+                refill(now);
+                Priority priority = null;
+                for (Priority p : Priority.values()) {
+                    if (!queues[p.ordinal()].isEmpty()) {
+                        priority = p;
+                        break;
+                    }
+                }
+                if (priority == null) {
+                    return -1;
+                }
+                final ArrayDeque<Entry> queue = queues[priority.ordinal()];
+                final Entry head = queue.peek();
+                final DeferredTransmission deferred = head.airtimeMillis < 0 ? (DeferredTransmission) head.transmission : null;
+                int airtimeMillis = head.airtimeMillis;
+                if (deferred != null) {
+                    airtimeMillis = Math.min(deferred.estimateAirtimeMillis(), getMaxAirtimeMillis(priority));
+                    if (airtimeMillis <= 0) {
+                        // an earlier transmission has taken it all
+                        queue.poll();
+                        continue;
+                    }
+                }
+                final long neededMicros = (priority == Priority.SETPOINT ? airtimeMillis : airtimeMillis + reserveMillis) * 1000L;
+                if (neededMicros > creditMicros) {
+                    return (neededMicros - creditMicros) * NANOS_PER_CREDIT_MICRO - (now - creditNanos);
+                }
+                queue.poll();
+                if (deferred != null) {
+                    airtimeMillis = deferred.prepare(airtimeMillis);
+                    final DeferredTransmission remainder = deferred.remainder();
+                    if (remainder != null) {
+                        queue.addFirst(new Entry(-1, remainder));
+                    }
+                }
+                creditMicros -= airtimeMillis * 1000L;
+                sentCounts[priority.ordinal()]++;
+                entry = head;
+            } finally {
+                lock.unlock();
+            }
+            entry.transmission.transmit();
+        }
+    }
+
+    private void pollCreditIfDue() throws IOException {
+        final Transmission poll;
+        lock.lock();
+        try {
+            final long now = nanoClock.getAsLong();
+            if (creditPoll == null || now - lastCreditPollNanos < creditPollIntervalNanos) {
+                return;
+            }
+            lastCreditPollNanos = now;
+            poll = creditPoll;
+        } finally {
+            lock.unlock();
+        }
+        poll.transmit();
+    }
+
+    private void handle(IOException ioe) {
+        final Consumer<IOException> handler = errorHandler;
+        if (handler == null) {
+            LOG.log(Level.SEVERE, "caught IOException during transmit", ioe);
+        } else {
+            handler.accept(ioe);
+        }
+    }
+
+    private void runSender() {
+        while (open) {
+            long waitNanos;
+            try {
+                pollCreditIfDue();
+            } catch (IOException ioe) {
+                handle(ioe);
+            }
+            try {
+                waitNanos = transmitPending();
+            } catch (IOException ioe) {
+                handle(ioe);
+                continue;
+            } catch (RuntimeException re) {
+                LOG.log(Level.SEVERE, "caught unexcpected exception during transmit", re);
+                continue;
+            }
+            if (waitNanos < 0 || waitNanos > MAX_WAIT_NANOS) {
+                waitNanos = MAX_WAIT_NANOS;
+            }
+            lock.lock();
+            try {
+                if (open && waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                lock.unlock();
+            }
+        }
+        LOG.fine("closing down - transmitting finished");
+    }
+
+    /**
+     * Start a thread which sends the queued transmissions and polls the
+     * credit.
+     *
+     * @param threadFactory if null a daemon thread is created.
+     */
+    public void start(ThreadFactory threadFactory) {
+        lock.lock();
+        try {
+            if (senderThread != null) {
+                throw new IllegalStateException("Already started");
+            }
+            if (!open) {
+                throw new IllegalStateException("Closed!");
+            }
+            if (threadFactory == null) {
+                senderThread = new Thread(this::runSender, "CUL transmit scheduler");
+                senderThread.setDaemon(true);
+            } else {
+                senderThread = threadFactory.newThread(this::runSender);
+            }
+            senderThread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the sender thread, queued transmissions are discarded.
+     *
+     * @throws InterruptedException
+     */
+    @Override
+    public void close() throws InterruptedException {
+        final Thread thread;
+        lock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            for (ArrayDeque<Entry> queue : queues) {
+                queue.clear();
+            }
+            changed.signalAll();
+            thread = senderThread;
+        } finally {
+            lock.unlock();
+        }
+        if (thread != null && Thread.currentThread() != thread) {
+            thread.join();
+        }
+    }
+
+}
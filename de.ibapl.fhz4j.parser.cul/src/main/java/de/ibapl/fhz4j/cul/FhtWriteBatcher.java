@@ -0,0 +1,276 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.writer.fht.FhtEncoder;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects FHT property writes per housecode and sends them with as few
+ * frames as possible. A FHT80b takes the frames only in its receive slot
+ * every 2 minutes, so each saved frame saves air time and time until the
+ * change takes effect.
+ *
+ * A property written again before the flush replaces the pending value and
+ * moves behind the other pending properties, so the order of the last writes
+ * is kept, the mode for instance is still sent after the holiday values. A
+ * frame takes at most maxPropertiesPerFrame properties, more are split into
+ * subsequent frames.
+ *
+ * The methods are synchronized, so writes may be added while another thread
+ * flushes. Get the batcher of a CUL with
+ * {@link CulAdapter#getFhtWriteBatcher()}.
+ *
+ * @author Arne Plöse
+ */
+public class FhtWriteBatcher {
+
+    /**
+     * Keeps a frame well within the FHT buffer of the CUL.
+     */
+    public final static int DEFAULT_MAX_PROPERTIES_PER_FRAME = 8;
+
+    private final FhtEncoder encoder;
+    private final int maxPropertiesPerFrame;
+    private final Map<Short, LinkedHashMap<FhtProperty, Byte>> pending = new LinkedHashMap<>();
+    private final FhtProperty[] frameProperties;
+    private final byte[] frameValues;
+    private long frameCount;
+
+    FhtWriteBatcher(FhtEncoder encoder) {
+        this(encoder, DEFAULT_MAX_PROPERTIES_PER_FRAME);
+    }
+
+    FhtWriteBatcher(FhtEncoder encoder, int maxPropertiesPerFrame) {
+        if (maxPropertiesPerFrame < 1) {
+            throw new IllegalArgumentException("maxPropertiesPerFrame must be positive: " + maxPropertiesPerFrame);
+        }
+        this.encoder = encoder;
+        this.maxPropertiesPerFrame = maxPropertiesPerFrame;
+        frameProperties = new FhtProperty[maxPropertiesPerFrame];
+        frameValues = new byte[maxPropertiesPerFrame];
+    }
+
+    private void put(short housecode, FhtProperty fhtProperty, byte value) {
+        final LinkedHashMap<FhtProperty, Byte> properties = pending.computeIfAbsent(housecode, hc -> new LinkedHashMap<>());
+        properties.remove(fhtProperty);
+        properties.put(fhtProperty, value);
+    }
+
+    public synchronized void putFht(short housecode, FhtProperty fhtProperty, float value) {
+        switch (fhtProperty) {
+            case DAY_TEMP, NIGHT_TEMP, DESIRED_TEMP, LOW_TEMP_OFFSET, WINDOW_OPEN_TEMP, MANU_TEMP ->
+                put(housecode, fhtProperty, FhtEncoder.toTempValue(value));
+            default ->
+                throw new IllegalArgumentException("Wrong fht property for temp: " + fhtProperty);
+        }
+    }
+
+    public synchronized void putFht(short housecode, FhtProperty fhtProperty, LocalTime value) {
+        switch (fhtProperty) {
+            case MON_FROM_1, MON_TO_1, MON_FROM_2, MON_TO_2, TUE_FROM_1, TUE_TO_1, TUE_FROM_2, TUE_TO_2, WED_FROM_1, WED_TO_1, WED_FROM_2, WED_TO_2, THU_FROM_1, THU_TO_1, THU_FROM_2, THU_TO_2, FRI_FROM_1, FRI_TO_1, FRI_FROM_2, FRI_TO_2, SAT_FROM_1, SAT_TO_1, SAT_FROM_2, SAT_TO_2, SUN_FROM_1, SUN_TO_1, SUN_FROM_2, SUN_TO_2 ->
+                put(housecode, fhtProperty, FhtEncoder.toTimeValue(value));
+            default ->
+                throw new IllegalArgumentException("Wrong fht property for time: " + fhtProperty);
+        }
+    }
+
+    public synchronized void putFhtCycle(short housecode, DayOfWeek dayOfWeek, LocalTime from1, LocalTime to1, LocalTime from2,
+            LocalTime to2) {
+        final FhtProperty[] properties = FhtEncoder.cycleProperties(dayOfWeek);
+        final byte[] values = FhtEncoder.cycleValues(from1, to1, from2, to2);
+        for (int i = 0; i < properties.length; i++) {
+            put(housecode, properties[i], values[i]);
+        }
+    }
+
+    public synchronized void putFhtModeAuto(short housecode) {
+        put(housecode, FhtProperty.MODE, (byte) 0x00);
+    }
+
+    public synchronized void putFhtModeManu(short housecode) {
+        put(housecode, FhtProperty.MODE, (byte) 0x01);
+    }
+
+    public synchronized void putFhtModeHoliday(short housecode, float temp, LocalDate date) {
+        put(housecode, FhtProperty.DESIRED_TEMP, FhtEncoder.toTempValue(temp));
+        put(housecode, FhtProperty.HOLIDAY_1, (byte) date.getDayOfMonth());
+        put(housecode, FhtProperty.HOLIDAY_2, (byte) date.getMonthValue());
+        put(housecode, FhtProperty.MODE, (byte) 0x02);
+    }
+
+    public synchronized void putFhtModeParty(short housecode, float temp, LocalDateTime ts) {
+        put(housecode, FhtProperty.DESIRED_TEMP, FhtEncoder.toTempValue(temp));
+        put(housecode, FhtProperty.HOLIDAY_1, (byte) (ts.getHour() * 6 + ts.getMinute() / 10));
+        put(housecode, FhtProperty.HOLIDAY_2, (byte) ts.getDayOfMonth());
+        put(housecode, FhtProperty.MODE, (byte) 0x03);
+    }
+
+    public synchronized void putFhtTimeAndDate(short housecode, LocalDateTime ts) {
+        put(housecode, FhtProperty.YEAR, (byte) (ts.getYear() - 2000));
+        put(housecode, FhtProperty.MONTH, (byte) ts.getMonthValue());
+        put(housecode, FhtProperty.DAY_OF_MONTH, (byte) ts.getDayOfMonth());
+        put(housecode, FhtProperty.HOUR, (byte) ts.getHour());
+        put(housecode, FhtProperty.MINUTE, (byte) ts.getMinute());
+    }
+
+    /**
+     * @return the housecodes with pending writes in the order of their first
+     * write.
+     */
+    public synchronized List<Short> getPendingHousecodes() {
+        return new ArrayList<>(pending.keySet());
+    }
+
+    public synchronized int getPendingCount(short housecode) {
+        final LinkedHashMap<FhtProperty, Byte> properties = pending.get(housecode);
+        return properties == null ? 0 : properties.size();
+    }
+
+    /**
+     * @param housecode
+     * @return the number of frames flush would send now.
+     */
+    public synchronized int getPendingFrameCount(short housecode) {
+        return (getPendingCount(housecode) + maxPropertiesPerFrame - 1) / maxPropertiesPerFrame;
+    }
+
+    /**
+     * @return the number of frames sent so far.
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Send the pending writes of the housecode.
+     *
+     * @param housecode
+     * @return the number of frames sent.
+     * @throws IOException the writes of the housecode are dropped.
+     */
+    public synchronized int flush(short housecode) throws IOException {
+        return write(housecode, pending.remove(housecode));
+    }
+
+    /**
+     * Take the pending writes of the housecode, they are sent with
+     * {@link #write(short, LinkedHashMap)}. If they need more air time than
+     * maxAirtimeMillis, only the leading full frames which fit are taken, but
+     * at least one frame.
+     *
+     * @return the writes or null if there are none.
+     */
+    synchronized LinkedHashMap<FhtProperty, Byte> take(short housecode, int maxAirtimeMillis) {
+        final LinkedHashMap<FhtProperty, Byte> properties = pending.get(housecode);
+        if (properties == null || estimateAirtimeMillis(properties) <= maxAirtimeMillis) {
+            return pending.remove(housecode);
+        }
+        final int frames = Math.max(1, maxAirtimeMillis / CulTransmitScheduler.estimateFhtAirtimeMillis(2 + 2 * maxPropertiesPerFrame));
+        final LinkedHashMap<FhtProperty, Byte> result = new LinkedHashMap<>();
+        final Iterator<Map.Entry<FhtProperty, Byte>> iter = properties.entrySet().iterator();
+        for (int i = frames * maxPropertiesPerFrame; i > 0 && iter.hasNext(); i--) {
+            final Map.Entry<FhtProperty, Byte> entry = iter.next();
+            result.put(entry.getKey(), entry.getValue());
+            iter.remove();
+        }
+        if (properties.isEmpty()) {
+            pending.remove(housecode);
+        }
+        return result;
+    }
+
+    /**
+     * @return the estimated air time of the frames sending the pending writes
+     * of the housecode.
+     */
+    synchronized int estimateAirtimeMillis(short housecode) {
+        return estimateAirtimeMillis(pending.get(housecode));
+    }
+
+    /**
+     * @param properties the writes or null.
+     * @return the estimated air time of the frames sending the writes.
+     */
+    int estimateAirtimeMillis(LinkedHashMap<FhtProperty, Byte> properties) {
+        if (properties == null) {
+            return 0;
+        }
+        int airtimeMillis = 0;
+        for (int count = properties.size(); count > 0; count -= maxPropertiesPerFrame) {
+            // housecode and the command value pairs
+            airtimeMillis += CulTransmitScheduler.estimateFhtAirtimeMillis(2 + 2 * Math.min(count, maxPropertiesPerFrame));
+        }
+        return airtimeMillis;
+    }
+
+    /**
+     * @param properties the writes or null.
+     * @return the number of frames sent.
+     */
+    synchronized int write(short housecode, LinkedHashMap<FhtProperty, Byte> properties) throws IOException {
+        if (properties == null) {
+            return 0;
+        }
+        int frames = 0;
+        int length = 0;
+        final Iterator<Map.Entry<FhtProperty, Byte>> iter = properties.entrySet().iterator();
+        while (iter.hasNext()) {
+            final Map.Entry<FhtProperty, Byte> entry = iter.next();
+            frameProperties[length] = entry.getKey();
+            frameValues[length] = entry.getValue();
+            length++;
+            if (length == maxPropertiesPerFrame || !iter.hasNext()) {
+                encoder.writeFhtProperties(housecode, frameProperties, frameValues, 0, length);
+                frameCount++;
+                frames++;
+                length = 0;
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Send all pending writes.
+     *
+     * @return the number of frames sent.
+     * @throws IOException
+     */
+    public synchronized int flush() throws IOException {
+        int frames = 0;
+        while (!pending.isEmpty()) {
+            frames += flush(pending.keySet().iterator().next());
+        }
+        return frames;
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.JsonWriter;
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes each received message as one line of JSON (JSON lines) to an
+ * {@link OutputStream}. A line looks like
+ * <pre>{"receivedMillis":1700000000000,"signalStrength":-75.5,"message":{"protocol":"HMS",...}}</pre>
+ * Partial FHT messages have a {@code "partial":true} member, failures are
+ * written as {@code {"failure":{...}}}.
+ *
+ * @author Arne Plöse
+ */
+public class JsonLinesSink implements CulMessageListener, AutoCloseable {
+
+    private final OutputStream out;
+    private final JsonWriter w;
+    private final boolean autoFlush;
+    private boolean signalStrengthValid;
+    private float signalStrength;
+    private long lineCount;
+
+    /**
+     * Flushes after each line.
+     *
+     * @param out the stream to write to.
+     */
+    public JsonLinesSink(OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     *
+     * @param out the stream to write to.
+     * @param autoFlush if set, out is flushed after each line, otherwise when
+     * the buffer is full or on {@link #flush()}.
+     */
+    public JsonLinesSink(OutputStream out, boolean autoFlush) {
+        this.out = out;
+        this.w = new JsonWriter(out);
+        this.autoFlush = autoFlush;
+    }
+
+    /**
+     * @return the number of lines written.
+     */
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    private synchronized void writeMessage(Message<?> message, boolean partial) {
+        w.beginObject();
+        if (message.receivedMillis != 0) {
+            w.name("receivedMillis").value(message.receivedMillis);
+        }
+        if (signalStrengthValid) {
+            w.name("signalStrength").value(signalStrength);
+            signalStrengthValid = false;
+        }
+        if (partial) {
+            w.name("partial").value(true);
+        }
+        w.name("message").value(message);
+        w.endObject();
+        endLine();
+    }
+
+    private void endLine() {
+        w.newLine();
+        lineCount++;
+        if (autoFlush) {
+            flush();
+        }
+    }
+
+    /**
+     * Write the buffered lines to the stream and flush it.
+     */
+    public synchronized void flush() {
+        try {
+            w.flush();
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        writeMessage(fhtMessage, false);
+    }
+
+    @Override
+    public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+        writeMessage(fhtMessage, true);
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        writeMessage(fht80TfMessage, false);
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        writeMessage(hmsMsg, false);
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        writeMessage(emMsg, false);
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        writeMessage(fs20Msg, false);
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        writeMessage(laCrosseTx2Msg, false);
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        writeMessage(evoHomeMsg, false);
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        writeMessage(culMessage, false);
+    }
+
+    /**
+     * The signal strength is sent before the message, so it is added to the
+     * next message.
+     */
+    @Override
+    public synchronized void signalStrength(float signalStrength) {
+        this.signalStrength = signalStrength;
+        signalStrengthValid = true;
+    }
+
+    @Override
+    public synchronized void failed(Throwable t) {
+        signalStrengthValid = false;
+        w.beginObject();
+        w.name("failure").beginObject();
+        if (t instanceof ParseFailure pf) {
+            w.name("reason").value(pf.getReason());
+            if (pf.getState() != null) {
+                w.name("state").value(pf.getState());
+            }
+            if (pf.getOffendingByte() != ParseFailure.NO_BYTE) {
+                w.name("offendingByte").value(pf.getOffendingByte());
+            }
+            if (pf.getCause() != null) {
+                w.name("cause").value(pf.getCause().toString());
+            }
+        } else {
+            w.name("message").value(String.valueOf(t));
+        }
+        w.endObject();
+        w.endObject();
+        endLine();
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+        failed(ioe);
+    }
+
+}
@@ -0,0 +1,400 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.parser.cul.CulParser;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives the data of many CUL sticks exposed by ser2net (raw TCP mode) on a
+ * single thread. Each endpoint is a non-blocking {@link SocketChannel} with its
+ * own {@link CulParser}, all of them are served by one {@link Selector}. Lost
+ * or refused connections are reestablished with an exponential back off. The
+ * host names are resolved on a separate thread, so a slow DNS lookup does not
+ * stall the other endpoints.
+ *
+ * If one thread is not enough, just spread the endpoints over some
+ * multiplexers.
+ *
+ * @author Arne Plöse
+ */
+public class Ser2NetCulMultiplexer implements AutoCloseable {
+
+    public enum State {
+        CONNECTING,
+        CONNECTED,
+        WAITING_FOR_RECONNECT,
+        CLOSED;
+    }
+
+    /**
+     * A single ser2net endpoint. All fields except the statistics are only
+     * accessed from the selector thread.
+     */
+    public class Endpoint {
+
+        private final String host;
+        private final int port;
+        private final CulMessageListener listener;
+        private CulParser<?> culParser;
+        private SocketChannel channel;
+        private long reconnectDelayNanos = reconnectDelayMinNanos;
+        private long reconnectAt;
+        private volatile State state = State.CONNECTING;
+        private volatile long bytesReceived;
+        private volatile int connectCount;
+
+        private Endpoint(String host, int port, CulMessageListener listener) {
+            this.host = host;
+            this.port = port;
+            this.listener = listener;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return the number of bytes received over all connections.
+         */
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        /**
+         * @return how often a connection was established.
+         */
+        public int getConnectCount() {
+            return connectCount;
+        }
+
+        /**
+         * Close the connection and stop reconnecting.
+         */
+        public void close() {
+            submit(() -> {
+                closeChannel(this);
+                state = State.CLOSED;
+                endpoints.remove(this);
+            });
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{host : \"%s\", port : %d, state : %s, bytesReceived : %d, connectCount : %d}", host, port, state, bytesReceived, connectCount);
+        }
+
+    }
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    public static final long DEFAULT_RECONNECT_DELAY_MIN_MILLIS = 1000;
+    public static final long DEFAULT_RECONNECT_DELAY_MAX_MILLIS = 60000;
+    public static final int DEFAULT_READ_BUFFER_SIZE = 4096;
+
+    private final long reconnectDelayMinNanos;
+    private final long reconnectDelayMaxNanos;
+    private final Selector selector;
+    /**
+     * Resolves the host names before each connect, the lookup blocks.
+     */
+    private final ExecutorService resolver;
+    private final Thread selectorThread;
+    /**
+     * Shared by all endpoints, as all reading is done by the selector thread.
+     */
+    private final ByteBuffer readBuffer;
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    /**
+     * Only accessed from the selector thread.
+     */
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private volatile boolean open;
+
+    public Ser2NetCulMultiplexer() throws IOException {
+        this(DEFAULT_RECONNECT_DELAY_MIN_MILLIS, DEFAULT_RECONNECT_DELAY_MAX_MILLIS, null);
+    }
+
+    /**
+     *
+     * @param reconnectDelayMinMillis the delay before the first reconnect.
+     * @param reconnectDelayMaxMillis the delay is doubled on each failed
+     * reconnect up to this value.
+     * @param threadFactory creates the selector and the resolver thread, if
+     * null platform daemon threads are created.
+     * @throws IOException
+     */
+    public Ser2NetCulMultiplexer(long reconnectDelayMinMillis, long reconnectDelayMaxMillis, ThreadFactory threadFactory) throws IOException {
+        if (reconnectDelayMinMillis < 1 || reconnectDelayMaxMillis < reconnectDelayMinMillis) {
+            throw new IllegalArgumentException("reconnect delays must satisfy 0 < min <= max");
+        }
+        this.reconnectDelayMinNanos = TimeUnit.MILLISECONDS.toNanos(reconnectDelayMinMillis);
+        this.reconnectDelayMaxNanos = TimeUnit.MILLISECONDS.toNanos(reconnectDelayMaxMillis);
+        readBuffer = ByteBuffer.allocateDirect(DEFAULT_READ_BUFFER_SIZE);
+        selector = Selector.open();
+        open = true;
+        if (threadFactory == null) {
+            selectorThread = new Thread(this::run, "ser2net multiplexer");
+            selectorThread.setDaemon(true);
+            resolver = Executors.newSingleThreadExecutor(r -> {
+                final Thread t = new Thread(r, "ser2net resolver");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            selectorThread = threadFactory.newThread(this::run);
+            resolver = Executors.newSingleThreadExecutor(threadFactory);
+        }
+        selectorThread.start();
+    }
+
+    /**
+     * Connect to a ser2net endpoint, the received messages are passed to the
+     * listener. The listener is called from the selector thread, so it must
+     * not block.
+     *
+     * @param host
+     * @param port
+     * @param listener
+     * @return the endpoint.
+     */
+    public Endpoint addEndpoint(String host, int port, CulMessageListener listener) {
+        if (!open) {
+            throw new IllegalStateException("Closed!");
+        }
+        final Endpoint endpoint = new Endpoint(host, port, listener);
+        submit(() -> {
+            endpoints.add(endpoint);
+            connect(endpoint);
+        });
+        return endpoint;
+    }
+
+    private void submit(Runnable task) {
+        pendingTasks.add(task);
+        selector.wakeup();
+    }
+
+    private void run() {
+        LOG.log(Level.FINE, "ser2net multiplexer started");
+        try {
+            while (open) {
+                Runnable task;
+                while ((task = pendingTasks.poll()) != null) {
+                    task.run();
+                }
+                final long timeout = reconnectDue();
+                if (!open) {
+                    break;
+                }
+                selector.select(this::handle, timeout);
+            }
+        } catch (ClosedSelectorException cse) {
+            LOG.finest("caught ClosedSelectorException");
+        } catch (IOException ioe) {
+            LOG.log(Level.SEVERE, "selector failed", ioe);
+        } catch (Throwable t) {
+            LOG.log(Level.SEVERE, "caught unexcpected exception in ser2net multiplexer", t);
+        } finally {
+            for (Endpoint endpoint : endpoints) {
+                closeChannel(endpoint);
+                endpoint.state = State.CLOSED;
+            }
+            endpoints.clear();
+        }
+        LOG.info("closing down - ser2net multiplexer finished");
+    }
+
+    /**
+     * Start the connect of all endpoints whose reconnect delay has elapsed.
+     *
+     * @return the ms to wait for the next reconnect or 0 if none is pending.
+     */
+    private long reconnectDue() {
+        final long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.state == State.WAITING_FOR_RECONNECT) {
+                if (endpoint.reconnectAt - now <= 0) {
+                    connect(endpoint);
+                } else {
+                    next = Math.min(next, endpoint.reconnectAt - now);
+                }
+            }
+        }
+        return next == Long.MAX_VALUE ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(next));
+    }
+
+    /**
+     * Resolve the host on the resolver thread, the connect is then started by
+     * the selector thread.
+     */
+    private void connect(Endpoint endpoint) {
+        endpoint.state = State.CONNECTING;
+        try {
+            resolver.execute(() -> {
+                final InetSocketAddress address = new InetSocketAddress(endpoint.host, endpoint.port);
+                submit(() -> connect(endpoint, address));
+            });
+        } catch (RejectedExecutionException ree) {
+            connectionLost(endpoint, ree);
+        }
+    }
+
+    private void connect(Endpoint endpoint, InetSocketAddress address) {
+        if (!open || endpoint.state != State.CONNECTING) {
+            //closed while resolving
+            return;
+        }
+        if (address.isUnresolved()) {
+            connectionLost(endpoint, new IOException("Unknown host " + endpoint.host));
+            return;
+        }
+        try {
+            final SocketChannel channel = SocketChannel.open();
+            endpoint.channel = channel;
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                connected(endpoint);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, endpoint);
+            }
+        } catch (IOException | RuntimeException e) {
+            connectionLost(endpoint, e);
+        }
+    }
+
+    private void connected(Endpoint endpoint) throws IOException {
+        endpoint.channel.register(selector, SelectionKey.OP_READ, endpoint);
+        //start with a clean parser, a partial frame of the last connection is lost anyway
+        endpoint.culParser = new CulParser<>(endpoint.listener);
+        endpoint.reconnectDelayNanos = reconnectDelayMinNanos;
+        endpoint.connectCount++;
+        endpoint.state = State.CONNECTED;
+        LOG.log(Level.INFO, "connected to {0}:{1}", new Object[]{endpoint.host, endpoint.port});
+    }
+
+    private void handle(SelectionKey key) {
+        final Endpoint endpoint = (Endpoint) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                if (endpoint.channel.finishConnect()) {
+                    connected(endpoint);
+                }
+            } else if (key.isReadable()) {
+                read(endpoint);
+            }
+        } catch (IOException | RuntimeException e) {
+            connectionLost(endpoint, e);
+        }
+    }
+
+    private void read(Endpoint endpoint) throws IOException {
+        final int count = endpoint.channel.read(readBuffer);
+        if (count < 0) {
+            throw new IOException("Connection closed by " + endpoint.host + ":" + endpoint.port);
+        }
+        endpoint.bytesReceived += count;
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            try {
+                endpoint.culParser.parse(readBuffer);
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "caught unexcpected exception during parsing", e);
+            }
+        }
+        readBuffer.clear();
+    }
+
+    private void connectionLost(Endpoint endpoint, Exception e) {
+        closeChannel(endpoint);
+        if (!open || endpoint.state == State.CLOSED) {
+            return;
+        }
+        LOG.log(Level.WARNING, "connection to {0}:{1} lost, reconnect in {2} ms", new Object[]{endpoint.host, endpoint.port, TimeUnit.NANOSECONDS.toMillis(endpoint.reconnectDelayNanos)});
+        endpoint.state = State.WAITING_FOR_RECONNECT;
+        endpoint.reconnectAt = System.nanoTime() + endpoint.reconnectDelayNanos;
+        endpoint.reconnectDelayNanos = Math.min(endpoint.reconnectDelayNanos * 2, reconnectDelayMaxNanos);
+        try {
+            endpoint.listener.onIOException(e instanceof IOException ioe ? ioe : new IOException(e));
+        } catch (Exception le) {
+            LOG.log(Level.SEVERE, "caught unexcpected exception from listener", le);
+        }
+    }
+
+    private void closeChannel(Endpoint endpoint) {
+        if (endpoint.channel != null) {
+            try {
+                // closing the channel cancels its key
+                endpoint.channel.close();
+            } catch (IOException ioe) {
+                LOG.log(Level.FINE, "caught IOException during close", ioe);
+            }
+            endpoint.channel = null;
+        }
+    }
+
+    /**
+     * Close all connections and stop the selector thread.
+     *
+     * @throws Exception
+     */
+    @Override
+    public void close() throws Exception {
+        if (open) {
+            open = false;
+            selector.wakeup();
+            if (Thread.currentThread() != selectorThread) {
+                selectorThread.join();
+            }
+            resolver.shutdownNow();
+            selector.close();
+        }
+    }
+
+}
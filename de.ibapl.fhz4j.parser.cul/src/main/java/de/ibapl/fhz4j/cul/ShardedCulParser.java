@@ -0,0 +1,551 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.ParseFailureCounters;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.api.Response;
+import de.ibapl.fhz4j.parser.cul.CulLineFramer;
+import de.ibapl.fhz4j.parser.cul.CulParser;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decodes the received data on several threads. The calling thread only
+ * splits the data into lines and puts each line into the queue of one shard.
+ * Each shard has its own worker thread and its own {@link CulParser}.
+ *
+ * The shard is chosen by the address of the device (FHT housecode, FS20 and
+ * HMS housecode, EM address, EvoHome sender id, LaCrosse address), so all
+ * lines of one device are decoded in order by the same parser and the parts of
+ * FHT messages spread over several frames are assembled as usual. Lines of
+ * different devices are decoded in parallel, there is no order between them.
+ * All other lines (responses to requests, help, LOVF...) go to shard 0.
+ *
+ * The listener is called from all worker threads, but from one at a time. The
+ * callbacks of a line are collected and delivered together, so the signal
+ * strength is always followed by the message it belongs to. If a queue is
+ * full, the calling thread waits, no line is dropped.
+ *
+ * Only one thread must call the parse methods.
+ *
+ * @author Arne Plöse
+ */
+public class ShardedCulParser implements AutoCloseable {
+
+    private final static class Slot {
+
+        final byte[] line = new byte[CulLineFramer.DEFAULT_MAX_LINE_LENGTH + 1];
+        final ByteBuffer buffer = ByteBuffer.wrap(line);
+        int length;
+        long readNanos;
+        long readMillis;
+    }
+
+    private enum EventType {
+        CUL_MESSAGE,
+        SIGNAL_STRENGTH,
+        FAILED,
+        RECEIVE_ENABLED,
+        HELP,
+        IO_EXCEPTION,
+        EM,
+        EVO_HOME,
+        FHT_PARTIAL,
+        FHT,
+        FHT_80_TF,
+        FS20,
+        HMS,
+        LA_CROSSE_TX2;
+    }
+
+    /**
+     * Collects the callbacks of the parser of one shard while a line is
+     * decoded.
+     */
+    private final static class LineEvents implements CulMessageListener {
+
+        private EventType[] types = new EventType[4];
+        private Object[] values = new Object[4];
+        private float[] signalStrengths = new float[4];
+        private int size;
+
+        private void add(EventType type, Object value, float signalStrength) {
+            if (size == types.length) {
+                types = Arrays.copyOf(types, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                signalStrengths = Arrays.copyOf(signalStrengths, size * 2);
+            }
+            types[size] = type;
+            values[size] = value;
+            signalStrengths[size] = signalStrength;
+            size++;
+        }
+
+        private void deliver(CulMessageListener listener) {
+            for (int i = 0; i < size; i++) {
+                final Object value = values[i];
+                values[i] = null;
+                try {
+                    switch (types[i]) {
+                        case CUL_MESSAGE ->
+                            listener.culMessageParsed((CulMessage) value);
+                        case SIGNAL_STRENGTH ->
+                            listener.signalStrength(signalStrengths[i]);
+                        case FAILED ->
+                            listener.failed((Throwable) value);
+                        case RECEIVE_ENABLED ->
+                            listener.receiveEnabled((Protocol) value);
+                        case HELP ->
+                            listener.helpParsed((String) value);
+                        case IO_EXCEPTION ->
+                            listener.onIOException((IOException) value);
+                        case EM ->
+                            listener.emDataParsed((EmMessage) value);
+                        case EVO_HOME ->
+                            listener.evoHomeParsed((EvoHomeMessage) value);
+                        case FHT_PARTIAL ->
+                            listener.fhtPartialDataParsed((FhtMessage) value);
+                        case FHT ->
+                            listener.fhtDataParsed((FhtMessage) value);
+                        case FHT_80_TF ->
+                            listener.fht80TfDataParsed((Fht80TfMessage) value);
+                        case FS20 ->
+                            listener.fs20DataParsed((FS20Message) value);
+                        case HMS ->
+                            listener.hmsDataParsed((HmsMessage) value);
+                        case LA_CROSSE_TX2 ->
+                            listener.laCrosseTxParsed((LaCrosseTx2Message) value);
+                    }
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "caught unexcpected exception during dispatching of " + types[i], t);
+                }
+            }
+            size = 0;
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            add(EventType.CUL_MESSAGE, culMessage, 0);
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+            add(EventType.SIGNAL_STRENGTH, null, signalStrength);
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            add(EventType.FAILED, t, 0);
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+            add(EventType.RECEIVE_ENABLED, protocol, 0);
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+            add(EventType.HELP, helpMessages, 0);
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+            add(EventType.IO_EXCEPTION, ioe, 0);
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+            add(EventType.EM, emMsg, 0);
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+            add(EventType.EVO_HOME, evoHomeMsg, 0);
+        }
+
+        @Override
+        public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+            add(EventType.FHT_PARTIAL, fhtMessage, 0);
+        }
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+            add(EventType.FHT, fhtMessage, 0);
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+            add(EventType.FHT_80_TF, fht80TfMessage, 0);
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+            add(EventType.FS20, fs20Msg, 0);
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+            add(EventType.HMS, hmsMsg, 0);
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+            add(EventType.LA_CROSSE_TX2, laCrosseTx2Msg, 0);
+        }
+
+    }
+
+    private final class Shard implements Runnable {
+
+        private final LineEvents lineEvents = new LineEvents();
+        private final CulParser<?> culParser;
+        private final Slot[] slots;
+        private final int mask;
+        /**
+         * The index of the next line to decode. Written only by the worker.
+         */
+        private final AtomicLong head = new AtomicLong();
+        /**
+         * The index of the next free slot. Written only by the producer.
+         */
+        private final AtomicLong tail = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean workerWaiting;
+
+        private Shard(int index, int capacity, ThreadFactory threadFactory) {
+            culParser = new CulParser<>(lineEvents);
+            slots = new Slot[capacity];
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new Slot();
+            }
+            mask = capacity - 1;
+            if (threadFactory == null) {
+                thread = new Thread(this, "CUL decoder " + index);
+                thread.setDaemon(true);
+            } else {
+                thread = threadFactory.newThread(this);
+            }
+        }
+
+        private void offer(ByteBuffer line) {
+            final long t = tail.get();
+            while (t - head.get() > mask) {
+                LockSupport.unpark(thread);
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            }
+            final Slot slot = slots[(int) (t & mask)];
+            final int length = line.remaining();
+            line.get(line.position(), slot.line, 0, length);
+            // the parser frames the lines itself
+            slot.line[length] = '\n';
+            slot.length = length + 1;
+            slot.readNanos = readNanos;
+            slot.readMillis = readMillis;
+            tail.set(t + 1);
+            if (workerWaiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final long h = head.get();
+                if (h == tail.get()) {
+                    if (!open) {
+                        break;
+                    }
+                    workerWaiting = true;
+                    if (h == tail.get() && open) {
+                        LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                    }
+                    workerWaiting = false;
+                    continue;
+                }
+                final Slot slot = slots[(int) (h & mask)];
+                culParser.setReadTime(slot.readNanos, slot.readMillis);
+                slot.buffer.clear().limit(slot.length);
+                while (slot.buffer.hasRemaining()) {
+                    try {
+                        culParser.parse(slot.buffer);
+                    } catch (Exception e) {
+                        LOG.log(Level.SEVERE, "caught unexcpected exception during parsing", e);
+                    }
+                }
+                if (lineEvents.size > 0) {
+                    deliveryLock.lock();
+                    try {
+                        lineEvents.deliver(listener);
+                    } finally {
+                        deliveryLock.unlock();
+                    }
+                }
+                head.set(h + 1);
+            }
+            LOG.fine("closing down - decoding finished");
+        }
+
+    }
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * The default number of lines each shard can hold.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final CulMessageListener listener;
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    private final Shard[] shards;
+    private final ParseFailureCounters parseFailureCounters = new ParseFailureCounters();
+    private final CulLineFramer lineFramer = new CulLineFramer(this::dispatchLine);
+    private volatile boolean open;
+    private boolean readTimeValid;
+    private long readNanos;
+    private long readMillis;
+
+    /**
+     * One shard per available processor.
+     *
+     * @param listener receives the decoded messages from all workers.
+     */
+    public ShardedCulParser(CulMessageListener listener) {
+        this(listener, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_SIZE, null, null, null);
+    }
+
+    /**
+     *
+     * @param listener receives the decoded messages from all workers, one at a
+     * time.
+     * @param shardCount the number of worker threads.
+     * @param queueSize the number of lines each shard can hold, will be rounded
+     * up to the next power of two.
+     * @param frameFilter shared by all shards. May be null.
+     * @param frameDeduplicators called once for each shard before the workers
+     * start, a deduplicator is not thread safe so each call must return a new
+     * one. The repeats of a device go to the same shard. May be null.
+     * @param threadFactory creates the worker threads, if null platform daemon
+     * threads are created.
+     */
+    public ShardedCulParser(CulMessageListener listener, int shardCount, int queueSize, CulFrameFilter frameFilter, Supplier<CulFrameDeduplicator> frameDeduplicators, ThreadFactory threadFactory) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be greater than 0");
+        }
+        if (queueSize < 1 || queueSize > 1 << 30) {
+            throw new IllegalArgumentException("queueSize must be in 1 ... 2^30");
+        }
+        final int capacity = queueSize == 1 ? 1 : Integer.highestOneBit(queueSize - 1) << 1;
+        this.listener = listener;
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, capacity, threadFactory);
+            shards[i].culParser.setParseFailureCounters(parseFailureCounters);
+            shards[i].culParser.setFrameFilter(frameFilter);
+            if (frameDeduplicators != null) {
+                shards[i].culParser.setFrameDeduplicator(frameDeduplicators.get());
+            }
+        }
+        open = true;
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * @return the rejected frames of all shards.
+     */
+    public ParseFailureCounters getParseFailureCounters() {
+        return parseFailureCounters;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @param shard
+     * @return the number of lines decoded by this shard.
+     */
+    public long getDecodedLineCount(int shard) {
+        return shards[shard].head.get();
+    }
+
+    /**
+     * @return the number of lines waiting for decoding in all shards.
+     */
+    public long getPendingLineCount() {
+        long result = 0;
+        for (Shard shard : shards) {
+            result += shard.tail.get() - shard.head.get();
+        }
+        return result;
+    }
+
+    /**
+     * Set the time the data which is parsed next was read. If never set, the
+     * time is taken when a line is put into the queue.
+     *
+     * @param nanos {@link System#nanoTime()} of the read.
+     * @param millis {@link System#currentTimeMillis()} of the read.
+     */
+    public void setReadTime(long nanos, long millis) {
+        readTimeValid = true;
+        readNanos = nanos;
+        readMillis = millis;
+    }
+
+    /**
+     * Split the data into lines and queue them for decoding. On return the
+     * position of the buffer is advanced to its limit, an incomplete line is
+     * kept until the next call.
+     *
+     * @param buffer the received ASCII data.
+     */
+    public void parse(ByteBuffer buffer) {
+        if (!open) {
+            throw new IllegalStateException("closed");
+        }
+        lineFramer.frame(buffer);
+    }
+
+    public void parse(byte[] data, int offset, int length) {
+        parse(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * Add a request for which we expect a response. The responses are decoded
+     * by shard 0.
+     *
+     * @param request
+     * @param consumer
+     * @return
+     */
+    public boolean addCulRequest(CulRequest request, Consumer<Response> consumer) {
+        return shards[0].culParser.addCulRequest(request, consumer);
+    }
+
+    private void dispatchLine(ByteBuffer line) {
+        if (!readTimeValid) {
+            readNanos = System.nanoTime();
+            readMillis = System.currentTimeMillis();
+        }
+        shards[getShard(line, shards.length)].offer(line);
+    }
+
+    /**
+     * Hash the address chars of a received radio message.
+     *
+     * @param line the line without the trailing "\r\n".
+     * @param shardCount
+     * @return the shard, 0 for all lines which are not radio messages.
+     */
+    static int getShard(ByteBuffer line, int shardCount) {
+        final int start = line.position();
+        final int length = line.remaining();
+        if (shardCount == 1 || length < 2) {
+            return 0;
+        }
+        final int from;
+        final int to;
+        switch (line.get(start)) {
+            case 'T', 'F', 'H' -> {
+                from = 1;
+                to = 5;
+            }
+            case 'E' -> {
+                // EOB is a CUL message
+                if (line.get(start + 1) == 'O') {
+                    return 0;
+                }
+                from = 3;
+                to = 5;
+            }
+            case 'v' -> {
+                // the header byte and then the id of the sender
+                if (line.get(start + 1) != 'r') {
+                    return 0;
+                }
+                from = 4;
+                to = 10;
+            }
+            case 't' -> {
+                from = 1;
+                to = 3;
+            }
+            default -> {
+                return 0;
+            }
+        }
+        if (length < to) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + line.get(start + i);
+        }
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    /**
+     * Stop accepting new data, decode the queued lines and wait for the
+     * workers to finish.
+     *
+     * @throws InterruptedException
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (open) {
+            open = false;
+            for (Shard shard : shards) {
+                LockSupport.unpark(shard.thread);
+            }
+            for (Shard shard : shards) {
+                if (Thread.currentThread() != shard.thread) {
+                    shard.thread.join();
+                }
+            }
+        }
+    }
+
+}
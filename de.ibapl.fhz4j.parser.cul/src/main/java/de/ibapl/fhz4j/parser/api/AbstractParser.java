@@ -21,6 +21,10 @@
  */
 package de.ibapl.fhz4j.parser.api;
 
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureCounters;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+
 /**
  *
  * @author Arne Plöse
@@ -29,6 +33,86 @@ public abstract class AbstractParser implements Parser {
 
     private int value;
     private int stackpos;
+    protected boolean reuseMessages;
+    private ParseFailureCounters parseFailureCounters;
+    private boolean reuseParseFailures;
+    private ParseFailure reusableParseFailure;
+
+    /**
+     * If set, the parser fills the same message instances over and over
+     * again. These are only valid during the listener callback, use
+     * {@link de.ibapl.fhz4j.api.Message#copy()} to keep them.
+     *
+     * @param reuseMessages
+     */
+    public void setReuseMessages(boolean reuseMessages) {
+        this.reuseMessages = reuseMessages;
+    }
+
+    public boolean isReuseMessages() {
+        return reuseMessages;
+    }
+
+    /**
+     * Count the rejected frames per reason.
+     *
+     * @param parseFailureCounters the counters, may be shared with other
+     * parsers or null.
+     */
+    public void setParseFailureCounters(ParseFailureCounters parseFailureCounters) {
+        this.parseFailureCounters = parseFailureCounters;
+    }
+
+    public ParseFailureCounters getParseFailureCounters() {
+        return parseFailureCounters;
+    }
+
+    /**
+     * If set, {@link ParserListener#fail(java.lang.Throwable)} gets the same
+     * {@link ParseFailure} over and over again. It is only valid during the
+     * listener callback.
+     *
+     * @param reuseParseFailures
+     */
+    public void setReuseParseFailures(boolean reuseParseFailures) {
+        this.reuseParseFailures = reuseParseFailures;
+    }
+
+    public boolean isReuseParseFailures() {
+        return reuseParseFailures;
+    }
+
+    /**
+     * Count and build the failure to report for t.
+     *
+     * @param t a {@link ParseFailure} signal or any unexpected exception.
+     * @param state the state of the parser.
+     * @param b the last byte.
+     * @return the failure to pass to
+     * {@link ParserListener#fail(java.lang.Throwable)}.
+     */
+    protected ParseFailure failure(Throwable t, Enum<?> state, byte b) {
+        if (t instanceof ParseFailure pf) {
+            return failure(pf.getReason(), state, b, pf.getCause());
+        } else {
+            return failure(ParseFailureReason.INTERNAL_ERROR, state, b, t);
+        }
+    }
+
+    protected ParseFailure failure(ParseFailureReason reason, Enum<?> state, byte b, Throwable cause) {
+        if (parseFailureCounters != null) {
+            parseFailureCounters.increment(reason);
+        }
+        if (reuseParseFailures && cause == null) {
+            if (reusableParseFailure == null) {
+                reusableParseFailure = new ParseFailure(reason, state, b & 0xff, null);
+            } else {
+                reusableParseFailure.set(reason, state, b & 0xff);
+            }
+            return reusableParseFailure;
+        }
+        return new ParseFailure(reason, state, b & 0xff, cause);
+    }
 
     protected void setStackSize(int size) {
         value = 0;
@@ -21,11 +21,32 @@
  */
 package de.ibapl.fhz4j.parser.api;
 
+import java.nio.ByteBuffer;
+
 @FunctionalInterface
 public interface Parser {
 
     public void parse(byte b);
 
+    /**
+     * Parse all remaining bytes of the buffer. On return the position of the
+     * buffer is advanced to its limit.
+     *
+     * @param buffer the data to parse.
+     */
+    default public void parse(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            parse(buffer.get());
+        }
+    }
+
+    default public void parse(byte[] data, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            parse(data[i]);
+        }
+    }
+
     default public void init() {
         throw new RuntimeException("Not implemenmted!");
     }
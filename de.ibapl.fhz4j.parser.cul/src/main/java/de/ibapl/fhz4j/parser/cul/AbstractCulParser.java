@@ -21,6 +21,11 @@
  */
 package de.ibapl.fhz4j.parser.cul;
 
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /**
  *
  * @author aploese
@@ -30,45 +35,94 @@ public abstract class AbstractCulParser {
     protected byte firstNibble;
     protected boolean isFirstNibble = true;
 
+    /**
+     * Marks a char which is not a hex digit in {@link #DIGIT_TO_BYTE}.
+     */
+    public static final byte INVALID_DIGIT = -1;
+
+    /**
+     * The value of the hex digits '0'-'9', 'A'-'F' and 'a'-'f' indexed by the
+     * ASCII char; all other chars map to {@link #INVALID_DIGIT}.
+     */
+    private static final byte[] DIGIT_TO_BYTE = new byte[256];
+
+    static {
+        Arrays.fill(DIGIT_TO_BYTE, INVALID_DIGIT);
+        for (int i = 0; i < 10; i++) {
+            DIGIT_TO_BYTE['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            DIGIT_TO_BYTE['A' + i] = (byte) (10 + i);
+            DIGIT_TO_BYTE['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    /**
+     * @param c the ASCII char, only the lower 8 bits are used.
+     * @return the value of the hex digit or {@link #INVALID_DIGIT}.
+     */
+    public static byte hexDigit(int c) {
+        return DIGIT_TO_BYTE[c & 0xff];
+    }
+
     protected byte digit2Byte(char c) {
-        return switch (c) {
-            case '0' ->
-                0x00;
-            case '1' ->
-                0x01;
-            case '2' ->
-                0x02;
-            case '3' ->
-                0x03;
-            case '4' ->
-                0x04;
-            case '5' ->
-                0x05;
-            case '6' ->
-                0x06;
-            case '7' ->
-                0x07;
-            case '8' ->
-                0x08;
-            case '9' ->
-                0x09;
-            case 'A' ->
-                0x0a;
-            case 'B' ->
-                0x0b;
-            case 'C' ->
-                0x0c;
-            case 'D' ->
-                0x0d;
-            case 'E' ->
-                0x0e;
-            case 'F' ->
-                0x0f;
-            default ->
-                throw new IllegalArgumentException(String.format("Not a Number: \"%c\" 0x%02x", c, (byte) c));
-        };
+        final byte result = c < 0x100 ? DIGIT_TO_BYTE[c] : INVALID_DIGIT;
+        if (result == INVALID_DIGIT) {
+            throw new ParseFailure(ParseFailureReason.INVALID_HEX, null, c & 0xff, null);
+        }
+        return result;
+    }
+
+    /**
+     * Decode pairs of hex digits starting at the position of src. Decoding
+     * stops at the first char which is not a hex digit, if less than two chars
+     * remain or if length bytes are decoded. The position of src is advanced
+     * behind the last decoded pair.
+     *
+     * @param src the ASCII chars.
+     * @param dst the decoded bytes.
+     * @param offset the offset into dst.
+     * @param length the maximum number of bytes to decode.
+     * @return the number of decoded bytes.
+     */
+    public static int decodeHex(ByteBuffer src, byte[] dst, int offset, int length) {
+        int pos = src.position();
+        final int end = Math.min(pos + 2 * length, src.limit() - 1);
+        int count = 0;
+        while (pos < end) {
+            final byte hi = DIGIT_TO_BYTE[src.get(pos) & 0xff];
+            final byte lo = DIGIT_TO_BYTE[src.get(pos + 1) & 0xff];
+            if ((hi | lo) < 0) {
+                break;
+            }
+            dst[offset + count++] = (byte) ((hi << 4) | lo);
+            pos += 2;
+        }
+        src.position(pos);
+        return count;
     }
 
     public abstract void parse(char c);
 
+    /**
+     * Parse all remaining chars of the buffer. On return the position of the
+     * buffer is advanced to its limit. If an exception is thrown, the position
+     * points to the char after the offending one, so parsing can be resumed by
+     * calling this method again.
+     *
+     * @param buffer the received ASCII data.
+     */
+    public void parse(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            parse((char) (buffer.get() & 0xff));
+        }
+    }
+
+    public void parse(byte[] data, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            parse((char) (data[i] & 0xff));
+        }
+    }
+
 }
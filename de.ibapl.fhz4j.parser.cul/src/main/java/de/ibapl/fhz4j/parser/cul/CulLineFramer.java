@@ -0,0 +1,172 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import de.ibapl.fhz4j.LogUtils;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Splits the received data into lines terminated by '\n'.
+ *
+ * A complete line is passed to the line consumer without copying: the
+ * position and limit of the received buffer are set to the bounds of the line
+ * (without the trailing "\r\n") for the duration of the call and restored
+ * afterwards. Only a line which spans two reads is copied into an internal
+ * buffer. Lines longer than the maximum line length are discarded as garbage.
+ *
+ * The consumer must not keep a reference to the line buffer.
+ *
+ * @author Arne Plöse
+ */
+public class CulLineFramer {
+
+    private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
+
+    /**
+     * The longest line the CUL sends is well below this.
+     */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 1024;
+
+    private final Consumer<ByteBuffer> lineConsumer;
+    private final ByteBuffer pendingLine;
+    private boolean discarding;
+    private long discardedCount;
+
+    public CulLineFramer(Consumer<ByteBuffer> lineConsumer) {
+        this(lineConsumer, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    public CulLineFramer(Consumer<ByteBuffer> lineConsumer, int maxLineLength) {
+        this.lineConsumer = lineConsumer;
+        this.pendingLine = ByteBuffer.allocate(maxLineLength);
+    }
+
+    /**
+     * Pass all complete lines of buffer to the line consumer and keep the
+     * incomplete rest until the next call. On return the position of the
+     * buffer is advanced to its limit. If the line consumer throws an
+     * exception, the position points behind the offending line, so framing
+     * can be resumed by calling this method again.
+     *
+     * @param buffer the received ASCII data.
+     */
+    public void frame(ByteBuffer buffer) {
+        final int limit = buffer.limit();
+        while (buffer.hasRemaining()) {
+            final int start = buffer.position();
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            if (end == limit) {
+                keepIncompleteLine(buffer);
+                return;
+            }
+            buffer.position(end + 1);
+            if (discarding) {
+                discarding = false;
+                continue;
+            }
+            if (end - start > pendingLine.capacity()) {
+                pendingLine.clear();
+                discardLine();
+                continue;
+            }
+            if (pendingLine.position() > 0) {
+                if (pendingLine.remaining() < end - start) {
+                    discardLine();
+                    pendingLine.clear();
+                    continue;
+                }
+                buffer.position(start).limit(end);
+                pendingLine.put(buffer);
+                buffer.limit(limit).position(end + 1);
+                pendingLine.flip();
+                try {
+                    acceptLine(pendingLine);
+                } finally {
+                    pendingLine.clear();
+                }
+            } else {
+                buffer.position(start).limit(end);
+                try {
+                    acceptLine(buffer);
+                } finally {
+                    buffer.limit(limit).position(end + 1);
+                }
+            }
+        }
+    }
+
+    private void acceptLine(ByteBuffer line) {
+        if (line.hasRemaining() && line.get(line.limit() - 1) == '\r') {
+            line.limit(line.limit() - 1);
+        }
+        if (line.hasRemaining()) {
+            lineConsumer.accept(line);
+        }
+    }
+
+    private void keepIncompleteLine(ByteBuffer buffer) {
+        if (discarding) {
+            buffer.position(buffer.limit());
+        } else if (pendingLine.remaining() < buffer.remaining()) {
+            buffer.position(buffer.limit());
+            pendingLine.clear();
+            discardLine();
+            discarding = true;
+        } else {
+            pendingLine.put(buffer);
+        }
+    }
+
+    private void discardLine() {
+        discardedCount++;
+        LOG.log(Level.WARNING, "Line longer than {0} chars discarded", pendingLine.capacity());
+    }
+
+    /**
+     * @return true if the start of a line was received, but not its end.
+     */
+    public boolean hasIncompleteLine() {
+        return discarding || pendingLine.position() > 0;
+    }
+
+    /**
+     * @return the number of lines discarded, because they were too long.
+     */
+    public long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    /**
+     * Forget the incomplete line.
+     */
+    public void reset() {
+        pendingLine.clear();
+        discarding = false;
+    }
+
+}
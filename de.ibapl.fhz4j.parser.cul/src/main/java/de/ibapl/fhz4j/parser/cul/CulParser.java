@@ -22,20 +22,28 @@
 package de.ibapl.fhz4j.parser.cul;
 
 import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.LatencyHistogram;
 import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureCounters;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.api.Protocol;
 import de.ibapl.fhz4j.api.Response;
 import de.ibapl.fhz4j.cul.CulEobMessage;
+import de.ibapl.fhz4j.cul.CulFrameDeduplicator;
+import de.ibapl.fhz4j.cul.CulFrameFilter;
 import de.ibapl.fhz4j.cul.CulLovfMessage;
 import de.ibapl.fhz4j.cul.CulMessage;
 import de.ibapl.fhz4j.cul.CulMessageListener;
 import de.ibapl.fhz4j.cul.CulRequest;
 import de.ibapl.fhz4j.cul.CulResponse;
+import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.Parser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
 import de.ibapl.fhz4j.parser.em.EmParser;
 import de.ibapl.fhz4j.parser.evohome.EvoHomeParser;
 import de.ibapl.fhz4j.parser.fht.FhtParser;
+import de.ibapl.fhz4j.parser.fht.FhtPartialMessages;
 import de.ibapl.fhz4j.parser.fs20.FS20Parser;
 import de.ibapl.fhz4j.parser.hms.HmsParser;
 import de.ibapl.fhz4j.parser.lacrosse.tx2l.LaCrosseTx2Parser;
@@ -47,8 +55,9 @@ import de.ibapl.fhz4j.protocol.fht.FhtMessage;
 import de.ibapl.fhz4j.protocol.fs20.FS20Message;
 import de.ibapl.fhz4j.protocol.hms.HmsMessage;
 import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -101,7 +110,10 @@ public class CulParser<T extends Message> extends AbstractCulParser {
         }
     }
 
-    private final Queue<QueueEntry> pendingRequests = new LinkedList<>();
+    /**
+     * Filled by the writing threads, taken by the reading thread.
+     */
+    private final Queue<QueueEntry> pendingRequests = new ConcurrentLinkedQueue<>();
 
     /**
      * Returns whether or not the parser is idle.
@@ -157,8 +169,28 @@ public class CulParser<T extends Message> extends AbstractCulParser {
 
     private final StringBuilder errorGarbageCollector = new StringBuilder();
 
+    private final CulLineFramer lineFramer = new CulLineFramer(this::parseLine);
+    private byte[] payload = new byte[CulLineFramer.DEFAULT_MAX_LINE_LENGTH / 2];
+    /**
+     * The number of bytes {@link #parse(char)} has put into {@link #payload}.
+     */
+    private int payloadLength;
+
+    private boolean readTimeValid;
+    private long readNanos;
+    private long readMillis;
+    private long frameStartNanos;
+    private long frameStartMillis;
+    private LatencyHistogram latencyHistogram;
+    private CulFrameFilter frameFilter;
+    private CulFrameDeduplicator frameDeduplicator;
+    private ParseFailureCounters parseFailureCounters;
+    private boolean reuseParseFailures;
+    private ParseFailure reusableParseFailure;
+
     public CulParser(CulMessageListener dataListener) {
         this.culMessageListener = dataListener;
+        setParseFailureCounters(new ParseFailureCounters());
     }
 
     /**
@@ -173,8 +205,204 @@ public class CulParser<T extends Message> extends AbstractCulParser {
         fhzMessage = null;
     }
 
+    /**
+     * Set the time the data which is parsed next was read. If never set, the
+     * time is taken when the first char of a frame is parsed.
+     *
+     * @param nanos {@link System#nanoTime()} of the read.
+     * @param millis {@link System#currentTimeMillis()} of the read.
+     */
+    public void setReadTime(long nanos, long millis) {
+        readTimeValid = true;
+        readNanos = nanos;
+        readMillis = millis;
+    }
+
+    /**
+     * Record the latency between reading the first byte of a frame and
+     * passing its message to the listener of this parser. Records once per
+     * frame: if a frame yields a partial and an assembled FHT message only the
+     * assembled one is recorded.
+     *
+     * @param latencyHistogram the histogram to record to, or null.
+     */
+    public void setLatencyHistogram(LatencyHistogram latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    /**
+     * If set, the FHT, HMS, EM, FS20 and LaCrosse TX2 parsers fill the same
+     * message instances over and over again, so decoding these protocols does
+     * not allocate in the steady state. A message is then only valid during
+     * the listener callback, use {@link Message#copy()} to keep it. Do not
+     * combine this with a listener which passes the messages on to other
+     * threads. This does not cover the EvoHome parser, its messages are
+     * allocated for each frame regardless of this setting.
+     *
+     * @param reuseMessages
+     */
+    public void setReuseMessages(boolean reuseMessages) {
+        emParser.setReuseMessages(reuseMessages);
+        fs20Parser.setReuseMessages(reuseMessages);
+        fhtParser.setReuseMessages(reuseMessages);
+        hmsParser.setReuseMessages(reuseMessages);
+        laCrosseTx2Parser.setReuseMessages(reuseMessages);
+    }
+
+    public boolean isReuseMessages() {
+        return fhtParser.isReuseMessages();
+    }
+
+    /**
+     * If set, EvoHome messages are passed as
+     * {@link de.ibapl.fhz4j.protocol.evohome.EvoHomeLazyMessage} and the
+     * payload is only decoded on request.
+     *
+     * @param lazyEvoHomePayloadDecoding
+     * @see EvoHomeParser#setLazyPayloadDecoding(boolean)
+     */
+    public void setLazyEvoHomePayloadDecoding(boolean lazyEvoHomePayloadDecoding) {
+        evoHomeParser.setLazyPayloadDecoding(lazyEvoHomePayloadDecoding);
+    }
+
+    public boolean isLazyEvoHomePayloadDecoding() {
+        return evoHomeParser.isLazyPayloadDecoding();
+    }
+
+    /**
+     * Drop received frames by address before their payload is decoded. This
+     * applies to {@link #parse(char)} and {@link #parse(java.nio.ByteBuffer)}
+     * alike.
+     *
+     * @param frameFilter the filter or null to pass all frames.
+     */
+    public void setFrameFilter(CulFrameFilter frameFilter) {
+        this.frameFilter = frameFilter;
+    }
+
+    public CulFrameFilter getFrameFilter() {
+        return frameFilter;
+    }
+
+    /**
+     * Drop repeated frames after they are decoded, before the listener is
+     * called. Frames passed to {@link #parse(char)} and
+     * {@link #parse(java.nio.ByteBuffer)} are checked against the same table,
+     * so a repeat is dropped regardless of the method the first copy came
+     * through.
+     *
+     * @param frameDeduplicator the deduplicator or null to pass all frames.
+     */
+    public void setFrameDeduplicator(CulFrameDeduplicator frameDeduplicator) {
+        this.frameDeduplicator = frameDeduplicator;
+    }
+
+    public CulFrameDeduplicator getFrameDeduplicator() {
+        return frameDeduplicator;
+    }
+
+    private AbstractParser[] subParsers() {
+        return new AbstractParser[]{emParser, fs20Parser, fhtParser, hmsParser, laCrosseTx2Parser, evoHomeParser};
+    }
+
+    /**
+     * Count the rejected frames of this parser and all protocol parsers.
+     *
+     * @param parseFailureCounters the counters, may be shared with other
+     * parsers.
+     */
+    public void setParseFailureCounters(ParseFailureCounters parseFailureCounters) {
+        this.parseFailureCounters = parseFailureCounters;
+        for (AbstractParser parser : subParsers()) {
+            parser.setParseFailureCounters(parseFailureCounters);
+        }
+    }
+
+    public ParseFailureCounters getParseFailureCounters() {
+        return parseFailureCounters;
+    }
+
+    /**
+     * If set, {@link CulMessageListener#failed(java.lang.Throwable)} gets the
+     * same {@link ParseFailure} for rejected frames over and over again. It is
+     * only valid during the callback.
+     *
+     * @param reuseParseFailures
+     * @see AbstractParser#setReuseParseFailures(boolean)
+     */
+    public void setReuseParseFailures(boolean reuseParseFailures) {
+        this.reuseParseFailures = reuseParseFailures;
+        for (AbstractParser parser : subParsers()) {
+            parser.setReuseParseFailures(reuseParseFailures);
+        }
+    }
+
+    public boolean isReuseParseFailures() {
+        return reuseParseFailures;
+    }
+
+    private ParseFailure parseFailure(ParseFailureReason reason, int offendingByte) {
+        if (parseFailureCounters != null) {
+            parseFailureCounters.increment(reason);
+        }
+        return new ParseFailure(reason, state, offendingByte, null);
+    }
+
+    /**
+     * Count the rejected frame and pass the failure to
+     * {@link CulMessageListener#failed(java.lang.Throwable)}, like the sub
+     * parsers do.
+     */
+    private void rejectFrame(ParseFailureReason reason, int offendingByte) {
+        final ParseFailure failure;
+        if (reuseParseFailures) {
+            if (parseFailureCounters != null) {
+                parseFailureCounters.increment(reason);
+            }
+            if (reusableParseFailure == null) {
+                reusableParseFailure = new ParseFailure(reason, state, offendingByte, null);
+            } else {
+                reusableParseFailure.set(reason, state, offendingByte);
+            }
+            failure = reusableParseFailure;
+        } else {
+            failure = parseFailure(reason, offendingByte);
+        }
+        state = State.IDLE;
+        culMessageListener.failed(failure);
+    }
+
+    public FhtPartialMessages getFhtPartialMessages() {
+        return fhtParser.getPartialMessages();
+    }
+
+    private void markFrameStart() {
+        if (readTimeValid) {
+            frameStartNanos = readNanos;
+            frameStartMillis = readMillis;
+        } else {
+            frameStartNanos = System.nanoTime();
+            frameStartMillis = System.currentTimeMillis();
+        }
+    }
+
+    private void stampTimes(Message<?> message, boolean lastOfFrame) {
+        message.setReceived(frameStartNanos, frameStartMillis);
+        message.setDispatchedNow();
+        if (lastOfFrame && latencyHistogram != null) {
+            latencyHistogram.record(message);
+        }
+    }
+
     @Override
     public void parse(char c) {
+        if (state == State.IDLE) {
+            markFrameStart();
+        }
+        parseChar(c);
+    }
+
+    private void parseChar(char c) {
         OUTER:
         switch (state) {
             case IDLE -> {
@@ -237,7 +465,7 @@ public class CulParser<T extends Message> extends AbstractCulParser {
                     case '!' ->
                         state = State.EVO_HOME_READ_ERROR_CHAR;
                     default ->
-                        throw new IllegalArgumentException(String.format("unexpected char EVO_HOME_START: 0x%02x %s", (byte) c, c));
+                        throw parseFailure(ParseFailureReason.UNEXPECTED_BYTES, c & 0xff);
                 }
             }
             case EVO_HOME_READ_ERROR_CHAR -> {
@@ -293,16 +521,21 @@ public class CulParser<T extends Message> extends AbstractCulParser {
                         helpStringBuilder.append(c);
                     }
                     case '\n', '\r' -> {
-                        LOG.log(Level.SEVERE, "In state {0} for protocol {1} unexpected end of message received", new Object[]{state, currentParser.getClass().getName()});
-                        state = State.IDLE;
+                        if (isFirstNibble) {
+                            parseFrame(currentParser, payloadLength);
+                        } else {
+                            rejectFrame(ParseFailureReason.INVALID_LENGTH, c & 0xff);
+                        }
                     }
                     default -> {
                         if (isFirstNibble) {
                             firstNibble = digit2Byte(c);
                             isFirstNibble = false;
+                        } else if (payloadLength == payload.length) {
+                            rejectFrame(ParseFailureReason.INVALID_LENGTH, c & 0xff);
                         } else {
                             isFirstNibble = true;
-                            currentParser.parse((byte) ((firstNibble << 4) | digit2Byte(c)));
+                            payload[payloadLength++] = (byte) ((firstNibble << 4) | digit2Byte(c));
                         }
                     }
                 }
@@ -442,6 +675,260 @@ public class CulParser<T extends Message> extends AbstractCulParser {
         }
     }
 
+    /**
+     * Parse all remaining chars of the buffer. The buffer is split into lines
+     * first, each complete line is decoded by {@link #parseLine(ByteBuffer)}.
+     * An incomplete line at the end of the buffer is kept until the rest of it
+     * is received. Do not mix calls of this method and {@link #parse(char)}
+     * within a line.
+     *
+     * @param buffer the received ASCII data.
+     */
+    @Override
+    public void parse(ByteBuffer buffer) {
+        if (!lineFramer.hasIncompleteLine()) {
+            markFrameStart();
+        }
+        lineFramer.frame(buffer);
+    }
+
+    @Override
+    public void parse(byte[] data, int offset, int length) {
+        parse(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * Decode a complete line. The decoder is chosen by the first char: the
+     * hex payload of a radio message is decoded in one pass and fed to its
+     * parser, the trailing byte after a complete message is the signal
+     * strength. All other lines are passed char by char to the state machine.
+     *
+     * @param line the line without the trailing "\r\n".
+     */
+    private void parseLine(ByteBuffer line) {
+        try {
+            if (state != State.IDLE) {
+                LOG.log(Level.SEVERE, "In state {0} unexpected start of line, discard the incomplete message", state);
+                state = State.IDLE;
+            }
+            init();
+            final int start = line.position();
+            final Parser parser;
+            final int prefixLength;
+            switch (line.get(start)) {
+                case 'F' -> {
+                    parser = fs20Parser;
+                    prefixLength = 1;
+                }
+                case 'T' -> {
+                    parser = fhtParser;
+                    prefixLength = 1;
+                }
+                case 'H' -> {
+                    parser = hmsParser;
+                    prefixLength = 1;
+                }
+                case 't' -> {
+                    parser = laCrosseTx2Parser;
+                    prefixLength = 1;
+                }
+                case 'E' -> {
+                    parser = line.remaining() == 3 && line.get(start + 1) == 'O' ? null : emParser;
+                    prefixLength = 1;
+                }
+                case 'v' -> {
+                    parser = line.remaining() > 1 && line.get(start + 1) == 'r' ? evoHomeParser : null;
+                    prefixLength = 2;
+                }
+                default -> {
+                    parser = null;
+                    prefixLength = 0;
+                }
+            }
+            if (parser != null) {
+                final int answerStart = findCulAnswer(line, start + prefixLength);
+                if (answerStart < 0) {
+                    line.position(start + prefixLength);
+                    parsePayload(parser, line);
+                    return;
+                }
+                // as in parse(char) the incomplete message is discarded
+                LOG.log(Level.FINE, "CUL answer within a radio message, discard the incomplete message");
+                line.position(answerStart);
+            }
+            while (line.hasRemaining()) {
+                parseChar((char) (line.get() & 0xff));
+            }
+            parseChar('\r');
+            parseChar('\n');
+        } finally {
+            //the next line starts with this read
+            markFrameStart();
+        }
+    }
+
+    /**
+     * The CUL may put the answer to a command ('v' of the EvoHome init or '?'
+     * of the help) into a radio message.
+     *
+     * @return the index of the answer or -1.
+     */
+    private static int findCulAnswer(ByteBuffer line, int from) {
+        for (int i = from; i < line.limit(); i++) {
+            final byte c = line.get(i);
+            if (c == 'v' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void parsePayload(Parser parser, ByteBuffer line) {
+        final int length = decodePayload(line);
+        if (length >= 0) {
+            parseFrame(parser, length);
+        }
+    }
+
+    /**
+     * Filter, decode, deduplicate and dispatch the frame in the leading bytes
+     * of {@link #payload}. Both {@link #parse(char)} and
+     * {@link #parse(java.nio.ByteBuffer)} end up here.
+     *
+     * @param parser the parser for the protocol of the frame.
+     * @param length the number of bytes of the frame including the signal
+     * strength.
+     */
+    private void parseFrame(Parser parser, int length) {
+        if (frameFilter != null && !acceptFrame(parser, length)) {
+            state = State.IDLE;
+            return;
+        }
+        initParser(parser);
+        state = State.PARSER_PARSING;
+        int i = 0;
+        while (i < length && state == State.PARSER_PARSING) {
+            currentParser.parse(payload[i++]);
+        }
+        switch (state) {
+            case PARSER_PARSING -> {
+                if (parseFailureCounters != null) {
+                    parseFailureCounters.increment(ParseFailureReason.UNEXPECTED_END);
+                }
+                LOG.log(Level.SEVERE, "In state {0} for protocol {1} unexpected end of message received", new Object[]{state, currentParser.getClass().getName()});
+                state = State.IDLE;
+            }
+            case SINGNAL_STRENGTH -> {
+                if (frameDeduplicator != null && !acceptRepeat(i)) {
+                    state = State.IDLE;
+                    return;
+                }
+                switch (length - i) {
+                    case 0 ->
+                        finishParsingAndNotify();
+                    case 1 -> {
+                        culMessageListener.signalStrength((float) (payload[i] / 2.0 - 74));
+                        finishParsingAndNotify();
+                    }
+                    default -> {
+                        if (parseFailureCounters != null) {
+                            parseFailureCounters.increment(ParseFailureReason.UNEXPECTED_BYTES);
+                        }
+                        LOG.log(Level.SEVERE, "In state {0} for protocol {1} {2} unexpected bytes after message received", new Object[]{state, currentParser.getClass().getName(), length - i});
+                        state = State.IDLE;
+                    }
+                }
+            }
+            default -> {
+                //parser failed and has notified the listener
+            }
+        }
+    }
+
+    /**
+     * Check the address in the leading bytes of {@link #payload}. Frames too
+     * short to hold the address are passed, so the parser reports the error.
+     */
+    private boolean acceptFrame(Parser parser, int length) {
+        if (parser == fhtParser) {
+            if (length < 2) {
+                return true;
+            }
+            final int high = payload[0] & 0xff;
+            final int low = payload[1] & 0xff;
+            if (high > 99 || low > 99) {
+                return frameFilter.acceptProtocol(Protocol.FHT_TF);
+            }
+            return frameFilter.acceptFht((short) (high * 100 + low));
+        } else if (parser == fs20Parser) {
+            return length < 2 || frameFilter.acceptFs20(getPayloadShort(0));
+        } else if (parser == hmsParser) {
+            return length < 2 || frameFilter.acceptHms(getPayloadShort(0));
+        } else if (parser == emParser) {
+            return length < 2 || frameFilter.acceptEm((short) (payload[1] & 0xff));
+        } else if (parser == evoHomeParser) {
+            // header, deviceId1, deviceId2, command
+            if (length < 9) {
+                return true;
+            }
+            final int deviceId1 = ((payload[1] & 0xff) << 16) | ((payload[2] & 0xff) << 8) | (payload[3] & 0xff);
+            final int deviceId2 = ((payload[4] & 0xff) << 16) | ((payload[5] & 0xff) << 8) | (payload[6] & 0xff);
+            return frameFilter.acceptEvoHome(deviceId1, deviceId2, getPayloadShort(7) & 0xffff);
+        } else if (parser == laCrosseTx2Parser) {
+            return frameFilter.acceptProtocol(Protocol.LA_CROSSE_TX2);
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Check the decoded frame in the leading bytes of {@link #payload}, the
+     * signal strength behind them is not part of the frame.
+     */
+    private boolean acceptRepeat(int length) {
+        final Protocol protocol;
+        if (fhzMessage != null) {
+            protocol = fhzMessage.protocol;
+        } else if (partialFhzMessage != null) {
+            protocol = partialFhzMessage.protocol;
+        } else {
+            return true;
+        }
+        return frameDeduplicator.accept(protocol, payload, 0, length, frameStartNanos);
+    }
+
+    private short getPayloadShort(int index) {
+        return (short) (((payload[index] & 0xff) << 8) | (payload[index + 1] & 0xff));
+    }
+
+    /**
+     * Decode the hex payload into {@link #payload}.
+     *
+     * A char which is not a hex digit is rejected with
+     * {@link ParseFailureReason#INVALID_HEX}, an odd number of hex digits with
+     * {@link ParseFailureReason#INVALID_LENGTH}.
+     *
+     * @return the number of decoded bytes or -1 if the frame was rejected.
+     */
+    private int decodePayload(ByteBuffer line) {
+        if (payload.length < line.remaining() / 2) {
+            payload = new byte[line.remaining() / 2];
+        }
+        final int length = decodeHex(line, payload, 0, payload.length);
+        if (line.hasRemaining()) {
+            for (int i = line.position(); i < line.limit(); i++) {
+                final int c = line.get(i) & 0xff;
+                if (hexDigit(c) == INVALID_DIGIT) {
+                    rejectFrame(ParseFailureReason.INVALID_HEX, c);
+                    return -1;
+                }
+            }
+            rejectFrame(ParseFailureReason.INVALID_LENGTH, line.get(line.position()) & 0xff);
+            return -1;
+        }
+        return length;
+    }
+
     private void finishParsingAndNotify() throws RuntimeException {
         state = State.IDLE;
         if (LOG.isLoggable(Level.FINE)) {
@@ -452,10 +939,15 @@ public class CulParser<T extends Message> extends AbstractCulParser {
         if (culMessageListener != null) {
 
             if (partialFhzMessage instanceof FhtMessage fhtMessage) {
+                stampTimes(fhtMessage, fhzMessage == null);
                 culMessageListener.fhtPartialDataParsed(fhtMessage);
             }
 
             if (fhzMessage != null) {
+                //CUL messages are shared instances, so leave them alone
+                if (fhzMessage.protocol != Protocol.CUL) {
+                    stampTimes(fhzMessage, true);
+                }
                 switch (fhzMessage.protocol) {
                     case FHT ->
                         culMessageListener.fhtDataParsed((FhtMessage) fhzMessage);
@@ -485,6 +977,7 @@ public class CulParser<T extends Message> extends AbstractCulParser {
         currentParser.init();
         isFirstNibble = true;
         firstNibble = 0;
+        payloadLength = 0;
     }
 
     /**
@@ -41,6 +41,11 @@ import de.ibapl.fhz4j.protocol.fht.FhtMessage;
 import java.util.function.Consumer;
 
 /**
+ * Parses the answer of the CUL to a {@link CulRequest}. The answer is fed char
+ * by char from the state machine of {@link CulParser}, so the hex digits are
+ * decoded with {@link #digit2Byte(char)} and not with
+ * {@link #decodeHex(java.nio.ByteBuffer, byte[], int, int)}. The answers are
+ * rare and hold only a few hex digits.
  *
  * @author aploese
  */
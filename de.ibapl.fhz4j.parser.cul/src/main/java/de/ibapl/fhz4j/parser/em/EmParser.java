@@ -24,6 +24,8 @@ package de.ibapl.fhz4j.parser.em;
 import java.util.logging.Logger;
 
 import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
 import de.ibapl.fhz4j.protocol.em.EmDeviceType;
@@ -70,22 +72,29 @@ public class EmParser extends AbstractParser {
     private final ParserListener<EmMessage> parserListener;
     private State state;
     private EmMessage emMessage;
+    private final EmMessage reusableEmMessage = new EmMessage(EmDeviceType.EM_1000_S);
 
     @Override
     public void parse(byte b) {
         try {
             switch (state) {
                 case COLLECT_TYPE -> {
-                    emMessage = switch (b) {
+                    final EmDeviceType emDeviceType = switch (b) {
                         case 1 ->
-                            new EmMessage(EmDeviceType.EM_1000_S);
+                            EmDeviceType.EM_1000_S;
                         case 2 ->
-                            new EmMessage(EmDeviceType.EM_1000_EM);
+                            EmDeviceType.EM_1000_EM;
                         case 3 ->
-                            new EmMessage(EmDeviceType.EM_1000_GZ);
+                            EmDeviceType.EM_1000_GZ;
                         default ->
-                            throw new RuntimeException("Wrong Type");
+                            throw ParseFailure.of(ParseFailureReason.UNKNOWN_DEVICE_TYPE);
                     };
+                    if (reuseMessages) {
+                        emMessage = reusableEmMessage;
+                        emMessage.emDeviceType = emDeviceType;
+                    } else {
+                        emMessage = new EmMessage(emDeviceType);
+                    }
                     state = State.COLLECT_ADDRESS;
                 }
                 case COLLECT_ADDRESS -> {
@@ -120,7 +129,7 @@ public class EmParser extends AbstractParser {
                 }
             }
         } catch (Throwable t) {
-            parserListener.fail(new RuntimeException(String.format("State: %s last byte 0x%02x", state, b), t));
+            parserListener.fail(failure(t, state, b));
             state = State.PARSE_ERROR;
         }
 
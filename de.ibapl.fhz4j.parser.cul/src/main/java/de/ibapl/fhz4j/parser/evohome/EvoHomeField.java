@@ -0,0 +1,339 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.evohome;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * One field of an EvoHome payload schema. The factory methods describe the
+ * field by its type, width and scaling, the setter stores the decoded value in
+ * the message. All multi byte values are big endian.
+ *
+ * @author Arne Plöse
+ * @param <M> the message or element the value is stored to.
+ */
+@FunctionalInterface
+interface EvoHomeField<M> {
+
+    @FunctionalInterface
+    interface ByteSetter<M> {
+
+        void set(M message, byte value);
+    }
+
+    @FunctionalInterface
+    interface ShortSetter<M> {
+
+        void set(M message, short value);
+    }
+
+    @FunctionalInterface
+    interface FloatSetter<M> {
+
+        void set(M message, float value);
+    }
+
+    /**
+     * Decode the field.
+     *
+     * @param message the message to fill.
+     * @param data the payload.
+     * @param pos the position of the field in data.
+     * @param end the end of the payload.
+     * @return the position after the field.
+     */
+    int decode(M message, byte[] data, int pos, int end);
+
+    private static void checkRemaining(int pos, int width, int end) {
+        if (end - pos < width) {
+            throw new IllegalArgumentException(String.format("Payload too short, need %d bytes at %d, but only %d left", width, pos, end - pos));
+        }
+    }
+
+    private static int getUInt16(byte[] data, int pos) {
+        return (data[pos] & 0xff) << 8 | (data[pos + 1] & 0xff);
+    }
+
+    private static int getUInt24(byte[] data, int pos) {
+        return (data[pos] & 0xff) << 16 | (data[pos + 1] & 0xff) << 8 | (data[pos + 2] & 0xff);
+    }
+
+    private static LocalDate getDate(byte[] data, int pos) {
+        return LocalDate.of(getUInt16(data, pos + 2), Month.of(data[pos + 1]), data[pos]);
+    }
+
+    static <M> EvoHomeField<M> int8(ByteSetter<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 1, end);
+            setter.set(m, data[pos]);
+            return pos + 1;
+        };
+    }
+
+    /**
+     * An unsigned byte scaled by 1 / divisor.
+     */
+    static <M> EvoHomeField<M> uint8(double divisor, FloatSetter<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 1, end);
+            setter.set(m, (float) ((data[pos] & 0xff) / divisor));
+            return pos + 1;
+        };
+    }
+
+    static <M> EvoHomeField<M> uint8(ObjIntConsumer<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 1, end);
+            setter.accept(m, data[pos] & 0xff);
+            return pos + 1;
+        };
+    }
+
+    /**
+     * A byte which must have a fixed value.
+     */
+    static <M> EvoHomeField<M> int8(int expected, String name, ByteSetter<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 1, end);
+            if (data[pos] != (byte) expected) {
+                throw new IllegalArgumentException(String.format("%s is set to 0x%02x", name, data[pos]));
+            }
+            setter.set(m, data[pos]);
+            return pos + 1;
+        };
+    }
+
+    static <M, E> EvoHomeField<M> enum8(IntFunction<E> decoder, BiConsumer<M, E> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 1, end);
+            setter.accept(m, decoder.apply(data[pos] & 0xff));
+            return pos + 1;
+        };
+    }
+
+    static <M> EvoHomeField<M> int16(ShortSetter<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 2, end);
+            setter.set(m, (short) getUInt16(data, pos));
+            return pos + 2;
+        };
+    }
+
+    /**
+     * A short which must have a fixed value.
+     */
+    static <M> EvoHomeField<M> int16(int expected, String name, ShortSetter<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 2, end);
+            final int value = getUInt16(data, pos);
+            if (value != expected) {
+                throw new IllegalArgumentException(String.format("%s is set to 0x%04x", name, value));
+            }
+            setter.set(m, (short) value);
+            return pos + 2;
+        };
+    }
+
+    static <M> EvoHomeField<M> uint24(ObjIntConsumer<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 3, end);
+            setter.accept(m, getUInt24(data, pos));
+            return pos + 3;
+        };
+    }
+
+    /**
+     * An unsigned 24 bit value which must have a fixed value.
+     */
+    static <M> EvoHomeField<M> uint24(int expected, String name, ObjIntConsumer<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 3, end);
+            final int value = getUInt24(data, pos);
+            if (value != expected) {
+                throw new IllegalArgumentException(String.format("%s is set to 0x%06x", name, value));
+            }
+            setter.accept(m, value);
+            return pos + 3;
+        };
+    }
+
+    static <M> EvoHomeField<M> int32(ObjIntConsumer<M> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 4, end);
+            setter.accept(m, getUInt16(data, pos) << 16 | getUInt16(data, pos + 2));
+            return pos + 4;
+        };
+    }
+
+    /**
+     * A date as day of month, month and year.
+     */
+    static <M> EvoHomeField<M> date(BiConsumer<M, LocalDate> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 4, end);
+            setter.accept(m, getDate(data, pos));
+            return pos + 4;
+        };
+    }
+
+    private static boolean isUnset(byte[] data, int pos, int width) {
+        for (int i = pos; i < pos + width; i++) {
+            if (data[i] != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDateTime getTimeAndDate(byte[] data, int pos) {
+        return LocalDateTime.of(getDate(data, pos + 2), LocalTime.of(data[pos + 1], data[pos]));
+    }
+
+    /**
+     * A time as minutes and hours followed by a date, which must be set.
+     */
+    static <M> EvoHomeField<M> timeAndDate(BiConsumer<M, LocalDateTime> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 6, end);
+            if (isUnset(data, pos, 6)) {
+                throw new IllegalArgumentException(String.format("Time and date at %d is not set", pos));
+            }
+            setter.accept(m, getTimeAndDate(data, pos));
+            return pos + 6;
+        };
+    }
+
+    /**
+     * A time as minutes and hours followed by a date, null if all bytes are
+     * 0xff.
+     */
+    static <M> EvoHomeField<M> timeAndDateOrUnset(BiConsumer<M, LocalDateTime> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 6, end);
+            setter.accept(m, isUnset(data, pos, 6) ? null : getTimeAndDate(data, pos));
+            return pos + 6;
+        };
+    }
+
+    /**
+     * A timestamp as second, minute, hour, day of month, month and year.
+     */
+    static <M> EvoHomeField<M> timestamp(BiConsumer<M, LocalDateTime> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, 7, end);
+            //TODO upper bit of second DST -> DaylightSavingTime?
+            setter.accept(m, LocalDateTime.of(getUInt16(data, pos + 5), Month.of(data[pos + 4] & 0xff), data[pos + 3] & 0xff,
+                    data[pos + 2] & 0x1f, data[pos + 1] & 0xff, data[pos] & 0x7f));
+            return pos + 7;
+        };
+    }
+
+    /**
+     * Copy the bytes into a new array.
+     */
+    static <M> EvoHomeField<M> bytes(int width, BiConsumer<M, byte[]> setter) {
+        return (m, data, pos, end) -> {
+            checkRemaining(pos, width, end);
+            final byte[] value = new byte[width];
+            System.arraycopy(data, pos, value, 0, width);
+            setter.accept(m, value);
+            return pos + width;
+        };
+    }
+
+    /**
+     * Copy the bytes into the array of the message, its length is the width.
+     */
+    static <M> EvoHomeField<M> bytes(Function<M, byte[]> getter) {
+        return (m, data, pos, end) -> {
+            final byte[] value = getter.apply(m);
+            checkRemaining(pos, value.length, end);
+            System.arraycopy(data, pos, value, 0, value.length);
+            return pos + value.length;
+        };
+    }
+
+    /**
+     * A string up to the end of the payload less the reserved bytes. Chars in
+     * skipChars are dropped.
+     */
+    static <M> EvoHomeField<M> string(int reserved, String skipChars, BiConsumer<M, String> setter) {
+        return (m, data, pos, end) -> {
+            final int stringEnd = end - reserved;
+            checkRemaining(pos, 0, stringEnd);
+            final StringBuilder sb = new StringBuilder(stringEnd - pos);
+            for (int i = pos; i < stringEnd; i++) {
+                final char c = (char) (data[i] & 0xff);
+                if (skipChars.indexOf(c) < 0) {
+                    sb.append(c);
+                }
+            }
+            setter.accept(m, sb.toString());
+            return stringEnd;
+        };
+    }
+
+    /**
+     * Repeat the element fields up to the end of the payload, each element is
+     * added to the list.
+     */
+    @SafeVarargs
+    static <M, E> EvoHomeField<M> repeat(Supplier<E> elementFactory, Function<M, List<E>> list, EvoHomeField<E>... elementFields) {
+        return (m, data, pos, end) -> {
+            final List<E> elements = list.apply(m);
+            while (pos < end) {
+                final E element = elementFactory.get();
+                for (EvoHomeField<E> field : elementFields) {
+                    pos = field.decode(element, data, pos, end);
+                }
+                elements.add(element);
+            }
+            return pos;
+        };
+    }
+
+    /**
+     * Fields which are only present if the payload is not yet exhausted.
+     */
+    @SafeVarargs
+    static <M> EvoHomeField<M> optional(EvoHomeField<M>... fields) {
+        return (m, data, pos, end) -> {
+            if (pos == end) {
+                return pos;
+            }
+            for (EvoHomeField<M> field : fields) {
+                pos = field.decode(m, data, pos, end);
+            }
+            return pos;
+        };
+    }
+
+}
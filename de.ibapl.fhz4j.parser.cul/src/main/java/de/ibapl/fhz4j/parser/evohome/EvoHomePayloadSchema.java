@@ -0,0 +1,148 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.evohome;
+
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the payload of one {@link de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand}
+ * and {@link EvoHomeMsgType}: how to create the message, the allowed payload
+ * lengths and the fields in order.
+ *
+ * @author Arne Plöse
+ * @param <M> the message type.
+ */
+final class EvoHomePayloadSchema<M> {
+
+    @FunctionalInterface
+    interface Factory<M> {
+
+        M create(EvoHomeMsgType msgType, EvoHomeMsgParam0 msgParam0, int length);
+    }
+
+    /**
+     * Any length matches.
+     */
+    final static int[] ANY_LENGTH = new int[0];
+
+    private final Class<?> messageClass;
+    private final Factory<M> factory;
+    private final int[] lengths;
+    private final int lengthMultiple;
+    private final List<EvoHomeField<M>> fields;
+
+    /**
+     *
+     * @param messageClass the class of the messages, used in error messages.
+     * @param factory
+     * @param lengths the allowed payload lengths, or {@link #ANY_LENGTH}.
+     * @param lengthMultiple the payload length must be a multiple of this,
+     * used for repeated elements.
+     * @param fields
+     */
+    private EvoHomePayloadSchema(Class<?> messageClass, Factory<M> factory, int[] lengths, int lengthMultiple, List<EvoHomeField<M>> fields) {
+        this.messageClass = messageClass;
+        this.factory = factory;
+        this.lengths = lengths;
+        this.lengthMultiple = lengthMultiple;
+        this.fields = fields;
+    }
+
+    /**
+     * A payload of fixed length, or one of the lengths if there are optional
+     * fields.
+     */
+    @SafeVarargs
+    static <M> EvoHomePayloadSchema<M> fixed(Class<?> messageClass, Factory<M> factory, int[] lengths, EvoHomeField<M>... fields) {
+        // copy the fields, the varargs array must not escape
+        final List<EvoHomeField<M>> fieldList = new ArrayList<>(fields.length);
+        for (EvoHomeField<M> field : fields) {
+            fieldList.add(field);
+        }
+        return new EvoHomePayloadSchema<>(messageClass, factory, lengths, 1, fieldList);
+    }
+
+    /**
+     * A payload of repeated elements of the given width.
+     */
+    @SafeVarargs
+    static <M> EvoHomePayloadSchema<M> repeated(Class<?> messageClass, Factory<M> factory, int elementWidth, EvoHomeField<M>... fields) {
+        // copy the fields, the varargs array must not escape
+        final List<EvoHomeField<M>> fieldList = new ArrayList<>(fields.length);
+        for (EvoHomeField<M> field : fields) {
+            fieldList.add(field);
+        }
+        return new EvoHomePayloadSchema<>(messageClass, factory, ANY_LENGTH, elementWidth, fieldList);
+    }
+
+    static int[] length(int... lengths) {
+        return lengths;
+    }
+
+    private void checkLength(int length) {
+        if (length % lengthMultiple != 0) {
+            throw new IllegalArgumentException(String.format("%s length must be a multiple of %d, but was %d", messageClass.getSimpleName(), lengthMultiple, length));
+        }
+        if (lengths.length == 0) {
+            return;
+        }
+        for (int l : lengths) {
+            if (l == length) {
+                return;
+            }
+        }
+        if (lengths.length == 1) {
+            throw new IllegalArgumentException(String.format("Expected length of %s differs, expected %d, but was %d ", messageClass.getSimpleName(), lengths[0], length));
+        } else {
+            throw new IllegalArgumentException(String.format("Expected length of %s differs, expected %d or %d, but was %d ", messageClass.getSimpleName(), lengths[0], lengths[1], length));
+        }
+    }
+
+    /**
+     * Check the length, create the message and decode all fields.
+     *
+     * @param msgType
+     * @param msgParam0
+     * @param data the payload.
+     * @param offset the start of the payload in data.
+     * @param length the length of the payload.
+     * @return the message.
+     * @throws IllegalArgumentException if the payload does not match.
+     */
+    M decode(EvoHomeMsgType msgType, EvoHomeMsgParam0 msgParam0, byte[] data, int offset, int length) {
+        checkLength(length);
+        final M message = factory.create(msgType, msgParam0, length);
+        final int end = offset + length;
+        int pos = offset;
+        for (int i = 0; i < fields.size(); i++) {
+            pos = fields.get(i).decode(message, data, pos, end);
+        }
+        if (pos != end) {
+            throw new IllegalArgumentException(String.format("%s has %d bytes left after decoding", messageClass.getSimpleName(), end - pos));
+        }
+        return message;
+    }
+
+}
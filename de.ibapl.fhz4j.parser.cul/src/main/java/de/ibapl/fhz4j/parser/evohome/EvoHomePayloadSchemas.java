@@ -0,0 +1,453 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.evohome;
+
+import de.ibapl.fhz4j.protocol.evohome.DeviceId;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import static de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType.INFORMATION;
+import static de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType.REQUEST;
+import static de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType.RESPONSE;
+import static de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType.WRITE;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModeMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModePayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractRfBindPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractZoneSetpointOverrideMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ActuatorSyncInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.BoilerRelayInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.DeviceBatteryStatusInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.DeviceInformationInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.LocalizationRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.LocalizationResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RelayFailsaveInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RelayHeatDemandInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfBindInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfBindWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfCheckWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfSignalTestRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.RfSignalTestResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemSynchronizationPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemSynchronizationRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemTimestampRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.SystemTimestampResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.T87RF_Startup_0x000E_InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.T87RF_Startup_0x042F_InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.Unknown_0x3120InformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.WindowSensorResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneActuatorsInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneActuatorsRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneConfigPayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneConfigRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneHeatDemandInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneManagementInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneNamePayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneNameRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointRequestMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointResponseMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointWriteMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneTemperatureInformationMessage;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.bytes;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.date;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.enum8;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.int16;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.int32;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.int8;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.optional;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.repeat;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.string;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.timeAndDate;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.timeAndDateOrUnset;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.timestamp;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.uint24;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomeField.uint8;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomePayloadSchema.ANY_LENGTH;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomePayloadSchema.fixed;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomePayloadSchema.length;
+import static de.ibapl.fhz4j.parser.evohome.EvoHomePayloadSchema.repeated;
+import java.time.Duration;
+import java.util.LinkedList;
+
+/**
+ * The payload schemas of all known EvoHome commands. To decode a new command
+ * or message type add its schema here.
+ *
+ * @author Arne Plöse
+ */
+final class EvoHomePayloadSchemas {
+
+    private final static EvoHomePayloadSchema<?>[][] SCHEMAS = new EvoHomePayloadSchema<?>[EvoHomeCommand.values().length][EvoHomeMsgType.values().length];
+
+    private EvoHomePayloadSchemas() {
+    }
+
+    /**
+     * @param command
+     * @param msgType
+     * @return the schema or null if this combination is unknown.
+     */
+    static EvoHomePayloadSchema<?> get(EvoHomeCommand command, EvoHomeMsgType msgType) {
+        return SCHEMAS[command.ordinal()][msgType.ordinal()];
+    }
+
+    private static void register(EvoHomeCommand command, EvoHomePayloadSchema<?> schema, EvoHomeMsgType... msgTypes) {
+        for (EvoHomeMsgType msgType : msgTypes) {
+            if (SCHEMAS[command.ordinal()][msgType.ordinal()] != null) {
+                throw new IllegalStateException("Schema already registered: " + command + " " + msgType);
+            }
+            SCHEMAS[command.ordinal()][msgType.ordinal()] = schema;
+        }
+    }
+
+    private static AbstractControllerModeMessage.Mode controllerMode(int value) {
+        return switch (value) {
+            case 0x00 ->
+                AbstractControllerModeMessage.Mode.NORMAL;
+            case 0x01 ->
+                AbstractControllerModeMessage.Mode.HEATING_OFF;
+            case 0x02 ->
+                AbstractControllerModeMessage.Mode.ECONOMY;
+            case 0x03 ->
+                AbstractControllerModeMessage.Mode.AWAY;
+            case 0x04 ->
+                AbstractControllerModeMessage.Mode.EXCEPTION_DAY;
+            case 0x07 ->
+                AbstractControllerModeMessage.Mode.SPECIAL_PROGRAMME;
+            default ->
+                throw new IllegalArgumentException("Unknown Mode: " + value);
+        };
+    }
+
+    private static AbstractControllerModePayloadMessage.ProgrammType programmType(int value) {
+        return switch (value) {
+            case 0x00 ->
+                AbstractControllerModePayloadMessage.ProgrammType.PERMANENT;
+            case 0x01 ->
+                AbstractControllerModePayloadMessage.ProgrammType.TIMED;
+            default ->
+                throw new IllegalArgumentException("Unknown ProgrammType: " + value);
+        };
+    }
+
+    private static AbstractZoneSetpointOverrideMessage.SetpointOverrideMode setpointOverrideMode(int value) {
+        return switch (value) {
+            case 0x00 ->
+                AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.FOLLOW_SCHEDULE;
+            case 0x01 ->
+                AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.ADVANCED_OVERRIDE;
+            case 0x02 ->
+                AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.PERMANENT_OVERRIDE;
+            case 0x03 ->
+                AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.COUNTDOWN_OVERRIDE;
+            case 0x04 ->
+                AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.TEMPORARY_OVERRIDE;
+            default ->
+                throw new IllegalArgumentException("Can't handle zone_mode from: " + value);
+        };
+    }
+
+    private static SystemTimestampResponseMessage.Direction direction(int value) {
+        return switch (value) {
+            case 0x60 ->
+                SystemTimestampResponseMessage.Direction.TO_CONTROLLER;
+            case 0xfc ->
+                SystemTimestampResponseMessage.Direction.TO_DEVICE;
+            default ->
+                throw new IllegalArgumentException("Can't handle direction of: " + value);
+        };
+    }
+
+    private static void setZoneFlags(ZoneConfigPayloadMessage.ZoneParams zoneParams, int flags) {
+        if ((flags & 0xEE) != 0) {
+            throw new IllegalArgumentException(String.format("Can't handle ZoneParams flags unexpected value: 0x%02x", flags));
+        }
+        zoneParams.windowFunction = (flags & 0x10) == 0x10;
+        zoneParams.operationLock = (flags & 0x01) == 0x01;
+    }
+
+    private static ZoneConfigPayloadMessage<?> zoneConfigPayloadMessage(EvoHomeMsgType msgType, EvoHomeMsgParam0 msgParam0) {
+        final ZoneConfigPayloadMessage<?> result = new ZoneConfigPayloadMessage<>(msgType, msgParam0);
+        result.zones = new LinkedList<>();
+        return result;
+    }
+
+    private final static EvoHomeField<ZoneTemperature> ZONE = int8((zt, v) -> zt.zone = v);
+    private final static EvoHomeField<ZoneTemperature> CENTI_DEGREES = int16((zt, v) -> zt.centiDegrees = v);
+
+    static {
+        register(EvoHomeCommand.RF_CHECK, fixed(RfCheckWriteMessage.class,
+                (t, p, l) -> new RfCheckWriteMessage<>(t, p), length(0x05),
+                bytes(m -> m.value)),
+                WRITE);
+
+        register(EvoHomeCommand.ZONE_NAME, fixed(ZoneNameRequestMessage.class,
+                (t, p, l) -> new ZoneNameRequestMessage<>(p), length(0x02),
+                int8((m, v) -> m.zoneId = v),
+                int8(0, "ZoneNameRequestMessage.unused", (m, v) -> m.unused = v)),
+                REQUEST);
+        register(EvoHomeCommand.ZONE_NAME, fixed(ZoneNamePayloadMessage.class,
+                (t, p, l) -> new ZoneNamePayloadMessage<>(t, p), length(0x16),
+                int8((m, v) -> m.zoneId = v),
+                int8(0, "ZoneNamePayloadMessage.unused", (m, v) -> m.unused = v),
+                //We do not want 0 or DEL here, so filter it
+                string(0, "\u0000\u007f", (m, v) -> m.zoneName = v)),
+                INFORMATION, WRITE, RESPONSE);
+
+        register(EvoHomeCommand.ZONE_CONFIG, fixed(ZoneConfigRequestMessage.class,
+                (t, p, l) -> new ZoneConfigRequestMessage<>(p), length(0x01),
+                int8((m, v) -> m.value = v)),
+                REQUEST);
+        register(EvoHomeCommand.ZONE_CONFIG, repeated(ZoneConfigPayloadMessage.class,
+                (t, p, l) -> zoneConfigPayloadMessage(t, p), 6,
+                repeat(ZoneConfigPayloadMessage.ZoneParams::new, m -> m.zones,
+                        int8((z, v) -> z.zoneId = v),
+                        uint8(EvoHomePayloadSchemas::setZoneFlags),
+                        int16((z, v) -> z.minCentiDegrees = v),
+                        int16((z, v) -> z.maxCentiDegrees = v))),
+                RESPONSE, INFORMATION);
+
+        register(EvoHomeCommand.ZONE_MANAGEMENT, fixed(ZoneManagementInformationMessage.class,
+                (t, p, l) -> new ZoneManagementInformationMessage<>(p, (short) l), ANY_LENGTH,
+                bytes(m -> m.value)),
+                INFORMATION);
+
+        register(EvoHomeCommand.RF_SIGNAL_TEST, fixed(RfSignalTestRequestMessage.class,
+                (t, p, l) -> new RfSignalTestRequestMessage<>(p), length(0x02),
+                int16((m, v) -> m.value = v)),
+                REQUEST);
+        register(EvoHomeCommand.RF_SIGNAL_TEST, fixed(RfSignalTestResponseMessage.class,
+                (t, p, l) -> new RfSignalTestResponseMessage<>(p), length(0x02),
+                int16((m, v) -> m.value = v)),
+                RESPONSE);
+
+        register(EvoHomeCommand.LOCALIZATION, fixed(LocalizationRequestMessage.class,
+                (t, p, l) -> new LocalizationRequestMessage<>(p), length(0x02, 0x05),
+                int8(0x00, "LocalizationRequestMessage.unused0", (m, v) -> m.unused0 = v),
+                // last 2 bytes of the name are 0xFF, so skip them
+                string(1, "ÿ", (m, v) -> m.language = v),
+                int8(0xff, "LocalizationRequestMessage.unused1", (m, v) -> m.unused1 = v)),
+                REQUEST);
+        register(EvoHomeCommand.LOCALIZATION, fixed(LocalizationResponseMessage.class,
+                (t, p, l) -> new LocalizationResponseMessage<>(p), length(0x05),
+                int8(0x00, "LocalizationResponseMessage.unused0", (m, v) -> m.unused0 = v),
+                string(1, "ÿ", (m, v) -> m.language = v),
+                int8(0xff, "LocalizationResponseMessage.unused1", (m, v) -> m.unused1 = v)),
+                RESPONSE);
+
+        register(EvoHomeCommand.SYSTEM_SYNCHRONIZATION, fixed(SystemSynchronizationRequestMessage.class,
+                (t, p, l) -> new SystemSynchronizationRequestMessage<>(p), length(0x01),
+                int8((m, v) -> m.domainId = v)),
+                REQUEST);
+        register(EvoHomeCommand.SYSTEM_SYNCHRONIZATION, fixed(SystemSynchronizationPayloadMessage.class,
+                (t, p, l) -> new SystemSynchronizationPayloadMessage<>(t, p), length(0x03),
+                int8((m, v) -> m.deviceId = v),
+                int16((m, v) -> m.countdown = v)),
+                INFORMATION, WRITE, RESPONSE);
+
+        register(EvoHomeCommand.RELAY_HEAT_DEMAND, fixed(RelayHeatDemandInformationMessage.class,
+                (t, p, l) -> new RelayHeatDemandInformationMessage<>(p), length(0x02),
+                int8((m, v) -> m.domainId = v),
+                uint8(2.0, (m, v) -> m.demand = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.RELAY_FAILSAVE, fixed(RelayFailsaveInformationMessage.class,
+                (t, p, l) -> new RelayFailsaveInformationMessage<>(p), length(0x03),
+                int8((m, v) -> m.domainId = v),
+                int16((m, v) -> m.value = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.ZONE_ACTUATORS, fixed(ZoneActuatorsRequestMessage.class,
+                (t, p, l) -> new ZoneActuatorsRequestMessage<>(p), length(0x02),
+                int8((m, v) -> m.zoneIdx = v),
+                int8((m, v) -> m.unknown0 = v)),
+                REQUEST);
+        register(EvoHomeCommand.ZONE_ACTUATORS, repeated(ZoneActuatorsInformationMessage.class,
+                (t, p, l) -> new ZoneActuatorsInformationMessage<>(p), 6,
+                repeat(ZoneActuatorsInformationMessage.ZoneActuator::new, m -> m.actuators,
+                        int8((a, v) -> a.zoneIdx = v),
+                        int8((a, v) -> a.unknown0 = v),
+                        // only the lower 16 bits are used
+                        int32((a, v) -> a.deviceId = new DeviceId((short) v)))),
+                INFORMATION);
+
+        register(EvoHomeCommand.T87RF_STARTUP_000E, fixed(T87RF_Startup_0x000E_InformationMessage.class,
+                (t, p, l) -> new T87RF_Startup_0x000E_InformationMessage<>(p), length(0x03),
+                uint24((m, v) -> m.value = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.T87RF_STARTUP_042F, fixed(T87RF_Startup_0x042F_InformationMessage.class,
+                (t, p, l) -> new T87RF_Startup_0x042F_InformationMessage<>(p, (short) l), length(0x08),
+                bytes(m -> m.value)),
+                INFORMATION);
+
+        register(EvoHomeCommand.DEVICE_BATTERY_STATUS, fixed(DeviceBatteryStatusInformationMessage.class,
+                (t, p, l) -> new DeviceBatteryStatusInformationMessage<>(p), length(0x03),
+                int8((m, v) -> m.zone_id = v),
+                uint8(2.0, (m, v) -> m.level = v),
+                int8((m, v) -> m.unknown0 = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.DEVICE_INFORMATION, fixed(DeviceInformationInformationMessage.class,
+                (t, p, l) -> new DeviceInformationInformationMessage<>(p), length(0x26),
+                bytes(10, (m, v) -> m.unknown0 = v),
+                date((m, v) -> m.firmware = v),
+                date((m, v) -> m.manufactured = v),
+                //skip 0 bytes at the end the length is fixed to 20 chars?
+                string(0, "\u0000", (m, v) -> m.description = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.BOILER_RELAY_INFORMATION, fixed(BoilerRelayInformationMessage.class,
+                (t, p, l) -> new BoilerRelayInformationMessage<>(t, p), length(0x08),
+                int8((m, v) -> m.domain_id = v),
+                uint8(4.0, (m, v) -> m.cycle_rate = v),
+                // b is in min/4 so 60s/4 is 15s
+                uint8((m, v) -> m.minimum_on_time = Duration.ofSeconds(v * 15)),
+                uint8((m, v) -> m.minimum_off_time = Duration.ofSeconds(v * 15)),
+                int8((m, v) -> m.unknown0 = v),
+                int16((m, v) -> m.proportional_band_width = v),
+                int8((m, v) -> m.unknown1 = v)),
+                EvoHomeMsgType.values());
+
+        register(EvoHomeCommand.WINDOW_SENSOR, fixed(WindowSensorRequestMessage.class,
+                (t, p, l) -> new WindowSensorRequestMessage(p), length(0x01),
+                int8((m, v) -> m.zoneId = v)),
+                REQUEST);
+        register(EvoHomeCommand.WINDOW_SENSOR, fixed(WindowSensorInformationMessage.class,
+                (t, p, l) -> new WindowSensorInformationMessage(p), length(0x03),
+                int8((m, v) -> m.zoneId = v),
+                int16((m, v) -> m.unknown0 = v)),
+                INFORMATION);
+        register(EvoHomeCommand.WINDOW_SENSOR, fixed(WindowSensorResponseMessage.class,
+                (t, p, l) -> new WindowSensorResponseMessage(p), length(0x03),
+                int8((m, v) -> m.zoneId = v),
+                int16((m, v) -> m.unknown0 = v)),
+                RESPONSE);
+
+        register(EvoHomeCommand.RF_BIND, repeated(RfBindInformationMessage.class,
+                (t, p, l) -> new RfBindInformationMessage(p), 6,
+                repeat(AbstractRfBindPayloadMessage.Data::new, m -> m.elements,
+                        int8((d, v) -> d.zoneId = v),
+                        int16((d, v) -> d.command = v),
+                        uint24((d, v) -> d.deviceId = v))),
+                INFORMATION);
+        register(EvoHomeCommand.RF_BIND, repeated(RfBindWriteMessage.class,
+                (t, p, l) -> new RfBindWriteMessage(p), 6,
+                repeat(AbstractRfBindPayloadMessage.Data::new, m -> m.elements,
+                        int8((d, v) -> d.zoneId = v),
+                        int16((d, v) -> d.command = v),
+                        uint24((d, v) -> d.deviceId = v))),
+                WRITE);
+
+        register(EvoHomeCommand.ZONE_SETPOINT, fixed(ZoneSetpointRequestMessage.class,
+                (t, p, l) -> new ZoneSetpointRequestMessage<>(p), length(0x01),
+                int8((m, v) -> m.zoneId = v)),
+                REQUEST);
+        register(EvoHomeCommand.ZONE_SETPOINT, repeated(ZoneSetpointInformationMessage.class,
+                (t, p, l) -> new ZoneSetpointInformationMessage(p), 3,
+                repeat(ZoneTemperature::new, m -> m.zoneTemperatures, ZONE, CENTI_DEGREES)),
+                INFORMATION);
+        register(EvoHomeCommand.ZONE_SETPOINT, fixed(ZoneSetpointWriteMessage.class,
+                (t, p, l) -> new ZoneSetpointWriteMessage(p), length(0x03),
+                repeat(ZoneTemperature::new, m -> m.zoneTemperatures, ZONE, CENTI_DEGREES)),
+                WRITE);
+        register(EvoHomeCommand.ZONE_SETPOINT, fixed(ZoneSetpointResponseMessage.class,
+                (t, p, l) -> new ZoneSetpointResponseMessage(p), length(0x03),
+                repeat(ZoneTemperature::new, m -> m.zoneTemperatures, ZONE, CENTI_DEGREES)),
+                RESPONSE);
+
+        register(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, zoneSetpointOverride(ZoneSetpointOverrideRequestMessage.class,
+                (t, p, l) -> new ZoneSetpointOverrideRequestMessage(p)),
+                REQUEST);
+        register(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, zoneSetpointOverride(ZoneSetpointOverrideInformationMessage.class,
+                (t, p, l) -> new ZoneSetpointOverrideInformationMessage(p)),
+                INFORMATION);
+        register(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, zoneSetpointOverride(ZoneSetpointOverrideWriteMessage.class,
+                (t, p, l) -> new ZoneSetpointOverrideWriteMessage(p)),
+                WRITE);
+        register(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, zoneSetpointOverride(ZoneSetpointOverrideResponseMessage.class,
+                (t, p, l) -> new ZoneSetpointOverrideResponseMessage(p)),
+                RESPONSE);
+
+        register(EvoHomeCommand.CONTROLLER_MODE, fixed(ControllerModeInformationMessage.class,
+                (t, p, l) -> new ControllerModeInformationMessage<>(p), length(0x08),
+                enum8(EvoHomePayloadSchemas::controllerMode, (m, v) -> m.mode = v),
+                optional(
+                        timeAndDateOrUnset((m, v) -> m.dateTime = v),
+                        enum8(EvoHomePayloadSchemas::programmType, (m, v) -> m.programm_type = v))),
+                INFORMATION);
+
+        register(EvoHomeCommand.ZONE_TEMPERATURE, repeated(ZoneTemperatureInformationMessage.class,
+                (t, p, l) -> new ZoneTemperatureInformationMessage(p), 3,
+                repeat(ZoneTemperature::new, m -> m.zoneTemperatures, ZONE, CENTI_DEGREES)),
+                INFORMATION);
+
+        register(EvoHomeCommand.UNKNOWN_3120, fixed(Unknown_0x3120InformationMessage.class,
+                (t, p, l) -> new Unknown_0x3120InformationMessage<>(p), length(0x07),
+                int8(0x00, "Unknown_0x3120InformationMessage.unused0", (m, v) -> m.unused0 = v),
+                int16(0x70B0, "Unknown_0x3120InformationMessage.fixed1", (m, v) -> m.fixed1 = v),
+                uint24(0x000000, "Unknown_0x3120InformationMessage.unused2", (m, v) -> m.unused2 = v),
+                int8(0xff, "Unknown_0x3120InformationMessage.fixed3", (m, v) -> m.fixed3 = v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.SYSTEM_TIMESTAMP, fixed(SystemTimestampRequestMessage.class,
+                (t, p, l) -> new SystemTimestampRequestMessage(p), length(0x01),
+                int8((m, v) -> m.zoneId = v)),
+                REQUEST);
+        register(EvoHomeCommand.SYSTEM_TIMESTAMP, fixed(SystemTimestampResponseMessage.class,
+                (t, p, l) -> new SystemTimestampResponseMessage<>(p), length(0x09),
+                int8((m, v) -> m.zoneId = v),
+                enum8(EvoHomePayloadSchemas::direction, (m, v) -> m.direction = v),
+                timestamp((m, v) -> m.timestamp = v)),
+                RESPONSE);
+
+        register(EvoHomeCommand.ZONE_HEAT_DEMAND, fixed(ZoneHeatDemandInformationMessage.class,
+                (t, p, l) -> new ZoneHeatDemandInformationMessage<>(p), length(0x02),
+                int8((m, v) -> m.zoneId = v),
+                uint8((m, v) -> m.heatDemand = (short) v)),
+                INFORMATION);
+
+        register(EvoHomeCommand.ACTUATOR_SYNC, fixed(ActuatorSyncInformationMessage.class,
+                (t, p, l) -> new ActuatorSyncInformationMessage<>(p), length(0x02),
+                int8((m, v) -> m.domainId = v),
+                int8((m, v) -> m.state = v)),
+                INFORMATION);
+    }
+
+    private static <M extends AbstractZoneSetpointOverrideMessage<?>> EvoHomePayloadSchema<M> zoneSetpointOverride(Class<?> messageClass, EvoHomePayloadSchema.Factory<M> factory) {
+        return fixed(messageClass, factory, length(0x07, 0x0D),
+                int8((m, v) -> m.zone_id = v),
+                int16((m, v) -> m.setpointCentiDegrees = v),
+                enum8(EvoHomePayloadSchemas::setpointOverrideMode, (m, v) -> m.zone_mode = v),
+                uint24((m, v) -> m.countdown = Duration.ofMinutes(v)),
+                optional(timeAndDate((m, v) -> m.time_until = v)));
+    }
+
+}
@@ -21,14 +21,18 @@
  */
 package de.ibapl.fhz4j.parser.fht;
 
-import de.ibapl.fhz4j.parser.api.Parser;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
 import de.ibapl.fhz4j.protocol.fht.AbstractFhtMessage;
 import de.ibapl.fhz4j.protocol.fht.Fht80bMode;
 import de.ibapl.fhz4j.protocol.fht.Fht80bRawMessage;
 import de.ibapl.fhz4j.protocol.fht.Fht80bWarning;
+import de.ibapl.fhz4j.protocol.fht.Fht8bMessage;
 import de.ibapl.fhz4j.protocol.fht.FhtDateMessage;
 import de.ibapl.fhz4j.protocol.fht.FhtDateTimeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
 import de.ibapl.fhz4j.protocol.fht.FhtModeMessage;
 import de.ibapl.fhz4j.protocol.fht.FhtProperty;
 import de.ibapl.fhz4j.protocol.fht.FhtProtocolMessage;
@@ -44,17 +48,13 @@ import de.ibapl.fhz4j.protocol.fht.FhtWarningMessage;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Month;
-import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
 
 /**
  *
  * @author Arne Plöse
  */
-public class FhtParser implements Parser {
+public class FhtParser extends AbstractParser {
 
     @Override
     public void init() {
@@ -72,200 +72,41 @@ public class FhtParser implements Parser {
         command = null;
     }
 
-    private void removePartialMsg(short housecode, FhtProperty[] fhtProperties) {
-        Iterator<Fht80bRawMessage> iter = partialMessages.iterator();
-        while (iter.hasNext()) {
-            final Fht80bRawMessage msg = iter.next();
-            if (msg.housecode == housecode) {
-                for (FhtProperty p : fhtProperties) {
-                    if (p == msg.command) {
-                        iter.remove();
-                    }
-                }
-            }
-        }
-    }
-
     private FhtProperty getCommand(byte command) {
-        return switch (command & 0xFF) {
-            case 0x00 ->
-                FhtProperty.VALVE;
-            case 0x01 ->
-                FhtProperty.OFFSET_VALVE_1;
-            case 0x02 ->
-                FhtProperty.OFFSET_VALVE_2;
-            case 0x03 ->
-                FhtProperty.OFFSET_VALVE_3;
-            case 0x04 ->
-                FhtProperty.OFFSET_VALVE_4;
-            case 0x05 ->
-                FhtProperty.OFFSET_VALVE_5;
-            case 0x06 ->
-                FhtProperty.OFFSET_VALVE_6;
-            case 0x07 ->
-                FhtProperty.OFFSET_VALVE_7;
-            case 0x08 ->
-                FhtProperty.OFFSET_VALVE_8;
-            case 0x14 ->
-                FhtProperty.MON_FROM_1;
-            case 0x15 ->
-                FhtProperty.MON_TO_1;
-            case 0x16 ->
-                FhtProperty.MON_FROM_2;
-            case 0x17 ->
-                FhtProperty.MON_TO_2;
-            case 0x18 ->
-                FhtProperty.TUE_FROM_1;
-            case 0x19 ->
-                FhtProperty.TUE_TO_1;
-            case 0x1a ->
-                FhtProperty.TUE_FROM_2;
-            case 0x1b ->
-                FhtProperty.TUE_TO_2;
-            case 0x1c ->
-                FhtProperty.WED_FROM_1;
-            case 0x1d ->
-                FhtProperty.WED_TO_1;
-            case 0x1e ->
-                FhtProperty.WED_FROM_2;
-            case 0x1f ->
-                FhtProperty.WED_TO_2;
-            case 0x20 ->
-                FhtProperty.THU_FROM_1;
-            case 0x21 ->
-                FhtProperty.THU_TO_1;
-            case 0x22 ->
-                FhtProperty.THU_FROM_2;
-            case 0x23 ->
-                FhtProperty.THU_TO_2;
-            case 0x24 ->
-                FhtProperty.FRI_FROM_1;
-            case 0x25 ->
-                FhtProperty.FRI_TO_1;
-            case 0x26 ->
-                FhtProperty.FRI_FROM_2;
-            case 0x27 ->
-                FhtProperty.FRI_TO_2;
-            case 0x28 ->
-                FhtProperty.SAT_FROM_1;
-            case 0x29 ->
-                FhtProperty.SAT_TO_1;
-            case 0x2a ->
-                FhtProperty.SAT_FROM_2;
-            case 0x2b ->
-                FhtProperty.SAT_TO_2;
-            case 0x2c ->
-                FhtProperty.SUN_FROM_1;
-            case 0x2d ->
-                FhtProperty.SUN_TO_1;
-            case 0x2e ->
-                FhtProperty.SUN_FROM_2;
-            case 0x2f ->
-                FhtProperty.SUN_TO_2;
-            case 0x3e ->
-                FhtProperty.MODE;
-            case 0x3f ->
-                FhtProperty.HOLIDAY_1;
-            case 0x40 ->
-                FhtProperty.HOLIDAY_2;
-            case 0x41 ->
-                FhtProperty.DESIRED_TEMP;
-            case 0x42 ->
-                FhtProperty.MEASURED_LOW;
-            case 0x43 ->
-                FhtProperty.MEASURED_HIGH;
-            case 0x44 ->
-                FhtProperty.WARNINGS;
-            case 0x45 ->
-                FhtProperty.MANU_TEMP;
-            case 0x4b ->
-                FhtProperty.ACK;
-            case 0x53 ->
-                FhtProperty.CAN_CMIT;
-            case 0x54 ->
-                FhtProperty.CAN_RCV;
-            case 0x60 ->
-                FhtProperty.YEAR;
-            case 0x61 ->
-                FhtProperty.MONTH;
-            case 0x62 ->
-                FhtProperty.DAY_OF_MONTH;
-            case 0x63 ->
-                FhtProperty.HOUR;
-            case 0x64 ->
-                FhtProperty.MINUTE;
-            case 0x65 ->
-                FhtProperty.REPORT_1;
-            case 0x66 ->
-                FhtProperty.REPORT_2;
-            case 0x69 ->
-                FhtProperty.ACK_2;
-            case 0x7d ->
-                FhtProperty.START_XMIT;
-            case 0x7e ->
-                FhtProperty.END_XMIT;
-            case 0x82 ->
-                FhtProperty.DAY_TEMP;
-            case 0x84 ->
-                FhtProperty.NIGHT_TEMP;
-            case 0x85 ->
-                FhtProperty.LOW_TEMP_OFFSET;
-            case 0x8a ->
-                FhtProperty.WINDOW_OPEN_TEMP;
-            default ->
-                throw new UnsupportedOperationException(String.format("Unknown command: 0x%02x", command & 0xFF));
-        };
-    }
-
-    private Map<FhtProperty, Fht80bRawMessage> getPartialMsgs(short housecode, FhtProperty[] fhtProperties) {
-        final EnumMap<FhtProperty, Fht80bRawMessage> result = new EnumMap<>(FhtProperty.class);
-        int pos = 0;
-        Iterator<Fht80bRawMessage> iter = partialMessages.iterator();
-        while (iter.hasNext()) {
-            final Fht80bRawMessage msg = iter.next();
-            if (msg.housecode == housecode) {
-                if (msg.command == fhtProperties[pos]) {
-                    result.put(msg.command, msg);
-                    pos++;
-                    if (pos == fhtProperties.length) {
-                        return result;
-                    }
-                }
-            }
+        final FhtProperty result = FhtProperty.fromCode(command);
+        if (result == null) {
+            throw ParseFailure.of(ParseFailureReason.UNKNOWN_COMMAND);
         }
-        // Only partial found so clear it out....
-        result.clear();
         return result;
     }
 
     private void buildTimeAndDateMessage() {
-        Map<FhtProperty, Fht80bRawMessage> messages = getPartialMsgs(housecode,
-                FhtProperty.CURRENT_DATE_AND_TIME.parts);
-        if (messages.isEmpty()) {
+        final Fht80bRawMessage[] messages = partialMessages.get(housecode, FhtProperty.CURRENT_DATE_AND_TIME.parts);
+        if (messages == null) {
             return;
         }
         parserListener.successPartialAssembled(new FhtDateTimeMessage(housecode, FhtProperty.CURRENT_DATE_AND_TIME,
                 description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01,
-                LocalDateTime.of((messages.get(FhtProperty.YEAR).getUnsignedValue()) + 2000,
-                        Month.of(messages.get(FhtProperty.MONTH).getUnsignedValue()), messages.get(FhtProperty.DAY_OF_MONTH).getUnsignedValue(),
-                        messages.get(FhtProperty.HOUR).getUnsignedValue(), messages.get(FhtProperty.MINUTE).getUnsignedValue())));
+                LocalDateTime.of((messages[FhtProperty.YEAR.ordinal()].getUnsignedValue()) + 2000,
+                        Month.of(messages[FhtProperty.MONTH.ordinal()].getUnsignedValue()), messages[FhtProperty.DAY_OF_MONTH.ordinal()].getUnsignedValue(),
+                        messages[FhtProperty.HOUR.ordinal()].getUnsignedValue(), messages[FhtProperty.MINUTE.ordinal()].getUnsignedValue())));
     }
 
     private void buildAndNotifyPartial(byte b) {
         final Fht80bRawMessage msg = new Fht80bRawMessage(housecode, command, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, b);
-        partialMessages.add(msg);
+        partialMessages.put(msg);
         parserListener.successPartial(msg);
     }
 
     private void buildMessage(FhtProperty fhtProperty) {
-        Map<FhtProperty, Fht80bRawMessage> messages = getPartialMsgs(housecode, fhtProperty.parts);
-        if (messages.isEmpty()) {
+        final Fht80bRawMessage[] messages = partialMessages.get(housecode, fhtProperty.parts);
+        if (messages == null) {
             return;
         }
-        parserListener.successPartialAssembled(new FhtTimesMessage(housecode, fhtProperty, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, toLocalTime(messages.get(fhtProperty.parts[0]).getUnsignedValue()),
-                toLocalTime(messages.get(fhtProperty.parts[1]).getUnsignedValue()),
-                toLocalTime(messages.get(fhtProperty.parts[2]).getUnsignedValue()),
-                toLocalTime(messages.get(fhtProperty.parts[3]).getUnsignedValue())));
+        parserListener.successPartialAssembled(new FhtTimesMessage(housecode, fhtProperty, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, toLocalTime(messages[fhtProperty.parts[0].ordinal()].getUnsignedValue()),
+                toLocalTime(messages[fhtProperty.parts[1].ordinal()].getUnsignedValue()),
+                toLocalTime(messages[fhtProperty.parts[2].ordinal()].getUnsignedValue()),
+                toLocalTime(messages[fhtProperty.parts[3].ordinal()].getUnsignedValue())));
     }
 
     private LocalTime toLocalTime(short value) {
@@ -323,7 +164,44 @@ public class FhtParser implements Parser {
      */
     private final boolean parseCULOutBuffer;
 
-    private final LinkedList<Fht80bRawMessage> partialMessages = new LinkedList<>();
+    private final FhtPartialMessages partialMessages = new FhtPartialMessages();
+
+    private final FhtTempMessage<?> reusableTempMessage = new FhtTempMessage<>((short) 0, FhtProperty.DESIRED_TEMP, (byte) 0, false, false, 0.0f);
+    private final FhtValvePosMessage<?> reusableValvePosMessage = new FhtValvePosMessage<>((short) 0, FhtProperty.VALVE, (byte) 0, false, FhtValveMode.POSITION, 0.0f, false);
+    private final FhtValveSyncMessage<?> reusableValveSyncMessage = new FhtValveSyncMessage<>((short) 0, FhtProperty.VALVE, (byte) 0, 0.0f, false);
+    private final FhtModeMessage<?> reusableModeMessage = new FhtModeMessage<>((short) 0, (byte) 0, false, false, Fht80bMode.AUTO);
+    private final FhtWarningMessage<?> reusableWarningMessage = new FhtWarningMessage<>((short) 0, (byte) 0, false, false, EnumSet.noneOf(Fht80bWarning.class));
+    private final FhtProtocolMessage<?> reusableProtocolMessage = new FhtProtocolMessage<>((short) 0, FhtProperty.ACK, (byte) 0, false, false, (byte) 0);
+    private final Fht80TfMessage<?> reusableTfMessage = new Fht80TfMessage<>(0, Fht80TfValue.SYNC, false);
+
+    /**
+     * If set, the parser fills the same message instances over and over
+     * again. These are only valid during the listener callback, use
+     * {@link de.ibapl.fhz4j.api.Message#copy()} to keep them. The parts of
+     * messages spread over several frames are still allocated, because they
+     * are kept until the message is complete.
+     *
+     * @param reuseMessages
+     */
+    @Override
+    public void setReuseMessages(boolean reuseMessages) {
+        this.reuseMessages = reuseMessages;
+    }
+
+    @Override
+    public boolean isReuseMessages() {
+        return reuseMessages;
+    }
+
+    /**
+     * The parts of messages spread over several frames, use it to adjust the
+     * timeout and size or to read the count of expired parts.
+     *
+     * @return
+     */
+    public FhtPartialMessages getPartialMessages() {
+        return partialMessages;
+    }
 
     /**
      * parse FHT8b FHT8v and FHT Tf data.
@@ -387,12 +265,12 @@ public class FhtParser implements Parser {
                     state = State.PARSE_SUCCESS;
                 }
                 default ->
-                    throw new IllegalStateException(state.name());
+                    throw ParseFailure.of(ParseFailureReason.UNEXPECTED_STATE);
 
             }
             // FHT
         } catch (Throwable t) {
-            parserListener.fail(new RuntimeException(String.format("State: %s command: %s last byte 0x%02x", state, command, b), t));
+            parserListener.fail(failure(t, state, b));
             state = State.PARSE_ERROR;
         }
     }
@@ -404,10 +282,9 @@ public class FhtParser implements Parser {
             case OFFSET_VALVE_1, OFFSET_VALVE_2, OFFSET_VALVE_3, OFFSET_VALVE_4, OFFSET_VALVE_5, OFFSET_VALVE_6, OFFSET_VALVE_7, OFFSET_VALVE_8 ->
                 buildValveOffsetMessage(b);
             case NIGHT_TEMP, DAY_TEMP, DESIRED_TEMP, WINDOW_OPEN_TEMP, LOW_TEMP_OFFSET ->
-                parserListener.success(
-                        new FhtTempMessage(housecode, command, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, 0.5f * b));
+                parserListener.success(tempMessage(command, 0.5f * b));
             case MEASURED_LOW -> {
-                removePartialMsg(housecode, FhtProperty.MEASURED_TEMP.parts);
+                partialMessages.remove(housecode, FhtProperty.MEASURED_TEMP.parts);
                 buildAndNotifyPartial(b);
             }
             case MEASURED_HIGH -> {
@@ -417,7 +294,7 @@ public class FhtParser implements Parser {
             case WARNINGS ->
                 buildWarningsMessage(b);
             case MON_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.MONDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.MONDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case MON_TO_1 ->
@@ -429,7 +306,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.MONDAY_TIMES);
             }
             case TUE_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.TUESDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.TUESDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case TUE_TO_1 ->
@@ -441,7 +318,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.TUESDAY_TIMES);
             }
             case WED_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.WEDNESDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.WEDNESDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case WED_TO_1 ->
@@ -453,7 +330,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.WEDNESDAY_TIMES);
             }
             case THU_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.THURSDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.THURSDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case THU_TO_1 ->
@@ -465,7 +342,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.THURSDAY_TIMES);
             }
             case FRI_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.FRIDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.FRIDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case FRI_TO_1 ->
@@ -477,7 +354,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.FRIDAY_TIMES);
             }
             case SAT_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.SATURDAYDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.SATURDAYDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case SAT_TO_1 ->
@@ -489,7 +366,7 @@ public class FhtParser implements Parser {
                 buildMessage(FhtProperty.SATURDAYDAY_TIMES);
             }
             case SUN_FROM_1 -> {
-                removePartialMsg(housecode, FhtProperty.SUNDAYDAY_TIMES.parts);
+                partialMessages.remove(housecode, FhtProperty.SUNDAYDAY_TIMES.parts);
                 buildAndNotifyPartial(b);
             }
             case SUN_TO_1 ->
@@ -511,7 +388,7 @@ public class FhtParser implements Parser {
             case DAY_OF_MONTH ->
                 buildAndNotifyPartial(b);
             case YEAR -> {
-                removePartialMsg(housecode, FhtProperty.CURRENT_DATE_AND_TIME.parts);
+                partialMessages.remove(housecode, FhtProperty.CURRENT_DATE_AND_TIME.parts);
                 buildAndNotifyPartial(b);
             }
             case MODE ->
@@ -522,7 +399,7 @@ public class FhtParser implements Parser {
                 parserListener.success(msg);
             }
             case HOLIDAY_1 -> {
-                removePartialMsg(housecode, FhtProperty.HOLIDAY_END_DATE.parts);
+                partialMessages.remove(housecode, FhtProperty.HOLIDAY_END_DATE.parts);
                 buildAndNotifyPartial(b);
             }
             case HOLIDAY_2 ->
@@ -531,7 +408,7 @@ public class FhtParser implements Parser {
             case ACK, ACK_2, CAN_RCV, CAN_CMIT, END_XMIT, START_XMIT ->
                 buildProtocolMessage(b);
             default ->
-                throw new RuntimeException("Cant handle unknown command: " + command);
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_COMMAND);
         }
         // collect FhtDateTime
 
@@ -553,9 +430,16 @@ public class FhtParser implements Parser {
             case 0x0F ->
                 Fht80TfValue.FINISH;
             default ->
-                throw new IllegalArgumentException(String.format("Unknown TF value: %02x ", b));
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_VALUE);
         };
-        parserListener.success(new Fht80TfMessage(tfAddress, value, lowBattery));
+        if (reuseMessages) {
+            reusableTfMessage.address = tfAddress;
+            reusableTfMessage.value = value;
+            reusableTfMessage.lowBattery = lowBattery;
+            parserListener.success(reusableTfMessage);
+        } else {
+            parserListener.success(new Fht80TfMessage<>(tfAddress, value, lowBattery));
+        }
     }
 
     private void buildAndNotifyModeMessage(byte b) {
@@ -570,9 +454,15 @@ public class FhtParser implements Parser {
             case 0x03 ->
                 Fht80bMode.PARTY;
             default ->
-                throw new IllegalArgumentException("Can't figure out fhtMode");
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_VALUE);
         };
-        FhtModeMessage fhtModeMessage = new FhtModeMessage(housecode, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, fhtMode);
+        final FhtModeMessage<?> fhtModeMessage;
+        if (reuseMessages) {
+            fhtModeMessage = fill8b(reusableModeMessage, FhtProperty.MODE);
+            fhtModeMessage.mode = fhtMode;
+        } else {
+            fhtModeMessage = new FhtModeMessage<>(housecode, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, fhtMode);
+        }
 
         switch (fhtModeMessage.mode) {
             case AUTO ->
@@ -580,48 +470,63 @@ public class FhtParser implements Parser {
             case MANUAL ->
                 parserListener.success(fhtModeMessage);
             case HOLIDAY -> {
-                Map<FhtProperty, Fht80bRawMessage> messages = getPartialMsgs(housecode, FhtProperty.HOLIDAY_END_DATE.parts);
-                if (messages.isEmpty()) {
+                final Fht80bRawMessage[] messages = partialMessages.get(housecode, FhtProperty.HOLIDAY_END_DATE.parts);
+                if (messages == null) {
                     return;
                 }
                 parserListener.successPartialAssembled(
                         new FhtDateMessage(housecode, FhtProperty.HOLIDAY_END_DATE, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01,
-                                messages.get(FhtProperty.HOLIDAY_2).getSignedValue(), messages.get(FhtProperty.HOLIDAY_1).getSignedValue()));
+                                messages[FhtProperty.HOLIDAY_2.ordinal()].getSignedValue(), messages[FhtProperty.HOLIDAY_1.ordinal()].getSignedValue()));
             }
             case PARTY -> {
-                Map<FhtProperty, Fht80bRawMessage> messages = getPartialMsgs(housecode, FhtProperty.PARTY_END_TIME.parts);
-                if (messages.isEmpty()) {
+                final Fht80bRawMessage[] messages = partialMessages.get(housecode, FhtProperty.PARTY_END_TIME.parts);
+                if (messages == null) {
                     return;
                 }
-                final short rawTime = messages.get(FhtProperty.HOLIDAY_1).getUnsignedValue();
+                final short rawTime = messages[FhtProperty.HOLIDAY_1.ordinal()].getUnsignedValue();
                 parserListener.successPartialAssembled(new FhtTimeMessage(housecode, FhtProperty.PARTY_END_TIME,
                         description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, (byte) (rawTime / 6), (byte) ((rawTime % 6) * 10)));
             }
             default ->
-                throw new RuntimeException();
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_COMMAND);
         }
     }
 
     private void buildWarningsMessage(byte b) {
+        if (reuseMessages) {
+            final FhtWarningMessage<?> msg = fill8b(reusableWarningMessage, FhtProperty.WARNINGS);
+            msg.warnings.clear();
+            if ((b & 0x01) == 0x01) {
+                msg.warnings.add(Fht80bWarning.BATT_LOW);
+            }
+            parserListener.success(msg);
+            return;
+        }
         EnumSet<Fht80bWarning> warnings = EnumSet.noneOf(Fht80bWarning.class);
         if ((b & 0x01) == 0x01) {
             warnings.add(Fht80bWarning.BATT_LOW);
         }
-        parserListener.success(new FhtWarningMessage(housecode, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, warnings));
+        parserListener.success(new FhtWarningMessage<>(housecode, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, warnings));
     }
 
     private void buildAndNotifyMeasuredTempMessage() {
-        Map<FhtProperty, Fht80bRawMessage> messages = getPartialMsgs(housecode, FhtProperty.MEASURED_TEMP.parts);
-        if (messages.isEmpty()) {
+        final Fht80bRawMessage[] messages = partialMessages.get(housecode, FhtProperty.MEASURED_TEMP.parts);
+        if (messages == null) {
             return;
         }
-        parserListener.successPartialAssembled(new FhtTempMessage(housecode, FhtProperty.MEASURED_TEMP, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, 0.1f * (messages.get(FhtProperty.MEASURED_LOW).getUnsignedValue()
-                | (messages.get(FhtProperty.MEASURED_HIGH).getUnsignedValue()) << 8)));
+        parserListener.successPartialAssembled(tempMessage(FhtProperty.MEASURED_TEMP, 0.1f * (messages[FhtProperty.MEASURED_LOW.ordinal()].getUnsignedValue()
+                | (messages[FhtProperty.MEASURED_HIGH.ordinal()].getUnsignedValue()) << 8)));
     }
 
     private void buildProtocolMessage(byte b) throws RuntimeException {
         //TODO description ???
-        parserListener.success(new FhtProtocolMessage(housecode, command, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, b));
+        if (reuseMessages) {
+            final FhtProtocolMessage<?> msg = fill8b(reusableProtocolMessage, command);
+            msg.data = b;
+            parserListener.success(msg);
+        } else {
+            parserListener.success(new FhtProtocolMessage<>(housecode, command, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, b));
+        }
     }
 
     private void buildValveOffsetMessage(byte b) throws RuntimeException {
@@ -638,10 +543,9 @@ public class FhtParser implements Parser {
             case 0x2F ->
                 FhtValveMode.PAIRING;
             default ->
-                throw new IllegalStateException("Unknown Description");
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_VALUE);
         };
-        parserListener.success(new FhtValvePosMessage(housecode, command, description, false, value, offset,
-                allowLowBatteryBeep));
+        parserListener.success(valvePosMessage(false, value, offset, allowLowBatteryBeep));
     }
 
     private void buildValveMessage(byte b) throws RuntimeException {
@@ -649,33 +553,72 @@ public class FhtParser implements Parser {
         final boolean allowLowBatteryBeep = (description & 0x10) == 0x10;
         switch (description & 0x0F) {
             case 0x00 ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.END_OF_SYNC_SEQUENCE, 0.5f * b, allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.END_OF_SYNC_SEQUENCE, 0.5f * b, allowLowBatteryBeep));
             case 0x01 ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.ON, 100.0f, allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.ON, 100.0f, allowLowBatteryBeep));
             case 0x02 ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.OFF, 0.0f, allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.OFF, 0.0f, allowLowBatteryBeep));
             case 0x06 ->
                 // 100.0 / 255.0 = 0,392156863;
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.POSITION, 0.392156863f * (b & 0xFF), allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.POSITION, 0.392156863f * (b & 0xFF), allowLowBatteryBeep));
             case 0x08 ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.OFFSET_ADJUST, 0.0f, allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.OFFSET_ADJUST, 0.0f, allowLowBatteryBeep));
             case 0x0a ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.LIME_CYCLE, 0.5f * (b & 0xFF), allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.LIME_CYCLE, 0.5f * (b & 0xFF), allowLowBatteryBeep));
             case 0x0c ->
-                parserListener.success(
-                        new FhtValveSyncMessage(housecode, command, description, 0.5f * (b & 0xff), allowLowBatteryBeep));
+                parserListener.success(valveSyncMessage(0.5f * (b & 0xff), allowLowBatteryBeep));
             case 0x0e ->
-                parserListener.success(
-                        new FhtValvePosMessage(housecode, command, description, repeated, FhtValveMode.BEEP, 0.5f * (b & 0xFF), allowLowBatteryBeep));
+                parserListener.success(valvePosMessage(repeated, FhtValveMode.BEEP, 0.5f * (b & 0xFF), allowLowBatteryBeep));
             default ->
-                throw new IllegalStateException(
-                        String.format("Unknown Description %d valve cmd: %02x ", housecode, description));
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_VALUE);
+        }
+    }
+
+    private <M extends FhtMessage<?>> M fill(M message, FhtProperty command) {
+        message.housecode = housecode;
+        message.command = command;
+        message.description = description;
+        return message;
+    }
+
+    private <M extends Fht8bMessage<?>> M fill8b(M message, FhtProperty command) {
+        fill(message, command);
+        message.fromFht_8B = (description & 0xf0) == 0x60;
+        message.dataRegister = (description & 0x01) == 0x01;
+        return message;
+    }
+
+    private FhtTempMessage<?> tempMessage(FhtProperty command, float temp) {
+        if (reuseMessages) {
+            final FhtTempMessage<?> result = fill8b(reusableTempMessage, command);
+            result.temp = temp;
+            return result;
+        } else {
+            return new FhtTempMessage<>(housecode, command, description, (description & 0xf0) == 0x60, (description & 0x01) == 0x01, temp);
+        }
+    }
+
+    private FhtValvePosMessage<?> valvePosMessage(boolean repeated, FhtValveMode mode, float position, boolean allowLowBatteryBeep) {
+        if (reuseMessages) {
+            final FhtValvePosMessage<?> result = fill(reusableValvePosMessage, command);
+            result.repeated = repeated;
+            result.mode = mode;
+            result.position = position;
+            result.allowLowBatteryBeep = allowLowBatteryBeep;
+            return result;
+        } else {
+            return new FhtValvePosMessage<>(housecode, command, description, repeated, mode, position, allowLowBatteryBeep);
+        }
+    }
+
+    private FhtValveSyncMessage<?> valveSyncMessage(float timeLeft, boolean bit5) {
+        if (reuseMessages) {
+            final FhtValveSyncMessage<?> result = fill(reusableValveSyncMessage, command);
+            result.timeLeft = timeLeft;
+            result.bit5 = bit5;
+            return result;
+        } else {
+            return new FhtValveSyncMessage<>(housecode, command, description, timeLeft, bit5);
         }
     }
 
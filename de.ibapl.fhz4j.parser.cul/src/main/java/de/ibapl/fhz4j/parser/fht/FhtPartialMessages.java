@@ -0,0 +1,308 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.fht;
+
+import de.ibapl.fhz4j.protocol.fht.Fht80bRawMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * The parts of FHT messages spread over several frames, indexed by housecode
+ * and {@link FhtProperty#ordinal()}. The parts must arrive in the order of
+ * {@link FhtProperty#parts} to be assembled. Parts older than the timeout are
+ * discarded and counted as expired. If more than the maximum number of
+ * housecodes have pending parts, the housecode with the oldest update is
+ * evicted.
+ *
+ * @author Arne Plöse
+ */
+public final class FhtPartialMessages {
+
+    public final static Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+    public final static int DEFAULT_MAX_HOUSECODES = 64;
+
+    private final static int PROPERTY_COUNT = FhtProperty.values().length;
+
+    private final static class Entry {
+
+        final short housecode;
+        final Fht80bRawMessage[] parts = new Fht80bRawMessage[PROPERTY_COUNT];
+        final long[] receivedNanos = new long[PROPERTY_COUNT];
+        final long[] sequence = new long[PROPERTY_COUNT];
+        int count;
+        long lastUpdateNanos;
+
+        Entry(short housecode) {
+            this.housecode = housecode;
+        }
+
+        void clear(int ordinal) {
+            if (parts[ordinal] != null) {
+                parts[ordinal] = null;
+                count--;
+            }
+        }
+
+    }
+
+    private final LongSupplier nanoClock;
+    private long timeoutNanos = DEFAULT_TIMEOUT.toNanos();
+    private int maxHousecodes = DEFAULT_MAX_HOUSECODES;
+    /**
+     * Open addressing with linear probing, the housecode is the key.
+     */
+    private Entry[] table = new Entry[tableSize(DEFAULT_MAX_HOUSECODES)];
+    private int size;
+    private long sequence;
+    private long expiredCount;
+    private long evictedCount;
+
+    public FhtPartialMessages() {
+        this(System::nanoTime);
+    }
+
+    FhtPartialMessages(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    private static int tableSize(int maxHousecodes) {
+        // keep the load factor below 0.5
+        return Integer.highestOneBit(Math.max(maxHousecodes, 1) * 2 - 1) << 1;
+    }
+
+    private int indexOf(short housecode) {
+        final int mask = table.length - 1;
+        int i = (housecode * 0x9E3779B9 >>> 16) & mask;
+        while (table[i] != null) {
+            if (table[i].housecode == housecode) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1 - i;
+    }
+
+    private void removeAt(int i) {
+        final int mask = table.length - 1;
+        table[i] = null;
+        size--;
+        // shift the following entries of the cluster back, so no tombstones are needed
+        int j = (i + 1) & mask;
+        while (table[j] != null) {
+            final Entry e = table[j];
+            table[j] = null;
+            table[-1 - indexOf(e.housecode)] = e;
+            j = (j + 1) & mask;
+        }
+    }
+
+    private void rehash(int newTableSize) {
+        final Entry[] old = table;
+        table = new Entry[newTableSize];
+        for (Entry e : old) {
+            if (e != null) {
+                table[-1 - indexOf(e.housecode)] = e;
+            }
+        }
+    }
+
+    private boolean isExpired(long receivedNanos, long now) {
+        return now - receivedNanos > timeoutNanos;
+    }
+
+    /**
+     * Drop all expired parts and the entries left empty.
+     */
+    private void expire(long now) {
+        int i = 0;
+        while (i < table.length) {
+            final Entry e = table[i];
+            if (e == null) {
+                i++;
+                continue;
+            }
+            for (int ordinal = 0; ordinal < PROPERTY_COUNT; ordinal++) {
+                if (e.parts[ordinal] != null && isExpired(e.receivedNanos[ordinal], now)) {
+                    e.clear(ordinal);
+                    expiredCount++;
+                }
+            }
+            if (e.count == 0) {
+                // an entry may be shifted into this position, so check it again
+                removeAt(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void evictOldest() {
+        int oldest = -1;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && (oldest == -1 || table[i].lastUpdateNanos - table[oldest].lastUpdateNanos < 0)) {
+                oldest = i;
+            }
+        }
+        evictedCount += table[oldest].count;
+        removeAt(oldest);
+    }
+
+    public void put(Fht80bRawMessage msg) {
+        final long now = nanoClock.getAsLong();
+        int i = indexOf(msg.housecode);
+        if (i < 0) {
+            if (size >= maxHousecodes) {
+                expire(now);
+                while (size >= maxHousecodes) {
+                    evictOldest();
+                }
+                i = indexOf(msg.housecode);
+            }
+            i = -1 - i;
+            table[i] = new Entry(msg.housecode);
+            size++;
+        }
+        final Entry e = table[i];
+        final int ordinal = msg.command.ordinal();
+        if (e.parts[ordinal] == null) {
+            e.count++;
+        }
+        e.parts[ordinal] = msg;
+        e.receivedNanos[ordinal] = now;
+        e.sequence[ordinal] = ++sequence;
+        e.lastUpdateNanos = now;
+    }
+
+    public void remove(short housecode, FhtProperty[] fhtProperties) {
+        final int i = indexOf(housecode);
+        if (i < 0) {
+            return;
+        }
+        final Entry e = table[i];
+        for (FhtProperty p : fhtProperties) {
+            e.clear(p.ordinal());
+        }
+        if (e.count == 0) {
+            removeAt(i);
+        }
+    }
+
+    /**
+     * Get all parts of an assembled property.
+     *
+     * @param housecode
+     * @param fhtProperties the parts to look for.
+     * @return the parts of this housecode indexed by
+     * {@link FhtProperty#ordinal()} or null if one of the parts is missing,
+     * expired or out of order. The array is only valid until the next modification.
+     */
+    public Fht80bRawMessage[] get(short housecode, FhtProperty[] fhtProperties) {
+        final int i = indexOf(housecode);
+        if (i < 0) {
+            return null;
+        }
+        final Entry e = table[i];
+        final long now = nanoClock.getAsLong();
+        boolean complete = true;
+        long lastSequence = 0;
+        for (FhtProperty p : fhtProperties) {
+            final int ordinal = p.ordinal();
+            if (e.parts[ordinal] == null) {
+                complete = false;
+            } else if (isExpired(e.receivedNanos[ordinal], now)) {
+                e.clear(ordinal);
+                expiredCount++;
+                complete = false;
+            } else if (e.sequence[ordinal] < lastSequence) {
+                complete = false;
+            } else {
+                lastSequence = e.sequence[ordinal];
+            }
+        }
+        if (complete) {
+            return e.parts;
+        }
+        if (e.count == 0) {
+            removeAt(i);
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    /**
+     * @return the number of housecodes with pending parts.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of parts discarded because their partners did not
+     * arrive in time.
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * @return the number of parts discarded because too many housecodes had
+     * pending parts.
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    public Duration getTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    public void setTimeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    public int getMaxHousecodes() {
+        return maxHousecodes;
+    }
+
+    public void setMaxHousecodes(int maxHousecodes) {
+        if (maxHousecodes < 1) {
+            throw new IllegalArgumentException("maxHousecodes must be positive: " + maxHousecodes);
+        }
+        this.maxHousecodes = maxHousecodes;
+        while (size > maxHousecodes) {
+            evictOldest();
+        }
+        if (tableSize(maxHousecodes) != table.length) {
+            rehash(tableSize(maxHousecodes));
+        }
+    }
+
+}
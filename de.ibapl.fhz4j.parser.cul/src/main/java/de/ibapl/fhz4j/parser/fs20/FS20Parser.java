@@ -24,6 +24,8 @@ package de.ibapl.fhz4j.parser.fs20;
 import java.util.logging.Logger;
 
 import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
 import de.ibapl.fhz4j.protocol.fs20.FS20CommandValue;
@@ -109,7 +111,7 @@ public class FS20Parser extends AbstractParser {
             case 0x1f ->
                 FS20CommandValue.ON_100_FOR_TIMER_PREV;
             default ->
-                throw new RuntimeException();
+                throw ParseFailure.of(ParseFailureReason.UNKNOWN_COMMAND);
         };
     }
 
@@ -127,6 +129,7 @@ public class FS20Parser extends AbstractParser {
     private final ParserListener<FS20Message> parserListener;
     private State state;
     private FS20Message fs20Message;
+    private final FS20Message<?> reusableFs20Message = new FS20Message<>((short) 0, FS20CommandValue.OFF, (byte) 0);
     private short housecode;
     private byte offset;
 
@@ -145,7 +148,14 @@ public class FS20Parser extends AbstractParser {
                     state = State.COLLECT_COMMAND;
                 }
                 case COLLECT_COMMAND -> {
-                    fs20Message = new FS20Message(housecode, getFS20CommandValue(b & 0xff), offset);
+                    if (reuseMessages) {
+                        fs20Message = reusableFs20Message;
+                        fs20Message.housecode = housecode;
+                        fs20Message.command = getFS20CommandValue(b & 0xff);
+                        fs20Message.offset = offset;
+                    } else {
+                        fs20Message = new FS20Message(housecode, getFS20CommandValue(b & 0xff), offset);
+                    }
                     state = State.PARSE_SUCCESS;
                     parserListener.success(fs20Message);
                 }
@@ -153,7 +163,7 @@ public class FS20Parser extends AbstractParser {
             }
             // FHT
         } catch (Throwable t) {
-            parserListener.fail(new RuntimeException(String.format("State: %s last byte 0x%02x", state, b), t));
+            parserListener.fail(failure(t, state, b));
             state = State.PARSE_ERROR;
         }
     }
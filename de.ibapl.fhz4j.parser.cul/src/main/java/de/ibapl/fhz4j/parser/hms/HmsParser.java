@@ -26,6 +26,8 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.Parser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
@@ -63,6 +65,11 @@ public class HmsParser extends AbstractParser {
     private HmsMessage hmsMessage;
     private short housecode;
     private Set<HmsDeviceStatus> deviceStatus;
+    private final Set<HmsDeviceStatus> reusableDeviceStatus = EnumSet.noneOf(HmsDeviceStatus.class);
+    private final Hms100TfMessage<?> reusableHms100TfMessage = new Hms100TfMessage<>((short) 0, reusableDeviceStatus);
+    private final Hms100TfkMessage<?> reusableHms100TfkMessage = new Hms100TfkMessage<>((short) 0, reusableDeviceStatus);
+    private final Hms100WdMessage<?> reusableHms100WdMessage = new Hms100WdMessage<>((short) 0, reusableDeviceStatus);
+    private final Hms100RmMessage<?> reusableHms100RmMessage = new Hms100RmMessage<>((short) 0, reusableDeviceStatus);
 
     @Override
     public void parse(byte b) {
@@ -75,7 +82,12 @@ public class HmsParser extends AbstractParser {
                     }
                 }
                 case DEVICE_STATUS_AND_TYPE -> {
-                    deviceStatus = EnumSet.noneOf(HmsDeviceStatus.class);
+                    if (reuseMessages) {
+                        deviceStatus = reusableDeviceStatus;
+                        deviceStatus.clear();
+                    } else {
+                        deviceStatus = EnumSet.noneOf(HmsDeviceStatus.class);
+                    }
                     if ((b & 0x20) == 0x20) {
                         deviceStatus.add(HmsDeviceStatus.BATT_LOW);
                     }
@@ -93,16 +105,13 @@ public class HmsParser extends AbstractParser {
                         case 0x04 ->
                             state = State.COLLECT_HMS_100_TFK_FLAGS;
                         default -> {
-                            LOG.warning(String.format("Wrong device type - Wrong number: 0x%02x", b));
-                            state = State.PARSE_ERROR;
-                            parserListener.fail(null);
-                            return;
+                            throw ParseFailure.of(ParseFailureReason.UNKNOWN_DEVICE_TYPE);
                         }
                     }
                 }
                 case COLLECT_HMS_100_TF_DATA_TEMP -> {
                     if (push(b)) {
-                        final Hms100TfMessage hms100TfMessage = new Hms100TfMessage(housecode, deviceStatus);
+                        final Hms100TfMessage<?> hms100TfMessage = reuseMessages ? fill(reusableHms100TfMessage) : new Hms100TfMessage<>(housecode, deviceStatus);
                         hmsMessage = hms100TfMessage;
                         short valueBCD = swapBytes((short) (getShortValue() & 0xff0f));
                         hms100TfMessage.temp = 0.1f * get3DigitBCD(valueBCD);
@@ -115,7 +124,7 @@ public class HmsParser extends AbstractParser {
                 }
                 case COLLECT_HMS_100_TF_DATA_HUM -> {
                     if (push(b)) {
-                        final Hms100TfMessage hms100TfMessage = (Hms100TfMessage) hmsMessage;
+                        final Hms100TfMessage<?> hms100TfMessage = (Hms100TfMessage<?>) hmsMessage;
                         final short valueBCD = (short) (swapBytes(getShortValue()) >> 4);
                         hms100TfMessage.humidy = 0.1f * (get3DigitBCD(valueBCD));
                         state = State.PARSE_SUCCESS;
@@ -123,7 +132,7 @@ public class HmsParser extends AbstractParser {
                     }
                 }
                 case COLLECT_HMS_100_TFK_FLAGS -> {
-                    final Hms100TfkMessage hms100TfkMessage = new Hms100TfkMessage(housecode, deviceStatus);
+                    final Hms100TfkMessage<?> hms100TfkMessage = reuseMessages ? fill(reusableHms100TfkMessage) : new Hms100TfkMessage<>(housecode, deviceStatus);
                     hmsMessage = hms100TfkMessage;
                     hms100TfkMessage.open = (b & 0x01) == 0x01;
                     setStackSize(2);
@@ -136,7 +145,7 @@ public class HmsParser extends AbstractParser {
                     }
                 }
                 case COLLECT_HMS_100_WD_FLAGS -> {
-                    final Hms100WdMessage hms100WdMessage = new Hms100WdMessage(housecode, deviceStatus);
+                    final Hms100WdMessage<?> hms100WdMessage = reuseMessages ? fill(reusableHms100WdMessage) : new Hms100WdMessage<>(housecode, deviceStatus);
                     hmsMessage = hms100WdMessage;
                     hms100WdMessage.water = (b & 0x01) == 0x01;
                     setStackSize(2);
@@ -151,7 +160,7 @@ public class HmsParser extends AbstractParser {
                 }
                 case COLLECT_HMS_100_RM_DATA -> {
                     if (push(b)) {
-                        final Hms100RmMessage hms100RmMessage = new Hms100RmMessage(housecode, deviceStatus);
+                        final Hms100RmMessage<?> hms100RmMessage = reuseMessages ? fill(reusableHms100RmMessage) : new Hms100RmMessage<>(housecode, deviceStatus);
                         hmsMessage = hms100RmMessage;
                         hms100RmMessage.smoke = b == 1;
                         state = State.PARSE_SUCCESS;
@@ -162,12 +171,18 @@ public class HmsParser extends AbstractParser {
                     new IllegalStateException(state.name());
             }
         } catch (Throwable t) {
-            parserListener.fail(new RuntimeException(String.format("State: %s last byte 0x%02x", state, b), t));
+            parserListener.fail(failure(t, state, b));
             state = State.PARSE_ERROR;
         }
 
     }
 
+    private <M extends HmsMessage<?>> M fill(M message) {
+        message.housecode = housecode;
+        message.deviceStatus = deviceStatus;
+        return message;
+    }
+
     private short swapBytes(short s) {
         return (short) (((s & 0xff00) >> 8) | ((s & 0x00ff) << 8));
     }
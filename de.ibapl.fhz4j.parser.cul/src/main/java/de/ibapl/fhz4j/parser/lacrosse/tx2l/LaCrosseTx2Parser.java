@@ -24,6 +24,8 @@ package de.ibapl.fhz4j.parser.lacrosse.tx2l;
 import java.util.logging.Logger;
 
 import de.ibapl.fhz4j.LogUtils;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.parser.api.AbstractParser;
 import de.ibapl.fhz4j.parser.api.ParserListener;
 import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
@@ -49,6 +51,7 @@ public class LaCrosseTx2Parser extends AbstractParser {
     private static final Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
     private final ParserListener<LaCrosseTx2Message> parserListener;
     private LaCrosseTx2Message laCrosseTx2Message;
+    private final LaCrosseTx2Message<?> reusableLaCrosseTx2Message = new LaCrosseTx2Message<>(LaCrosseTx2Property.TEMP);
     private State state;
     private int cs;
 
@@ -58,14 +61,20 @@ public class LaCrosseTx2Parser extends AbstractParser {
             cs += (b & 0x0F) + ((b >> 4) & 0x0F);
             switch (state) {
                 case START_SEQUENCE_A_AND_SENSOR_TYTE -> {
-                    laCrosseTx2Message = switch (b) {
+                    final LaCrosseTx2Property property = switch (b) {
                         case (byte) 0xA0 ->
-                            new LaCrosseTx2Message(LaCrosseTx2Property.TEMP);
+                            LaCrosseTx2Property.TEMP;
                         case (byte) 0xAE ->
-                            new LaCrosseTx2Message(LaCrosseTx2Property.HUMIDITY);
+                            LaCrosseTx2Property.HUMIDITY;
                         default ->
-                            throw new RuntimeException("Can't figure out the sensortype");
+                            throw ParseFailure.of(ParseFailureReason.UNKNOWN_DEVICE_TYPE);
                     };
+                    if (reuseMessages) {
+                        laCrosseTx2Message = reusableLaCrosseTx2Message;
+                        laCrosseTx2Message.laCrosseTx2Property = property;
+                    } else {
+                        laCrosseTx2Message = new LaCrosseTx2Message(property);
+                    }
                     state = State.COLLECT_SENSOR_ADDRESS;
                 }
                 case COLLECT_SENSOR_ADDRESS -> {
@@ -90,22 +99,22 @@ public class LaCrosseTx2Parser extends AbstractParser {
                                 laCrosseTx2Message.value = 0.1f * (get3DigitBCD((short) (getIntValue() >> 12)));
                                 break;
                             default:
-                                throw new RuntimeException("Unknown Property: " + laCrosseTx2Message.laCrosseTx2Property);
+                                throw ParseFailure.of(ParseFailureReason.UNKNOWN_VALUE);
                         }
                         if (((cs - (b & 0x0F)) & 0x0F) == (b & 0x0F)) {
                             state = State.PARSE_SUCCESS;
                             parserListener.success(laCrosseTx2Message);
                         } else {
                             // TODO Checksum ????
-                            throw new RuntimeException("Check sum mismatch");
+                            throw ParseFailure.of(ParseFailureReason.CHECKSUM_MISMATCH);
                         }
                     }
                 }
                 default ->
-                    throw new RuntimeException("Cant handle stat: " + state);
+                    throw ParseFailure.of(ParseFailureReason.UNEXPECTED_STATE);
             }
         } catch (Throwable t) {
-            parserListener.fail(new RuntimeException(String.format("State: %s last byte 0x%02x", state, b), t));
+            parserListener.fail(failure(t, state, b));
             state = State.PARSE_ERROR;
         }
     }
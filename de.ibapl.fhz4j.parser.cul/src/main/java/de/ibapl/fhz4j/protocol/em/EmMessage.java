@@ -47,6 +47,7 @@ package de.ibapl.fhz4j.protocol.em;
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  * #L%
  */
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Message;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
@@ -92,6 +93,14 @@ public final class EmMessage extends Message<EmMessage> {
         sb.append(", emDeviceType : ").append(emDeviceType);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("address").value(address);
+        w.name("counter").value(counter);
+        w.name("emDeviceType").value(emDeviceType);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
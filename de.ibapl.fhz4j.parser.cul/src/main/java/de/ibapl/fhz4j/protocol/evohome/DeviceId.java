@@ -21,11 +21,14 @@
  */
 package de.ibapl.fhz4j.protocol.evohome;
 
+import de.ibapl.fhz4j.api.JsonWritable;
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author aploese
  */
-public class DeviceId {
+public class DeviceId implements JsonWritable {
 
     @Override
     public int hashCode() {
@@ -67,6 +70,14 @@ public class DeviceId {
         };
     }
 
+    @Override
+    public void writeJson(JsonWriter w) {
+        w.beginObject();
+        w.name("id").value(id);
+        w.name("type").value(type);
+        w.endObject();
+    }
+
     @Override
     public String toString() {
         return String.format("{id : 0x%06x, type : \"%s\"}", id, type);
@@ -21,31 +21,70 @@
  */
 package de.ibapl.fhz4j.protocol.evohome;
 
+import java.util.Arrays;
+
 public enum EvoHomeCommand {
-    RF_CHECK,
-    ZONE_NAME,
-    ZONE_MANAGEMENT,
-    RELAY_HEAT_DEMAND,
-    RELAY_FAILSAVE,
-    ZONE_CONFIG,
-    ZONE_ACTUATORS,
-    T87RF_STARTUP_000E,
-    RF_SIGNAL_TEST,
-    LOCALIZATION,
-    T87RF_STARTUP_042F,
-    DEVICE_BATTERY_STATUS,
-    DEVICE_INFORMATION,
-    BOILER_RELAY_INFORMATION,
-    WINDOW_SENSOR,
-    SYSTEM_SYNCHRONIZATION,
-    RF_BIND,
-    ZONE_SETPOINT,
-    ZONE_SETPOINT_OVERRIDE,
-    CONTROLLER_MODE,
-    ZONE_TEMPERATURE,
-    UNKNOWN_3120,
-    SYSTEM_TIMESTAMP,
-    ZONE_HEAT_DEMAND,
-    ACTUATOR_SYNC;
+    RF_CHECK(0x0001),
+    ZONE_NAME(0x0004),
+    ZONE_MANAGEMENT(0x0005),
+    RELAY_HEAT_DEMAND(0x0008),
+    RELAY_FAILSAVE(0x0009),
+    ZONE_CONFIG(0x000A),
+    ZONE_ACTUATORS(0x000C),
+    T87RF_STARTUP_000E(0x000E),
+    RF_SIGNAL_TEST(0x0016),
+    LOCALIZATION(0x0100),
+    T87RF_STARTUP_042F(0x042F),
+    DEVICE_BATTERY_STATUS(0x1060),
+    DEVICE_INFORMATION(0x10E0),
+    BOILER_RELAY_INFORMATION(0x1100),
+    WINDOW_SENSOR(0x12B0),
+    SYSTEM_SYNCHRONIZATION(0x1F09),
+    RF_BIND(0x1FC9),
+    ZONE_SETPOINT(0x2309),
+    ZONE_SETPOINT_OVERRIDE(0x2349),
+    CONTROLLER_MODE(0x2E04),
+    ZONE_TEMPERATURE(0x30C9),
+    UNKNOWN_3120(0x3120),
+    SYSTEM_TIMESTAMP(0x313F),
+    ZONE_HEAT_DEMAND(0x3150),
+    ACTUATOR_SYNC(0x3B00);
+
+    private final static EvoHomeCommand[] VALUES = values();
+    // the codes in declaration order, which is ascending
+    private final static int[] CODES = new int[VALUES.length];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            CODES[i] = VALUES[i].code;
+            if (i > 0 && CODES[i - 1] >= CODES[i]) {
+                throw new IllegalStateException("Command codes must be ascending: " + VALUES[i]);
+            }
+        }
+    }
+
+    private final int code;
+
+    private EvoHomeCommand(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the 16 bit command code sent over the air.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Decode a command code.
+     *
+     * @param code
+     * @return the command or null if the code is unknown.
+     */
+    public static EvoHomeCommand fromCode(short code) {
+        final int index = Arrays.binarySearch(CODES, code & 0xFFFF);
+        return index < 0 ? null : VALUES[index];
+    }
 
 }
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Objects;
 
 /**
@@ -44,6 +45,13 @@ public abstract class EvoHomeDeviceMessage<T extends EvoHomeDeviceMessage<T>> ex
         sb.append(", deviceId2 : ").append(deviceId2);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("deviceId1").value(deviceId1);
+        w.name("deviceId2").value(deviceId2);
+    }
+
     protected void appendByteArray(StringBuilder sb, String name, byte[] value) {
         sb.append(", ").append(name).append(" : [0x");
         for (byte b : value) {
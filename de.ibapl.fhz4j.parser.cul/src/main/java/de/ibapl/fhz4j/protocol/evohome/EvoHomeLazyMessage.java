@@ -0,0 +1,105 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.protocol.evohome;
+
+import de.ibapl.fhz4j.api.JsonWriter;
+import java.util.Arrays;
+
+/**
+ * The header of an EvoHome message together with the raw payload. The typed
+ * payload is decoded on the first call of {@link #getPayloadMessage()}. This
+ * is used if the listener only needs the header to route or to drop a
+ * message.
+ *
+ * @author Arne Plöse
+ */
+public class EvoHomeLazyMessage extends EvoHomeDeviceMessage<EvoHomeLazyMessage> {
+
+    @FunctionalInterface
+    public interface PayloadDecoder {
+
+        /**
+         * Decode the payload of the message.
+         *
+         * @param message
+         * @return the decoded message with the same header.
+         * @throws IllegalArgumentException if the payload can't be decoded.
+         */
+        EvoHomeDeviceMessage<?> decode(EvoHomeLazyMessage message);
+    }
+
+    public final byte[] payload;
+    private final PayloadDecoder payloadDecoder;
+    private EvoHomeDeviceMessage<?> payloadMessage;
+
+    public EvoHomeLazyMessage(EvoHomeCommand command, EvoHomeMsgType msgType, EvoHomeMsgParam0 msgParam0, byte[] payload, PayloadDecoder payloadDecoder) {
+        super(command, msgType, msgParam0);
+        this.payload = payload;
+        this.payloadDecoder = payloadDecoder;
+    }
+
+    /**
+     * Decode the payload on the first call and return the cached message
+     * afterwards. This is not synchronized, if called concurrently the payload
+     * may be decoded more than once.
+     *
+     * @return the message with the decoded payload.
+     * @throws IllegalArgumentException if the payload can't be decoded.
+     */
+    public EvoHomeDeviceMessage<?> getPayloadMessage() {
+        if (payloadMessage == null) {
+            payloadMessage = payloadDecoder.decode(this);
+        }
+        return payloadMessage;
+    }
+
+    public boolean isPayloadDecoded() {
+        return payloadMessage != null;
+    }
+
+    @Override
+    protected void addToJsonString(StringBuilder sb) {
+        super.addToJsonString(sb);
+        appendByteArray(sb, "payload", payload);
+    }
+
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("payload").value(payload);
+    }
+
+    @Override
+    protected int subClassHashCode(int hash) {
+        hash = super.subClassHashCode(hash);
+        return HASH_MULTIPLIER * hash + Arrays.hashCode(this.payload);
+    }
+
+    @Override
+    protected boolean subClassEquals(EvoHomeLazyMessage other) {
+        if (!super.subClassEquals(other)) {
+            return false;
+        }
+        return Arrays.equals(this.payload, other.payload);
+    }
+
+}
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Message;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
@@ -51,6 +52,14 @@ public abstract class EvoHomeMessage<T extends EvoHomeDeviceMessage<T>> extends
         sb.append(", msgParam0 : ").append(msgParam0);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("msgType").value(msgType);
+        w.name("command").value(command);
+        w.name("msgParam0").value(msgParam0);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -47,6 +48,12 @@ public class T87RF_Startup_0x042F_InformationMessage<T extends T87RF_Startup_0x0
         appendByteArray(sb, "value", value);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("value").value(value);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
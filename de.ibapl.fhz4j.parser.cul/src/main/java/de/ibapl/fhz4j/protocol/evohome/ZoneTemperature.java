@@ -21,26 +21,118 @@
  */
 package de.ibapl.fhz4j.protocol.evohome;
 
+import de.ibapl.fhz4j.api.JsonWritable;
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.math.BigDecimal;
-import java.util.Objects;
 
-public class ZoneTemperature {
+/**
+ * The temperature is kept as fixed point value in 1/100 °C, the
+ * {@link BigDecimal} is only created if asked for.
+ *
+ * @author Arne Plöse
+ */
+public class ZoneTemperature implements JsonWritable {
+
+    /**
+     * The value of centiDegrees if there is no temperature available.
+     */
+    public final static short UNAVAILABLE = 0x7FFF;
 
     public byte zone;
-    public BigDecimal temperature;
+    /**
+     * The temperature in 1/100 °C or {@link #UNAVAILABLE}.
+     */
+    public short centiDegrees = UNAVAILABLE;
+    private BigDecimal temperature;
+    private short temperatureCentiDegrees = UNAVAILABLE;
 
     public ZoneTemperature() {
     }
 
     public ZoneTemperature(byte zone, BigDecimal temperature) {
         this.zone = zone;
-        this.temperature = temperature;
+        setTemperature(temperature);
+    }
+
+    public ZoneTemperature(byte zone, short centiDegrees) {
+        this.zone = zone;
+        this.centiDegrees = centiDegrees;
     }
 
     public ZoneTemperature(byte zone) {
         this.zone = zone;
     }
 
+    /**
+     * @return the temperature in °C or null if not available.
+     */
+    public BigDecimal getTemperature() {
+        if (temperatureCentiDegrees != centiDegrees) {
+            temperature = toBigDecimal(centiDegrees);
+            temperatureCentiDegrees = centiDegrees;
+        }
+        return temperature;
+    }
+
+    /**
+     * @param temperature the temperature in °C or null if not available.
+     */
+    public void setTemperature(BigDecimal temperature) {
+        centiDegrees = toCentiDegrees(temperature);
+    }
+
+    public boolean isAvailable() {
+        return centiDegrees != UNAVAILABLE;
+    }
+
+    /**
+     * @param centiDegrees the temperature in 1/100 °C.
+     * @return the temperature in °C with the smallest scale of 0, 1 or 2
+     * which represents it exactly or null if {@link #UNAVAILABLE}.
+     */
+    public static BigDecimal toBigDecimal(short centiDegrees) {
+        if (centiDegrees == UNAVAILABLE) {
+            return null;
+        } else if (centiDegrees % 100 == 0) {
+            return BigDecimal.valueOf(centiDegrees / 100);
+        } else if (centiDegrees % 10 == 0) {
+            return BigDecimal.valueOf(centiDegrees / 10, 1);
+        } else {
+            return BigDecimal.valueOf(centiDegrees, 2);
+        }
+    }
+
+    /**
+     * @param temperature the temperature in °C or null.
+     * @return the temperature in 1/100 °C or {@link #UNAVAILABLE}.
+     */
+    public static short toCentiDegrees(BigDecimal temperature) {
+        return temperature == null ? UNAVAILABLE : temperature.movePointRight(2).shortValue();
+    }
+
+    /**
+     * Write the temperature in °C as number or null if {@link #UNAVAILABLE}.
+     *
+     * @param w
+     * @param centiDegrees the temperature in 1/100 °C.
+     */
+    public static void writeJson(JsonWriter w, short centiDegrees) {
+        if (centiDegrees == UNAVAILABLE) {
+            w.nullValue();
+        } else {
+            w.value(centiDegrees, 2);
+        }
+    }
+
+    @Override
+    public void writeJson(JsonWriter w) {
+        w.beginObject();
+        w.name("zone").value(zone & 0xff);
+        w.name("temperature");
+        writeJson(w, centiDegrees);
+        w.endObject();
+    }
+
     protected void addToString(StringBuilder sb) {
         //no-op must be overwritten ... in subclasses
     }
@@ -50,7 +142,7 @@ public class ZoneTemperature {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
         sb.append(String.format("zone : 0x%02x", zone));
-        sb.append(", temperature : ").append(temperature);
+        sb.append(", temperature : ").append(getTemperature());
         addToString(sb);
         sb.append("}");
         return sb.toString();
@@ -60,7 +152,7 @@ public class ZoneTemperature {
     public int hashCode() {
         int hash = 7;
         hash = 97 * hash + this.zone;
-        hash = 97 * hash + Objects.hashCode(this.temperature);
+        hash = 97 * hash + this.centiDegrees;
         return hash;
     }
 
@@ -79,7 +171,7 @@ public class ZoneTemperature {
         if (this.zone != other.zone) {
             return false;
         }
-        return Objects.equals(this.temperature, other.temperature);
+        return this.centiDegrees == other.centiDegrees;
     }
 
 }
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -76,6 +77,12 @@ public abstract class AbstractControllerModeMessage<T extends AbstractController
         sb.append(", mode : ").append(mode);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("mode").value(mode);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
 import java.time.LocalDateTime;
@@ -54,6 +55,13 @@ public abstract class AbstractControllerModePayloadMessage<T extends AbstractCon
         sb.append(", programm_type : ").append(programm_type);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("dateTime").value(dateTime);
+        w.name("programm_type").value(programm_type);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -47,6 +48,12 @@ public abstract class AbstractRfBindMessage<T extends AbstractRfBindMessage<T>>
         sb.append(String.format(", zoneId : 0x%02x", zoneId));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zoneId").value(zoneId & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWritable;
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
 import java.util.LinkedList;
@@ -35,7 +37,7 @@ import java.util.Objects;
  */
 public abstract class AbstractRfBindPayloadMessage<T extends AbstractRfBindPayloadMessage<T>> extends AbstractRfBindMessage<T> {
 
-    public static class Data {
+    public static class Data implements JsonWritable {
 
         public byte zoneId;
         public short command;
@@ -51,6 +53,15 @@ public abstract class AbstractRfBindPayloadMessage<T extends AbstractRfBindPaylo
             this.deviceId = deviceId;
         }
 
+        @Override
+        public void writeJson(JsonWriter w) {
+            w.beginObject();
+            w.name("zoneId").value(zoneId & 0xff);
+            w.name("command").value(command & 0xffff);
+            w.name("deviceId").value(deviceId);
+            w.endObject();
+        }
+
         @Override
         public String toString() {
             return String.format("{zoneId : 0x%02x, command : 0x%04x, deviceId : 0x%06x}", zoneId, command, deviceId);
@@ -108,6 +119,12 @@ public abstract class AbstractRfBindPayloadMessage<T extends AbstractRfBindPaylo
         sb.append("]");
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("elements").array(elements);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,10 +21,12 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -58,7 +60,10 @@ public abstract class AbstractZoneSetpointOverrideMessage<T extends AbstractZone
     }
 
     public byte zone_id;
-    public BigDecimal setpoint;
+    /**
+     * The setpoint in 1/100 °C or {@link ZoneTemperature#UNAVAILABLE}.
+     */
+    public short setpointCentiDegrees = ZoneTemperature.UNAVAILABLE;
     public SetpointOverrideMode zone_mode;
     public Duration countdown;
     public LocalDateTime time_until;
@@ -67,21 +72,39 @@ public abstract class AbstractZoneSetpointOverrideMessage<T extends AbstractZone
         super(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, msgType, msgParam0);
     }
 
+    /**
+     * @return the setpoint in °C or null if not available.
+     */
+    public BigDecimal getSetpoint() {
+        return ZoneTemperature.toBigDecimal(setpointCentiDegrees);
+    }
+
     @Override
     protected void addToJsonString(StringBuilder sb) {
         super.addToJsonString(sb);
         sb.append(String.format(", zone_id : 0x%02x", zone_id));
-        sb.append(", setpoint : ").append(setpoint);
+        sb.append(", setpoint : ").append(getSetpoint());
         sb.append(", zone_mode : ").append(zone_mode);
         sb.append(", countdown : ").append(countdown);
         sb.append(", time_until : ").append(time_until);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zone_id").value(zone_id & 0xff);
+        w.name("setpoint");
+        ZoneTemperature.writeJson(w, setpointCentiDegrees);
+        w.name("zone_mode").value(zone_mode);
+        w.name("countdown").value(countdown);
+        w.name("time_until").value(time_until);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
         hash = HASH_MULTIPLIER * hash + this.zone_id;
-        hash = HASH_MULTIPLIER * hash + Objects.hashCode(this.setpoint);
+        hash = HASH_MULTIPLIER * hash + this.setpointCentiDegrees;
         hash = HASH_MULTIPLIER * hash + Objects.hashCode(this.zone_mode);
         hash = HASH_MULTIPLIER * hash + Objects.hashCode(this.countdown);
         return HASH_MULTIPLIER * hash + Objects.hashCode(this.time_until);
@@ -95,7 +118,7 @@ public abstract class AbstractZoneSetpointOverrideMessage<T extends AbstractZone
         if (this.zone_id != other.zone_id) {
             return false;
         }
-        if (!Objects.equals(this.setpoint, other.setpoint)) {
+        if (this.setpointCentiDegrees != other.setpointCentiDegrees) {
             return false;
         }
         if (this.zone_mode != other.zone_mode) {
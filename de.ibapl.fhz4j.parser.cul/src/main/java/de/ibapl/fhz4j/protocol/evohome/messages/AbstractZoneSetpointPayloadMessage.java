@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
 import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
@@ -58,6 +59,12 @@ public abstract class AbstractZoneSetpointPayloadMessage<T extends AbstractZoneS
         sb.append("]");
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zoneTemperatures").array(zoneTemperatures);
+    }
+
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
         return HASH_MULTIPLIER * hash + Objects.hashCode(this.zoneTemperatures);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -61,6 +62,18 @@ public class BoilerRelayInformationMessage<T extends BoilerRelayInformationMessa
         sb.append(String.format(", unknown1 : 0x%02x", unknown1));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("domain_id").value(domain_id & 0xff);
+        w.name("cycle_rate").value(cycle_rate);
+        w.name("minimum_on_time").value(minimum_on_time);
+        w.name("minimum_off_time").value(minimum_off_time);
+        w.name("unknown0").value(unknown0 & 0xff);
+        w.name("proportional_band_width").value(proportional_band_width);
+        w.name("unknown1").value(unknown1 & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -52,6 +53,15 @@ public class Unknown_0x3120InformationMessage<T extends Unknown_0x3120Informatio
         sb.append(String.format(", fixed3 : 0x%02x", fixed3));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("unused0").value(unused0 & 0xff);
+        w.name("fixed1").value(fixed1 & 0xffff);
+        w.name("unused2").value(unused2 & 0xffffff);
+        w.name("fixed3").value(fixed3 & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
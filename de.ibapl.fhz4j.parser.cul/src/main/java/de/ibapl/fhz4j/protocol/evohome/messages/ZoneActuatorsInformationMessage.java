@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWritable;
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.DeviceId;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
@@ -38,7 +40,7 @@ import java.util.Objects;
  */
 public class ZoneActuatorsInformationMessage<T extends ZoneActuatorsInformationMessage<T>> extends EvoHomeDeviceMessage<T> {
 
-    public static class ZoneActuator {
+    public static class ZoneActuator implements JsonWritable {
 
         @Override
         public int hashCode() {
@@ -90,6 +92,15 @@ public class ZoneActuatorsInformationMessage<T extends ZoneActuatorsInformationM
             sb.append("}");
         }
 
+        @Override
+        public void writeJson(JsonWriter w) {
+            w.beginObject();
+            w.name("zoneIdx").value(zoneIdx & 0xff);
+            w.name("unknown0").value(unknown0 & 0xff);
+            w.name("deviceId").value(deviceId);
+            w.endObject();
+        }
+
         @Override
         final public String toString() {
             StringBuilder sb = new StringBuilder();
@@ -120,6 +131,12 @@ public class ZoneActuatorsInformationMessage<T extends ZoneActuatorsInformationM
         sb.append("]");
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zones").array(actuators);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,10 +21,13 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWritable;
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
@@ -38,7 +41,7 @@ import java.util.Objects;
  */
 public class ZoneConfigPayloadMessage<T extends ZoneConfigPayloadMessage<T>> extends EvoHomeDeviceMessage<T> {
 
-    public static class ZoneParams {
+    public static class ZoneParams implements JsonWritable {
 
         @Override
         public int hashCode() {
@@ -46,8 +49,8 @@ public class ZoneConfigPayloadMessage<T extends ZoneConfigPayloadMessage<T>> ext
             hash = HASH_MULTIPLIER * hash + this.zoneId;
             hash = HASH_MULTIPLIER * hash + (this.windowFunction ? 1 : 0);
             hash = HASH_MULTIPLIER * hash + (this.operationLock ? 1 : 0);
-            hash = HASH_MULTIPLIER * hash + Objects.hashCode(this.minTemperature);
-            hash = HASH_MULTIPLIER * hash + Objects.hashCode(this.maxTemperature);
+            hash = HASH_MULTIPLIER * hash + this.minCentiDegrees;
+            hash = HASH_MULTIPLIER * hash + this.maxCentiDegrees;
             return hash;
         }
 
@@ -72,28 +75,79 @@ public class ZoneConfigPayloadMessage<T extends ZoneConfigPayloadMessage<T>> ext
             if (this.operationLock != other.operationLock) {
                 return false;
             }
-            if (!Objects.equals(this.minTemperature, other.minTemperature)) {
+            if (this.minCentiDegrees != other.minCentiDegrees) {
                 return false;
             }
-            return Objects.equals(this.maxTemperature, other.maxTemperature);
+            return this.maxCentiDegrees == other.maxCentiDegrees;
         }
 
         public byte zoneId;
         public boolean windowFunction;
         public boolean operationLock;
-        public BigDecimal minTemperature;
-        public BigDecimal maxTemperature;
+        /**
+         * The minimum temperature in 1/100 °C or
+         * {@link ZoneTemperature#UNAVAILABLE}.
+         */
+        public short minCentiDegrees = ZoneTemperature.UNAVAILABLE;
+        /**
+         * The maximum temperature in 1/100 °C or
+         * {@link ZoneTemperature#UNAVAILABLE}.
+         */
+        public short maxCentiDegrees = ZoneTemperature.UNAVAILABLE;
+
+        /**
+         * @return the minimum temperature in °C or null if not available.
+         */
+        public BigDecimal getMinTemperature() {
+            return ZoneTemperature.toBigDecimal(minCentiDegrees);
+        }
+
+        /**
+         * @param minTemperature the minimum temperature in °C or null if not
+         * available.
+         */
+        public void setMinTemperature(BigDecimal minTemperature) {
+            minCentiDegrees = ZoneTemperature.toCentiDegrees(minTemperature);
+        }
+
+        /**
+         * @return the maximum temperature in °C or null if not available.
+         */
+        public BigDecimal getMaxTemperature() {
+            return ZoneTemperature.toBigDecimal(maxCentiDegrees);
+        }
+
+        /**
+         * @param maxTemperature the maximum temperature in °C or null if not
+         * available.
+         */
+        public void setMaxTemperature(BigDecimal maxTemperature) {
+            maxCentiDegrees = ZoneTemperature.toCentiDegrees(maxTemperature);
+        }
 
         protected void addToJsonString(StringBuilder sb) {
             sb.append("{");
             sb.append(String.format("zoneId : 0x%02x", zoneId));
             sb.append(String.format(", windowFunction : %b", windowFunction));
             sb.append(String.format(", operationLock : %b", operationLock));
-            sb.append(", minTemperature : ").append(minTemperature);
-            sb.append(", maxTemperature : ").append(maxTemperature);
+            sb.append(", minTemperature : ").append(getMinTemperature());
+            sb.append(", maxTemperature : ").append(getMaxTemperature());
             sb.append("}");
         }
 
+        @Override
+        public void writeJson(JsonWriter w) {
+            w.beginObject();
+            w.name("zoneId").value(zoneId & 0xff);
+            w.name("windowFunction").value(windowFunction);
+            w.name("operationLock").value(operationLock);
+            w.name("minTemperature");
+            ZoneTemperature.writeJson(w, minCentiDegrees);
+            w.name("maxTemperature");
+            ZoneTemperature.writeJson(w, maxCentiDegrees);
+            w.endObject();
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder();
@@ -128,6 +182,12 @@ public class ZoneConfigPayloadMessage<T extends ZoneConfigPayloadMessage<T>> ext
         sb.append("]");
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zones").array(zones);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.evohome.messages;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeDeviceMessage;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
@@ -54,6 +55,14 @@ public class ZoneHeatDemandInformationMessage<T extends ZoneHeatDemandInformatio
         sb.append(", valvePosition : ").append(calcValvePosition()).append("%");
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("zoneId").value(zoneId & 0xff);
+        w.name("heatDemand").value(heatDemand);
+        w.name("valvePosition").value(calcValvePosition());
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
 
@@ -51,6 +52,14 @@ public class Fht80TfMessage<T extends Fht80TfMessage<T>> extends AbstractFhtMess
 
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("address").value(address);
+        w.name("value").value(value);
+        w.name("lowBattery").value(lowBattery);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -49,6 +51,12 @@ public class Fht80bRawMessage<T extends Fht80bRawMessage<T>> extends Fht8bMessag
         sb.append(String.format(", value: 0x%02x", value));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("value").value(value & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -44,6 +46,13 @@ public class Fht8bMessage<T extends Fht8bMessage<T>> extends FhtMessage<T> {
         sb.append(", dataRegister : ").append(dataRegister);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("fromFht_8b").value(fromFht_8B);
+        w.name("dataRegister").value(dataRegister);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -45,6 +47,13 @@ public class FhtDateMessage<T extends FhtDateMessage<T>> extends Fht8bMessage<T>
         sb.append(", month : ").append(month);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("day").value(day);
+        w.name("month").value(month);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
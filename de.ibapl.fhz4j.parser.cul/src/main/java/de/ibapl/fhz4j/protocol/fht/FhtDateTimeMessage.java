@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -45,6 +46,12 @@ public class FhtDateTimeMessage<T extends FhtDateTimeMessage<T>> extends Fht8bMe
         sb.append(", ts : ").append(ts);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("ts").value(ts);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
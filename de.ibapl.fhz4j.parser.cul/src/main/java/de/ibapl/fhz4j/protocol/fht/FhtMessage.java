@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
 
@@ -50,6 +51,14 @@ public abstract class FhtMessage<T extends FhtMessage<T>> extends AbstractFhtMes
         sb.append(String.format(", description : 0x%02x", description));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("housecode").value(housecode);
+        w.name("command").value(command);
+        w.name("description").value(description & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Objects;
 
 /**
@@ -43,6 +44,12 @@ public class FhtModeMessage<T extends FhtModeMessage<T>> extends Fht8bMessage<T>
         sb.append(", value : ").append(mode);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("value").value(mode);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -43,68 +43,68 @@ import java.util.Set;
  */
 public enum FhtProperty implements Serializable, ScadaProperty {
 
-    VALVE("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_1("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_2("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_3("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_4("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_5("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_6("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_7("%", FLOAT, FHT_8V),
-    OFFSET_VALVE_8("%", FLOAT, FHT_8V),
-    MON_FROM_1("", LOCAL_TIME, FHT_80B),
-    MON_TO_1("", LOCAL_TIME, FHT_80B),
-    MON_FROM_2("", LOCAL_TIME, FHT_80B),
-    MON_TO_2("", LOCAL_TIME, FHT_80B),
-    TUE_FROM_1("", LOCAL_TIME, FHT_80B),
-    TUE_TO_1("", LOCAL_TIME, FHT_80B),
-    TUE_FROM_2("", LOCAL_TIME, FHT_80B),
-    TUE_TO_2("", LOCAL_TIME, FHT_80B),
-    WED_FROM_1("", LOCAL_TIME, FHT_80B),
-    WED_TO_1("", LOCAL_TIME, FHT_80B),
-    WED_FROM_2("", LOCAL_TIME, FHT_80B),
-    WED_TO_2("", LOCAL_TIME, FHT_80B),
-    THU_FROM_1("", LOCAL_TIME, FHT_80B),
-    THU_TO_1("", LOCAL_TIME, FHT_80B),
-    THU_FROM_2("", LOCAL_TIME, FHT_80B),
-    THU_TO_2("", LOCAL_TIME, FHT_80B),
-    FRI_FROM_1("", LOCAL_TIME, FHT_80B),
-    FRI_TO_1("", LOCAL_TIME, FHT_80B),
-    FRI_FROM_2("", LOCAL_TIME, FHT_80B),
-    FRI_TO_2("", LOCAL_TIME, FHT_80B),
-    SAT_FROM_1("", LOCAL_TIME, FHT_80B),
-    SAT_TO_1("", LOCAL_TIME, FHT_80B),
-    SAT_FROM_2("", LOCAL_TIME, FHT_80B),
-    SAT_TO_2("", LOCAL_TIME, FHT_80B),
-    SUN_FROM_1("", LOCAL_TIME, FHT_80B),
-    SUN_TO_1("", LOCAL_TIME, FHT_80B),
-    SUN_FROM_2("", LOCAL_TIME, FHT_80B),
-    SUN_TO_2("", LOCAL_TIME, FHT_80B),
-    MODE("", SHORT, FHT_80B),
-    HOLIDAY_1("", SHORT, FHT_80B), // raw value if mode == party the time and if mode ==
-    HOLIDAY_2("", SHORT, FHT_80B), // raw value if mode == party the day of month and if mode == holiday the month
-    DESIRED_TEMP("°C", FLOAT, FHT_80B),
-    MEASURED_LOW("°C", FLOAT, FHT_80B),
-    MEASURED_HIGH("°C", FLOAT, FHT_80B),
-    WARNINGS("", BYTE, FHT_80B),
-    MANU_TEMP("°C", FLOAT, FHT_80B), // # No clue what it does.
-    ACK("", SHORT, FHT_80B),
-    CAN_CMIT("", SHORT, FHT_80B),
-    CAN_RCV("", SHORT, FHT_80B),
-    YEAR("", SHORT, FHT_80B),
-    MONTH("", SHORT, FHT_80B),
-    DAY_OF_MONTH("", SHORT, FHT_80B),
-    HOUR("", SHORT, FHT_80B),
-    MINUTE("", SHORT, FHT_80B),
-    REPORT_1("", SHORT, FHT_80B),
-    REPORT_2("", SHORT, FHT_80B),
-    ACK_2("", SHORT, FHT_80B),
-    START_XMIT("", SHORT, FHT_80B),
-    END_XMIT("", SHORT, FHT_80B),
-    DAY_TEMP("", FLOAT, FHT_80B),
-    NIGHT_TEMP("", FLOAT, FHT_80B),
-    LOW_TEMP_OFFSET("", FLOAT, FHT_80B), // #
-    WINDOW_OPEN_TEMP("", FLOAT, FHT_80B),
+    VALVE(0x00, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_1(0x01, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_2(0x02, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_3(0x03, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_4(0x04, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_5(0x05, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_6(0x06, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_7(0x07, "%", FLOAT, FHT_8V),
+    OFFSET_VALVE_8(0x08, "%", FLOAT, FHT_8V),
+    MON_FROM_1(0x14, "", LOCAL_TIME, FHT_80B),
+    MON_TO_1(0x15, "", LOCAL_TIME, FHT_80B),
+    MON_FROM_2(0x16, "", LOCAL_TIME, FHT_80B),
+    MON_TO_2(0x17, "", LOCAL_TIME, FHT_80B),
+    TUE_FROM_1(0x18, "", LOCAL_TIME, FHT_80B),
+    TUE_TO_1(0x19, "", LOCAL_TIME, FHT_80B),
+    TUE_FROM_2(0x1a, "", LOCAL_TIME, FHT_80B),
+    TUE_TO_2(0x1b, "", LOCAL_TIME, FHT_80B),
+    WED_FROM_1(0x1c, "", LOCAL_TIME, FHT_80B),
+    WED_TO_1(0x1d, "", LOCAL_TIME, FHT_80B),
+    WED_FROM_2(0x1e, "", LOCAL_TIME, FHT_80B),
+    WED_TO_2(0x1f, "", LOCAL_TIME, FHT_80B),
+    THU_FROM_1(0x20, "", LOCAL_TIME, FHT_80B),
+    THU_TO_1(0x21, "", LOCAL_TIME, FHT_80B),
+    THU_FROM_2(0x22, "", LOCAL_TIME, FHT_80B),
+    THU_TO_2(0x23, "", LOCAL_TIME, FHT_80B),
+    FRI_FROM_1(0x24, "", LOCAL_TIME, FHT_80B),
+    FRI_TO_1(0x25, "", LOCAL_TIME, FHT_80B),
+    FRI_FROM_2(0x26, "", LOCAL_TIME, FHT_80B),
+    FRI_TO_2(0x27, "", LOCAL_TIME, FHT_80B),
+    SAT_FROM_1(0x28, "", LOCAL_TIME, FHT_80B),
+    SAT_TO_1(0x29, "", LOCAL_TIME, FHT_80B),
+    SAT_FROM_2(0x2a, "", LOCAL_TIME, FHT_80B),
+    SAT_TO_2(0x2b, "", LOCAL_TIME, FHT_80B),
+    SUN_FROM_1(0x2c, "", LOCAL_TIME, FHT_80B),
+    SUN_TO_1(0x2d, "", LOCAL_TIME, FHT_80B),
+    SUN_FROM_2(0x2e, "", LOCAL_TIME, FHT_80B),
+    SUN_TO_2(0x2f, "", LOCAL_TIME, FHT_80B),
+    MODE(0x3e, "", SHORT, FHT_80B),
+    HOLIDAY_1(0x3f, "", SHORT, FHT_80B), // raw value if mode == party the time and if mode ==
+    HOLIDAY_2(0x40, "", SHORT, FHT_80B), // raw value if mode == party the day of month and if mode == holiday the month
+    DESIRED_TEMP(0x41, "°C", FLOAT, FHT_80B),
+    MEASURED_LOW(0x42, "°C", FLOAT, FHT_80B),
+    MEASURED_HIGH(0x43, "°C", FLOAT, FHT_80B),
+    WARNINGS(0x44, "", BYTE, FHT_80B),
+    MANU_TEMP(0x45, "°C", FLOAT, FHT_80B), // # No clue what it does.
+    ACK(0x4b, "", SHORT, FHT_80B),
+    CAN_CMIT(0x53, "", SHORT, FHT_80B),
+    CAN_RCV(0x54, "", SHORT, FHT_80B),
+    YEAR(0x60, "", SHORT, FHT_80B),
+    MONTH(0x61, "", SHORT, FHT_80B),
+    DAY_OF_MONTH(0x62, "", SHORT, FHT_80B),
+    HOUR(0x63, "", SHORT, FHT_80B),
+    MINUTE(0x64, "", SHORT, FHT_80B),
+    REPORT_1(0x65, "", SHORT, FHT_80B),
+    REPORT_2(0x66, "", SHORT, FHT_80B),
+    ACK_2(0x69, "", SHORT, FHT_80B),
+    START_XMIT(0x7d, "", SHORT, FHT_80B),
+    END_XMIT(0x7e, "", SHORT, FHT_80B),
+    DAY_TEMP(0x82, "", FLOAT, FHT_80B),
+    NIGHT_TEMP(0x84, "", FLOAT, FHT_80B),
+    LOW_TEMP_OFFSET(0x85, "", FLOAT, FHT_80B), // #
+    WINDOW_OPEN_TEMP(0x8a, "", FLOAT, FHT_80B),
     UNKNOWN_0XFF("", BYTE, FHT_80B),
     UNKNOWN("unknown", BYTE, FhtDeviceType.UNKNOWN),
     // Some synthetic messages
@@ -120,18 +120,83 @@ public enum FhtProperty implements Serializable, ScadaProperty {
     PARTY_END_TIME("", LOCAL_TIME, FHT_80B, HOLIDAY_1, HOLIDAY_2),
     CURRENT_DATE_AND_TIME("", LOCAL_DATE, FHT_80B, YEAR, MONTH, DAY_OF_MONTH, HOUR, MINUTE);
 
+    /**
+     * The code of properties which are never sent over the air.
+     */
+    public final static int NO_CODE = -1;
+
+    private final static FhtProperty[] DECODE_TABLE = new FhtProperty[256];
+    private final static byte[] ENCODE_TABLE;
+
+    static {
+        final FhtProperty[] values = values();
+        ENCODE_TABLE = new byte[values.length];
+        for (FhtProperty prop : values) {
+            if (prop.code != NO_CODE) {
+                if (DECODE_TABLE[prop.code] != null) {
+                    throw new IllegalStateException(String.format("Duplicate command code 0x%02x of %s and %s", prop.code, DECODE_TABLE[prop.code], prop));
+                }
+                DECODE_TABLE[prop.code] = prop;
+                ENCODE_TABLE[prop.ordinal()] = (byte) prop.code;
+            }
+        }
+    }
+
+    private final int code;
     private final String unitOfmeasurement;
     private final FhtDeviceType targetDevice;
     private final DataType dataType;
     public final FhtProperty[] parts;
 
+    private FhtProperty(int code, String unitOfMeasurement, DataType dataType, FhtDeviceType targetDevice) {
+        this.code = code;
+        this.unitOfmeasurement = unitOfMeasurement;
+        this.dataType = dataType;
+        this.targetDevice = targetDevice;
+        this.parts = new FhtProperty[0];
+    }
+
     private FhtProperty(String unitOfMeasurement, DataType dataType, FhtDeviceType targetDevice, FhtProperty... parts) {
+        this.code = NO_CODE;
         this.unitOfmeasurement = unitOfMeasurement;
         this.dataType = dataType;
         this.targetDevice = targetDevice;
         this.parts = parts;
     }
 
+    /**
+     * @return the command code sent over the air or {@link #NO_CODE}.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Decode a command code.
+     *
+     * @param code the command byte.
+     * @return the property or null if the code is unknown.
+     */
+    public static FhtProperty fromCode(byte code) {
+        return DECODE_TABLE[code & 0xFF];
+    }
+
+    /**
+     * Encode the command code.
+     *
+     * @param fhtProperty
+     * @return the command byte.
+     * @throws UnsupportedOperationException if the property is never sent over
+     * the air.
+     */
+    public static byte toCode(FhtProperty fhtProperty) {
+        final byte code = ENCODE_TABLE[fhtProperty.ordinal()];
+        if (DECODE_TABLE[code & 0xFF] != fhtProperty) {
+            throw new UnsupportedOperationException("No command code for: " + fhtProperty);
+        }
+        return code;
+    }
+
     public static FhtProperty fromLabel(String label) {
         for (FhtProperty prop : values()) {
             if (prop.getLabel().equals(label)) {
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -41,6 +43,12 @@ public class FhtProtocolMessage<T extends FhtProtocolMessage<T>> extends Fht8bMe
         sb.append(String.format(", data : 0x%02x", data));
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("data").value(data & 0xff);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -41,6 +43,12 @@ public class FhtTempMessage<T extends FhtTempMessage<T>> extends Fht8bMessage<T>
         sb.append(", temp : ").append(temp);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("temp").value(temp);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
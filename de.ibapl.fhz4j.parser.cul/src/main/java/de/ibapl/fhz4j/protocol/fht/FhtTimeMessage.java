@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.time.LocalTime;
 import java.util.Objects;
 
@@ -49,6 +50,12 @@ public class FhtTimeMessage<T extends FhtTimeMessage<T>> extends Fht8bMessage<T>
         sb.append(", time : ").append(time);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("time").value(time);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.time.LocalTime;
 import java.util.Objects;
 
@@ -54,6 +55,15 @@ public class FhtTimesMessage<T extends FhtTimesMessage<T>> extends Fht8bMessage<
         sb.append(", timeTo2 : ").append(timeTo2);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("timeFrom1").value(timeFrom1);
+        w.name("timeTo1").value(timeTo1);
+        w.name("timeFrom2").value(timeFrom2);
+        w.name("timeTo2").value(timeTo2);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Objects;
 
 /**
@@ -54,6 +55,15 @@ public class FhtValvePosMessage<T extends FhtValvePosMessage<T>> extends FhtMess
 
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("mode").value(mode);
+        w.name("repeated").value(repeated);
+        w.name("position").value(position);
+        w.name("allowLowBatteryBeep").value(allowLowBatteryBeep);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,8 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
+
 /**
  *
  * @author Arne Plöse
@@ -44,6 +46,13 @@ public class FhtValveSyncMessage<T extends FhtValveSyncMessage<T>> extends FhtMe
         sb.append(", bit5 : ").append(bit5);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("timeLeft").value(timeLeft);
+        w.name("bit5").value(bit5);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
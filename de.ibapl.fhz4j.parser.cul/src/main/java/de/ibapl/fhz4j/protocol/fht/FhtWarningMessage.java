@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fht;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.EnumSet;
 import java.util.Objects;
 import java.util.Set;
@@ -39,12 +40,24 @@ public class FhtWarningMessage<T extends FhtWarningMessage<T>> extends Fht8bMess
         this.warnings = EnumSet.copyOf(warnings);
     }
 
+    @Override
+    protected void copyMutableFields() {
+        super.copyMutableFields();
+        warnings = warnings.isEmpty() ? EnumSet.noneOf(Fht80bWarning.class) : EnumSet.copyOf(warnings);
+    }
+
     @Override
     protected void addToJsonString(StringBuilder sb) {
         super.addToJsonString(sb);
         sb.append(", warnings : ").append(warnings);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("warnings").enums(warnings);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
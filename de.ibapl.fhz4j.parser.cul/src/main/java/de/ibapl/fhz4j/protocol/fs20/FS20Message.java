@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.fs20;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Message;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
@@ -51,6 +52,14 @@ public class FS20Message<T extends FS20Message<T>> extends Message<T> {
         sb.append(", command : ").append(command);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("housecode").value(housecode);
+        w.name("offset").value(offset);
+        w.name("command").value(command);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.hms;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Set;
 
 /**
@@ -42,6 +43,12 @@ public class Hms100RmMessage<T extends Hms100RmMessage<T>> extends HmsMessage<T>
         sb.append(", smoke : ").append(smoke);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("smoke").value(smoke);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
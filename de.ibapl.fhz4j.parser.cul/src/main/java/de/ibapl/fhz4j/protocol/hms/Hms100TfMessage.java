@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.hms;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Set;
 
 /**
@@ -43,6 +44,13 @@ public class Hms100TfMessage<T extends Hms100TfMessage<T>> extends HmsMessage<T>
         sb.append(", humidy : ").append(humidy);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("temp").value(temp);
+        w.name("humidy").value(humidy);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
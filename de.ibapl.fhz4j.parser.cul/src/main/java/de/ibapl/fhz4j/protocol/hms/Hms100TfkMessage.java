@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.hms;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import java.util.Set;
 
 /**
@@ -43,6 +44,12 @@ public class Hms100TfkMessage<T extends Hms100TfkMessage<T>> extends HmsMessage<
 
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("open").value(open);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
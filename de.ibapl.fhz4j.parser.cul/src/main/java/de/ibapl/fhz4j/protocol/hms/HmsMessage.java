@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.hms;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Message;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.EnumSet;
@@ -45,6 +46,12 @@ public abstract class HmsMessage<T extends HmsMessage<T>> extends Message<T> {
         this.deviceStatus = deviceStatus;
     }
 
+    @Override
+    protected void copyMutableFields() {
+        super.copyMutableFields();
+        deviceStatus = deviceStatus.isEmpty() ? EnumSet.noneOf(HmsDeviceStatus.class) : EnumSet.copyOf(deviceStatus);
+    }
+
     @Override
     protected void addToJsonString(StringBuilder sb) {
         super.addToJsonString(sb);
@@ -53,6 +60,14 @@ public abstract class HmsMessage<T extends HmsMessage<T>> extends Message<T> {
         sb.append(", hmsDeviceType : ").append(hmsDeviceType);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("housecode").value(housecode);
+        w.name("deviceStatus").enums(deviceStatus);
+        w.name("hmsDeviceType").value(hmsDeviceType);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
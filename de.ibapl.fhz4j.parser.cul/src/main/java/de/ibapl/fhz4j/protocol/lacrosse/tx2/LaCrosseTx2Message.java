@@ -21,6 +21,7 @@
  */
 package de.ibapl.fhz4j.protocol.lacrosse.tx2;
 
+import de.ibapl.fhz4j.api.JsonWriter;
 import de.ibapl.fhz4j.api.Message;
 import de.ibapl.fhz4j.api.Protocol;
 import java.util.Objects;
@@ -49,6 +50,14 @@ public class LaCrosseTx2Message<T extends LaCrosseTx2Message<T>> extends Message
         sb.append(", value : ").append(value);
     }
 
+    @Override
+    protected void writeJsonFields(JsonWriter w) {
+        super.writeJsonFields(w);
+        w.name("laCrosseTx2Property").value(laCrosseTx2Property);
+        w.name("address").value(address);
+        w.name("value").value(value);
+    }
+
     @Override
     protected int subClassHashCode(int hash) {
         hash = super.subClassHashCode(hash);
@@ -22,6 +22,7 @@
 package de.ibapl.fhz4j.writer.api;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  *
@@ -37,4 +38,27 @@ public interface Writer extends AutoCloseable {
 
     void putInt(int value) throws IOException;
 
+    default void putBytes(byte[] value) throws IOException {
+        putBytes(value, 0, value.length);
+    }
+
+    default void putBytes(byte[] value, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            putByte(value[i]);
+        }
+    }
+
+    /**
+     * Put the remaining bytes of value, the position of value is advanced to
+     * its limit.
+     *
+     * @param value
+     * @throws IOException
+     */
+    default void putBytes(ByteBuffer value) throws IOException {
+        while (value.hasRemaining()) {
+            putByte(value.get());
+        }
+    }
+
 }
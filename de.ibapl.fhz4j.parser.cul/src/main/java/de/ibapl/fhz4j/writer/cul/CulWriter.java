@@ -35,9 +35,11 @@ import de.ibapl.fhz4j.writer.fht.FhtWriter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -49,6 +51,21 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
 
     public static final int DEFAULT_BUFFER_SIZE = 64;
 
+    /**
+     * Give the CUL some time to process an init command.
+     */
+    private static final long INIT_DELAY_MILLIS = 100;
+
+    private final static byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final static ByteBuffer CRLF = template("\r\n");
+    private final static ByteBuffer EVO_HOME_DEBUG = template("vd\r\n");
+    private final static ByteBuffer GET_SLOW_RF_SETTINGS = template("X\r\n");
+    private final static ByteBuffer FHT_DEVICE_OUT_BUFFER_CONTENT = template("T02\r\n");
+    private final static ByteBuffer REMAINING_FHT_DEVICE_OUT_BUFFER_SIZE = template("T03\r\n");
+    private final static ByteBuffer GET_FIRMWARE_VERSION = template("V\r\n");
+    private final static ByteBuffer GET_HARDWARE_VERSION = template("VH\r\n");
+
     private final static Logger LOG = Logger.getLogger(LogUtils.FHZ_PARSER_CUL);
     private final WritableByteChannel wbc;
     private final ByteBuffer buffer;
@@ -72,48 +89,44 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
 
     @Override
     public void putByte(byte value) throws IOException {
-        putNibble((byte) (value >> 4));
-        putNibble(value);
+        buffer.put(HEX_DIGITS[(value >> 4) & 0x0F]);
+        buffer.put(HEX_DIGITS[value & 0x0F]);
     }
 
-    private void putNibble(byte value) {
-        final byte nibble = (byte) switch (value & 0x0F) {
-            case 0x00 ->
-                '0';
-            case 0x01 ->
-                '1';
-            case 0x02 ->
-                '2';
-            case 0x03 ->
-                '3';
-            case 0x04 ->
-                '4';
-            case 0x05 ->
-                '5';
-            case 0x06 ->
-                '6';
-            case 0x07 ->
-                '7';
-            case 0x08 ->
-                '8';
-            case 0x09 ->
-                '9';
-            case 0x0A ->
-                'A';
-            case 0x0B ->
-                'B';
-            case 0x0C ->
-                'C';
-            case 0x0D ->
-                'D';
-            case 0x0E ->
-                'E';
-            case 0x0F ->
-                'F';
-            default ->
-                throw new IllegalArgumentException("Not a Number: " + value);
-        };
-        buffer.put(nibble);
+    @Override
+    public void putBytes(byte[] value, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            final byte b = value[i];
+            buffer.put(HEX_DIGITS[(b >> 4) & 0x0F]);
+            buffer.put(HEX_DIGITS[b & 0x0F]);
+        }
+    }
+
+    @Override
+    public void putBytes(ByteBuffer value) throws IOException {
+        while (value.hasRemaining()) {
+            final byte b = value.get();
+            buffer.put(HEX_DIGITS[(b >> 4) & 0x0F]);
+            buffer.put(HEX_DIGITS[b & 0x0F]);
+        }
+    }
+
+    private void putNibble(int value) {
+        buffer.put(HEX_DIGITS[value & 0x0F]);
+    }
+
+    /**
+     * Copy the template with an absolute bulk put, so the shared template
+     * needs no duplicate and its position is never touched.
+     */
+    private void putTemplate(ByteBuffer template) {
+        final int pos = buffer.position();
+        buffer.put(pos, template, 0, template.limit());
+        buffer.position(pos + template.limit());
+    }
+
+    private static ByteBuffer template(String command) {
+        return ByteBuffer.wrap(command.getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
     }
 
     @Override
@@ -129,14 +142,15 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
             }
             LOG.info("INIT Evo Home");
             buffer.clear();
-            buffer.put("\r\n".getBytes());
+            putTemplate(CRLF);
             doWrite();
-            buffer.put("vd\r\n".getBytes());  //TODO vd is for debugging ....
+            putTemplate(EVO_HOME_DEBUG);  //TODO vd is for debugging ....
             doWrite();
-            Thread.sleep(100);
+            TimeUnit.MILLISECONDS.sleep(INIT_DELAY_MILLIS);
             LOG.info("INIT Evo Home End");
         } catch (InterruptedException ex) {
             LOG.log(Level.SEVERE, "EX during Evo Home init", ex);
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -175,34 +189,35 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
 
     public void writeCulRequests(Queue<CulRequest> requests) throws IOException {
         for (CulRequest request : requests) {
-            buffer.put(encodeCulRequest(request));
+            putCulRequest(request);
         }
         doWrite();
     }
 
     public void writeCulRequest(CulRequest request) throws IOException {
-        buffer.put(encodeCulRequest(request));
+        putCulRequest(request);
         doWrite();
     }
 
-    private byte[] encodeCulRequest(CulRequest request) {
+    private void putCulRequest(CulRequest request) throws IOException {
         if (request instanceof CulGetSlowRfSettingsRequest) {
-            return "X\r\n".getBytes();
-        } else if (request instanceof CulSetSlowRfSettingsRequest) {
-            final CulSetSlowRfSettingsRequest settingsRequest = (CulSetSlowRfSettingsRequest) request;
+            putTemplate(GET_SLOW_RF_SETTINGS);
+        } else if (request instanceof CulSetSlowRfSettingsRequest settingsRequest) {
             byte flags = 0;
             for (SlowRfFlag flag : settingsRequest) {
                 flags |= flag.value;
             }
-            return String.format("X%02X\r\n", flags).getBytes();
+            buffer.put((byte) 'X');
+            putByte(flags);
+            putTemplate(CRLF);
         } else if (request instanceof CulFhtDeviceOutBufferContentRequest) {
-            return "T02\r\n".getBytes();
+            putTemplate(FHT_DEVICE_OUT_BUFFER_CONTENT);
         } else if (request instanceof CulRemainingFhtDeviceOutBufferSizeRequest) {
-            return "T03\r\n".getBytes();
+            putTemplate(REMAINING_FHT_DEVICE_OUT_BUFFER_SIZE);
         } else if (request instanceof CulGetFirmwareVersionRequest) {
-            return "V\r\n".getBytes();
+            putTemplate(GET_FIRMWARE_VERSION);
         } else if (request instanceof CulGetHardwareVersionRequest) {
-            return "VH\r\n".getBytes();
+            putTemplate(GET_HARDWARE_VERSION);
         } else {
             throw new IllegalArgumentException("Unknown CulRequest: " + request);
         }
@@ -211,17 +226,17 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
     public void initFhz(short fhzOwnHousecode, Set<SlowRfFlag> initFlags) throws IOException {
         LOG.info("initFhz");
         try {
-            buffer.put("".getBytes());
             doWrite();
             LOG.info("INIT 2");
-            buffer.put(encodeCulRequest(new CulSetSlowRfSettingsRequest(initFlags)));
+            putCulRequest(new CulSetSlowRfSettingsRequest(initFlags));
             doWrite();
-            Thread.sleep(100);
+            TimeUnit.MILLISECONDS.sleep(INIT_DELAY_MILLIS);
             LOG.info("INIT Housecode");
             setOwnFhzHousecode(fhzOwnHousecode);
-            Thread.sleep(100);
+            TimeUnit.MILLISECONDS.sleep(INIT_DELAY_MILLIS);
         } catch (InterruptedException ex) {
             LOG.log(Level.SEVERE, "EX during init", ex);
+            Thread.currentThread().interrupt();
             throw new RuntimeException(ex);
         } finally {
             LOG.info("INIT End");
@@ -234,29 +249,28 @@ public class CulWriter implements FhtWriter, EvoHomeWriter {
         buffer.put((byte) '1');
         putByte((byte) (ownHousecode / 100));
         putByte((byte) (ownHousecode % 100));
-        buffer.put((byte) '\r');
-        buffer.put((byte) '\n');
+        putTemplate(CRLF);
         doWrite();
     }
 
     @Override
     public void putShort(short value) throws IOException {
-        putNibble((byte) (value >>> 12));
-        putNibble((byte) (value >>> 8));
-        putNibble((byte) (value >>> 4));
-        putNibble((byte) value);
+        putNibble(value >>> 12);
+        putNibble(value >>> 8);
+        putNibble(value >>> 4);
+        putNibble(value);
     }
 
     @Override
     public void putInt(int value) throws IOException {
-        putNibble((byte) (value >>> 28));
-        putNibble((byte) (value >>> 24));
-        putNibble((byte) (value >>> 20));
-        putNibble((byte) (value >>> 16));
-        putNibble((byte) (value >>> 12));
-        putNibble((byte) (value >>> 8));
-        putNibble((byte) (value >>> 4));
-        putNibble((byte) value);
+        putNibble(value >>> 28);
+        putNibble(value >>> 24);
+        putNibble(value >>> 20);
+        putNibble(value >>> 16);
+        putNibble(value >>> 12);
+        putNibble(value >>> 8);
+        putNibble(value >>> 4);
+        putNibble(value);
     }
 
 }
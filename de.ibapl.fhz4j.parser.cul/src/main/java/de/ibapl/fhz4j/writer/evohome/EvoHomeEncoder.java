@@ -27,7 +27,6 @@ import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
 import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
 import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
 import java.io.IOException;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -36,9 +35,6 @@ import java.time.LocalDateTime;
  */
 public class EvoHomeEncoder {
 
-    //Just cache this ...
-    private final static BigDecimal ONE_HUNDRED = new BigDecimal(100.0);
-
     private final EvoHomeWriter writer;
 
     public EvoHomeEncoder(EvoHomeWriter writer) {
@@ -100,64 +96,12 @@ public class EvoHomeEncoder {
     }
 
     private void writeEvoCommand(EvoHomeCommand command) throws IOException {
-        final short cmd = (short) switch (command) {
-            case ZONE_NAME ->
-                0x0004;
-            case ZONE_MANAGEMENT ->
-                0x0005;
-            case RELAY_HEAT_DEMAND ->
-                0x0008;
-            case RELAY_FAILSAVE ->
-                0x0009;
-            case ZONE_CONFIG ->
-                0x000A;
-            case ZONE_ACTUATORS ->
-                0x000C;
-            case T87RF_STARTUP_000E ->
-                0x000E;
-            case RF_SIGNAL_TEST ->
-                0x0016;
-            case LOCALIZATION ->
-                0x0100;
-            case T87RF_STARTUP_042F ->
-                0x042F;
-            case DEVICE_BATTERY_STATUS ->
-                0x1060;
-            case DEVICE_INFORMATION ->
-                0x10E0;
-            case BOILER_RELAY_INFORMATION ->
-                0x1100;
-            case WINDOW_SENSOR ->
-                0x12B0;
-            case SYSTEM_SYNCHRONIZATION ->
-                0x1F09;
-            case RF_BIND ->
-                0x1FC9;
-            case ZONE_SETPOINT ->
-                0x2309;
-            case ZONE_SETPOINT_OVERRIDE ->
-                0x2349;
-            case CONTROLLER_MODE ->
-                0x2E04;
-            case ZONE_TEMPERATURE ->
-                0x30C9;
-            case UNKNOWN_3120 ->
-                0x3120;
-            case SYSTEM_TIMESTAMP ->
-                0x313F;
-            case ZONE_HEAT_DEMAND ->
-                0x3150;
-            case ACTUATOR_SYNC ->
-                0x3B00;
-            default ->
-                throw new IllegalArgumentException("Cant send evo home command: " + command);
-        };
-        writer.putShort(cmd);
+        writer.putShort((short) command.getCode());
     }
 
     private void writeZoneTemperature(ZoneTemperature temperature) throws IOException {
         writer.putByte(temperature.zone);
-        writer.putShort(temperature.temperature.multiply(ONE_HUNDRED).shortValue());
+        writer.putShort(temperature.centiDegrees);
     }
 
     public void writeEvoHomeZoneSetpointUntil(DeviceId deviceId, ZoneTemperature temperature, LocalDateTime localDateTime) throws IOException {
@@ -44,135 +44,7 @@ public class FhtEncoder {
     }
 
     private void writeFhtProperty(FhtProperty fhtProperty, byte value) throws IOException {
-        final byte property = (byte) switch (fhtProperty) {
-            case VALVE ->
-                0x00;
-            case OFFSET_VALVE_1 ->
-                0x01;
-            case OFFSET_VALVE_2 ->
-                0x02;
-            case OFFSET_VALVE_3 ->
-                0x03;
-            case OFFSET_VALVE_4 ->
-                0x04;
-            case OFFSET_VALVE_5 ->
-                0x05;
-            case OFFSET_VALVE_6 ->
-                0x06;
-            case OFFSET_VALVE_7 ->
-                0x07;
-            case OFFSET_VALVE_8 ->
-                0x08;
-            case MON_FROM_1 ->
-                0x14;
-            case MON_TO_1 ->
-                0x15;
-            case MON_FROM_2 ->
-                0x16;
-            case MON_TO_2 ->
-                0x17;
-            case TUE_FROM_1 ->
-                0x18;
-            case TUE_TO_1 ->
-                0x19;
-            case TUE_FROM_2 ->
-                0x1a;
-            case TUE_TO_2 ->
-                0x1b;
-            case WED_FROM_1 ->
-                0x1c;
-            case WED_TO_1 ->
-                0x1d;
-            case WED_FROM_2 ->
-                0x1e;
-            case WED_TO_2 ->
-                0x1f;
-            case THU_FROM_1 ->
-                0x20;
-            case THU_TO_1 ->
-                0x21;
-            case THU_FROM_2 ->
-                0x22;
-            case THU_TO_2 ->
-                0x23;
-            case FRI_FROM_1 ->
-                0x24;
-            case FRI_TO_1 ->
-                0x25;
-            case FRI_FROM_2 ->
-                0x26;
-            case FRI_TO_2 ->
-                0x27;
-            case SAT_FROM_1 ->
-                0x28;
-            case SAT_TO_1 ->
-                0x29;
-            case SAT_FROM_2 ->
-                0x2a;
-            case SAT_TO_2 ->
-                0x2b;
-            case SUN_FROM_1 ->
-                0x2c;
-            case SUN_TO_1 ->
-                0x2d;
-            case SUN_FROM_2 ->
-                0x2e;
-            case SUN_TO_2 ->
-                0x2f;
-            case MODE ->
-                0x3e;
-            case HOLIDAY_1 ->
-                0x3f;
-            case HOLIDAY_2 ->
-                0x40;
-            case DESIRED_TEMP ->
-                0x41;
-            case MEASURED_LOW ->
-                0x42;
-            case MEASURED_HIGH ->
-                0x43;
-            case WARNINGS ->
-                0x44;
-            case MANU_TEMP ->
-                0x45;
-            case ACK ->
-                0x4b;
-            case CAN_CMIT ->
-                0x53;
-            case CAN_RCV ->
-                0x54;
-            case YEAR ->
-                0x60;
-            case MONTH ->
-                0x61;
-            case DAY_OF_MONTH ->
-                0x62;
-            case HOUR ->
-                0x63;
-            case MINUTE ->
-                0x64;
-            case REPORT_1 ->
-                0x65;
-            case REPORT_2 ->
-                0x66;
-            case ACK_2 ->
-                0x69;
-            case START_XMIT ->
-                0x7d;
-            case END_XMIT ->
-                0x7e;
-            case DAY_TEMP ->
-                0x82;
-            case NIGHT_TEMP ->
-                0x84;
-            case LOW_TEMP_OFFSET ->
-                0x85;
-            case WINDOW_OPEN_TEMP ->
-                0x8a;
-            default ->
-                throw new UnsupportedOperationException("Not supported yet.");
-        };
-        writer.putByte(property);
+        writer.putByte(FhtProperty.toCode(fhtProperty));
         writer.putByte(value);
     }
 
@@ -183,6 +55,17 @@ public class FhtEncoder {
         finishFhtMessage();
     }
 
+    /**
+     * Write the properties from offset to offset + length in one frame.
+     */
+    public void writeFhtProperties(short housecode, FhtProperty[] properties, byte[] values, int offset, int length) throws IOException {
+        startFhtMessage(housecode);
+        for (int i = offset; i < offset + length; i++) {
+            writeFhtProperty(properties[i], values[i]);
+        }
+        finishFhtMessage();
+    }
+
     private void startFhtMessage(short housecode) throws IOException {
         writer.startFhtMessage();
         writer.putByte((byte) (housecode / 100));
@@ -250,93 +133,60 @@ public class FhtEncoder {
 
     public void writeFhtCycle(short housecode, DayOfWeek dayOfWeek, LocalTime from1, LocalTime to1, LocalTime from2,
             LocalTime to2) throws IOException {
-        startFhtMessage(housecode);
-        FhtProperty from1Property, to1Property, from2Property, to2Property;
-        byte from1Value, to1Value, from2Value, to2Value;
+        writeFhtProperties(housecode, cycleProperties(dayOfWeek), cycleValues(from1, to1, from2, to2), 0, 4);
+    }
+
+    /**
+     * @return from1, to1, from2 and to2 of the day.
+     */
+    public static FhtProperty[] cycleProperties(DayOfWeek dayOfWeek) {
+        return switch (dayOfWeek) {
+            case MONDAY ->
+                new FhtProperty[]{FhtProperty.MON_FROM_1, FhtProperty.MON_TO_1, FhtProperty.MON_FROM_2, FhtProperty.MON_TO_2};
+            case TUESDAY ->
+                new FhtProperty[]{FhtProperty.TUE_FROM_1, FhtProperty.TUE_TO_1, FhtProperty.TUE_FROM_2, FhtProperty.TUE_TO_2};
+            case WEDNESDAY ->
+                new FhtProperty[]{FhtProperty.WED_FROM_1, FhtProperty.WED_TO_1, FhtProperty.WED_FROM_2, FhtProperty.WED_TO_2};
+            case THURSDAY ->
+                new FhtProperty[]{FhtProperty.THU_FROM_1, FhtProperty.THU_TO_1, FhtProperty.THU_FROM_2, FhtProperty.THU_TO_2};
+            case FRIDAY ->
+                new FhtProperty[]{FhtProperty.FRI_FROM_1, FhtProperty.FRI_TO_1, FhtProperty.FRI_FROM_2, FhtProperty.FRI_TO_2};
+            case SATURDAY ->
+                new FhtProperty[]{FhtProperty.SAT_FROM_1, FhtProperty.SAT_TO_1, FhtProperty.SAT_FROM_2, FhtProperty.SAT_TO_2};
+            case SUNDAY ->
+                new FhtProperty[]{FhtProperty.SUN_FROM_1, FhtProperty.SUN_TO_1, FhtProperty.SUN_FROM_2, FhtProperty.SUN_TO_2};
+            default ->
+                throw new IllegalArgumentException("Unknown dayOfweek: " + dayOfWeek);
+        };
+    }
 
-        if (from1 == null) {
-            if (to1 != null) {
-                throw new IllegalArgumentException("Both from1 and to1 must be null or set!");
-            } else {
-                from1Value = (byte) 0x90; // this is 24:00 or 24 * 6 = 144 the meaning is not set ....
-                to1Value = (byte) 0x90;
-            }
-        } else {
-            from1Value = (byte) (from1.getHour() * 6 + from1.getMinute() / 10);
-            to1Value = (byte) (to1.getHour() * 6 + to1.getMinute() / 10);
+    public static byte[] cycleValues(LocalTime from1, LocalTime to1, LocalTime from2, LocalTime to2) {
+        if ((from1 == null) != (to1 == null)) {
+            throw new IllegalArgumentException("Both from1 and to1 must be null or set!");
         }
+        if ((from2 == null) != (to2 == null)) {
+            throw new IllegalArgumentException("Both from2 and to2 must be null or set!");
+        }
+        return new byte[]{toTimeValue(from1), toTimeValue(to1), toTimeValue(from2), toTimeValue(to2)};
+    }
 
-        if (from2 == null) {
-            if (to2 != null) {
-                throw new IllegalArgumentException("Both from2 and to2 must be null or set!");
-            } else {
-                from2Value = (byte) 0x90; // this is 24:00 or 24 * 6 = 144 the meaning is not set ....
-                to2Value = (byte) 0x90;
-            }
+    public static byte toTimeValue(LocalTime value) {
+        if (value == null) {
+            return (byte) 0x90; // this is 24:00 or 24 * 6 = 144 the meaning is not set ....
         } else {
-            from2Value = (byte) (from2.getHour() * 6 + from2.getMinute() / 10);
-            to2Value = (byte) (to2.getHour() * 6 + to2.getMinute() / 10);
+            return (byte) (value.getHour() * 6 + value.getMinute() / 10);
         }
+    }
 
-        switch (dayOfWeek) {
-            case MONDAY -> {
-                from1Property = FhtProperty.MON_FROM_1;
-                to1Property = FhtProperty.MON_TO_1;
-                from2Property = FhtProperty.MON_FROM_2;
-                to2Property = FhtProperty.MON_TO_2;
-            }
-            case TUESDAY -> {
-                from1Property = FhtProperty.TUE_FROM_1;
-                to1Property = FhtProperty.TUE_TO_1;
-                from2Property = FhtProperty.TUE_FROM_2;
-                to2Property = FhtProperty.TUE_TO_2;
-            }
-            case WEDNESDAY -> {
-                from1Property = FhtProperty.WED_FROM_1;
-                to1Property = FhtProperty.WED_TO_1;
-                from2Property = FhtProperty.WED_FROM_2;
-                to2Property = FhtProperty.WED_TO_2;
-            }
-            case THURSDAY -> {
-                from1Property = FhtProperty.THU_FROM_1;
-                to1Property = FhtProperty.THU_TO_1;
-                from2Property = FhtProperty.THU_FROM_2;
-                to2Property = FhtProperty.THU_TO_2;
-            }
-            case FRIDAY -> {
-                from1Property = FhtProperty.FRI_FROM_1;
-                to1Property = FhtProperty.FRI_TO_1;
-                from2Property = FhtProperty.FRI_FROM_2;
-                to2Property = FhtProperty.FRI_TO_2;
-            }
-            case SATURDAY -> {
-                from1Property = FhtProperty.SAT_FROM_1;
-                to1Property = FhtProperty.SAT_TO_1;
-                from2Property = FhtProperty.SAT_FROM_2;
-                to2Property = FhtProperty.SAT_TO_2;
-            }
-            case SUNDAY -> {
-                from1Property = FhtProperty.SUN_FROM_1;
-                to1Property = FhtProperty.SUN_TO_1;
-                from2Property = FhtProperty.SUN_FROM_2;
-                to2Property = FhtProperty.SUN_TO_2;
-            }
-            default ->
-                throw new IllegalArgumentException("Unknown dayOfweek: " + dayOfWeek);
-
-        }
-        writeFhtProperty(from1Property, from1Value);
-        writeFhtProperty(to1Property, to1Value);
-        writeFhtProperty(from2Property, from2Value);
-        writeFhtProperty(to2Property, to2Value);
-        finishFhtMessage();
+    public static byte toTempValue(float value) {
+        return (byte) (value * 2);
     }
 
     public void writeFht(short housecode, FhtProperty fhtProperty, float value) throws IOException {
         startFhtMessage(housecode);
         switch (fhtProperty) {
             case DAY_TEMP, NIGHT_TEMP, DESIRED_TEMP, LOW_TEMP_OFFSET, WINDOW_OPEN_TEMP, MANU_TEMP ->
-                writeFhtProperty(fhtProperty, (byte) (value * 2));
+                writeFhtProperty(fhtProperty, toTempValue(value));
             default ->
                 throw new IllegalArgumentException("Wrong fht property for temp: " + fhtProperty);
         }
@@ -372,13 +222,8 @@ public class FhtEncoder {
     public void writeFht(short housecode, FhtProperty fhtProperty, LocalTime value) throws IOException {
         startFhtMessage(housecode);
         switch (fhtProperty) {
-            case MON_FROM_1, MON_TO_1, MON_FROM_2, MON_TO_2, TUE_FROM_1, TUE_TO_1, TUE_FROM_2, TUE_TO_2, WED_FROM_1, WED_TO_1, WED_FROM_2, WED_TO_2, THU_FROM_1, THU_TO_1, THU_FROM_2, THU_TO_2, FRI_FROM_1, FRI_TO_1, FRI_FROM_2, FRI_TO_2, SAT_FROM_1, SAT_TO_1, SAT_FROM_2, SAT_TO_2, SUN_FROM_1, SUN_TO_1, SUN_FROM_2, SUN_TO_2 -> {
-                if (value == null) {
-                    writeFhtProperty(fhtProperty, (byte) 0x90); // this is 24:00 or 24 * 6 = 144 the meaning is not set ....
-                } else {
-                    writeFhtProperty(fhtProperty, (byte) (value.getHour() * 6 + value.getMinute() / 10));
-                }
-            }
+            case MON_FROM_1, MON_TO_1, MON_FROM_2, MON_TO_2, TUE_FROM_1, TUE_TO_1, TUE_FROM_2, TUE_TO_2, WED_FROM_1, WED_TO_1, WED_FROM_2, WED_TO_2, THU_FROM_1, THU_TO_1, THU_FROM_2, THU_TO_2, FRI_FROM_1, FRI_TO_1, FRI_FROM_2, FRI_TO_2, SAT_FROM_1, SAT_TO_1, SAT_FROM_2, SAT_TO_2, SUN_FROM_1, SUN_TO_1, SUN_FROM_2, SUN_TO_2 ->
+                writeFhtProperty(fhtProperty, toTimeValue(value));
             default ->
                 throw new IllegalArgumentException("Wrong fht property for temp: " + fhtProperty);
         }
@@ -25,6 +25,7 @@ module de.ibapl.fhz4j.parser.cul {
     requires transitive de.ibapl.spsw.api;
 
     exports de.ibapl.fhz4j.api;
+    exports de.ibapl.fhz4j.codec;
     exports de.ibapl.fhz4j.cul;
 //	exports de.ibapl.fhz4j.parser.cul;
     exports de.ibapl.fhz4j.protocol.em;
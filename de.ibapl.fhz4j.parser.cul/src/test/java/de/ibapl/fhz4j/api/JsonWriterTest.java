@@ -0,0 +1,101 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+import de.ibapl.fhz4j.cul.CulGetSlowRfSettingsResponse;
+import de.ibapl.fhz4j.cul.SlowRfFlag;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fht.FhtTempMessage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class JsonWriterTest {
+
+    @Test
+    public void values() {
+        final JsonWriter w = new JsonWriter();
+        w.beginObject();
+        w.name("long").value(Long.MIN_VALUE);
+        w.name("int").value(-42);
+        w.name("float").value(21.5f);
+        w.name("nan").value(Float.NaN);
+        w.name("fixed").value(-5, 2);
+        w.name("string").value("a\"b\\c\nä€");
+        w.name("bytes").value(new byte[]{0x0a, (byte) 0xff});
+        w.name("time").value(LocalTime.of(6, 30));
+        w.name("ts").value(LocalDateTime.of(2024, 2, 29, 23, 5, 7));
+        w.name("duration").value(Duration.ofMinutes(2));
+        w.name("array").beginArray().value(true).nullValue().beginObject().endObject().endArray();
+        w.endObject();
+        assertEquals("{\"long\":-9223372036854775808,\"int\":-42,\"float\":21.5,\"nan\":null,\"fixed\":-0.05,"
+                + "\"string\":\"a\\\"b\\\\c\\nä€\",\"bytes\":\"0aff\",\"time\":\"06:30:00\",\"ts\":\"2024-02-29T23:05:07\","
+                + "\"duration\":120,\"array\":[true,null,{}]}", w.toString());
+    }
+
+    @Test
+    public void messages() {
+        final JsonWriter w = new JsonWriter();
+        new FhtTempMessage((short) 302, FhtProperty.DESIRED_TEMP, (byte) 0x69, false, true, 21.5f).writeJson(w);
+        w.newLine();
+        new ZoneTemperature((byte) 1, (short) 2150).writeJson(w);
+        w.newLine();
+        final CulGetSlowRfSettingsResponse response = new CulGetSlowRfSettingsResponse();
+        response.milliTimeToSend = 100;
+        response.slowRfFlags.add(SlowRfFlag.REPORT_PACKAGE);
+        response.writeJson(w);
+        w.newLine();
+        final ByteBuffer dst = ByteBuffer.allocate(1024);
+        w.writeTo(dst);
+        assertEquals(0, w.size());
+        assertEquals("{\"protocol\":\"FHT\",\"housecode\":302,\"command\":\"DESIRED_TEMP\",\"description\":105,\"fromFht_8b\":false,\"dataRegister\":true,\"temp\":21.5}\n"
+                + "{\"zone\":1,\"temperature\":21.50}\n"
+                + "{\"protocol\":\"CUL\",\"milliTimeToSend\":100,\"slowRfFlags\":[\"REPORT_PACKAGE\"]}\n",
+                new String(dst.array(), 0, dst.position(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void flushToStream() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JsonWriter w = new JsonWriter(out, 64);
+        w.beginArray();
+        for (int i = 0; i < 100; i++) {
+            w.value("0123456789");
+        }
+        w.endArray();
+        w.flush();
+        assertEquals(2 + 100 * 13 - 1, out.size());
+        assertThrows(IllegalStateException.class, w::endArray);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.api;
+
+import de.ibapl.fhz4j.cul.CulGetSlowRfSettingsResponse;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class ResponseFutureTest {
+
+    @Test
+    public void getWithTimeout() throws Exception {
+        final FhzHandler.ResponseFuture<Response> instance = new FhzHandler.ResponseFuture<>();
+        assertFalse(instance.isDone());
+        assertNull(instance.get(10, TimeUnit.MILLISECONDS));
+        final CulGetSlowRfSettingsResponse response = new CulGetSlowRfSettingsResponse();
+        response.milliTimeToSend = 100;
+        final Thread t = new Thread(() -> instance.accept(response));
+        t.start();
+        assertSame(response, instance.get());
+        assertTrue(instance.isDone());
+        assertSame(response, instance.get(1, TimeUnit.NANOSECONDS));
+        t.join();
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.codec;
+
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureReason;
+import de.ibapl.fhz4j.parser.api.ParserListener;
+import de.ibapl.fhz4j.parser.cul.DataSource;
+import de.ibapl.fhz4j.parser.evohome.EvoHomeParser;
+import de.ibapl.fhz4j.protocol.em.EmDeviceType;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeLazyMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfValue;
+import de.ibapl.fhz4j.protocol.fht.Fht80bMode;
+import de.ibapl.fhz4j.protocol.fht.Fht80bRawMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80bWarning;
+import de.ibapl.fhz4j.protocol.fht.FhtDateTimeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtModeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fht.FhtTempMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtTimeMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtTimesMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtValveMode;
+import de.ibapl.fhz4j.protocol.fht.FhtValvePosMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtWarningMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20CommandValue;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.Hms100TfMessage;
+import de.ibapl.fhz4j.protocol.hms.HmsDeviceStatus;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Property;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class MessageCodecTest implements ParserListener<EvoHomeMessage> {
+
+    private final EvoHomeParser parser = new EvoHomeParser(this);
+    private EvoHomeMessage evoHomeMessage;
+    private final ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    private Message<?> roundTrip(Message<?> message) {
+        buffer.clear();
+        MessageCodec.encode(message, buffer);
+        buffer.flip();
+        final Message<?> result = MessageCodec.decode(buffer);
+        assertFalse(buffer.hasRemaining());
+        return result;
+    }
+
+    private void assertRoundTrip(Message<?> message) {
+        final Message<?> result = roundTrip(message);
+        assertEquals(message, result);
+        assertEquals(message.toString(), result.toString());
+    }
+
+    private EvoHomeMessage decode(String s) {
+        evoHomeMessage = null;
+        parser.init();
+        new DataSource(s).iterate(parser);
+        return evoHomeMessage;
+    }
+
+    @Test
+    public void fhtMessages() {
+        final FhtTempMessage temp = new FhtTempMessage((short) 302, FhtProperty.DESIRED_TEMP, (byte) 0x69, false, true, 21.5f);
+        temp.receivedMillis = 1_700_000_000_000L;
+        final Message<?> result = roundTrip(temp);
+        assertEquals(temp, result);
+        assertEquals(temp.receivedMillis, result.receivedMillis);
+        assertRoundTrip(new FhtTempMessage((short) 302, FhtProperty.MEASURED_TEMP, (byte) 0x69, true, true, 0.1f * 223));
+        assertRoundTrip(new FhtValvePosMessage((short) 302, FhtProperty.VALVE, (byte) 0x26, true, FhtValveMode.POSITION, 0.392156863f * 77, true));
+        assertRoundTrip(new FhtWarningMessage((short) 302, (byte) 0x69, true, false, EnumSet.of(Fht80bWarning.BATT_LOW)));
+        assertRoundTrip(new FhtModeMessage((short) 302, (byte) 0x69, true, false, Fht80bMode.PARTY));
+        assertRoundTrip(new FhtTimeMessage((short) 302, FhtProperty.MON_FROM_1, (byte) 0x69, true, false, (byte) 24, (byte) 0));
+        assertRoundTrip(new FhtTimeMessage((short) 302, FhtProperty.MON_FROM_1, (byte) 0x69, true, false, (byte) 6, (byte) 30));
+        assertRoundTrip(new FhtTimesMessage((short) 302, FhtProperty.MON_FROM_1, (byte) 0x69, true, false, LocalTime.of(6, 0), LocalTime.of(8, 0), null, null));
+        assertRoundTrip(new FhtDateTimeMessage((short) 302, FhtProperty.YEAR, (byte) 0x69, true, true, LocalDateTime.of(2024, 2, 29, 23, 5)));
+        assertRoundTrip(new Fht80bRawMessage((short) 103, FhtProperty.YEAR, (byte) 0, false, false, (byte) 0xfe));
+        assertRoundTrip(new Fht80TfMessage(0x12a6b5, Fht80TfValue.WINDOW_INTERNAL_OPEN, true));
+    }
+
+    @Test
+    public void otherMessages() {
+        final Hms100TfMessage hms = new Hms100TfMessage((short) 0x1234, EnumSet.of(HmsDeviceStatus.BATT_LOW));
+        hms.temp = 0.1f * -123;
+        hms.humidy = 0.1f * 456;
+        assertRoundTrip(hms);
+
+        final EmMessage em = new EmMessage(EmDeviceType.EM_1000_S);
+        em.address = 2;
+        em.counter = 255;
+        em.valueCummulated = 123456;
+        em.value5Min = 12;
+        em.value5MinPeak = 42;
+        assertRoundTrip(em);
+
+        assertRoundTrip(new FS20Message((short) 0x1234, FS20CommandValue.TOGGLE, (byte) 2));
+
+        final LaCrosseTx2Message laCrosse = new LaCrosseTx2Message(LaCrosseTx2Property.TEMP);
+        laCrosse.address = 0x12;
+        laCrosse.value = 0.1f * (215 - 500);
+        assertRoundTrip(laCrosse);
+    }
+
+    @Test
+    public void evoHomeMessages() {
+        for (String frame : new String[]{
+            "0C 131589 067AEC 0004 02 01 00",
+            "18 067AEC 067AEC 0004 16 00 00 576F686E7A696D6D657231000000000000000000",
+            "18 895E5D 895E5D 000C 12 00 0A7FFFFFFF 00 0F7FFFFFFF 00 107FFFFFFF",
+            "18 895E5D 895E5D 000E 03 000014",
+            "18 895E5D 895E5D 042F 08 000000000B000B1E",
+            "18 114977 067AEC 1060 03 00 64 01",
+            "18 114977 114977 10E0 26 000002FF0412FFFFFFFF 0D0207E2 0D0307DE 48523932205261646961746F72204374726C2E00",
+            "18 067AEC 067AEC 1100 08 FC180400007FFF01",
+            "18 067AEC 067AEC 1FC9 12 01 2309 067AEC 01 30C9 067AEC 01 1FC9 067AEC",
+            "18 067AEC 067AEC 2309 06 00 02EE 01 0640",
+            "18 067AEC 067AEC 2349 0D 00 09C4 04 FFFFFF 0006 120707E3",
+            "18 067AEC 067AEC 2E04 08 02 FFFF FFFFFFFF 00",
+            "18 067AEC 067AEC 30C9 24 00 0AB4 01 0975 02 7FFF 03 7FFF 04 7FFF 05 7FFF 06 7FFF 07 7FFF 08 7FFF 09 7FFF 0A 7FFF 0B 7FFF",
+            "18 895E5D 895E5D 3120 07 00 70B0 000000 FF",
+            "18 114977 067AEC 3150 02 00BC",
+            "18 067AEC 067AEC 3B00 02 FC C8"}) {
+            final EvoHomeMessage message = decode(frame);
+            final Message<?> result = roundTrip(message);
+            assertEquals(message, result, frame);
+            assertEquals(message.toString(), result.toString(), frame);
+        }
+    }
+
+    @Test
+    public void lazyMessageIsStoredDecoded() {
+        parser.setLazyPayloadDecoding(true);
+        final EvoHomeLazyMessage lazyMessage = (EvoHomeLazyMessage) decode("0C 131589 067AEC 0004 02 01 00");
+        assertTrue(MessageCodec.canEncode(lazyMessage));
+        assertEquals(lazyMessage.getPayloadMessage(), roundTrip(lazyMessage));
+    }
+
+    @Test
+    public void compact() {
+        buffer.clear();
+        MessageCodec.encode(new FhtTempMessage((short) 302, FhtProperty.DESIRED_TEMP, (byte) 0x69, false, true, 21.5f), buffer);
+        // version, tag, receivedMillis, housecode(2), command, description, flags, temp(2)
+        assertEquals(10, buffer.position());
+        assertEquals(MessageCodec.FORMAT_VERSION, buffer.get(0));
+        // the command code + 1
+        assertEquals(0x41 + 1, buffer.get(5));
+    }
+
+    @Test
+    public void floats() {
+        buffer.clear();
+        final float[] values = {0f, -0f, 21.5f, 0.25f * -3, 0.1f * 223, 0.392156863f * 77, Float.NaN, Float.MAX_VALUE, Float.NEGATIVE_INFINITY};
+        for (float value : values) {
+            BinaryFields.putFloat(buffer, value);
+        }
+        buffer.flip();
+        for (float value : values) {
+            assertEquals(Float.floatToIntBits(value), Float.floatToIntBits(BinaryFields.getFloat(buffer)));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void unknownTag() {
+        final ParseFailure pf = assertThrows(ParseFailure.class, () -> MessageCodec.decode(ByteBuffer.wrap(new byte[]{MessageCodec.FORMAT_VERSION, (byte) 0xff, 0})));
+        assertEquals(ParseFailureReason.UNKNOWN_MESSAGE_TYPE, pf.getReason());
+        assertEquals(0xff, pf.getOffendingByte());
+    }
+
+    @Test
+    public void unknownVersion() {
+        buffer.clear();
+        MessageCodec.encode(new Fht80TfMessage(0x12a6b5, Fht80TfValue.WINDOW_INTERNAL_OPEN, true), buffer);
+        buffer.flip();
+        buffer.put(0, (byte) (MessageCodec.FORMAT_VERSION + 1));
+        final ParseFailure pf = assertThrows(ParseFailure.class, () -> MessageCodec.decode(buffer));
+        assertEquals(ParseFailureReason.UNKNOWN_VALUE, pf.getReason());
+        assertEquals(MessageCodec.FORMAT_VERSION + 1, pf.getOffendingByte());
+    }
+
+    @Test
+    public void syntheticFhtProperties() {
+        assertRoundTrip(new FhtTempMessage((short) 302, FhtProperty.MEASURED_TEMP, (byte) 0x69, true, true, 0.1f * 223));
+        assertRoundTrip(new FhtTimesMessage((short) 302, FhtProperty.SUNDAYDAY_TIMES, (byte) 0x69, true, false, LocalTime.of(6, 0), LocalTime.of(8, 0), null, null));
+        assertRoundTrip(new Fht80bRawMessage((short) 103, FhtProperty.UNKNOWN_0XFF, (byte) 0, false, false, (byte) 0xfe));
+    }
+
+    @Override
+    public void success(EvoHomeMessage evoHomeMessage) {
+        this.evoHomeMessage = evoHomeMessage;
+    }
+
+    @Override
+    public void successPartial(EvoHomeMessage fhzMessage) {
+        throw new RuntimeException("No partial message expected.");
+    }
+
+    @Override
+    public void successPartialAssembled(EvoHomeMessage fhzMessage) {
+        throw new RuntimeException("No partial message expected.");
+    }
+
+    @Override
+    public void fail(Throwable t) {
+        throw new RuntimeException(t);
+    }
+
+}
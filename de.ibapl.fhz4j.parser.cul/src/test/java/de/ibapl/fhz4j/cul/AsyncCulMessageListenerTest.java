@@ -0,0 +1,191 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.LatencyHistogram;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.parser.cul.CulParser;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class AsyncCulMessageListenerTest {
+
+    /**
+     * Records the signal strengths, blocks on the first one until released.
+     */
+    private static class BlockingListener implements CulMessageListener {
+
+        final List<Float> received = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        String helpMessage;
+
+        @Override
+        public void signalStrength(float signalStrength) {
+            threads.add(Thread.currentThread());
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ie) {
+                    throw new RuntimeException(ie);
+                }
+            }
+            received.add(signalStrength);
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+            this.helpMessage = helpMessages;
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+        }
+
+        @Override
+        public void failed(Throwable t) {
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        }
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        }
+
+    }
+
+    private BlockingListener fillWhileBlocked(AsyncCulMessageListener.OverflowPolicy overflowPolicy) throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        final AsyncCulMessageListener instance = new AsyncCulMessageListener(listener, 4, overflowPolicy);
+        assertEquals(4, instance.getCapacity());
+        instance.signalStrength(0);
+        assertTrue(listener.entered.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i <= 7; i++) {
+            instance.signalStrength(i);
+        }
+        assertEquals(4, instance.getPendingCount());
+        assertEquals(3, instance.getDroppedCount());
+        listener.release.countDown();
+        instance.close();
+        assertEquals(0, instance.getPendingCount());
+        assertTrue(listener.threads.stream().noneMatch(t -> t == Thread.currentThread()));
+        return listener;
+    }
+
+    @Test
+    public void dropNewest() throws Exception {
+        final BlockingListener listener = fillWhileBlocked(AsyncCulMessageListener.OverflowPolicy.DROP_NEWEST);
+        assertEquals(List.of(0f, 1f, 2f, 3f, 4f), listener.received);
+    }
+
+    @Test
+    public void dropOldest() throws Exception {
+        final BlockingListener listener = fillWhileBlocked(AsyncCulMessageListener.OverflowPolicy.DROP_OLDEST);
+        assertEquals(List.of(0f, 4f, 5f, 6f, 7f), listener.received);
+    }
+
+    @Test
+    public void block() throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        listener.entered.countDown();
+        final AsyncCulMessageListener instance = new AsyncCulMessageListener(listener, 2, AsyncCulMessageListener.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 1000; i++) {
+            instance.signalStrength(i);
+        }
+        instance.helpParsed("help");
+        instance.close();
+        assertEquals(0, instance.getDroppedCount());
+        assertEquals(1000, listener.received.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Float.valueOf(i), listener.received.get(i));
+        }
+        assertEquals("help", listener.helpMessage);
+    }
+
+    @Test
+    public void recordLatencyOncePerFrame() throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        listener.entered.countDown();
+        listener.release.countDown();
+        final AsyncCulMessageListener instance = new AsyncCulMessageListener(listener);
+        final LatencyHistogram histogram = new LatencyHistogram();
+        instance.setLatencyHistogram(histogram);
+        final CulParser<?> parser = new CulParser<>(instance);
+        // the last frame yields a partial and an assembled message
+        for (char c : "T0401606912EF\r\nT0401616901EF\r\nT0401626911EF\r\nT040163690BEE\r\nT0401646930EF\r\n".toCharArray()) {
+            parser.parse(c);
+        }
+        instance.close();
+        assertEquals(5, histogram.getCount(Protocol.FHT));
+    }
+
+}
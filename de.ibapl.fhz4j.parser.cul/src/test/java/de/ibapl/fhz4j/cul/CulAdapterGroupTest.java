@@ -0,0 +1,190 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.parser.cul.CulParser;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fs20.FS20CommandValue;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulAdapterGroupTest {
+
+    private static class RecordingListener implements CulMessageListener {
+
+        final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch messages;
+
+        RecordingListener(int count) {
+            messages = new CountDownLatch(count);
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+            events.add(signalStrength);
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+            events.add(fs20Msg);
+            messages.countDown();
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            events.add(culMessage);
+        }
+
+        @Override
+        public void failed(Throwable t) {
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        }
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+            events.add(fhtMessage);
+            messages.countDown();
+        }
+
+        @Override
+        public void fhtPartialDataParsed(FhtMessage fhtMessage) {
+            events.add(fhtMessage);
+            messages.countDown();
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        }
+
+    }
+
+    private static CulParser<?> createParser(CulAdapterGroup.StickListener stick) {
+        final CulParser<?> result = new CulParser<>(stick);
+        result.setFrameDeduplicator(stick.frameDeduplicator);
+        return result;
+    }
+
+    private static void parse(CulParser<?> parser, String data) {
+        parser.parse(ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    public void dedupPassesFirstCopy() throws Exception {
+        final RecordingListener listener = new RecordingListener(2);
+        final CulAdapterGroup instance = new CulAdapterGroup(listener, 10000, null);
+        final CulParser<?> stick1 = createParser(instance.createStickListener("stick1"));
+        final CulParser<?> stick2 = createParser(instance.createStickListener("stick2"));
+
+        parse(stick1, "FC04B01002B\r\n");
+        // the same frame with another signal strength
+        parse(stick2, "FC04B01003B\r\n");
+        parse(stick2, "FC04B01123B\r\n");
+
+        assertTrue(listener.messages.await(10, TimeUnit.SECONDS));
+        instance.close();
+
+        assertEquals(4, listener.events.size());
+        assertEquals(0x2b / 2f - 74, listener.events.get(0));
+        assertEquals(FS20CommandValue.OFF, ((FS20Message) listener.events.get(1)).command);
+        assertEquals(0x3b / 2f - 74, listener.events.get(2));
+        assertEquals(FS20CommandValue.TOGGLE, ((FS20Message) listener.events.get(3)).command);
+        assertEquals(1, instance.getSuppressedCount());
+
+        final List<CulAdapterGroup.StickStatistics> statistics = instance.getStatistics();
+        assertEquals("stick1", statistics.get(0).getName());
+        assertEquals(1, statistics.get(0).getReceived());
+        assertEquals(0, statistics.get(0).getDuplicates());
+        assertEquals(1, statistics.get(0).getDelivered());
+        assertEquals(2, statistics.get(1).getReceived());
+        assertEquals(1, statistics.get(1).getDuplicates());
+        assertEquals(1, statistics.get(1).getDelivered());
+    }
+
+    @Test
+    public void signalStrengthOfEachMessageOfAFrame() throws Exception {
+        final RecordingListener listener = new RecordingListener(3);
+        final CulAdapterGroup instance = new CulAdapterGroup(listener, 10000, null);
+        final CulParser<?> stick1 = createParser(instance.createStickListener("stick1"));
+
+        parse(stick1, "T0203426901FA\r\nT0203436901F0\r\n");
+
+        assertTrue(listener.messages.await(10, TimeUnit.SECONDS));
+        instance.close();
+
+        // the high byte of the temperature gives a partial and the assembled message
+        assertEquals(6, listener.events.size());
+        assertEquals((byte) 0xfa / 2f - 74, listener.events.get(0));
+        assertEquals((byte) 0xf0 / 2f - 74, listener.events.get(2));
+        assertEquals(FhtProperty.MEASURED_HIGH, ((FhtMessage) listener.events.get(3)).command);
+        assertEquals((byte) 0xf0 / 2f - 74, listener.events.get(4));
+        assertEquals(FhtProperty.MEASURED_TEMP, ((FhtMessage) listener.events.get(5)).command);
+    }
+
+}
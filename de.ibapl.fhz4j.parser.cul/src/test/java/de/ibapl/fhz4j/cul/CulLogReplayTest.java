@@ -0,0 +1,176 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulLogReplayTest {
+
+    private final static String LOG = """
+            @2020-03-24T00:05:00.347443Z	CH	call write:	"X\\r\\nT02\\r\\nT03\\r\\n"
+            @2020-03-24T00:05:00.348913Z	CH	return write	duration: PT0.00147S
+            @2020-03-24T00:05:00.377694Z	CH	call read
+            @2020-03-24T00:05:00.378206Z	CH	return read:	"T0203447901FA\\r\\nT3B7"	duration: PT0.000512S
+            @2020-03-24T00:05:00.386175Z	CH	call read
+            @2020-03-24T00:05:00.486911Z	CH	return read:	"53101FD\\r\\nLOVF\\r\\n"	duration: PT0.100736S
+            @2020-03-24T00:05:01.486911Z	CH	return read:	"T0203447901FA\\r\\n\"""";
+
+    private static class RecordingListener implements CulMessageListener {
+
+        final List<Object> messages = new ArrayList<>();
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+            messages.add(fhtMessage);
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+            messages.add(fht80TfMessage);
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            messages.add(culMessage);
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            messages.add(t);
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        }
+
+    }
+
+    private List<Object> replay(double speed) throws Exception {
+        final Path logFile = Files.createTempFile("cul_", ".txt");
+        try {
+            Files.writeString(logFile, LOG, StandardCharsets.US_ASCII);
+            final RecordingListener listener = new RecordingListener();
+            final CulLogReplay instance = new CulLogReplay(listener, speed);
+            instance.replay(logFile);
+            assertEquals(3, instance.getReadCount());
+            assertEquals(49, instance.getBytesReplayed());
+            return listener.messages;
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+    @Test
+    public void replayMaxSpeed() throws Exception {
+        final List<Object> messages = replay(CulLogReplay.MAX_SPEED);
+        assertEquals(4, messages.size());
+        assertTrue(messages.get(0) instanceof FhtMessage);
+        assertTrue(messages.get(1) instanceof Fht80TfMessage);
+        assertEquals(CulLovfMessage.LOVF, messages.get(2));
+        assertEquals(messages.get(0), messages.get(3));
+    }
+
+    @Test
+    public void replayTenTimesFaster() throws Exception {
+        final long start = System.nanoTime();
+        final List<Object> messages = replay(10.0);
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(4, messages.size());
+        //The last read was recorded about 1.1 s after the first one
+        assertTrue(duration >= 100, "duration was " + duration);
+    }
+
+    @Test
+    public void replayHexEscapes() throws Exception {
+        final Path logFile = Files.createTempFile("cul_", ".txt");
+        try {
+            Files.writeString(logFile, """
+                    @2020-03-24T00:05:00.378206Z	CH	return read:	"\\x5402\\x303447901FA\\r\\n"	duration: PT0.000512S
+                    @2020-03-24T00:05:00.486911Z	CH	return read:	"\\xZ\\r\\nT0203447901FA\\r\\n"	duration: PT0.100736S
+                    @2020-03-24T00:05:01.486911Z	CH	return read:	"T0203447901FA\\r\\n\\x4"
+                    """, StandardCharsets.US_ASCII);
+            final RecordingListener listener = new RecordingListener();
+            final CulLogReplay instance = new CulLogReplay(listener, CulLogReplay.MAX_SPEED);
+            instance.replay(logFile);
+            //an invalid escape does not stop the replay
+            assertEquals(3, instance.getReadCount());
+            assertTrue(listener.messages.get(0) instanceof FhtMessage);
+            assertEquals(listener.messages.get(0), listener.messages.get(2));
+        } finally {
+            Files.delete(logFile);
+        }
+    }
+
+}
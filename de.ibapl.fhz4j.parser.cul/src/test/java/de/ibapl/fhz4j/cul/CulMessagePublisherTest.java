@@ -0,0 +1,112 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.fs20.FS20CommandValue;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulMessagePublisherTest {
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Message<?>> {
+
+        final List<Message<?>> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch subscribed = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        final long initialRequest;
+        Flow.Subscription subscription;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(Message<?> item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+    }
+
+    @Test
+    public void publishWithBackpressure() throws Exception {
+        //deliver in the publishing thread, so the outcome does not depend on scheduling
+        final CulMessagePublisher instance = new CulMessagePublisher(null, Runnable::run, 4);
+        final RecordingSubscriber all = new RecordingSubscriber(Long.MAX_VALUE);
+        final RecordingSubscriber slow = new RecordingSubscriber(0);
+        final RecordingSubscriber cul = new RecordingSubscriber(Long.MAX_VALUE);
+        instance.getPublisher().subscribe(all);
+        instance.getPublisher().subscribe(slow);
+        instance.getPublisher(Protocol.CUL).subscribe(cul);
+        assertTrue(all.subscribed.await(10, TimeUnit.SECONDS));
+        assertTrue(slow.subscribed.await(10, TimeUnit.SECONDS));
+        assertTrue(cul.subscribed.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 6; i++) {
+            instance.fs20DataParsed(new FS20Message((short) i, FS20CommandValue.OFF, (byte) 0));
+        }
+        instance.culMessageParsed(CulLovfMessage.LOVF);
+        slow.subscription.request(1);
+        instance.close();
+
+        assertTrue(all.completed.await(10, TimeUnit.SECONDS));
+        assertTrue(cul.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(7, all.received.size());
+        assertEquals(1, cul.received.size());
+        assertSame(CulLovfMessage.LOVF, cul.received.get(0));
+        //The slow subscriber did not request more than one, its buffer of 4 overflowed
+        assertTrue(instance.getDroppedCount() >= 3);
+        assertTrue(slow.received.size() <= 1);
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.cul.CulTransmitScheduler.Priority;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulTransmitSchedulerTest {
+
+    private long nanos;
+    private final List<String> sent = new ArrayList<>();
+    private final CulTransmitScheduler scheduler = new CulTransmitScheduler(() -> nanos, 1000, 200);
+
+    private void submit(Priority priority, int airtimeMillis, String name) {
+        scheduler.submit(priority, airtimeMillis, () -> sent.add(name));
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private int credit() {
+        return scheduler.getEstimatedCreditMillis();
+    }
+
+    @Test
+    public void priorityOrder() throws Exception {
+        submit(Priority.PROGRAMMING, 100, "p1");
+        submit(Priority.TIME_SYNC, 100, "t1");
+        submit(Priority.SETPOINT, 100, "s1");
+        submit(Priority.PROGRAMMING, 100, "p2");
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(List.of("s1", "t1", "p1", "p2"), sent);
+        assertEquals(600, credit());
+    }
+
+    @Test
+    public void reserveIsKeptForSetpoints() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            submit(Priority.PROGRAMMING, 100, "p" + i);
+        }
+        final long wait = scheduler.transmitPending();
+        // 8 fit, the 9th would eat into the reserve of 200 ms
+        assertEquals(8, sent.size());
+        assertEquals(200, credit());
+        // 100 ms credit are missing, they take 10 s to grow
+        assertEquals(TimeUnit.SECONDS.toNanos(10), wait);
+
+        submit(Priority.SETPOINT, 150, "s");
+        scheduler.transmitPending();
+        assertEquals("s", sent.get(8));
+        assertEquals(50, credit());
+        assertEquals(2, scheduler.getQueuedCount(Priority.PROGRAMMING));
+
+        advanceSeconds(25);
+        scheduler.transmitPending();
+        assertEquals(10, sent.size());
+        advanceSeconds(10);
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(10L, scheduler.getSentCount(Priority.PROGRAMMING));
+        assertEquals(1L, scheduler.getSentCount(Priority.SETPOINT));
+    }
+
+    @Test
+    public void lowerPrioritiesDoNotOvertake() throws Exception {
+        scheduler.updateCredit(100);
+        submit(Priority.SETPOINT, 300, "s");
+        submit(Priority.PROGRAMMING, 10, "p");
+        assertTrue(scheduler.transmitPending() > 0);
+        assertTrue(sent.isEmpty());
+        advanceSeconds(20);
+        scheduler.transmitPending();
+        assertEquals(List.of("s"), sent);
+    }
+
+    @Test
+    public void rejectWhatNeverFits() throws Exception {
+        assertEquals(800, scheduler.getMaxAirtimeMillis(Priority.PROGRAMMING));
+        assertThrows(IllegalArgumentException.class, () -> submit(Priority.PROGRAMMING, 900, "p"));
+        assertThrows(IllegalArgumentException.class, () -> submit(Priority.TIME_SYNC, 801, "t"));
+        submit(Priority.SETPOINT, 900, "s");
+        submit(Priority.PROGRAMMING, 800, "p");
+        scheduler.transmitPending();
+        assertEquals(List.of("s"), sent);
+        advanceSeconds(100);
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(List.of("s", "p"), sent);
+    }
+
+    /**
+     * Sends the pending air time in chunks of whole 100 ms.
+     */
+    private class PendingAirtime implements CulTransmitScheduler.DeferredTransmission {
+
+        private final int[] pending;
+        private int taken;
+
+        private PendingAirtime(int[] pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public int estimateAirtimeMillis() {
+            return pending[0];
+        }
+
+        @Override
+        public int prepare(int maxAirtimeMillis) {
+            taken = Math.min(pending[0], Math.max(100, maxAirtimeMillis / 100 * 100));
+            pending[0] -= taken;
+            return taken;
+        }
+
+        @Override
+        public CulTransmitScheduler.DeferredTransmission remainder() {
+            return pending[0] == 0 ? null : new PendingAirtime(pending);
+        }
+
+        @Override
+        public void transmit() {
+            sent.add("f" + taken);
+        }
+
+    }
+
+    @Test
+    public void deferredTransmission() throws Exception {
+        final int[] pending = {0};
+        scheduler.submit(Priority.PROGRAMMING, new PendingAirtime(pending));
+        pending[0] = 300;
+        assertEquals(-1L, scheduler.transmitPending());
+        // the air time is taken when the transmission is due
+        assertEquals(List.of("f300"), sent);
+        assertEquals(700, credit());
+
+        // nothing is taken out until the credit covers it
+        scheduler.updateCredit(300);
+        scheduler.submit(Priority.PROGRAMMING, new PendingAirtime(pending));
+        pending[0] = 300;
+        assertTrue(scheduler.transmitPending() > 0);
+        assertEquals(300, pending[0]);
+        pending[0] = 400;
+        advanceSeconds(30);
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(List.of("f300", "f400"), sent);
+        assertEquals(0, pending[0]);
+
+        // an empty one is dropped without waiting for credit
+        scheduler.updateCredit(0);
+        scheduler.submit(Priority.PROGRAMMING, new PendingAirtime(pending));
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(2L, scheduler.getSentCount(Priority.PROGRAMMING));
+    }
+
+    @Test
+    public void splitDeferredTransmission() throws Exception {
+        final int[] pending = {2000};
+        scheduler.submit(Priority.PROGRAMMING, new PendingAirtime(pending));
+        submit(Priority.PROGRAMMING, 100, "p");
+        assertTrue(scheduler.transmitPending() > 0);
+        // the max air time of the priority and the rest in front of the queue
+        assertEquals(List.of("f800"), sent);
+        assertEquals(200, credit());
+        assertEquals(2, scheduler.getQueuedCount(Priority.PROGRAMMING));
+        advanceSeconds(100);
+        assertTrue(scheduler.transmitPending() > 0);
+        assertEquals(List.of("f800", "f800"), sent);
+        advanceSeconds(100);
+        assertEquals(-1L, scheduler.transmitPending());
+        assertEquals(List.of("f800", "f800", "f400", "p"), sent);
+        assertEquals(0, pending[0]);
+    }
+
+    @Test
+    public void senderThread() throws Exception {
+        final CulTransmitScheduler threaded = new CulTransmitScheduler();
+        final List<String> threadSent = new CopyOnWriteArrayList<>();
+        threaded.start(null);
+        threaded.submit(Priority.SETPOINT, 10, () -> threadSent.add("s"));
+        for (int i = 0; i < 100 && threadSent.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        threaded.close();
+        assertEquals(List.of("s"), threadSent);
+    }
+
+    @Test
+    public void creditFromCul() {
+        CulGetSlowRfSettingsResponse response = new CulGetSlowRfSettingsResponse();
+        response.milliTimeToSend = 42;
+        scheduler.updateCredit(response);
+        assertEquals(420, credit());
+        advanceSeconds(1);
+        assertEquals(430, credit());
+        advanceSeconds(3600);
+        assertEquals(1000, credit());
+    }
+
+    @Test
+    public void airtimeEstimate() {
+        // T frame with one command, two bytes housecode and the command value pair
+        assertEquals(142, CulTransmitScheduler.estimateFhtAirtimeMillis(4));
+        assertEquals(14, CulTransmitScheduler.estimateEvoHomeAirtimeMillis(17));
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.writer.fht.FhtEncoder;
+import de.ibapl.fhz4j.writer.fht.FhtWriter;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class FhtWriteBatcherTest {
+
+    class FhtTestWriter implements FhtWriter {
+
+        final StringBuilder sb = new StringBuilder();
+
+        @Override
+        public void startFhtMessage() throws IOException {
+            sb.append('T');
+        }
+
+        @Override
+        public void finishFhtMessage() throws IOException {
+            sb.append('\n');
+        }
+
+        @Override
+        public void doWrite() throws IOException {
+            //no-op
+        }
+
+        @Override
+        public void putByte(byte value) throws IOException {
+            sb.append(String.format("%02X", value));
+        }
+
+        @Override
+        public void putShort(short value) throws IOException {
+            sb.append(String.format("%04X", value));
+        }
+
+        @Override
+        public void putInt(int value) throws IOException {
+            sb.append(String.format("%08X", value));
+        }
+
+        @Override
+        public void close() throws Exception {
+        }
+
+        String written() {
+            final String result = sb.toString();
+            sb.setLength(0);
+            return result;
+        }
+
+    }
+
+    private final FhtTestWriter writer = new FhtTestWriter();
+    private final FhtEncoder encoder = new FhtEncoder(writer);
+    private final FhtWriteBatcher batcher = new FhtWriteBatcher(encoder);
+
+    private void frames(int expected, int actual) {
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void encoderCycle() throws Exception {
+        encoder.writeFhtCycle((short) 302, DayOfWeek.MONDAY, LocalTime.of(5, 0), LocalTime.of(8, 30),
+                LocalTime.of(17, 20), LocalTime.of(22, 50));
+        assertEquals("T0302141E153316681789\n", writer.written());
+        encoder.writeFhtCycle((short) 302, DayOfWeek.MONDAY, LocalTime.of(5, 0), LocalTime.of(8, 30), null, null);
+        assertEquals("T0302141E153316901790\n", writer.written());
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeFhtCycle((short) 302, DayOfWeek.MONDAY, LocalTime.of(5, 0), null, null, null));
+    }
+
+    @Test
+    public void supersededValuesAreReplaced() throws Exception {
+        batcher.putFhtModeAuto((short) 302);
+        batcher.putFht((short) 302, FhtProperty.DESIRED_TEMP, 21.0f);
+        batcher.putFhtModeParty((short) 302, 17.0f, LocalDateTime.of(2017, Month.JULY, 19, 23, 30));
+        assertEquals(4, batcher.getPendingCount((short) 302));
+        frames(1, batcher.flush());
+        // the mode goes last, as with the single write
+        assertEquals("T030241223F8D40133E03\n", writer.written());
+        assertEquals(0, batcher.getPendingCount((short) 302));
+        frames(0, batcher.flush());
+    }
+
+    @Test
+    public void splitAtFrameLimit() throws Exception {
+        batcher.putFhtCycle((short) 302, DayOfWeek.MONDAY, LocalTime.of(5, 0), LocalTime.of(8, 30),
+                LocalTime.of(17, 20), LocalTime.of(22, 50));
+        batcher.putFhtCycle((short) 302, DayOfWeek.TUESDAY, null, null, null, null);
+        batcher.putFht((short) 302, FhtProperty.DESIRED_TEMP, 17.0f);
+        assertEquals(2, batcher.getPendingFrameCount((short) 302));
+        assertEquals(CulTransmitScheduler.estimateFhtAirtimeMillis(18) + CulTransmitScheduler.estimateFhtAirtimeMillis(4),
+                batcher.estimateAirtimeMillis((short) 302));
+        // a limit below the air time takes the full frames which fit
+        assertEquals(CulTransmitScheduler.estimateFhtAirtimeMillis(18),
+                batcher.estimateAirtimeMillis(batcher.take((short) 302, CulTransmitScheduler.estimateFhtAirtimeMillis(18) + 1)));
+        assertEquals(1, batcher.getPendingCount((short) 302));
+        assertEquals(CulTransmitScheduler.estimateFhtAirtimeMillis(4),
+                batcher.estimateAirtimeMillis(batcher.take((short) 302, 0)));
+        assertEquals(0, batcher.getPendingCount((short) 302));
+        batcher.putFhtCycle((short) 302, DayOfWeek.MONDAY, LocalTime.of(5, 0), LocalTime.of(8, 30),
+                LocalTime.of(17, 20), LocalTime.of(22, 50));
+        batcher.putFhtCycle((short) 302, DayOfWeek.TUESDAY, null, null, null, null);
+        batcher.putFht((short) 302, FhtProperty.DESIRED_TEMP, 17.0f);
+        frames(2, batcher.flush((short) 302));
+        assertEquals("T0302141E153316681789189019901A901B90\nT03024122\n", writer.written());
+    }
+
+    @Test
+    public void perHousecode() throws Exception {
+        batcher.putFhtModeManu((short) 302);
+        batcher.putFht((short) 1234, FhtProperty.DAY_TEMP, 21.5f);
+        batcher.putFhtModeAuto((short) 302);
+        assertEquals(List.of((short) 302, (short) 1234), batcher.getPendingHousecodes());
+        frames(1, batcher.flush((short) 1234));
+        assertEquals("T0C22822B\n", writer.written());
+        frames(1, batcher.flush());
+        assertEquals("T03023E00\n", writer.written());
+        assertEquals(2L, batcher.getFrameCount());
+        assertThrows(IllegalArgumentException.class, () -> batcher.putFht((short) 302, FhtProperty.MODE, 1.0f));
+    }
+
+}
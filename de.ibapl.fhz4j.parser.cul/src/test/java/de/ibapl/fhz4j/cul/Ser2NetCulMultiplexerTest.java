@@ -0,0 +1,160 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class Ser2NetCulMultiplexerTest {
+
+    private static class QueueListener implements CulMessageListener {
+
+        final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+            events.add(fht80TfMessage);
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+            events.add(ioe);
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            events.add(culMessage);
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            events.add(t);
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        }
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        }
+
+    }
+
+    private static void send(SocketChannel channel, String data) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Test
+    public void receiveAndReconnect() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            final int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+            final QueueListener listener = new QueueListener();
+            try (Ser2NetCulMultiplexer instance = new Ser2NetCulMultiplexer(10, 100, null)) {
+                final Ser2NetCulMultiplexer.Endpoint endpoint = instance.addEndpoint(InetAddress.getLoopbackAddress().getHostAddress(), port, listener);
+
+                try (SocketChannel connection = server.accept()) {
+                    //split a frame over two writes
+                    send(connection, "T3B7531");
+                    send(connection, "01FD\r\nLOVF\r\n");
+                    assertEquals(Fht80TfMessage.class, listener.events.poll(10, TimeUnit.SECONDS).getClass());
+                    assertEquals(CulLovfMessage.LOVF, listener.events.poll(10, TimeUnit.SECONDS));
+                }
+                assertTrue(listener.events.poll(10, TimeUnit.SECONDS) instanceof IOException);
+
+                try (SocketChannel connection = server.accept()) {
+                    send(connection, "T3B753101FD\r\n");
+                    assertEquals(Fht80TfMessage.class, listener.events.poll(10, TimeUnit.SECONDS).getClass());
+                }
+                assertEquals(2, endpoint.getConnectCount());
+                assertEquals(32, endpoint.getBytesReceived());
+            }
+        }
+    }
+
+    @Test
+    public void unknownHost() throws Exception {
+        final QueueListener listener = new QueueListener();
+        try (Ser2NetCulMultiplexer instance = new Ser2NetCulMultiplexer(10, 100, null)) {
+            // the .invalid top level domain never resolves
+            instance.addEndpoint("fhz4j.invalid", 2001, listener);
+            final Object event = listener.events.poll(30, TimeUnit.SECONDS);
+            assertTrue(event instanceof IOException, String.valueOf(event));
+        }
+    }
+
+}
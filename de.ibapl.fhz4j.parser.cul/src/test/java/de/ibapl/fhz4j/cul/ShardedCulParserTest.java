@@ -0,0 +1,234 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import de.ibapl.fhz4j.protocol.fht.FhtTempMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class ShardedCulParserTest {
+
+    private final static String[] HOUSECODES = {"370A", "370B", "0101", "0202", "0303", "1234", "4242", "6300"};
+    private final static int ROUNDS = 100;
+
+    private static class RecordingListener implements CulMessageListener {
+
+        final Map<Short, List<Float>> measuredTemps = new ConcurrentHashMap<>();
+        final AtomicInteger otherCount = new AtomicInteger();
+        final AtomicInteger failedCount = new AtomicInteger();
+
+        @Override
+        public void fhtDataParsed(FhtMessage fhtMessage) {
+            if (fhtMessage.command == FhtProperty.MEASURED_TEMP) {
+                // each housecode is only called from one thread
+                measuredTemps.computeIfAbsent(fhtMessage.housecode, k -> new ArrayList<>()).add(((FhtTempMessage) fhtMessage).temp);
+            } else {
+                otherCount.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void culMessageParsed(CulMessage culMessage) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void failed(Throwable t) {
+            failedCount.incrementAndGet();
+        }
+
+        @Override
+        public void signalStrength(float signalStrength) {
+        }
+
+        @Override
+        public void receiveEnabled(Protocol protocol) {
+        }
+
+        @Override
+        public void helpParsed(String helpMessages) {
+        }
+
+        @Override
+        public void onIOException(IOException ioe) {
+        }
+
+        @Override
+        public void emDataParsed(EmMessage emMsg) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void fs20DataParsed(FS20Message fs20Msg) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void hmsDataParsed(HmsMessage hmsMsg) {
+            otherCount.incrementAndGet();
+        }
+
+        @Override
+        public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+            otherCount.incrementAndGet();
+        }
+
+    }
+
+    private static int getShard(String line, int shardCount) {
+        return ShardedCulParser.getShard(ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII)), shardCount);
+    }
+
+    @Test
+    public void shardByAddress() {
+        assertEquals(getShard("T370A42690406", 8), getShard("T370A43690106", 8));
+        assertEquals(getShard("vr18067AEC067AEC30C903000708", 8), getShard("vr18067AEC895E5D000A0100", 8));
+        assertEquals(0, getShard("LOVF", 8));
+        assertEquals(0, getShard("EOB", 8));
+        assertEquals(0, getShard("V 1.67 CUL868", 8));
+        assertEquals(0, getShard("T370A42690406", 1));
+        int used = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            for (String housecode : HOUSECODES) {
+                if (getShard("T" + housecode + "42690406", 4) == shard) {
+                    used++;
+                    break;
+                }
+            }
+        }
+        assertNotEquals(1, used);
+    }
+
+    @Test
+    public void keepOrderPerDevice() throws Exception {
+        final RecordingListener listener = new RecordingListener();
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (String housecode : HOUSECODES) {
+                sb.append('T').append(housecode).append("4269").append(String.format("%02X", i)).append("06\r\n");
+            }
+            for (String housecode : HOUSECODES) {
+                sb.append('T').append(housecode).append("43690106\r\n");
+            }
+            sb.append("LOVF\r\n");
+        }
+        final byte[] data = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        final ShardedCulParser instance = new ShardedCulParser(listener, 4, 16, null, null, null);
+        try {
+            // split the data at odd positions to cut some lines
+            for (int pos = 0; pos < data.length; pos += 997) {
+                instance.parse(data, pos, Math.min(997, data.length - pos));
+            }
+        } finally {
+            instance.close();
+        }
+        assertEquals(0L, instance.getPendingLineCount());
+        long decoded = 0;
+        for (int i = 0; i < instance.getShardCount(); i++) {
+            decoded += instance.getDecodedLineCount(i);
+        }
+        assertEquals((long) ROUNDS * (2 * HOUSECODES.length + 1), decoded);
+        assertEquals(0, listener.failedCount.get());
+        assertEquals(ROUNDS, listener.otherCount.get());
+        assertEquals(HOUSECODES.length, listener.measuredTemps.size());
+        for (List<Float> temps : listener.measuredTemps.values()) {
+            assertEquals(ROUNDS, temps.size());
+            for (int i = 0; i < ROUNDS; i++) {
+                assertEquals(0.1f * (256 + i), temps.get(i), 0.001f);
+            }
+        }
+    }
+
+    @Test
+    public void keepSignalStrengthWithMessage() throws Exception {
+        final AtomicInteger mismatchCount = new AtomicInteger();
+        final AtomicInteger tfCount = new AtomicInteger();
+        final RecordingListener listener = new RecordingListener() {
+
+            // delivery is serialized, so no synchronization is needed
+            private float lastSignalStrength;
+
+            @Override
+            public void signalStrength(float signalStrength) {
+                lastSignalStrength = signalStrength;
+            }
+
+            @Override
+            public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+                tfCount.incrementAndGet();
+                // the RSSI byte of each line is twice the lowest address byte
+                if (lastSignalStrength != (fht80TfMessage.address & 0xff) - 74) {
+                    mismatchCount.incrementAndGet();
+                }
+            }
+
+        };
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (int device = 0; device < 16; device++) {
+                sb.append(String.format("T3B75%02X01%02X\r\n", device, device * 2));
+            }
+        }
+        final ShardedCulParser instance = new ShardedCulParser(listener, 4, 16, null, null, null);
+        try {
+            instance.parse(sb.toString().getBytes(StandardCharsets.US_ASCII), 0, sb.length());
+        } finally {
+            instance.close();
+        }
+        assertEquals(ROUNDS * 16, tfCount.get());
+        assertEquals(0, mismatchCount.get());
+        assertEquals(0, listener.failedCount.get());
+    }
+
+}
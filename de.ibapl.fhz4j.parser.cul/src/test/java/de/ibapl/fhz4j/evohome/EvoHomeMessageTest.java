@@ -201,8 +201,10 @@ public class EvoHomeMessageTest implements ParserListener<EvoHomeMessage> {
             assertEquals(expected.zoneId, actual.zoneId, "zoneId");
             assertEquals(expected.operationLock, actual.operationLock, "operationLock");
             assertEquals(expected.windowFunction, actual.windowFunction, "windowFunction");
-            assertEquals(expected.minTemperature, actual.minTemperature, "minTemperature");
-            assertEquals(expected.maxTemperature, actual.maxTemperature, "maxTemperature");
+            assertEquals(expected.getMinTemperature(), actual.getMinTemperature(), "minTemperature");
+            assertEquals(expected.minCentiDegrees, actual.minCentiDegrees, "minCentiDegrees");
+            assertEquals(expected.getMaxTemperature(), actual.getMaxTemperature(), "maxTemperature");
+            assertEquals(expected.maxCentiDegrees, actual.maxCentiDegrees, "maxCentiDegrees");
         }
         assertFalse(actualZoneParams.hasNext());
     }
@@ -347,7 +349,7 @@ public class EvoHomeMessageTest implements ParserListener<EvoHomeMessage> {
             int deviceId2, byte zone_id, BigDecimal setpoint, AbstractZoneSetpointOverrideMessage.SetpointOverrideMode zone_mode, Duration countdown, LocalDateTime time_until) {
         assertEvoHomeDeviceMessage(evoHomeMessage, deviceId1, deviceId2);
         assertEquals(zone_id, evoHomeMessage.zone_id, "zone_id");
-        assertEquals(setpoint, evoHomeMessage.setpoint, "setpoint");
+        assertEquals(setpoint, evoHomeMessage.getSetpoint(), "setpoint");
         assertEquals(zone_mode, evoHomeMessage.zone_mode, "zone_mode");
         assertEquals(countdown, evoHomeMessage.countdown, "countdown");
         assertEquals(time_until, evoHomeMessage.time_until, "time_until");
@@ -537,8 +539,8 @@ public class EvoHomeMessageTest implements ParserListener<EvoHomeMessage> {
         zoneParam.zoneId = 0;
         zoneParam.windowFunction = true;
         zoneParam.operationLock = false;
-        zoneParam.minTemperature = new BigDecimal("5");
-        zoneParam.maxTemperature = new BigDecimal("35");
+        zoneParam.setMinTemperature(new BigDecimal("5"));
+        zoneParam.setMaxTemperature(new BigDecimal("35"));
         zoneParams.add(zoneParam);
 
         assert_0x000A_ZoneConfigPayloadMessage((ZoneConfigPayloadMessage) evoHomeMessage, 0x067AEC, 0x067AEC,
@@ -840,8 +842,8 @@ public class EvoHomeMessageTest implements ParserListener<EvoHomeMessage> {
         zoneParam.zoneId = 0;
         zoneParam.windowFunction = true;
         zoneParam.operationLock = false;
-        zoneParam.minTemperature = new BigDecimal("5");
-        zoneParam.maxTemperature = new BigDecimal("35");
+        zoneParam.setMinTemperature(new BigDecimal("5"));
+        zoneParam.setMaxTemperature(new BigDecimal("35"));
         zoneParams.add(zoneParam);
 
         assert_0x000A_ZoneConfigPayloadMessage((ZoneConfigPayloadMessage) evoHomeMessage, 0x067AEC, 0x895E5D,
@@ -920,24 +922,24 @@ public class EvoHomeMessageTest implements ParserListener<EvoHomeMessage> {
         zoneParam.zoneId = 0;
         zoneParam.windowFunction = true;
         zoneParam.operationLock = false;
-        zoneParam.minTemperature = new BigDecimal("5");
-        zoneParam.maxTemperature = new BigDecimal("35");
+        zoneParam.setMinTemperature(new BigDecimal("5"));
+        zoneParam.setMaxTemperature(new BigDecimal("35"));
         zoneParams.add(zoneParam);
 
         zoneParam = new ZoneConfigPayloadMessage.ZoneParams();
         zoneParam.zoneId = 1;
         zoneParam.windowFunction = true;
         zoneParam.operationLock = false;
-        zoneParam.minTemperature = new BigDecimal("5");
-        zoneParam.maxTemperature = new BigDecimal("35");
+        zoneParam.setMinTemperature(new BigDecimal("5"));
+        zoneParam.setMaxTemperature(new BigDecimal("35"));
         zoneParams.add(zoneParam);
 
         zoneParam = new ZoneConfigPayloadMessage.ZoneParams();
         zoneParam.zoneId = 2;
         zoneParam.windowFunction = true;
         zoneParam.operationLock = false;
-        zoneParam.minTemperature = new BigDecimal("5");
-        zoneParam.maxTemperature = new BigDecimal("35");
+        zoneParam.setMinTemperature(new BigDecimal("5"));
+        zoneParam.setMaxTemperature(new BigDecimal("35"));
         zoneParams.add(zoneParam);
 
         assert_0x000A_ZoneConfigPayloadMessage((ZoneConfigPayloadMessage) evoHomeMessage, 0x067AEC, 0x067AEC,
@@ -0,0 +1,70 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class AbstractCulParserTest {
+
+    private final AbstractCulParser instance = new AbstractCulParser() {
+        @Override
+        public void parse(char c) {
+        }
+    };
+
+    @Test
+    public void digit2Byte() {
+        for (char c = 0; c < 0x200; c++) {
+            final int expected = Character.digit(c, 16);
+            if (expected >= 0 && c < 0x80) {
+                assertEquals((byte) expected, instance.digit2Byte(c));
+            } else {
+                final char invalid = c;
+                assertThrows(IllegalArgumentException.class, () -> instance.digit2Byte(invalid));
+            }
+        }
+    }
+
+    @Test
+    public void decodeHex() {
+        final ByteBuffer src = ByteBuffer.wrap("00a5FF7e0\r\n".getBytes(StandardCharsets.US_ASCII));
+        final byte[] dst = new byte[8];
+        assertEquals(4, AbstractCulParser.decodeHex(src, dst, 1, 7));
+        assertArrayEquals(new byte[]{0x00, 0x00, (byte) 0xa5, (byte) 0xff, 0x7e, 0x00, 0x00, 0x00}, dst);
+        //stopped in front of the incomplete pair
+        assertEquals(8, src.position());
+
+        src.position(0);
+        assertEquals(2, AbstractCulParser.decodeHex(src, dst, 0, 2));
+        assertEquals(4, src.position());
+    }
+
+}
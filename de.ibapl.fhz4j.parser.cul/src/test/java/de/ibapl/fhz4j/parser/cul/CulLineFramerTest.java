@@ -0,0 +1,88 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulLineFramerTest {
+
+    private final List<String> lines = new ArrayList<>();
+
+    private void addLine(ByteBuffer line) {
+        lines.add(StandardCharsets.US_ASCII.decode(line).toString());
+    }
+
+    private static ByteBuffer buffer(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void frameAcrossReads() {
+        final CulLineFramer instance = new CulLineFramer(this::addLine);
+        final ByteBuffer first = buffer("T0203\r\n\r\nLOV");
+        instance.frame(first);
+        assertEquals(0, first.remaining());
+        assertTrue(instance.hasIncompleteLine());
+        instance.frame(buffer("F\r"));
+        instance.frame(buffer("\nH77\n"));
+        assertFalse(instance.hasIncompleteLine());
+        assertEquals(List.of("T0203", "LOVF", "H77"), lines);
+    }
+
+    @Test
+    public void discardTooLongLines() {
+        final CulLineFramer instance = new CulLineFramer(this::addLine, 8);
+        instance.frame(buffer("T0123456789\r\nLOVF\r\nT0123"));
+        instance.frame(buffer("456789\r\nEOB\r\n"));
+        assertEquals(List.of("LOVF", "EOB"), lines);
+        assertEquals(2, instance.getDiscardedCount());
+    }
+
+    @Test
+    public void resumeAfterException() {
+        final CulLineFramer instance = new CulLineFramer(line -> {
+            addLine(line);
+            if (lines.size() == 1) {
+                throw new IllegalArgumentException();
+            }
+        });
+        final ByteBuffer data = buffer("A\r\nB\r\n");
+        assertThrows(IllegalArgumentException.class, () -> instance.frame(data));
+        assertEquals(3, data.position());
+        assertEquals(data.capacity(), data.limit());
+        instance.frame(data);
+        assertEquals(List.of("A", "B"), lines);
+    }
+
+}
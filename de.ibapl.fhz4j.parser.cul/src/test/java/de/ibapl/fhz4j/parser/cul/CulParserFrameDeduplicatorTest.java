@@ -0,0 +1,213 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.cul.CulFrameDeduplicator;
+import de.ibapl.fhz4j.cul.CulMessage;
+import de.ibapl.fhz4j.cul.CulMessageListener;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulParserFrameDeduplicatorTest implements CulMessageListener {
+
+    private final Map<Protocol, Integer> counts = new EnumMap<>(Protocol.class);
+    private Throwable throwable;
+    private final CulParser<?> parser = new CulParser<>(this);
+    private final CulFrameDeduplicator frameDeduplicator = new CulFrameDeduplicator(Duration.ofSeconds(2), 16);
+
+    private void parseFrames(long seconds, String frames) {
+        counts.clear();
+        parser.setReadTime(TimeUnit.SECONDS.toNanos(seconds), TimeUnit.SECONDS.toMillis(seconds));
+        parser.parse(ByteBuffer.wrap(frames.getBytes(StandardCharsets.US_ASCII)));
+        assertNull(throwable);
+    }
+
+    private void parseFramesByChar(long seconds, String frames) {
+        counts.clear();
+        parser.setReadTime(TimeUnit.SECONDS.toNanos(seconds), TimeUnit.SECONDS.toMillis(seconds));
+        for (char c : frames.toCharArray()) {
+            parser.parse(c);
+        }
+        assertNull(throwable);
+    }
+
+    private int count(Protocol protocol) {
+        return counts.getOrDefault(protocol, 0);
+    }
+
+    private void count(Protocol protocol, int expected) {
+        assertEquals(expected, count(protocol), protocol.name());
+    }
+
+    @Test
+    public void dropRepeats() {
+        parser.setFrameDeduplicator(frameDeduplicator);
+        // the same frame with another signal strength, then another value
+        parseFrames(0, "T0203447901FA\r\nT0203447901F0\r\nT0203447902FA\r\n"
+                + "vr18067AEC067AEC30C903000708\r\nvr18067AEC067AEC30C903000708\r\n");
+        count(Protocol.FHT, 2);
+        count(Protocol.EVO_HOME, 1);
+        assertEquals(1L, frameDeduplicator.getSuppressedCount(Protocol.FHT));
+        assertEquals(2L, frameDeduplicator.getSuppressedCount());
+
+        parseFrames(1, "T0203447901FA\r\n");
+        count(Protocol.FHT, 0);
+
+        // the window is counted from the first reception
+        parseFrames(2, "T0203447901FA\r\n");
+        count(Protocol.FHT, 1);
+
+        frameDeduplicator.clear();
+        frameDeduplicator.resetCounters();
+        parseFrames(2, "T0203447901FA\r\n");
+        count(Protocol.FHT, 1);
+        assertEquals(0L, frameDeduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void dropRepeatsCharByChar() {
+        parser.setFrameDeduplicator(frameDeduplicator);
+        parseFramesByChar(0, "T0203447901FA\r\nT0203447901F0\r\nT0203447902FA\r\n"
+                + "vr18067AEC067AEC30C903000708\r\nvr18067AEC067AEC30C903000708\r\n");
+        count(Protocol.FHT, 2);
+        count(Protocol.EVO_HOME, 1);
+        assertEquals(2L, frameDeduplicator.getSuppressedCount());
+
+        // a repeat is dropped whichever parse method received the first copy
+        parseFrames(1, "H7758005282720F\r\n");
+        count(Protocol.HMS, 1);
+        parseFramesByChar(1, "H7758005282720F\r\nT0203447901FA\r\n");
+        count(Protocol.HMS, 0);
+        count(Protocol.FHT, 0);
+        assertEquals(4L, frameDeduplicator.getSuppressedCount());
+    }
+
+    @Test
+    public void passAllWithoutDeduplicator() {
+        parseFrames(0, "T0203447901FA\r\nT0203447901FA\r\n");
+        count(Protocol.FHT, 2);
+    }
+
+    @Test
+    public void fullTable() {
+        final CulFrameDeduplicator small = new CulFrameDeduplicator(Duration.ofSeconds(2), 1);
+        assertEquals(1, small.getCapacity());
+        final byte[] a = {1, 2, 3};
+        final byte[] b = {1, 2, 4};
+        assertTrue(small.accept(Protocol.FS20, a, 0, a.length, 0));
+        assertTrue(small.accept(Protocol.FS20, b, 0, b.length, 1));
+        // a was evicted, so it passes again
+        assertTrue(small.accept(Protocol.FS20, a, 0, a.length, 2));
+        assertFalse(small.accept(Protocol.FS20, a, 0, a.length, 3));
+        // the protocol is part of the frame
+        assertTrue(small.accept(Protocol.HMS, a, 0, a.length, 4));
+        assertEquals(16, new CulFrameDeduplicator(Duration.ofSeconds(1), 9).getCapacity());
+    }
+
+    private void add(Protocol protocol) {
+        counts.merge(protocol, 1, Integer::sum);
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        add(Protocol.CUL);
+    }
+
+    @Override
+    public void signalStrength(float signalStrength) {
+    }
+
+    @Override
+    public void failed(Throwable t) {
+        throwable = t;
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        add(Protocol.EM);
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        add(Protocol.EVO_HOME);
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        add(Protocol.FHT);
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        add(Protocol.FHT_TF);
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        add(Protocol.FS20);
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        add(Protocol.HMS);
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        add(Protocol.LA_CROSSE_TX2);
+    }
+
+}
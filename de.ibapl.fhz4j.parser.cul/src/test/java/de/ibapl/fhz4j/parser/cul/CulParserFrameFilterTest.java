@@ -0,0 +1,222 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.cul.CulFrameFilter;
+import de.ibapl.fhz4j.cul.CulMessage;
+import de.ibapl.fhz4j.cul.CulMessageListener;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.DeviceId;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulParserFrameFilterTest implements CulMessageListener {
+
+    private final static String FRAMES = "T3B753101FD\r\n"
+            + "H7758005282720F\r\n"
+            + "T0203447901FA\r\n"
+            + "T020700A60D11\r\n"
+            + "tA00E73173D1A\r\n"
+            + "FC04B01111A\r\n"
+            + "E0205630200020005001A\r\n"
+            + "vr18067AEC067AEC30C903000708\r\n"
+            + "vr18895E5D895E5D30C903000708\r\n";
+
+    private final Map<Protocol, Integer> counts = new EnumMap<>(Protocol.class);
+    private Throwable throwable;
+    private final CulParser<?> parser = new CulParser<>(this);
+    private final CulFrameFilter frameFilter = new CulFrameFilter();
+
+    private void parseFrames() {
+        counts.clear();
+        parser.parse(ByteBuffer.wrap(FRAMES.getBytes(StandardCharsets.US_ASCII)));
+        assertNull(throwable);
+    }
+
+    private void parseFramesByChar() {
+        counts.clear();
+        for (char c : FRAMES.toCharArray()) {
+            parser.parse(c);
+        }
+        assertNull(throwable);
+    }
+
+    private int count(Protocol protocol) {
+        return counts.getOrDefault(protocol, 0);
+    }
+
+    private void count(Protocol protocol, int expected) {
+        assertEquals(expected, count(protocol), protocol.name());
+    }
+
+    @Test
+    public void passAll() {
+        parser.setFrameFilter(frameFilter);
+        parseFrames();
+        count(Protocol.FHT, 2);
+        count(Protocol.FHT_TF, 1);
+        count(Protocol.HMS, 1);
+        count(Protocol.LA_CROSSE_TX2, 1);
+        count(Protocol.FS20, 1);
+        count(Protocol.EM, 1);
+        count(Protocol.EVO_HOME, 2);
+        assertEquals(0L, frameFilter.getFilteredCount());
+    }
+
+    @Test
+    public void allowAndDeny() {
+        parser.setFrameFilter(frameFilter);
+        frameFilter.allowFhtHousecode((short) 203);
+        frameFilter.denyProtocol(Protocol.FHT_TF);
+        frameFilter.denyProtocol(Protocol.LA_CROSSE_TX2);
+        frameFilter.denyHmsHousecode((short) 0x7758);
+        frameFilter.allowFs20Housecode((short) 0x1234);
+        frameFilter.allowEmAddress((short) 0x05);
+        frameFilter.allowEvoHomeDeviceId(new DeviceId(0x895E5D));
+        parseFrames();
+        count(Protocol.FHT, 1);
+        count(Protocol.FHT_TF, 0);
+        count(Protocol.HMS, 0);
+        count(Protocol.LA_CROSSE_TX2, 0);
+        count(Protocol.FS20, 0);
+        count(Protocol.EM, 1);
+        count(Protocol.EVO_HOME, 1);
+        assertEquals(1L, frameFilter.getFilteredCount(Protocol.FHT));
+        assertEquals(1L, frameFilter.getFilteredCount(Protocol.EVO_HOME));
+        assertEquals(6L, frameFilter.getFilteredCount());
+
+        frameFilter.denyEvoHomeCommand(EvoHomeCommand.ZONE_TEMPERATURE);
+        frameFilter.allowProtocol(Protocol.LA_CROSSE_TX2);
+        parseFrames();
+        count(Protocol.EVO_HOME, 0);
+        count(Protocol.LA_CROSSE_TX2, 1);
+
+        frameFilter.clear();
+        frameFilter.resetCounters();
+        parseFrames();
+        count(Protocol.FHT, 2);
+        count(Protocol.EVO_HOME, 2);
+        assertEquals(0L, frameFilter.getFilteredCount());
+    }
+
+    @Test
+    public void filterCharsLikeBuffer() {
+        parser.setFrameFilter(frameFilter);
+        frameFilter.allowFhtHousecode((short) 203);
+        frameFilter.denyProtocol(Protocol.LA_CROSSE_TX2);
+        frameFilter.denyHmsHousecode((short) 0x7758);
+        frameFilter.allowEvoHomeDeviceId(new DeviceId(0x895E5D));
+        parseFrames();
+        final Map<Protocol, Integer> bufferCounts = new EnumMap<>(counts);
+        final long bufferFilteredCount = frameFilter.getFilteredCount();
+        assertEquals(4L, bufferFilteredCount);
+
+        frameFilter.resetCounters();
+        parseFramesByChar();
+        assertEquals(bufferCounts, counts);
+        assertEquals(bufferFilteredCount, frameFilter.getFilteredCount());
+    }
+
+    private void add(Protocol protocol) {
+        counts.merge(protocol, 1, Integer::sum);
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        add(Protocol.CUL);
+    }
+
+    @Override
+    public void signalStrength(float signalStrength) {
+    }
+
+    @Override
+    public void failed(Throwable t) {
+        throwable = t;
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        add(Protocol.EM);
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        add(Protocol.EVO_HOME);
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        add(Protocol.FHT);
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        add(Protocol.FHT_TF);
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        add(Protocol.FS20);
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        add(Protocol.HMS);
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        add(Protocol.LA_CROSSE_TX2);
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.cul;
+
+import de.ibapl.fhz4j.api.Protocol;
+import de.ibapl.fhz4j.cul.CulMessage;
+import de.ibapl.fhz4j.cul.CulMessageListener;
+import de.ibapl.fhz4j.protocol.em.EmMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.fht.Fht80TfMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtMessage;
+import de.ibapl.fhz4j.protocol.fs20.FS20Message;
+import de.ibapl.fhz4j.protocol.hms.Hms100TfMessage;
+import de.ibapl.fhz4j.protocol.hms.HmsMessage;
+import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class CulParserReuseMessagesTest implements CulMessageListener {
+
+    private final static String FRAMES = "T3B753101FD\r\n"
+            + "H7758005282720F\r\n"
+            + "T0203447901FA\r\n"
+            + "T020700A60D11\r\n"
+            + "tA00E73173D1A\r\n"
+            + "FC04B01111A\r\n"
+            + "E0205630200020005001A\r\n";
+    private final static int FRAME_COUNT = 7;
+
+    private int count;
+    private HmsMessage hmsMessage;
+    private Throwable throwable;
+
+    @Test
+    public void reuseInstances() {
+        final CulParser<?> parser = new CulParser<>(this);
+        parser.setReuseMessages(true);
+        parser.parse(ByteBuffer.wrap("H7758005282720F\r\n".getBytes(StandardCharsets.US_ASCII)));
+        final HmsMessage first = hmsMessage;
+        final HmsMessage copy = (HmsMessage) first.copy();
+        parser.parse(ByteBuffer.wrap("H7758005282720F\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertSame(first, hmsMessage);
+        assertNotSame(first, copy);
+        assertNotSame(first.deviceStatus, copy.deviceStatus);
+        assertEquals(first, copy);
+        assertEquals(((Hms100TfMessage) first).temp, ((Hms100TfMessage) copy).temp);
+
+        parser.setReuseMessages(false);
+        parser.parse(ByteBuffer.wrap("H7758005282720F\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertNotSame(first, hmsMessage);
+        assertEquals(first, hmsMessage);
+    }
+
+    /**
+     * The module does not read java.management, so go through reflection.
+     *
+     * @param threadMXBean receives the ThreadMXBean to invoke the method on.
+     * @return com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()
+     * or null if not supported.
+     */
+    private static Method getCurrentThreadAllocatedBytes(Object[] threadMXBean) {
+        try {
+            threadMXBean[0] = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            final Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            if (!beanClass.isInstance(threadMXBean[0]) || !(Boolean) beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean[0])) {
+                return null;
+            }
+            beanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadMXBean[0], true);
+            return beanClass.getMethod("getCurrentThreadAllocatedBytes");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void noAllocationInSteadyState() throws Exception {
+        final Object[] threadMXBean = new Object[1];
+        final Method allocatedBytes = getCurrentThreadAllocatedBytes(threadMXBean);
+        if (allocatedBytes == null) {
+            return;
+        }
+        final CulParser<?> parser = new CulParser<>(this);
+        parser.setReuseMessages(true);
+        final ByteBuffer data = ByteBuffer.wrap(FRAMES.getBytes(StandardCharsets.US_ASCII));
+        //warm up, let the JIT do its work
+        for (int i = 0; i < 20_000; i++) {
+            data.clear();
+            parser.parse(data);
+        }
+        assertNull(throwable);
+        count = 0;
+        //the reflective calls itself may allocate, so measure them first
+        long start = (Long) allocatedBytes.invoke(threadMXBean[0]);
+        final long overhead = (Long) allocatedBytes.invoke(threadMXBean[0]) - start;
+        start = (Long) allocatedBytes.invoke(threadMXBean[0]);
+        for (int i = 0; i < 1_000; i++) {
+            data.clear();
+            parser.parse(data);
+        }
+        final long allocated = (Long) allocatedBytes.invoke(threadMXBean[0]) - start - overhead;
+        assertEquals(1_000 * FRAME_COUNT, count);
+        assertEquals(0L, allocated);
+    }
+
+    @Override
+    public void culMessageParsed(CulMessage culMessage) {
+        count++;
+    }
+
+    @Override
+    public void signalStrength(float signalStrength) {
+    }
+
+    @Override
+    public void failed(Throwable t) {
+        throwable = t;
+    }
+
+    @Override
+    public void receiveEnabled(Protocol protocol) {
+    }
+
+    @Override
+    public void helpParsed(String helpMessages) {
+    }
+
+    @Override
+    public void onIOException(IOException ioe) {
+    }
+
+    @Override
+    public void emDataParsed(EmMessage emMsg) {
+        count++;
+    }
+
+    @Override
+    public void evoHomeParsed(EvoHomeMessage evoHomeMsg) {
+        count++;
+    }
+
+    @Override
+    public void fhtDataParsed(FhtMessage fhtMessage) {
+        count++;
+    }
+
+    @Override
+    public void fht80TfDataParsed(Fht80TfMessage fht80TfMessage) {
+        count++;
+    }
+
+    @Override
+    public void fs20DataParsed(FS20Message fs20Msg) {
+        count++;
+    }
+
+    @Override
+    public void hmsDataParsed(HmsMessage hmsMsg) {
+        hmsMessage = hmsMsg;
+        count++;
+    }
+
+    @Override
+    public void laCrosseTxParsed(LaCrosseTx2Message laCrosseTx2Msg) {
+        count++;
+    }
+
+}
@@ -21,7 +21,11 @@
  */
 package de.ibapl.fhz4j.parser.cul;
 
+import de.ibapl.fhz4j.api.LatencyHistogram;
 import de.ibapl.fhz4j.api.Message;
+import de.ibapl.fhz4j.api.ParseFailure;
+import de.ibapl.fhz4j.api.ParseFailureCounters;
+import de.ibapl.fhz4j.api.ParseFailureReason;
 import de.ibapl.fhz4j.api.Protocol;
 import de.ibapl.fhz4j.api.Response;
 import de.ibapl.fhz4j.cul.CulEobMessage;
@@ -50,6 +54,8 @@ import de.ibapl.fhz4j.protocol.fs20.FS20Message;
 import de.ibapl.fhz4j.protocol.hms.HmsMessage;
 import de.ibapl.fhz4j.protocol.lacrosse.tx2.LaCrosseTx2Message;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
 import java.util.EnumSet;
 import java.util.Set;
@@ -59,6 +65,7 @@ import org.junit.jupiter.api.Assertions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -409,6 +416,135 @@ ation: PT10.087149S
         assertNotNull(fhtMessage);
     }
 
+    @Test
+    public void decodeByteBuffer() {
+        final byte[] data = "T3B753101FD\r\nH7758005282720F\r\nvr18067AEC067AEC1F0903FF057D\r\nLOVF\r\nT0203447901FA\r\n".getBytes(StandardCharsets.US_ASCII);
+        //feed in small chunks, so message boundaries do not match the buffer boundaries
+        for (int i = 0; i < data.length; i += 5) {
+            final ByteBuffer buffer = ByteBuffer.wrap(data, i, Math.min(5, data.length - i));
+            parser.parse(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        assertNull(throwable);
+        Fht80TfMessageTest.assertTfMessage(fht80TfMessage, 3896625, false, Fht80TfValue.WINDOW_INTERNAL_OPEN);
+        assertNotNull(hmsMsg);
+        assertNotNull(evoHomeMsg);
+        assertEquals(CulLovfMessage.LOVF, culMessage);
+        assertNotNull(fhtMessage);
+        assertEquals(203, fhtMessage.housecode);
+        assertTrue(parser.isIdle());
+    }
+
+    @Test
+    public void decodeCulAnswerWithinMessageByteBuffer() {
+        parser.parse(ByteBuffer.wrap("vr18067Ava\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(throwable);
+        assertEquals(Protocol.EVO_HOME, receiveEnabled);
+        assertTrue(parser.isIdle());
+
+        parser.parse(ByteBuffer.wrap("T3B75? (~ is unknown) Use one of A B\r\nT3B753101FD\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(throwable);
+        assertEquals("? (~ is unknown) Use one of A B", helpMessage);
+        Fht80TfMessageTest.assertTfMessage(fht80TfMessage, 3896625, false, Fht80TfValue.WINDOW_INTERNAL_OPEN);
+        assertTrue(parser.isIdle());
+    }
+
+    @Test
+    public void decodeByteArray() {
+        final byte[] data = "xxT370A42690406\r\nT370A43690106\r\nxx".getBytes(StandardCharsets.US_ASCII);
+        parser.parse(data, 2, data.length - 4);
+        assertNull(throwable);
+        assertNotNull(fhtPartialMessage);
+        assertNotNull(fhtMessage);
+        assertEquals(5510, fhtMessage.housecode);
+    }
+
+    @Test
+    public void decodeLinesAfterGarbage() {
+        //the first line is truncated garbage, the rest must be decoded anyway
+        final byte[] data = "T3B75\r\nH7758005282720F\r\nT3B753101FD\r\n".getBytes(StandardCharsets.US_ASCII);
+        parser.parse(ByteBuffer.wrap(data));
+        assertNull(throwable);
+        Fht80TfMessageTest.assertTfMessage(fht80TfMessage, 3896625, false, Fht80TfValue.WINDOW_INTERNAL_OPEN);
+        assertEquals(-75.5, signalStrength, Double.MIN_NORMAL);
+        assertNotNull(hmsMsg);
+        assertTrue(parser.isIdle());
+
+        //the offending line is reported and the next line is decoded
+        parser.parse(ByteBuffer.wrap("T3B75310XFD\r\nLOVF\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(ParseFailureReason.INVALID_HEX, ((ParseFailure) throwable).getReason());
+        assertEquals(CulLovfMessage.LOVF, culMessage);
+        assertTrue(parser.isIdle());
+    }
+
+    @Test
+    public void countParseFailures() {
+        final ParseFailureCounters counters = parser.getParseFailureCounters();
+        parser.setReuseParseFailures(true);
+        //unknown TF value 0x55
+        parser.parse(ByteBuffer.wrap("T3B753155FD\r\n".getBytes(StandardCharsets.US_ASCII)));
+        final ParseFailure failure = (ParseFailure) throwable;
+        assertEquals(ParseFailureReason.UNKNOWN_VALUE, failure.getReason());
+        assertEquals(0x55, failure.getOffendingByte());
+        assertEquals(0, failure.getStackTrace().length);
+        assertTrue(parser.isIdle());
+
+        throwable = null;
+        parser.parse(ByteBuffer.wrap("T3B753166FD\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertSame(failure, throwable);
+        assertEquals(0x66, failure.getOffendingByte());
+
+        throwable = null;
+        parser.parse(ByteBuffer.wrap("T3B75310XFD\r\n".getBytes(StandardCharsets.US_ASCII)));
+        final ParseFailure invalidHex = (ParseFailure) throwable;
+        assertEquals(ParseFailureReason.INVALID_HEX, invalidHex.getReason());
+        assertEquals('X', invalidHex.getOffendingByte());
+        assertEquals(0, invalidHex.getStackTrace().length);
+        assertTrue(parser.isIdle());
+
+        throwable = null;
+        parser.parse(ByteBuffer.wrap("T3B753101F\r\n".getBytes(StandardCharsets.US_ASCII)));
+        assertSame(invalidHex, throwable);
+        assertEquals(ParseFailureReason.INVALID_LENGTH, invalidHex.getReason());
+        assertTrue(parser.isIdle());
+
+        assertEquals(2, counters.getCount(ParseFailureReason.UNKNOWN_VALUE));
+        assertEquals(1, counters.getCount(ParseFailureReason.INVALID_HEX));
+        assertEquals(1, counters.getCount(ParseFailureReason.INVALID_LENGTH));
+        assertEquals(4, counters.getCount());
+        counters.reset();
+        assertEquals(0, counters.getCount());
+    }
+
+    @Test
+    public void receiveTimestamps() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        parser.setLatencyHistogram(histogram);
+        final long readNanos = System.nanoTime() - 5_000_000;
+        parser.setReadTime(readNanos, 1234L);
+        decode("H7758005282720F\r\nLOVF\r\n");
+        assertNotNull(hmsMsg);
+        assertEquals(readNanos, hmsMsg.receivedNanos);
+        assertEquals(1234L, hmsMsg.receivedMillis);
+        assertTrue(hmsMsg.getLatencyNanos() >= 5_000_000);
+        assertTrue(hmsMsg.dispatchedMillis > 0);
+        assertEquals(1, histogram.getCount(Protocol.HMS));
+        assertEquals(0, histogram.getCount(Protocol.CUL));
+        assertTrue(histogram.getPercentileMicros(Protocol.HMS, 50) >= 5_000);
+    }
+
+    @Test
+    public void recordLatencyOncePerFrame() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        parser.setLatencyHistogram(histogram);
+        decode("T0401606912EF\r\nT0401616901EF\r\nT0401626911EF\r\nT040163690BEE\r\n");
+        assertEquals(4, histogram.getCount(Protocol.FHT));
+        decode("T0401646930EF\r\n");
+        assertNotNull(fhtPartialMessage);
+        assertNotNull(fhtMessage);
+        assertEquals(5, histogram.getCount(Protocol.FHT));
+    }
+
     @Override
     public void emDataParsed(EmMessage emMsg) {
         this.emMsg = emMsg;
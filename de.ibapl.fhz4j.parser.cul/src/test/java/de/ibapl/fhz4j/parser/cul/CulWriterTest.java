@@ -22,10 +22,23 @@
 package de.ibapl.fhz4j.parser.cul;
 
 import de.ibapl.fhz4j.writer.cul.CulWriter;
+import de.ibapl.fhz4j.cul.CulFhtDeviceOutBufferContentRequest;
+import de.ibapl.fhz4j.cul.CulGetFirmwareVersionRequest;
+import de.ibapl.fhz4j.cul.CulGetHardwareVersionRequest;
+import de.ibapl.fhz4j.cul.CulGetSlowRfSettingsRequest;
+import de.ibapl.fhz4j.cul.CulRemainingFhtDeviceOutBufferSizeRequest;
+import de.ibapl.fhz4j.cul.CulRequest;
+import de.ibapl.fhz4j.cul.CulSetSlowRfSettingsRequest;
 import de.ibapl.fhz4j.cul.SlowRfFlag;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.EnumSet;
+import java.util.Queue;
 import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -36,9 +49,77 @@ import org.junit.jupiter.api.Test;
  */
 public class CulWriterTest {
 
+    static class CapturingChannel implements WritableByteChannel {
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        @Override
+        public int write(ByteBuffer src) {
+            final int result = src.remaining();
+            while (src.hasRemaining()) {
+                os.write(src.get());
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        String written() {
+            final String result = os.toString(StandardCharsets.US_ASCII);
+            os.reset();
+            return result;
+        }
+
+    }
+
     public CulWriterTest() {
     }
 
+    @Test
+    public void testWriteCulRequests() throws Exception {
+        CapturingChannel wbc = new CapturingChannel();
+        CulWriter instance = new CulWriter(wbc, 64);
+        Queue<CulRequest> requests = new ArrayDeque<>();
+        requests.add(new CulGetSlowRfSettingsRequest());
+        requests.add(new CulSetSlowRfSettingsRequest(EnumSet.of(SlowRfFlag.REPORT_PACKAGE, SlowRfFlag.WITH_RSSI)));
+        requests.add(new CulFhtDeviceOutBufferContentRequest());
+        requests.add(new CulRemainingFhtDeviceOutBufferSizeRequest());
+        requests.add(new CulGetFirmwareVersionRequest());
+        requests.add(new CulGetHardwareVersionRequest());
+        instance.writeCulRequests(requests);
+        assertEquals("X\r\nX21\r\nT02\r\nT03\r\nV\r\nVH\r\n", wbc.written());
+
+        // the shared templates must survive repeated use
+        instance.writeCulRequest(new CulGetHardwareVersionRequest());
+        instance.writeCulRequest(new CulGetHardwareVersionRequest());
+        assertEquals("VH\r\nVH\r\n", wbc.written());
+        instance.close();
+    }
+
+    @Test
+    public void testPutHex() throws Exception {
+        CapturingChannel wbc = new CapturingChannel();
+        CulWriter instance = new CulWriter(wbc, 64);
+        instance.putByte((byte) 0xA5);
+        instance.putShort((short) 0xF00D);
+        instance.putInt(0x0123CDEF);
+        instance.putBytes(new byte[]{0x00, (byte) 0xFF, 0x7F, (byte) 0x80});
+        instance.putBytes(new byte[]{0x01, 0x02, 0x03, 0x04}, 1, 2);
+        ByteBuffer bb = ByteBuffer.wrap(new byte[]{(byte) 0xBE, (byte) 0xEF});
+        instance.putBytes(bb);
+        instance.doWrite();
+        assertEquals("A5F00D0123CDEF00FF7F800203BEEF", wbc.written());
+        assertEquals(0, bb.remaining());
+        instance.close();
+    }
+
     /**
      * Test of initFhz method, of class FhzWriter.
      */
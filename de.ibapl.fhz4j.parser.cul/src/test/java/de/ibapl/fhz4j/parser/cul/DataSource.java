@@ -22,70 +22,28 @@
 package de.ibapl.fhz4j.parser.cul;
 
 import de.ibapl.fhz4j.parser.api.Parser;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class DataSource {
 
-    private final String data;
+    private final byte[] data;
 
     public DataSource(String data) {
-        this.data = data;
-    }
-
-    private byte char2Byte(char c) throws IllegalArgumentException {
-        return switch (c) {
-            case '0' ->
-                0x00;
-            case '1' ->
-                0x01;
-            case '2' ->
-                0x02;
-            case '3' ->
-                0x03;
-            case '4' ->
-                0x04;
-            case '5' ->
-                0x05;
-            case '6' ->
-                0x06;
-            case '7' ->
-                0x07;
-            case '8' ->
-                0x08;
-            case '9' ->
-                0x09;
-            case 'A' ->
-                0x0a;
-            case 'B' ->
-                0x0b;
-            case 'C' ->
-                0x0c;
-            case 'D' ->
-                0x0d;
-            case 'E' ->
-                0x0e;
-            case 'F' ->
-                0x0f;
-            default ->
-                throw new IllegalArgumentException("Not a Number: " + c);
-        };
+        // skip formating white spaces...
+        final ByteBuffer src = ByteBuffer.wrap(data.replace(" ", "").getBytes(StandardCharsets.US_ASCII));
+        final byte[] decoded = new byte[src.remaining() / 2];
+        final int length = AbstractCulParser.decodeHex(src, decoded, 0, decoded.length);
+        if (src.hasRemaining()) {
+            throw new IllegalArgumentException("Not a Number: " + (char) src.get());
+        }
+        this.data = length == decoded.length ? decoded : Arrays.copyOf(decoded, length);
     }
 
     public void iterate(Parser parser) {
-        int i = 0;
-        while (i < data.length() - 1) {
-            // skip formating white spaces...
-            while (data.charAt(i) == ' ' && i < data.length()) {
-                i++;
-            }
-            if (i < data.length()) {
-                int i1 = i + 1;
-                while (data.charAt(i1) == ' ' && i1 < data.length()) {
-                    i1++;
-                }
-                final byte b = (byte) ((char2Byte(data.charAt(i)) << 4) | char2Byte(data.charAt(i1)));
-                parser.parse(b);
-                i = i1 + 1;
-            }
+        for (byte b : data) {
+            parser.parse(b);
         }
     }
 }
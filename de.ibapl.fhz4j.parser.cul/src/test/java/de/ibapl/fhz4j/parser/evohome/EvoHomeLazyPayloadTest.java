@@ -0,0 +1,104 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.evohome;
+
+import de.ibapl.fhz4j.parser.api.ParserListener;
+import de.ibapl.fhz4j.parser.cul.DataSource;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeLazyMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMessage;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneNameRequestMessage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class EvoHomeLazyPayloadTest implements ParserListener<EvoHomeMessage> {
+
+    private final EvoHomeParser parser = new EvoHomeParser(this);
+    private EvoHomeMessage evoHomeMessage;
+
+    private void decode(String s) {
+        evoHomeMessage = null;
+        parser.init();
+        new DataSource(s).iterate(parser);
+    }
+
+    @Test
+    public void decodeOnAccess() {
+        parser.setLazyPayloadDecoding(true);
+        decode("0C 131589 067AEC 0004 02 01 00");
+        final EvoHomeLazyMessage lazyMessage = (EvoHomeLazyMessage) evoHomeMessage;
+        assertEquals(EvoHomeCommand.ZONE_NAME, lazyMessage.command);
+        assertEquals(EvoHomeMsgType.REQUEST, lazyMessage.msgType);
+        assertEquals(0x131589, lazyMessage.deviceId1.id);
+        assertEquals(0x067AEC, lazyMessage.deviceId2.id);
+        assertFalse(lazyMessage.isPayloadDecoded());
+
+        final ZoneNameRequestMessage msg = (ZoneNameRequestMessage) lazyMessage.getPayloadMessage();
+        assertTrue(lazyMessage.isPayloadDecoded());
+        assertSame(msg, lazyMessage.getPayloadMessage());
+        assertEquals((byte) 0x01, msg.zoneId);
+        assertEquals(lazyMessage.deviceId1, msg.deviceId1);
+        assertEquals(lazyMessage.deviceId2, msg.deviceId2);
+
+        parser.setLazyPayloadDecoding(false);
+        decode("0C 131589 067AEC 0004 02 01 00");
+        assertEquals(msg, evoHomeMessage);
+    }
+
+    @Test
+    public void payloadErrorOnAccess() {
+        parser.setLazyPayloadDecoding(true);
+        decode("0C 131589 067AEC 0004 02 01 01");
+        final EvoHomeLazyMessage lazyMessage = (EvoHomeLazyMessage) evoHomeMessage;
+        assertThrows(IllegalArgumentException.class, lazyMessage::getPayloadMessage);
+    }
+
+    @Override
+    public void success(EvoHomeMessage evoHomeMessage) {
+        this.evoHomeMessage = evoHomeMessage;
+    }
+
+    @Override
+    public void successPartial(EvoHomeMessage fhzMessage) {
+        throw new RuntimeException("No partial message expected.");
+    }
+
+    @Override
+    public void successPartialAssembled(EvoHomeMessage fhzMessage) {
+        throw new RuntimeException("No partial message expected.");
+    }
+
+    @Override
+    public void fail(Throwable t) {
+        throw new RuntimeException(t);
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.evohome;
+
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeCommand;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgParam0;
+import de.ibapl.fhz4j.protocol.evohome.EvoHomeMsgType;
+import de.ibapl.fhz4j.protocol.evohome.ZoneTemperature;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModeMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractControllerModePayloadMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.AbstractZoneSetpointOverrideMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ControllerModeInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneSetpointOverrideInformationMessage;
+import de.ibapl.fhz4j.protocol.evohome.messages.ZoneTemperatureInformationMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class EvoHomePayloadSchemaTest {
+
+    private static byte[] bytes(int... values) {
+        final byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    public void allCommandsHaveASchema() {
+        for (EvoHomeCommand command : EvoHomeCommand.values()) {
+            boolean found = false;
+            for (EvoHomeMsgType msgType : EvoHomeMsgType.values()) {
+                found |= EvoHomePayloadSchemas.get(command, msgType) != null;
+            }
+            assertTrue(found, command.name());
+        }
+    }
+
+    @Test
+    public void repeatedElements() {
+        final byte[] data = bytes(0xff, 0x00, 0x07, 0x08, 0x01, 0x01, 0x7f, 0xff);
+        final ZoneTemperatureInformationMessage msg = (ZoneTemperatureInformationMessage) EvoHomePayloadSchemas.get(EvoHomeCommand.ZONE_TEMPERATURE, EvoHomeMsgType.INFORMATION)
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._8, data, 1, 6);
+        final List<ZoneTemperature> zoneTemperatures = msg.zoneTemperatures;
+        assertEquals(2, zoneTemperatures.size());
+        assertEquals((byte) 0x00, zoneTemperatures.get(0).zone);
+        assertEquals((short) 0x0708, zoneTemperatures.get(0).centiDegrees);
+        assertEquals((byte) 0x01, zoneTemperatures.get(1).zone);
+        assertEquals((short) 0x017f, zoneTemperatures.get(1).centiDegrees);
+
+        assertThrows(IllegalArgumentException.class, () -> EvoHomePayloadSchemas.get(EvoHomeCommand.ZONE_TEMPERATURE, EvoHomeMsgType.INFORMATION)
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._8, data, 0, 5));
+    }
+
+    @Test
+    public void optionalTail() {
+        final EvoHomePayloadSchema<?> schema = EvoHomePayloadSchemas.get(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, EvoHomeMsgType.INFORMATION);
+        ZoneSetpointOverrideInformationMessage msg = (ZoneSetpointOverrideInformationMessage) schema
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._C, bytes(0x01, 0x07, 0xd0, 0x02, 0x00, 0x00, 0x3c), 0, 7);
+        assertEquals((byte) 0x01, msg.zone_id);
+        assertEquals((short) 2000, msg.setpointCentiDegrees);
+        assertEquals(AbstractZoneSetpointOverrideMessage.SetpointOverrideMode.PERMANENT_OVERRIDE, msg.zone_mode);
+        assertEquals(Duration.ofMinutes(60), msg.countdown);
+        assertNull(msg.time_until);
+
+        msg = (ZoneSetpointOverrideInformationMessage) schema
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._C, bytes(0x01, 0x07, 0xd0, 0x04, 0xff, 0xff, 0xff, 0x1e, 0x11, 0x0c, 0x0a, 0x07, 0xea), 0, 13);
+        assertNotNull(msg.time_until);
+        assertEquals(LocalDateTime.of(2026, 10, 12, 17, 30), msg.time_until);
+
+        assertThrows(IllegalArgumentException.class, () -> schema
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._C, bytes(0x01, 0x07, 0xd0, 0x02, 0x00, 0x00, 0x3c, 0x00), 0, 8));
+    }
+
+    @Test
+    public void unsetTimeAndDate() {
+        final EvoHomePayloadSchema<?> overrideSchema = EvoHomePayloadSchemas.get(EvoHomeCommand.ZONE_SETPOINT_OVERRIDE, EvoHomeMsgType.INFORMATION);
+        assertThrows(IllegalArgumentException.class, () -> overrideSchema
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._C, bytes(0x01, 0x07, 0xd0, 0x04, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff), 0, 13));
+
+        final ControllerModeInformationMessage msg = (ControllerModeInformationMessage) EvoHomePayloadSchemas.get(EvoHomeCommand.CONTROLLER_MODE, EvoHomeMsgType.INFORMATION)
+                .decode(EvoHomeMsgType.INFORMATION, EvoHomeMsgParam0._C, bytes(0x00, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0x00), 0, 8);
+        assertEquals(AbstractControllerModeMessage.Mode.NORMAL, msg.mode);
+        assertNull(msg.dateTime);
+        assertEquals(AbstractControllerModePayloadMessage.ProgrammType.PERMANENT, msg.programm_type);
+    }
+
+    @Test
+    public void expectedValue() {
+        final EvoHomePayloadSchema<?> schema = EvoHomePayloadSchemas.get(EvoHomeCommand.ZONE_NAME, EvoHomeMsgType.REQUEST);
+        assertNotNull(schema.decode(EvoHomeMsgType.REQUEST, EvoHomeMsgParam0._8, bytes(0x01, 0x00), 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> schema.decode(EvoHomeMsgType.REQUEST, EvoHomeMsgParam0._8, bytes(0x01, 0x01), 0, 2));
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.parser.fht;
+
+import de.ibapl.fhz4j.protocol.fht.Fht80bRawMessage;
+import de.ibapl.fhz4j.protocol.fht.FhtProperty;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class FhtPartialMessagesTest {
+
+    private long now;
+    private final FhtPartialMessages partialMessages = new FhtPartialMessages(() -> now);
+
+    private static Fht80bRawMessage raw(int housecode, FhtProperty property, int value) {
+        return new Fht80bRawMessage((short) housecode, property, (byte) 0x69, true, true, (byte) value);
+    }
+
+    @Test
+    public void assemble() {
+        final Fht80bRawMessage low = raw(302, FhtProperty.MEASURED_LOW, 1);
+        final Fht80bRawMessage high = raw(302, FhtProperty.MEASURED_HIGH, 1);
+        partialMessages.put(low);
+        assertNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        partialMessages.put(raw(303, FhtProperty.MEASURED_HIGH, 2));
+        assertNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        partialMessages.put(high);
+        final Fht80bRawMessage[] parts = partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts);
+        assertNotNull(parts);
+        assertSame(low, parts[FhtProperty.MEASURED_LOW.ordinal()]);
+        assertSame(high, parts[FhtProperty.MEASURED_HIGH.ordinal()]);
+        assertEquals(2, partialMessages.size());
+
+        partialMessages.remove((short) 302, FhtProperty.MEASURED_TEMP.parts);
+        assertNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        assertEquals(1, partialMessages.size());
+    }
+
+    @Test
+    public void expire() {
+        partialMessages.setTimeout(Duration.ofSeconds(10));
+        partialMessages.put(raw(302, FhtProperty.MEASURED_LOW, 1));
+        now += Duration.ofSeconds(11).toNanos();
+        partialMessages.put(raw(302, FhtProperty.MEASURED_HIGH, 1));
+        assertNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        assertEquals(1L, partialMessages.getExpiredCount());
+
+        partialMessages.put(raw(302, FhtProperty.MEASURED_LOW, 1));
+        partialMessages.put(raw(302, FhtProperty.MEASURED_HIGH, 1));
+        assertNotNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        assertEquals(1L, partialMessages.getExpiredCount());
+    }
+
+    @Test
+    public void wrongOrder() {
+        partialMessages.put(raw(302, FhtProperty.MEASURED_HIGH, 1));
+        partialMessages.put(raw(302, FhtProperty.MEASURED_LOW, 1));
+        assertNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+        partialMessages.put(raw(302, FhtProperty.MEASURED_HIGH, 1));
+        assertNotNull(partialMessages.get((short) 302, FhtProperty.MEASURED_TEMP.parts));
+    }
+
+    @Test
+    public void sizeCap() {
+        partialMessages.setTimeout(Duration.ofSeconds(10));
+        partialMessages.setMaxHousecodes(40);
+        for (int i = 0; i < 40; i++) {
+            partialMessages.put(raw(i * 100 + i, FhtProperty.MEASURED_LOW, i));
+            now++;
+        }
+        assertEquals(40, partialMessages.size());
+        // all but the first one are still valid, the oldest is evicted
+        partialMessages.put(raw(9999, FhtProperty.MEASURED_LOW, 1));
+        assertEquals(40, partialMessages.size());
+        assertEquals(1L, partialMessages.getEvictedCount());
+        partialMessages.put(raw(0, FhtProperty.MEASURED_HIGH, 1));
+        assertNull(partialMessages.get((short) 0, FhtProperty.MEASURED_TEMP.parts));
+        assertEquals(2L, partialMessages.getEvictedCount());
+
+        // now all are expired, so the new one makes room without evicting
+        now += Duration.ofSeconds(11).toNanos();
+        partialMessages.put(raw(9898, FhtProperty.MEASURED_LOW, 1));
+        assertEquals(1, partialMessages.size());
+        assertEquals(40L, partialMessages.getExpiredCount());
+        assertEquals(2L, partialMessages.getEvictedCount());
+        for (int i = 2; i < 40; i++) {
+            assertNull(partialMessages.get((short) (i * 100 + i), FhtProperty.MEASURED_TEMP.parts));
+        }
+        partialMessages.put(raw(9898, FhtProperty.MEASURED_HIGH, 1));
+        assertNotNull(partialMessages.get((short) 9898, FhtProperty.MEASURED_TEMP.parts));
+    }
+
+    @Test
+    public void shrink() {
+        for (int i = 0; i < 10; i++) {
+            partialMessages.put(raw(i, FhtProperty.MEASURED_LOW, i));
+            now++;
+        }
+        partialMessages.setMaxHousecodes(3);
+        assertEquals(3, partialMessages.size());
+        assertEquals(7L, partialMessages.getEvictedCount());
+        for (int i = 7; i < 10; i++) {
+            partialMessages.put(raw(i, FhtProperty.MEASURED_HIGH, i));
+            assertNotNull(partialMessages.get((short) i, FhtProperty.MEASURED_TEMP.parts));
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.protocol.evohome;
+
+import java.math.BigDecimal;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class ZoneTemperatureTest {
+
+    @Test
+    public void toBigDecimal() {
+        assertEquals(new BigDecimal("25"), ZoneTemperature.toBigDecimal((short) 2500));
+        assertEquals(new BigDecimal("11.5"), ZoneTemperature.toBigDecimal((short) 1150));
+        assertEquals(new BigDecimal("25.54"), ZoneTemperature.toBigDecimal((short) 2554));
+        assertEquals(new BigDecimal("-0.05"), ZoneTemperature.toBigDecimal((short) -5));
+        assertNull(ZoneTemperature.toBigDecimal(ZoneTemperature.UNAVAILABLE));
+    }
+
+    @Test
+    public void toCentiDegrees() {
+        assertEquals((short) 2500, ZoneTemperature.toCentiDegrees(new BigDecimal("25")));
+        assertEquals((short) 1150, ZoneTemperature.toCentiDegrees(new BigDecimal("11.50")));
+        assertEquals(ZoneTemperature.UNAVAILABLE, ZoneTemperature.toCentiDegrees(null));
+    }
+
+    @Test
+    public void lazyTemperature() {
+        final ZoneTemperature instance = new ZoneTemperature((byte) 1);
+        assertFalse(instance.isAvailable());
+        assertNull(instance.getTemperature());
+        instance.centiDegrees = 2342;
+        final BigDecimal temperature = instance.getTemperature();
+        assertEquals(new BigDecimal("23.42"), temperature);
+        assertSame(temperature, instance.getTemperature());
+        instance.setTemperature(new BigDecimal("18"));
+        assertEquals((short) 1800, instance.centiDegrees);
+        assertEquals(new BigDecimal("18"), instance.getTemperature());
+        assertEquals(new ZoneTemperature((byte) 1, (short) 1800), instance);
+    }
+
+}
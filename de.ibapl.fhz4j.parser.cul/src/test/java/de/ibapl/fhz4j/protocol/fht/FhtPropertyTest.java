@@ -0,0 +1,69 @@
+/*
+ * FHZ4J - Drivers for the Wireless FS20, FHT and HMS protocol https://github.com/aploese/fhz4j/
+ * Copyright (C) 2024, Arne Plöse and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package de.ibapl.fhz4j.protocol.fht;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Arne Plöse
+ */
+public class FhtPropertyTest {
+
+    @Test
+    public void roundTripAllCodes() {
+        int known = 0;
+        for (int i = 0; i < 256; i++) {
+            final FhtProperty prop = FhtProperty.fromCode((byte) i);
+            if (prop != null) {
+                known++;
+                assertEquals(i, prop.getCode(), prop.name());
+                assertEquals((byte) i, FhtProperty.toCode(prop), prop.name());
+            }
+        }
+        assertEquals(62, known);
+    }
+
+    @Test
+    public void roundTripAllProperties() {
+        for (FhtProperty prop : FhtProperty.values()) {
+            if (prop.getCode() == FhtProperty.NO_CODE) {
+                assertThrows(UnsupportedOperationException.class, () -> FhtProperty.toCode(prop));
+            } else {
+                assertEquals(prop, FhtProperty.fromCode(FhtProperty.toCode(prop)));
+            }
+        }
+    }
+
+    @Test
+    public void knownCodes() {
+        assertEquals(FhtProperty.VALVE, FhtProperty.fromCode((byte) 0x00));
+        assertEquals(FhtProperty.DESIRED_TEMP, FhtProperty.fromCode((byte) 0x41));
+        assertEquals(FhtProperty.WINDOW_OPEN_TEMP, FhtProperty.fromCode((byte) 0x8a));
+        assertNull(FhtProperty.fromCode((byte) 0xff));
+        assertEquals((byte) 0x7e, FhtProperty.toCode(FhtProperty.END_XMIT));
+    }
+
+}